@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.api;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counts the JNDI lookups and the facade calls made through the {@link FacadeProvider}.
+ *
+ * Counting only increments an {@link AtomicLong}; the rates are calculated when they are read, averaged over the
+ * interval since the previous calculation, as soon as it is at least {@value #RATE_INTERVAL_MILLIS} ms long.
+ */
+public class FacadeLookupMetrics implements FacadeLookupMetricsMXBean {
+
+	public static final String OBJECT_NAME_PREFIX = "de.symeda.sormas:type=FacadeLookups,module=";
+	public static final long RATE_INTERVAL_MILLIS = 60_000;
+
+	private final AtomicLong jndiLookups = new AtomicLong();
+	private final AtomicLong facadeCalls = new AtomicLong();
+
+	private long intervalStart = System.currentTimeMillis();
+	private long intervalStartJndiLookups;
+	private long intervalStartFacadeCalls;
+	private double jndiLookupsPerSecond;
+	private double facadeCallsPerSecond;
+
+	void countJndiLookup() {
+		jndiLookups.incrementAndGet();
+	}
+
+	void countFacadeCall() {
+		facadeCalls.incrementAndGet();
+	}
+
+	@Override
+	public long getJndiLookupCount() {
+		return jndiLookups.get();
+	}
+
+	@Override
+	public long getFacadeCallCount() {
+		return facadeCalls.get();
+	}
+
+	@Override
+	public synchronized double getJndiLookupsPerSecond() {
+		updateRates();
+		return jndiLookupsPerSecond;
+	}
+
+	@Override
+	public synchronized double getFacadeCallsPerSecond() {
+		updateRates();
+		return facadeCallsPerSecond;
+	}
+
+	private void updateRates() {
+
+		long now = System.currentTimeMillis();
+		long elapsed = now - intervalStart;
+		if (elapsed < RATE_INTERVAL_MILLIS) {
+			return;
+		}
+
+		long currentJndiLookups = jndiLookups.get();
+		long currentFacadeCalls = facadeCalls.get();
+		jndiLookupsPerSecond = (currentJndiLookups - intervalStartJndiLookups) * 1000.0 / elapsed;
+		facadeCallsPerSecond = (currentFacadeCalls - intervalStartFacadeCalls) * 1000.0 / elapsed;
+		intervalStart = now;
+		intervalStartJndiLookups = currentJndiLookups;
+		intervalStartFacadeCalls = currentFacadeCalls;
+	}
+
+	/**
+	 * Registers the metrics as MBean for the given module (e.g. "ui"). An MBean left over by a previous
+	 * deployment is replaced.
+	 */
+	public void registerMBean(String module) {
+
+		try {
+			MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = new ObjectName(OBJECT_NAME_PREFIX + module);
+			if (mBeanServer.isRegistered(objectName)) {
+				mBeanServer.unregisterMBean(objectName);
+			}
+			mBeanServer.registerMBean(this, objectName);
+		} catch (JMException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+	}
+
+	public void unregisterMBean(String module) {
+
+		try {
+			MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = new ObjectName(OBJECT_NAME_PREFIX + module);
+			if (mBeanServer.isRegistered(objectName)) {
+				mBeanServer.unregisterMBean(objectName);
+			}
+		} catch (JMException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+	}
+}
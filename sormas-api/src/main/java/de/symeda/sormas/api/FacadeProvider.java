@@ -17,6 +17,14 @@
  *******************************************************************************/
 package de.symeda.sormas.api;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.ejb.NoSuchEJBException;
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
 
@@ -51,12 +59,22 @@ import de.symeda.sormas.api.user.UserFacade;
 import de.symeda.sormas.api.user.UserRoleConfigFacade;
 import de.symeda.sormas.api.visit.VisitFacade;
 
+/**
+ * Provides the facades of the backend.
+ *
+ * The facades are typed proxies that are created once per facade class. A proxy looks up its EJB with its first
+ * call and keeps it, so getting a facade inside of loops doesn't cost a JNDI lookup. When the EJB is no longer
+ * available (e.g. after a redeployment of the backend), it is looked up again.
+ */
 public class FacadeProvider {
 
 	private static final String JNDI_PREFIX = "java:global/sormas-ear/sormas-backend/";
 
 	private final InitialContext ic;
 
+	private final ConcurrentMap<Class<?>, FacadeProxyHandler> facadeProxyHandlers = new ConcurrentHashMap<>();
+	private final FacadeLookupMetrics lookupMetrics = new FacadeLookupMetrics();
+
 	private static FacadeProvider instance;
 
 	protected FacadeProvider() {
@@ -75,127 +93,156 @@ public class FacadeProvider {
 	}
 
 	public static CaseFacade getCaseFacade() {
-		return get().lookupEjbRemote(CaseFacade.class);
+		return get().getFacade(CaseFacade.class);
 	}
 
 	public static ContactFacade getContactFacade() {
-		return get().lookupEjbRemote(ContactFacade.class);
+		return get().getFacade(ContactFacade.class);
 	}
 
 	public static EventFacade getEventFacade() {
-		return get().lookupEjbRemote(EventFacade.class);
+		return get().getFacade(EventFacade.class);
 	}
 
 	public static EventParticipantFacade getEventParticipantFacade() {
-		return get().lookupEjbRemote(EventParticipantFacade.class);
+		return get().getFacade(EventParticipantFacade.class);
 	}
 
 	public static VisitFacade getVisitFacade() {
-		return get().lookupEjbRemote(VisitFacade.class);
+		return get().getFacade(VisitFacade.class);
 	}
 
 	public static PersonFacade getPersonFacade() {
-		return get().lookupEjbRemote(PersonFacade.class);
+		return get().getFacade(PersonFacade.class);
 	}
 
 	public static TaskFacade getTaskFacade() {
-		return get().lookupEjbRemote(TaskFacade.class);
+		return get().getFacade(TaskFacade.class);
 	}
 
 	public static SampleFacade getSampleFacade() {
-		return get().lookupEjbRemote(SampleFacade.class);
+		return get().getFacade(SampleFacade.class);
 	}
 
 	public static SampleTestFacade getSampleTestFacade() {
-		return get().lookupEjbRemote(SampleTestFacade.class);
+		return get().getFacade(SampleTestFacade.class);
 	}
 
 	public static SymptomsFacade getSymptomsFacade() {
-		return get().lookupEjbRemote(SymptomsFacade.class);
+		return get().getFacade(SymptomsFacade.class);
 	}
 
 	public static FacilityFacade getFacilityFacade() {
-		return get().lookupEjbRemote(FacilityFacade.class);
+		return get().getFacade(FacilityFacade.class);
 	}
 
 	public static RegionFacade getRegionFacade() {
-		return get().lookupEjbRemote(RegionFacade.class);
+		return get().getFacade(RegionFacade.class);
 	}
 
 	public static DistrictFacade getDistrictFacade() {
-		return get().lookupEjbRemote(DistrictFacade.class);
+		return get().getFacade(DistrictFacade.class);
 	}
 
 	public static CommunityFacade getCommunityFacade() {
-		return get().lookupEjbRemote(CommunityFacade.class);
+		return get().getFacade(CommunityFacade.class);
 	}
 
 	public static UserFacade getUserFacade() {
-		return get().lookupEjbRemote(UserFacade.class);
+		return get().getFacade(UserFacade.class);
 	}
 
 	public static UserRoleConfigFacade getUserRoleConfigFacade() {
-		return get().lookupEjbRemote(UserRoleConfigFacade.class);
+		return get().getFacade(UserRoleConfigFacade.class);
 	}
 
 	public static HospitalizationFacade getHospitalizationFacade() {
-		return get().lookupEjbRemote(HospitalizationFacade.class);
+		return get().getFacade(HospitalizationFacade.class);
 	}
 
 	public static EpiDataFacade getEpiDataFacade() {
-		return get().lookupEjbRemote(EpiDataFacade.class);
+		return get().getFacade(EpiDataFacade.class);
 	}
 
 	public static WeeklyReportFacade getWeeklyReportFacade() {
-		return get().lookupEjbRemote(WeeklyReportFacade.class);
+		return get().getFacade(WeeklyReportFacade.class);
 	}
 
 	public static GeoShapeProvider getGeoShapeProvider() {
-		return get().lookupEjbRemote(GeoShapeProvider.class);
+		return get().getFacade(GeoShapeProvider.class);
 	}
 
 	public static OutbreakFacade getOutbreakFacade() {
-		return get().lookupEjbRemote(OutbreakFacade.class);
+		return get().getFacade(OutbreakFacade.class);
 	}
 
 	public static ConfigFacade getConfigFacade() {
-		return get().lookupEjbRemote(ConfigFacade.class);
+		return get().getFacade(ConfigFacade.class);
 	}
 
 	public static ExportFacade getExportFacade() {
-		return get().lookupEjbRemote(ExportFacade.class);
+		return get().getFacade(ExportFacade.class);
 	}
 
 	public static ImportFacade getImportFacade() {
-		return get().lookupEjbRemote(ImportFacade.class);
+		return get().getFacade(ImportFacade.class);
 	}
 
 	public static CaseClassificationFacade getCaseClassificationFacade() {
-		return get().lookupEjbRemote(CaseClassificationFacade.class);
+		return get().getFacade(CaseClassificationFacade.class);
 	}
 	
 	public static TherapyFacade getTherapyFacade() {
-		return get().lookupEjbRemote(TherapyFacade.class);
+		return get().getFacade(TherapyFacade.class);
 	}
 	
 	public static PrescriptionFacade getPrescriptionFacade() {
-		return get().lookupEjbRemote(PrescriptionFacade.class);
+		return get().getFacade(PrescriptionFacade.class);
 	}
 	
 	public static TreatmentFacade getTreatmentFacade() {
-		return get().lookupEjbRemote(TreatmentFacade.class);
+		return get().getFacade(TreatmentFacade.class);
 	}
 	
 	public static ClinicalCourseFacade getClinicalCourseFacade() {
-		return get().lookupEjbRemote(ClinicalCourseFacade.class);
+		return get().getFacade(ClinicalCourseFacade.class);
 	}
 	
 	public static ClinicalVisitFacade getClinicalVisitFacade() {
-		return get().lookupEjbRemote(ClinicalVisitFacade.class);
+		return get().getFacade(ClinicalVisitFacade.class);
 	}
 
 	public static DiseaseFacade getDiseaseFacade() {
-		return get().lookupEjbRemote(DiseaseFacade.class);
+		return get().getFacade(DiseaseFacade.class);
+	}
+
+	/**
+	 * @return the proxy of the facade; the EJB is looked up with the first call
+	 */
+	public <P> P getFacade(Class<P> facadeClass) {
+
+		FacadeProxyHandler handler = facadeProxyHandlers.get(facadeClass);
+		if (handler == null) {
+			FacadeProxyHandler newHandler = new FacadeProxyHandler(facadeClass);
+			handler = facadeProxyHandlers.putIfAbsent(facadeClass, newHandler);
+			if (handler == null) {
+				handler = newHandler;
+			}
+		}
+		return facadeClass.cast(handler.proxy);
+	}
+
+	/**
+	 * Makes all facade proxies look up their EJB again with their next call.
+	 */
+	public void invalidateLookups() {
+		for (FacadeProxyHandler handler : facadeProxyHandlers.values()) {
+			handler.target = null;
+		}
+	}
+
+	public FacadeLookupMetrics getLookupMetrics() {
+		return lookupMetrics;
 	}
 
 	@SuppressWarnings("unchecked")
@@ -210,4 +257,59 @@ public class FacadeProvider {
 	public static String buildJndiLookupName(Class<?> clazz) {
 		return JNDI_PREFIX + clazz.getSimpleName();
 	}
-}
\ No newline at end of file
+
+	private final class FacadeProxyHandler implements InvocationHandler {
+
+		private final Class<?> facadeClass;
+		private final Object proxy;
+		private volatile Object target;
+
+		private FacadeProxyHandler(Class<?> facadeClass) {
+			this.facadeClass = facadeClass;
+			this.proxy = Proxy.newProxyInstance(facadeClass.getClassLoader(), new Class<?>[] { facadeClass }, this);
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+			if (method.getDeclaringClass() == Object.class) {
+				switch (method.getName()) {
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				default:
+					return "FacadeProxy[" + facadeClass.getSimpleName() + "]";
+				}
+			}
+
+			lookupMetrics.countFacadeCall();
+			try {
+				return method.invoke(getTarget(), args);
+			} catch (InvocationTargetException e) {
+				if (!(e.getCause() instanceof NoSuchEJBException)) {
+					throw e.getCause();
+				}
+			}
+
+			// the EJB has been undeployed - look it up again and retry once
+			target = null;
+			try {
+				return method.invoke(getTarget(), args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+
+		private Object getTarget() {
+
+			Object currentTarget = target;
+			if (currentTarget == null) {
+				lookupMetrics.countJndiLookup();
+				currentTarget = lookupEjbRemote(facadeClass);
+				target = currentTarget;
+			}
+			return currentTarget;
+		}
+	}
+}
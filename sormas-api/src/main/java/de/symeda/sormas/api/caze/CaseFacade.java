@@ -26,6 +26,7 @@ import javax.ejb.Remote;
 
 import de.symeda.sormas.api.CaseMeasure;
 import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.PushResult;
 import de.symeda.sormas.api.person.PersonReferenceDto;
 import de.symeda.sormas.api.person.PresentCondition;
 import de.symeda.sormas.api.region.DistrictDto;
@@ -37,6 +38,8 @@ import de.symeda.sormas.api.statistics.StatisticsCaseCriteria;
 import de.symeda.sormas.api.statistics.StatisticsCaseSubAttribute;
 import de.symeda.sormas.api.user.UserReferenceDto;
 import de.symeda.sormas.api.utils.DataHelper.Pair;
+import de.symeda.sormas.api.utils.SortProperty;
+import de.symeda.sormas.api.utils.SyncCursor;
 import de.symeda.sormas.api.utils.ValidationRuntimeException;
 
 @Remote
@@ -44,7 +47,23 @@ public interface CaseFacade {
 
 	List<CaseDataDto> getAllActiveCasesAfter(Date date, String userUuid);
 
+	/**
+	 * Returns at most limit active cases that have been changed after the given date, ordered by change date and uuid.
+	 * The next page is retrieved by passing the cursor of the last returned case (see {@link SyncCursor#of}).
+	 */
+	List<CaseDataDto> getAllActiveCasesAfter(Date date, String userUuid, SyncCursor cursor, int limit);
+
 	List<CaseIndexDto> getIndexList(String userUuid, CaseCriteria caseCriteria);
+
+	/**
+	 * One page of the index list, sorted by the given properties of the index dto.
+	 * @param first index of the first entry; null to start with the first one
+	 * @param max maximum number of entries; null for all entries
+	 * @param sortProperties null or empty for the default order of the list
+	 */
+	List<CaseIndexDto> getIndexList(String userUuid, CaseCriteria caseCriteria, Integer first, Integer max, List<SortProperty> sortProperties);
+
+	long count(String userUuid, CaseCriteria caseCriteria);
 	
 	List<CaseExportDto> getExportList(String userUuid, CaseCriteria caseCriteria, int first, int max);
 	
@@ -55,6 +74,12 @@ public interface CaseFacade {
 	 * is saved or there is an infrastructure error (e.g. the district of the case does not belong in the region of the case).
 	 */
     CaseDataDto saveCase(CaseDataDto dto) throws ValidationRuntimeException;
+
+	/**
+	 * Saves the cases pushed by the mobile app in chunks, each chunk in a transaction of its own.
+	 * @return one result per case, in the order of the given list
+	 */
+	List<PushResult> saveCases(List<CaseDataDto> dtos);
     
     void validate(CaseDataDto dto) throws ValidationRuntimeException;
 
@@ -48,6 +48,7 @@ public class CaseIndexDto implements Serializable {
 	public static final String HEALTH_FACILITY_NAME = "healthFacilityName";
 	public static final String SURVEILLANCE_OFFICER_UUID = "surveillanceOfficerUuid";
 	public static final String OUTCOME = "outcome";
+	public static final String PENDING_TASK_COUNT = "pendingTaskCount";
 
 	private String uuid;
 	private String epidNumber;
@@ -67,12 +68,13 @@ public class CaseIndexDto implements Serializable {
 	private String healthFacilityName;
 	private String surveillanceOfficerUuid;
 	private CaseOutcome outcome;
+	private long pendingTaskCount;
 	
 	public CaseIndexDto(String uuid, String epidNumber, String personFirstName, String personLastName, Disease disease,
 			String diseaseDetails, CaseClassification caseClassification, InvestigationStatus investigationStatus,
 			PresentCondition presentCondition, Date reportDate, Date creationDate, String regionUuid, 
 			String districtUuid, String districtName, String healthFacilityUuid, String healthFacilityName, String healthFacilityDetails,
-			String surveillanceOfficerUuid, CaseOutcome outcome) {
+			String surveillanceOfficerUuid, CaseOutcome outcome, Long pendingTaskCount) {
 		this.uuid = uuid;
 		this.epidNumber = epidNumber;
 		this.personFirstName = personFirstName;
@@ -95,6 +97,7 @@ public class CaseIndexDto implements Serializable {
 		}
 		this.surveillanceOfficerUuid = surveillanceOfficerUuid;
 		this.outcome = outcome;
+		this.pendingTaskCount = pendingTaskCount != null ? pendingTaskCount : 0;
 	}
 	
 	public String getEpidNumber() {
@@ -201,6 +204,12 @@ public class CaseIndexDto implements Serializable {
 	public void setOutcome(CaseOutcome outcome) {
 		this.outcome = outcome;
 	}
+	public long getPendingTaskCount() {
+		return pendingTaskCount;
+	}
+	public void setPendingTaskCount(long pendingTaskCount) {
+		this.pendingTaskCount = pendingTaskCount;
+	}
 
 	public CaseReferenceDto toReference() {
 		return new CaseReferenceDto(getUuid(), getPersonFirstName(), getPersonLastName());
@@ -218,5 +227,20 @@ public class CaseIndexDto implements Serializable {
 	public void setUuid(String uuid) {
 		this.uuid = uuid;
 	}
-	
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		return uuid != null && uuid.equals(((CaseIndexDto) o).uuid);
+	}
+
+	@Override
+	public int hashCode() {
+		return uuid != null ? uuid.hashCode() : 0;
+	}
 }
@@ -36,4 +36,12 @@ public interface CaseClassificationFacade {
 
 	List<DiseaseClassificationCriteriaDto> getAllSince(Date changeDate);
 
+	/**
+	 * Re-evaluates the automatic classification of all cases of the disease, e.g. after the criteria have been changed.
+	 * Does nothing when the automatic case classification is disabled.
+	 * 
+	 * @return number of cases whose classification has been changed
+	 */
+	int reclassifyAll(Disease disease);
+
 }
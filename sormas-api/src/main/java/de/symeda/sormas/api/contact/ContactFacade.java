@@ -28,6 +28,7 @@ import de.symeda.sormas.api.caze.MapCaseDto;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.region.RegionReferenceDto;
 import de.symeda.sormas.api.user.UserReferenceDto;
+import de.symeda.sormas.api.utils.SortProperty;
 import de.symeda.sormas.api.visit.VisitReferenceDto;
 
 @Remote
@@ -56,6 +57,10 @@ public interface ContactFacade {
 	void deleteContact(ContactReferenceDto contactRef, String userUuid);
 	
 	List<ContactIndexDto> getIndexList(String userUuid, ContactCriteria contactCriteria);
+
+	List<ContactIndexDto> getIndexList(String userUuid, ContactCriteria contactCriteria, Integer first, Integer max, List<SortProperty> sortProperties);
+
+	long count(String userUuid, ContactCriteria contactCriteria);
 	
 	List<ContactReferenceDto> getAllByVisit(VisitReferenceDto visitRef);
 
@@ -47,6 +47,8 @@ public class ContactIndexDto implements Serializable {
 	public static final String CONTACT_OFFICER_UUID = "contactOfficerUuid";
 	public static final String NUMBER_OF_COOPERATIVE_VISITS = "numberOfCooperativeVisits";
 	public static final String NUMBER_OF_MISSED_VISITS = "numberOfMissedVisits";
+	public static final String VISIT_COUNT = "visitCount";
+	public static final String PENDING_TASK_COUNT = "pendingTaskCount";
 
 	private String uuid;
 	private PersonReferenceDto person;
@@ -64,12 +66,14 @@ public class ContactIndexDto implements Serializable {
 	private Date followUpUntil;
 	private String contactOfficerUuid;
 	private Date reportDate;
+	private int visitCount;
+	private long pendingTaskCount;
 	
 	public ContactIndexDto(String uuid, String personUuid, String personFirstName, String personLastName, String cazeUuid,
 			Disease caseDisease, String caseDiseaseDetails, String casePersonUuid, String caseFirstName, String caseLastName, String caseRegionUuid,
 			String caseDistrictUuid, String caseHealthFacilityUuid, Date lastContactDate, ContactProximity contactProximity,
 			ContactClassification contactClassification, ContactStatus contactStatus, FollowUpStatus followUpStatus, 
-			Date followUpUntil, String contactOfficerUuid, Date reportDate) {
+			Date followUpUntil, String contactOfficerUuid, Date reportDate, Long pendingTaskCount, Integer visitCount) {
 		this.uuid = uuid;
 		this.person = new PersonReferenceDto(personUuid, personFirstName, personLastName);
 		this.caze = new CaseReferenceDto(cazeUuid, caseFirstName, caseLastName);
@@ -86,6 +90,8 @@ public class ContactIndexDto implements Serializable {
 		this.followUpUntil = followUpUntil;
 		this.contactOfficerUuid = contactOfficerUuid;
 		this.reportDate = reportDate;
+		this.pendingTaskCount = pendingTaskCount != null ? pendingTaskCount : 0;
+		this.visitCount = visitCount != null ? visitCount : 0;
 	}
 	
 	public String getUuid() {
@@ -184,9 +190,36 @@ public class ContactIndexDto implements Serializable {
 	public void setReportDate(Date reportDate) {
 		this.reportDate = reportDate;
 	}
+	public int getVisitCount() {
+		return visitCount;
+	}
+	public void setVisitCount(int visitCount) {
+		this.visitCount = visitCount;
+	}
+	public long getPendingTaskCount() {
+		return pendingTaskCount;
+	}
+	public void setPendingTaskCount(long pendingTaskCount) {
+		this.pendingTaskCount = pendingTaskCount;
+	}
 
 	public ContactReferenceDto toReference() {
 		return new ContactReferenceDto(uuid);
 	}
-	
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		return uuid != null && uuid.equals(((ContactIndexDto) o).uuid);
+	}
+
+	@Override
+	public int hashCode() {
+		return uuid != null ? uuid.hashCode() : 0;
+	}
 }
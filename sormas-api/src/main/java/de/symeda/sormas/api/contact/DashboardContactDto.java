@@ -42,7 +42,7 @@ public class DashboardContactDto implements Serializable {
 	
 	public DashboardContactDto(String uuid, Date reportDate, ContactStatus contactStatus,
 			ContactClassification contactClassification, FollowUpStatus followUpStatus,
-			Date followUpUntil, Disease disease) {
+			Date followUpUntil, Disease disease, Boolean symptomatic, VisitStatus lastVisitStatus, Date lastVisitDateTime) {
 		this.uuid = uuid;
 		this.reportDate = reportDate;
 		this.contactStatus = contactStatus;
@@ -50,6 +50,9 @@ public class DashboardContactDto implements Serializable {
 		this.followUpStatus = followUpStatus;
 		this.followUpUntil = followUpUntil;
 		this.disease = disease;
+		this.symptomatic = Boolean.TRUE.equals(symptomatic);
+		this.lastVisitStatus = lastVisitStatus;
+		this.lastVisitDateTime = lastVisitDateTime;
 	}
 
 	public String getUuid() {
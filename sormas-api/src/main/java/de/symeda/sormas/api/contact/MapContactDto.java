@@ -44,7 +44,7 @@ public class MapContactDto implements Serializable {
 	private String casePersonLastName;
 	
 	public MapContactDto(String uuid, ContactClassification contactClassification, Double reportLat, Double reportLon, Double addressLat, Double addressLon, Date caseOnsetDate, Date caseReportDate,
-			String personFirstName, String personLastName, String casePersonFirstName, String casePersonLastName) {
+			String personFirstName, String personLastName, String casePersonFirstName, String casePersonLastName, Date lastVisitDateTime) {
 		this.uuid = uuid;
 		this.contactClassification = contactClassification;
 		this.reportLat = reportLat;
@@ -57,6 +57,7 @@ public class MapContactDto implements Serializable {
 		this.personLastName = personLastName;
 		this.casePersonFirstName = casePersonFirstName;
 		this.casePersonLastName = casePersonLastName;
+		this.lastVisitDateTime = lastVisitDateTime;
 	}
 	
 	public String getUuid() {
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.api.disease;
+
+import java.io.Serializable;
+import java.util.EnumMap;
+import java.util.Map;
+
+import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.api.event.EventStatus;
+import de.symeda.sormas.api.sample.SampleTestResultType;
+
+/**
+ * Numbers of new cases, events and test results of one disease and period shown by the surveillance dashboard
+ */
+public class DashboardDiseaseCountsDto implements Serializable {
+
+	private static final long serialVersionUID = 6127950532962407615L;
+
+	private Map<CaseClassification, Long> caseCounts = new EnumMap<>(CaseClassification.class);
+	private Map<CaseClassification, Long> fatalCaseCounts = new EnumMap<>(CaseClassification.class);
+	private Map<EventStatus, Long> eventCounts = new EnumMap<>(EventStatus.class);
+	private Map<SampleTestResultType, Long> testResultCounts = new EnumMap<>(SampleTestResultType.class);
+
+	public void addCaseCount(CaseClassification caseClassification, long count) {
+		add(caseCounts, caseClassification, count);
+	}
+
+	public void addFatalCaseCount(CaseClassification caseClassification, long count) {
+		add(fatalCaseCounts, caseClassification, count);
+	}
+
+	public void addEventCount(EventStatus eventStatus, long count) {
+		add(eventCounts, eventStatus, count);
+	}
+
+	public void addTestResultCount(SampleTestResultType testResult, long count) {
+		add(testResultCounts, testResult, count);
+	}
+
+	public long getCaseCount() {
+		return sum(caseCounts);
+	}
+
+	public long getCaseCount(CaseClassification caseClassification) {
+		return get(caseCounts, caseClassification);
+	}
+
+	public long getFatalCaseCount() {
+		return sum(fatalCaseCounts);
+	}
+
+	public long getEventCount() {
+		return sum(eventCounts);
+	}
+
+	public long getEventCount(EventStatus eventStatus) {
+		return get(eventCounts, eventStatus);
+	}
+
+	public long getTestResultCount() {
+		return sum(testResultCounts);
+	}
+
+	public long getTestResultCount(SampleTestResultType testResult) {
+		return get(testResultCounts, testResult);
+	}
+
+	private static <E extends Enum<E>> void add(Map<E, Long> counts, E category, long count) {
+		if (category != null) {
+			counts.put(category, get(counts, category) + count);
+		}
+	}
+
+	private static <E extends Enum<E>> long get(Map<E, Long> counts, E category) {
+		Long count = counts.get(category);
+		return count != null ? count : 0;
+	}
+
+	private static long sum(Map<?, Long> counts) {
+		long sum = 0;
+		for (Long count : counts.values()) {
+			sum += count;
+		}
+		return sum;
+	}
+}
@@ -22,6 +22,7 @@ import java.util.List;
 
 import javax.ejb.Remote;
 
+import de.symeda.sormas.api.Disease;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.region.RegionReferenceDto;
 
@@ -35,4 +36,15 @@ public interface DiseaseFacade {
 			Date previousFromDate,
 			Date previousToDate,
 			String userUuid);
+
+	/**
+	 * Numbers of new cases, events and test results of the disease in the period, shown by the surveillance dashboard
+	 */
+	DashboardDiseaseCountsDto getDashboardCounts(
+			RegionReferenceDto regionRef,
+			DistrictReferenceDto districtRef,
+			Disease disease,
+			Date from,
+			Date to,
+			String userUuid);
 }
@@ -26,6 +26,7 @@ import de.symeda.sormas.api.Disease;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.region.RegionReferenceDto;
 import de.symeda.sormas.api.user.UserReferenceDto;
+import de.symeda.sormas.api.utils.SortProperty;
 
 @Remote
 public interface EventFacade {
@@ -51,6 +52,10 @@ public interface EventFacade {
 	void deleteEvent(EventReferenceDto eventRef, String userUuid);
 	
 	List<EventIndexDto> getIndexList(String userUuid, EventCriteria eventCriteria);
+
+	List<EventIndexDto> getIndexList(String userUuid, EventCriteria eventCriteria, Integer first, Integer max, List<SortProperty> sortProperties);
+
+	long count(String userUuid, EventCriteria eventCriteria);
 	
 	boolean isArchived(String caseUuid);
 	
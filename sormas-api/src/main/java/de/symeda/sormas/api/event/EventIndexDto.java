@@ -41,6 +41,7 @@ public class EventIndexDto implements Serializable {
 	public static final String SRC_LAST_NAME = "srcLastName";
 	public static final String SRC_TEL_NO = "srcTelNo";
 	public static final String REPORT_DATE_TIME = "reportDateTime";
+	public static final String PENDING_TASK_COUNT = "pendingTaskCount";
 	
 	private String uuid;
 	private EventType eventType;
@@ -54,10 +55,11 @@ public class EventIndexDto implements Serializable {
 	private String srcLastName;
 	private String srcTelNo;
 	private Date reportDateTime;
+	private long pendingTaskCount;
 	
 	public EventIndexDto(String uuid, EventType eventType, EventStatus eventStatus, Disease disease, String diseaseDetails,
 			Date eventDate, String eventDesc, String locationUuid, String regionName, String districtName, String communityName, String city, String address,
-			String srcFirstName, String srcLastName, String srcTelNo, Date reportDateTime) {
+			String srcFirstName, String srcLastName, String srcTelNo, Date reportDateTime, Long pendingTaskCount) {
 		this.uuid = uuid;
 		this.eventType = eventType;
 		this.eventStatus = eventStatus;
@@ -70,6 +72,7 @@ public class EventIndexDto implements Serializable {
 		this.srcLastName = srcLastName;
 		this.srcTelNo = srcTelNo;
 		this.reportDateTime = reportDateTime;
+		this.pendingTaskCount = pendingTaskCount != null ? pendingTaskCount : 0;
 	}
 
 	public String getUuid() {
@@ -144,8 +147,30 @@ public class EventIndexDto implements Serializable {
 	public void setReportDateTime(Date reportDateTime) {
 		this.reportDateTime = reportDateTime;
 	}
+	public long getPendingTaskCount() {
+		return pendingTaskCount;
+	}
+	public void setPendingTaskCount(long pendingTaskCount) {
+		this.pendingTaskCount = pendingTaskCount;
+	}
 	
 	public EventReferenceDto toReference() {
 		return new EventReferenceDto(getUuid(), getDisease(), getDiseaseDetails(), getEventType(), getEventDate());
 	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		return uuid != null && uuid.equals(((EventIndexDto) o).uuid);
+	}
+
+	@Override
+	public int hashCode() {
+		return uuid != null ? uuid.hashCode() : 0;
+	}
 }
@@ -23,6 +23,7 @@ import java.util.List;
 import javax.ejb.Remote;
 
 import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.PushResult;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.user.UserReferenceDto;
 import de.symeda.sormas.api.utils.ValidationRuntimeException;
@@ -42,6 +43,12 @@ public interface PersonFacade {
 
     PersonDto savePerson(PersonDto dto) throws ValidationRuntimeException;
 
+	/**
+	 * Saves the persons pushed by the mobile app in chunks, each chunk in a transaction of its own.
+	 * @return one result per person, in the order of the given list
+	 */
+	List<PushResult> savePersons(List<PersonDto> dtos);
+
     void validate(PersonDto dto) throws ValidationRuntimeException;
     
 	List<String> getAllUuids(String userUuid);
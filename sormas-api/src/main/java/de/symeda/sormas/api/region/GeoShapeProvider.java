@@ -17,6 +17,8 @@
  *******************************************************************************/
 package de.symeda.sormas.api.region;
 
+import java.util.List;
+
 import javax.ejb.Remote;
 
 @Remote
@@ -28,6 +30,11 @@ public interface GeoShapeProvider {
 	GeoLatLon[][] getRegionShape(RegionReferenceDto region);
 
 	RegionReferenceDto getRegionByCoord(GeoLatLon latLon);
+
+	/**
+	 * @return the region of each coordinate, in the same order; null for coordinates outside of all regions
+	 */
+	List<RegionReferenceDto> getRegionsByCoords(List<GeoLatLon> latLons);
 	
 	GeoLatLon getCenterOfAllRegions();
 
@@ -36,6 +43,11 @@ public interface GeoShapeProvider {
 	GeoLatLon[][] getDistrictShape(DistrictReferenceDto district);
 	
 	DistrictReferenceDto getDistrictByCoord(GeoLatLon latLon);
+
+	/**
+	 * @return the district of each coordinate, in the same order; null for coordinates outside of all districts
+	 */
+	List<DistrictReferenceDto> getDistrictsByCoords(List<GeoLatLon> latLons);
 	
 	GeoLatLon getCenterOfDistrict(DistrictReferenceDto district);
 }
@@ -26,6 +26,7 @@ import de.symeda.sormas.api.Disease;
 import de.symeda.sormas.api.caze.CaseReferenceDto;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.region.RegionReferenceDto;
+import de.symeda.sormas.api.utils.SortProperty;
 
 @Remote
 public interface SampleFacade {
@@ -37,6 +38,10 @@ public interface SampleFacade {
 	int getReceivedSampleCountByCase(CaseReferenceDto caseRef);
 	
 	List<SampleIndexDto> getIndexList(String userUuid, SampleCriteria sampleCriteria);
+
+	List<SampleIndexDto> getIndexList(String userUuid, SampleCriteria sampleCriteria, Integer first, Integer max, List<SortProperty> sortProperties);
+
+	long count(String userUuid, SampleCriteria sampleCriteria);
 	
 	SampleDto getSampleByUuid(String uuid);
 	
@@ -25,6 +25,7 @@ import javax.ejb.Remote;
 import de.symeda.sormas.api.caze.CaseReferenceDto;
 import de.symeda.sormas.api.contact.ContactReferenceDto;
 import de.symeda.sormas.api.event.EventReferenceDto;
+import de.symeda.sormas.api.utils.SortProperty;
 
 @Remote
 public interface TaskFacade {
@@ -60,6 +61,10 @@ public interface TaskFacade {
 	void deleteTask(TaskDto taskDto, String userUuid);
 
 	List<TaskIndexDto> getIndexList(String userUuid, TaskCriteria taskCriteria);
+
+	List<TaskIndexDto> getIndexList(String userUuid, TaskCriteria taskCriteria, Integer first, Integer max, List<SortProperty> sortProperties);
+
+	long count(String userUuid, TaskCriteria taskCriteria);
 	
 	void sendNewAndDueTaskMessages();
 }
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.api.utils;
+
+import java.io.Serializable;
+
+/**
+ * Sort order of a paged index list by one property of the index dto, e.g. {@code CaseIndexDto.REPORT_DATE}.
+ */
+@SuppressWarnings("serial")
+public class SortProperty implements Serializable {
+
+	private final String propertyName;
+	private final boolean ascending;
+
+	public SortProperty(String propertyName, boolean ascending) {
+		if (propertyName == null) {
+			throw new IllegalArgumentException("propertyName is required");
+		}
+		this.propertyName = propertyName;
+		this.ascending = ascending;
+	}
+
+	public String getPropertyName() {
+		return propertyName;
+	}
+
+	public boolean isAscending() {
+		return ascending;
+	}
+
+	@Override
+	public String toString() {
+		return propertyName + (ascending ? " asc" : " desc");
+	}
+}
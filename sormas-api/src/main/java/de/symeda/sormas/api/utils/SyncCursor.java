@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.api.utils;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Objects;
+
+import de.symeda.sormas.api.EntityDto;
+
+/**
+ * Keyset position of a paged sync pull: change date and uuid of the last entity the client has received.
+ * Pages are ordered by (changeDate, uuid), so the next page starts right after this position, no matter
+ * how many entities were changed in the meantime.
+ *
+ * Change dates are stored with microseconds, so the sub-millisecond part of a {@link Timestamp} is kept.
+ * The string representation "&lt;changeDate millis&gt;[.&lt;sub-millisecond nanos&gt;]_&lt;uuid&gt;" is used
+ * as query parameter. Clients that only received the milliseconds of the change date send cursors without
+ * the nanos (see {@link #isTruncatedToMillis()}).
+ */
+@SuppressWarnings("serial")
+public class SyncCursor implements Serializable {
+
+	private static final char SEPARATOR = '_';
+	private static final char NANOS_SEPARATOR = '.';
+	private static final int NANOS_PER_MILLI = 1000000;
+
+	private final Timestamp changeDate;
+	private final String uuid;
+
+	/**
+	 * @param changeDate the sub-millisecond part is kept when this is a {@link Timestamp}
+	 */
+	public SyncCursor(Date changeDate, String uuid) {
+		if (changeDate == null || uuid == null) {
+			throw new IllegalArgumentException("changeDate and uuid are required");
+		}
+		this.changeDate = new Timestamp(changeDate.getTime());
+		if (changeDate instanceof Timestamp) {
+			this.changeDate.setNanos(((Timestamp) changeDate).getNanos());
+		}
+		this.uuid = uuid;
+	}
+
+	public static SyncCursor of(EntityDto lastDto) {
+		return new SyncCursor(lastDto.getChangeDate(), lastDto.getUuid());
+	}
+
+	/**
+	 * @return null for an empty cursor (first page)
+	 * @throws IllegalArgumentException when the cursor is malformed
+	 */
+	public static SyncCursor valueOf(String cursor) {
+		if (cursor == null || cursor.isEmpty()) {
+			return null;
+		}
+		int separatorIndex = cursor.indexOf(SEPARATOR);
+		if (separatorIndex <= 0 || separatorIndex == cursor.length() - 1) {
+			throw new IllegalArgumentException("Invalid sync cursor: " + cursor);
+		}
+		String changeDateString = cursor.substring(0, separatorIndex);
+		int nanosSeparatorIndex = changeDateString.indexOf(NANOS_SEPARATOR);
+		try {
+			Timestamp changeDate;
+			if (nanosSeparatorIndex < 0) {
+				changeDate = new Timestamp(Long.parseLong(changeDateString));
+			} else {
+				changeDate = new Timestamp(Long.parseLong(changeDateString.substring(0, nanosSeparatorIndex)));
+				int subMillisNanos = Integer.parseInt(changeDateString.substring(nanosSeparatorIndex + 1));
+				if (subMillisNanos < 0 || subMillisNanos >= NANOS_PER_MILLI) {
+					throw new IllegalArgumentException("Invalid sync cursor: " + cursor);
+				}
+				changeDate.setNanos(changeDate.getNanos() + subMillisNanos);
+			}
+			return new SyncCursor(changeDate, cursor.substring(separatorIndex + 1));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid sync cursor: " + cursor, e);
+		}
+	}
+
+	/**
+	 * @return the full change date, including the sub-millisecond part
+	 */
+	public Timestamp getChangeDate() {
+		return changeDate;
+	}
+
+	public String getUuid() {
+		return uuid;
+	}
+
+	/**
+	 * @return true when the change date has no sub-millisecond part. It may have been cut off, because the
+	 *         client only received the milliseconds of the change date.
+	 */
+	public boolean isTruncatedToMillis() {
+		return getSubMillisNanos() == 0;
+	}
+
+	private int getSubMillisNanos() {
+		return changeDate.getNanos() % NANOS_PER_MILLI;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		SyncCursor other = (SyncCursor) obj;
+		return changeDate.equals(other.changeDate) && uuid.equals(other.uuid);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(changeDate, uuid);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder().append(changeDate.getTime());
+		if (!isTruncatedToMillis()) {
+			result.append(NANOS_SEPARATOR).append(String.format(Locale.ROOT, "%06d", getSubMillisNanos()));
+		}
+		return result.append(SEPARATOR).append(uuid).toString();
+	}
+}
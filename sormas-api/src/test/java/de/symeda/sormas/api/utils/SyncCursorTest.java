@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.api.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+import org.junit.Test;
+
+public class SyncCursorTest {
+
+	@Test
+	public void testToStringAndValueOf() {
+
+		SyncCursor cursor = new SyncCursor(new Date(1546300800123L), "ABCDEF-GHIJKL-MNOPQR-STUVWX");
+		assertEquals("1546300800123_ABCDEF-GHIJKL-MNOPQR-STUVWX", cursor.toString());
+		assertEquals(cursor, SyncCursor.valueOf(cursor.toString()));
+
+		assertNull(SyncCursor.valueOf(null));
+		assertNull(SyncCursor.valueOf(""));
+	}
+
+	@Test
+	public void testSubMillisecondPrecision() {
+
+		Timestamp changeDate = Timestamp.valueOf("2019-01-01 00:00:00.123456");
+		SyncCursor cursor = new SyncCursor(changeDate, "ABCDEF-GHIJKL-MNOPQR-STUVWX");
+		assertEquals(changeDate.getTime() + ".456000_ABCDEF-GHIJKL-MNOPQR-STUVWX", cursor.toString());
+		assertFalse(cursor.isTruncatedToMillis());
+
+		SyncCursor parsedCursor = SyncCursor.valueOf(cursor.toString());
+		assertEquals(cursor, parsedCursor);
+		assertEquals(changeDate, parsedCursor.getChangeDate());
+
+		// cursors of a client that only knows the milliseconds
+		SyncCursor clientCursor = new SyncCursor(new Date(changeDate.getTime()), "ABCDEF-GHIJKL-MNOPQR-STUVWX");
+		assertTrue(clientCursor.isTruncatedToMillis());
+		assertNotEquals(cursor, clientCursor);
+		assertEquals(clientCursor, SyncCursor.valueOf(clientCursor.toString()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testValueOfWithInvalidNanos() {
+		SyncCursor.valueOf("1546300800123.1000000_ABCDEF");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testValueOfWithoutUuid() {
+		SyncCursor.valueOf("1546300800123_");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testValueOfWithInvalidDate() {
+		SyncCursor.valueOf("yesterday_ABCDEF");
+	}
+}
@@ -0,0 +1,411 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.app;
+
+import androidx.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.symeda.sormas.api.PushResult;
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.utils.DataHelper;
+import de.symeda.sormas.app.backend.common.AbstractAdoDao;
+import de.symeda.sormas.app.backend.common.AdoDtoHelper;
+import de.symeda.sormas.app.backend.common.DaoException;
+import de.symeda.sormas.app.backend.common.PullPageLimit;
+import de.symeda.sormas.app.backend.person.Person;
+import de.symeda.sormas.app.rest.ServerCommunicationException;
+import de.symeda.sormas.app.rest.SyncScheduler;
+import okhttp3.Request;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs the {@link SyncScheduler} with fake dto helpers, which need neither a server nor a database.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SyncSchedulerTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final List<String> log = Collections.synchronizedList(new ArrayList<String>());
+    private final ExecutorService syncThread = Executors.newSingleThreadExecutor();
+    private SyncScheduler scheduler;
+
+    @After
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        syncThread.shutdownNow();
+    }
+
+    @Test(timeout = 20000)
+    public void testDependencyOrder() throws Exception {
+
+        FakeDtoHelper person = new FakeDtoHelper("person", 3, true);
+        FakeDtoHelper caze = new FakeDtoHelper("case", 2, false);
+        FakeDtoHelper event = new FakeDtoHelper("event", 3, false);
+        FakeDtoHelper contact = new FakeDtoHelper("contact", 1, false);
+        FakeDtoHelper task = new FakeDtoHelper("task", 2, false);
+        scheduler = new SyncScheduler()
+                .add(person)
+                .add(caze, person)
+                .add(event)
+                .add(contact, person, caze)
+                .add(task, caze, contact, event);
+
+        Set<AdoDtoHelper<?, ?>> needPull = scheduler.pullAndPushEntities();
+
+        for (FakeDtoHelper dtoHelper : Arrays.asList(person, caze, event, contact, task)) {
+            assertEquals(dtoHelper.pageCount, Collections.frequency(log, dtoHelper.name + " page"));
+            assertEquals(1, Collections.frequency(log, dtoHelper.name + " push"));
+            assertEquals(0, dtoHelper.pageLimit.getWaitingPages());
+        }
+        assertWrittenAfter(caze, person);
+        assertWrittenAfter(contact, person, caze);
+        assertWrittenAfter(task, caze, contact, event);
+
+        // persons have been pushed, so the entities depending on them may have been changed as well
+        assertEquals(new HashSet<AdoDtoHelper<?, ?>>(Arrays.asList(person, caze, contact, task)), needPull);
+    }
+
+    @Test(timeout = 20000)
+    public void testWaitingPagesLimit() throws Exception {
+
+        FakeDtoHelper person = new FakeDtoHelper("person", 1, false);
+        person.pullBlocker = new CountDownLatch(1);
+        FakeDtoHelper caze = new FakeDtoHelper("case", 10, false);
+        FakeDtoHelper contact = new FakeDtoHelper("contact", 10, false);
+        scheduler = new SyncScheduler()
+                .add(person)
+                .add(caze, person)
+                .add(contact, person);
+
+        Future<?> sync = startPullAndPush();
+
+        // each request may have one more page requested than it is allowed to keep
+        waitFor(caze.requestedPages, contact.requestedPages, SyncScheduler.MAX_WAITING_PAGES + 1);
+        Thread.sleep(100);
+        assertTrue(caze.requestedPages.get() + contact.requestedPages.get() <= SyncScheduler.MAX_WAITING_PAGES + 2);
+        assertEquals(SyncScheduler.MAX_WAITING_PAGES, caze.pageLimit.getWaitingPages());
+        assertTrue(log.isEmpty());
+
+        person.pullBlocker.countDown();
+        sync.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(10, Collections.frequency(log, "case page"));
+        assertEquals(10, Collections.frequency(log, "contact page"));
+        assertEquals(0, caze.pageLimit.getWaitingPages());
+    }
+
+    @Test(timeout = 20000, expected = ServerCommunicationException.class)
+    public void testPullException() throws Exception {
+
+        FakeDtoHelper person = new FakeDtoHelper("person", 2, false);
+        FakeDtoHelper caze = new FakeDtoHelper("case", 2, false);
+        caze.pullFailure = new IOException("Connection reset");
+        scheduler = new SyncScheduler()
+                .add(person)
+                .add(caze, person);
+
+        scheduler.pullAndPushEntities();
+    }
+
+    @Test(timeout = 20000, expected = DaoException.class)
+    public void testWriteException() throws Exception {
+
+        FakeDtoHelper person = new FakeDtoHelper("person", 2, false);
+        person.writeFailure = new IllegalStateException("Database locked");
+        scheduler = new SyncScheduler()
+                .add(person);
+
+        scheduler.pullAndPushEntities();
+    }
+
+    @Test(timeout = 20000)
+    public void testPullError() throws Exception {
+
+        FakeDtoHelper person = new FakeDtoHelper("person", 2, false);
+        FakeDtoHelper caze = new FakeDtoHelper("case", 2, false);
+        Error error = new StackOverflowError();
+        caze.pullFailure = error;
+        scheduler = new SyncScheduler()
+                .add(person)
+                .add(caze, person);
+
+        try {
+            scheduler.pullAndPushEntities();
+            fail("Error of the pull request not thrown");
+        } catch (StackOverflowError e) {
+            assertSame(error, e);
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testShutdownWhileWaitingPagesBlocked() throws Exception {
+
+        FakeDtoHelper person = new FakeDtoHelper("person", 1, false);
+        person.pullBlocker = new CountDownLatch(1);
+        person.pullFailure = new IOException("Connection reset");
+        FakeDtoHelper caze = new FakeDtoHelper("case", 10, false);
+        scheduler = new SyncScheduler()
+                .add(person)
+                .add(caze, person);
+
+        Future<?> sync = startPullAndPush();
+
+        // two pages are kept, the request of the third one waits to put it
+        waitFor(caze.requestedPages, new AtomicInteger(), 3);
+        person.pullBlocker.countDown();
+        try {
+            sync.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            fail("Exception of the pull request not thrown");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ServerCommunicationException);
+        }
+
+        scheduler.shutdown();
+        for (Thread thread : caze.pullThreads) {
+            thread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+            assertFalse(thread.isAlive());
+        }
+        assertEquals(3, caze.requestedPages.get());
+    }
+
+    private Future<?> startPullAndPush() {
+        return syncThread.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                scheduler.pullAndPushEntities();
+                return null;
+            }
+        });
+    }
+
+    private static void waitFor(AtomicInteger requestedPages, AtomicInteger otherRequestedPages, int count) throws InterruptedException {
+        while (requestedPages.get() + otherRequestedPages.get() < count) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void assertWrittenAfter(FakeDtoHelper dtoHelper, FakeDtoHelper... dependencies) {
+        int firstPage = log.indexOf(dtoHelper.name + " page");
+        for (FakeDtoHelper dependency : dependencies) {
+            int dependencyPush = log.indexOf(dependency.name + " push");
+            assertTrue(dtoHelper.name + " written before " + dependency.name, dependencyPush >= 0 && dependencyPush < firstPage);
+        }
+    }
+
+    /**
+     * Delivers the given number of pages and writes them to the log only
+     */
+    private final class FakeDtoHelper extends AdoDtoHelper<Person, PersonDto> {
+
+        private final String name;
+        private final int pageCount;
+        private final boolean modified;
+        private final List<PersonDto> fullPage;
+        private final List<PersonDto> lastPage;
+
+        private final AtomicInteger requestedPages = new AtomicInteger();
+        private final Set<Thread> pullThreads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+        private volatile PullPageLimit pageLimit;
+
+        /**
+         * Awaited by the request of the first page
+         */
+        private CountDownLatch pullBlocker;
+        /**
+         * Thrown by the request of the last page
+         */
+        private Throwable pullFailure;
+        private RuntimeException writeFailure;
+
+        private FakeDtoHelper(String name, int pageCount, boolean modified) {
+            this.name = name;
+            this.pageCount = pageCount;
+            this.modified = modified;
+
+            PersonDto dto = new PersonDto();
+            dto.setUuid(DataHelper.createUuid());
+            dto.setChangeDate(new Date());
+            fullPage = Collections.nCopies(PULL_PAGE_SIZE, dto);
+            lastPage = Collections.singletonList(dto);
+        }
+
+        @Override
+        public PullRequest startPull(boolean repull, Executor executor, PullPageLimit pageLimit, Runnable onPageAvailable) {
+            this.pageLimit = pageLimit;
+            return startPullRequest(null, 0, null, executor, pageLimit, onPageAvailable);
+        }
+
+        @Override
+        protected Call<List<PersonDto>> pullPageSince(long since, String cursor, int limit) {
+            return new FakeCall(this);
+        }
+
+        private Response<List<PersonDto>> executePull() throws IOException {
+
+            pullThreads.add(Thread.currentThread());
+            int page = requestedPages.incrementAndGet();
+            if (page == 1 && pullBlocker != null) {
+                try {
+                    pullBlocker.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+
+            if (page < pageCount) {
+                return Response.success(fullPage);
+            }
+            if (pullFailure instanceof IOException) {
+                throw (IOException) pullFailure;
+            } else if (pullFailure instanceof RuntimeException) {
+                throw (RuntimeException) pullFailure;
+            } else if (pullFailure instanceof Error) {
+                throw (Error) pullFailure;
+            }
+            return Response.success(lastPage);
+        }
+
+        @Override
+        protected int handlePullResponse(boolean markAsRead, AbstractAdoDao<Person> dao, Response<List<PersonDto>> response) {
+            log.add(name + " page");
+            if (writeFailure != null) {
+                throw writeFailure;
+            }
+            return response.body().size();
+        }
+
+        @Override
+        public boolean pushEntities() {
+            log.add(name + " push");
+            return modified;
+        }
+
+        @Override
+        protected Class<Person> getAdoClass() {
+            return Person.class;
+        }
+
+        @Override
+        protected Class<PersonDto> getDtoClass() {
+            return PersonDto.class;
+        }
+
+        @Override
+        protected Call<List<PersonDto>> pullAllSince(long since) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected Call<List<PersonDto>> pullByUuids(List<String> uuids) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected Call<List<PushResult>> pushAll(List<PersonDto> dtos) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void fillInnerFromDto(Person person, PersonDto dto) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void fillInnerFromAdo(PersonDto dto, Person person) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class FakeCall implements Call<List<PersonDto>> {
+
+        private final FakeDtoHelper dtoHelper;
+
+        private FakeCall(FakeDtoHelper dtoHelper) {
+            this.dtoHelper = dtoHelper;
+        }
+
+        @Override
+        public Response<List<PersonDto>> execute() throws IOException {
+            return dtoHelper.executePull();
+        }
+
+        @Override
+        public void enqueue(Callback<List<PersonDto>> callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return false;
+        }
+
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return false;
+        }
+
+        @Override
+        public Call<List<PersonDto>> clone() {
+            return new FakeCall(dtoHelper);
+        }
+
+        @Override
+        public Request request() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -72,6 +72,11 @@ public class CaseDtoHelper extends AdoDtoHelper<Case, CaseDataDto> {
         return RetroProvider.getCaseFacade().pullAllSince(since);
     }
 
+    @Override
+    protected Call<List<CaseDataDto>> pullPageSince(long since, String cursor, int limit) {
+        return RetroProvider.getCaseFacade().pullPageSince(since, cursor, limit);
+    }
+
     @Override
     protected Call<List<CaseDataDto>> pullByUuids(List<String> uuids) {
         return RetroProvider.getCaseFacade().pullByUuids(uuids);
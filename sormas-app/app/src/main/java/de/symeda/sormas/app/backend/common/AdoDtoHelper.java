@@ -18,6 +18,7 @@
 
 package de.symeda.sormas.app.backend.common;
 
+import android.os.SystemClock;
 import android.util.Log;
 
 import com.j256.ormlite.logger.Logger;
@@ -29,10 +30,15 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import de.symeda.sormas.api.EntityDto;
 import de.symeda.sormas.api.PushResult;
+import de.symeda.sormas.api.utils.SyncCursor;
 import de.symeda.sormas.app.rest.RetroProvider;
 import de.symeda.sormas.app.rest.ServerCommunicationException;
 import de.symeda.sormas.app.rest.ServerConnectionException;
@@ -47,12 +53,24 @@ public abstract class AdoDtoHelper<ADO extends AbstractDomainObject, DTO extends
 
     private static final Logger logger = LoggerFactory.getLogger(AdoDtoHelper.class);
 
+    public static final int PULL_PAGE_SIZE = 500;
+
+    private static final Object END_OF_PULL = new Object();
+
     protected abstract Class<ADO> getAdoClass();
 
     protected abstract Class<DTO> getDtoClass();
 
     protected abstract Call<List<DTO>> pullAllSince(long since);
 
+    /**
+     * Override to pull changed entities in pages of the given size, starting after the given cursor
+     * (see {@link SyncCursor}). Null is returned when the entity does not support paging.
+     */
+    protected Call<List<DTO>> pullPageSince(long since, String cursor, int limit) {
+        return null;
+    }
+
     /**
      * Explicitly pull missing entities.
      * This is needed, because entities are synced based on user access rights and these might change
@@ -85,19 +103,7 @@ public abstract class AdoDtoHelper<ADO extends AbstractDomainObject, DTO extends
             final AbstractAdoDao<ADO> dao = DatabaseHelper.getAdoDao(getAdoClass());
 
             Date maxModifiedDate = dao.getLatestChangeDate();
-            Call<List<DTO>> dtoCall = pullAllSince(maxModifiedDate != null ? maxModifiedDate.getTime() + 1 : 0);
-            if (dtoCall == null) {
-                return;
-            }
-
-            Response<List<DTO>> response;
-            try {
-                response = dtoCall.execute();
-            } catch (IOException e) {
-                throw new ServerCommunicationException(e);
-            }
-
-            handlePullResponse(markAsRead, dao, response);
+            pullAndHandleSince(maxModifiedDate != null ? maxModifiedDate.getTime() + 1 : 0, markAsRead, dao);
 
         } catch (RuntimeException e) {
             Log.e(getClass().getName(), "Exception thrown when trying to pull entities");
@@ -109,19 +115,7 @@ public abstract class AdoDtoHelper<ADO extends AbstractDomainObject, DTO extends
         try {
             final AbstractAdoDao<ADO> dao = DatabaseHelper.getAdoDao(getAdoClass());
 
-            Call<List<DTO>> dtoCall = pullAllSince(0);
-            if (dtoCall == null) {
-                return;
-            }
-
-            Response<List<DTO>> response;
-            try {
-                response = dtoCall.execute();
-            } catch (IOException e) {
-                throw new ServerCommunicationException(e);
-            }
-
-            handlePullResponse(false, dao, response);
+            pullAndHandleSince(0, false, dao);
 
         } catch (RuntimeException e) {
             Log.e(getClass().getName(), "Exception thrown when trying to pull entities");
@@ -129,6 +123,49 @@ public abstract class AdoDtoHelper<ADO extends AbstractDomainObject, DTO extends
         }
     }
 
+    /**
+     * Pulls page by page when {@link #pullPageSince} is supported, so neither the server nor the app
+     * has to hold all changed entities in memory at once. Each page is written in its own batch.
+     */
+    private void pullAndHandleSince(long since, boolean markAsRead, AbstractAdoDao<ADO> dao) throws DaoException, ServerCommunicationException, ServerConnectionException {
+
+        Call<List<DTO>> dtoCall = firstPullCall(since);
+        while (dtoCall != null) {
+            Response<List<DTO>> response = executePull(dtoCall);
+            Call<List<DTO>> nextCall = nextPullCall(since, response);
+            handlePullResponse(markAsRead, dao, response);
+            dtoCall = nextCall;
+        }
+    }
+
+    private Call<List<DTO>> firstPullCall(long since) {
+        Call<List<DTO>> dtoCall = pullPageSince(since, null, PULL_PAGE_SIZE);
+        return dtoCall != null ? dtoCall : pullAllSince(since);
+    }
+
+    /**
+     * @return the call for the page following the given response; null when there is none
+     */
+    private Call<List<DTO>> nextPullCall(long since, Response<List<DTO>> response) {
+
+        // determine the cursor before the result may be reordered by preparePulledResult
+        List<DTO> page = response.isSuccessful() ? response.body() : null;
+        if (page == null || page.size() < PULL_PAGE_SIZE) {
+            return null;
+        }
+        SyncCursor nextCursor = SyncCursor.of(page.get(page.size() - 1));
+        // null when paging is not supported and everything has been pulled at once
+        return pullPageSince(since, nextCursor.toString(), PULL_PAGE_SIZE);
+    }
+
+    private Response<List<DTO>> executePull(Call<List<DTO>> dtoCall) throws ServerCommunicationException {
+        try {
+            return dtoCall.execute();
+        } catch (IOException e) {
+            throw new ServerCommunicationException(e);
+        }
+    }
+
     /**
      * @return Number or pulled entities
      */
@@ -262,6 +299,213 @@ public abstract class AdoDtoHelper<ADO extends AbstractDomainObject, DTO extends
         }
     }
 
+    /**
+     * Same as {@link #pullEntities} (or {@link #repullEntities}), but the pages are requested by the
+     * executor and have to be written using {@link PullRequest#handleNextPage}.
+     * Needs to be called by the thread that writes the pages.
+     */
+    public PullRequest startPull(boolean repull, Executor executor, PullPageLimit pageLimit, Runnable onPageAvailable) {
+
+        final AbstractAdoDao<ADO> dao = DatabaseHelper.getAdoDao(getAdoClass());
+
+        long since = 0;
+        if (!repull) {
+            Date maxModifiedDate = dao.getLatestChangeDate();
+            since = maxModifiedDate != null ? maxModifiedDate.getTime() + 1 : 0;
+        }
+        return startPullRequest(dao, since, null, executor, pageLimit, onPageAvailable);
+    }
+
+    /**
+     * Same as {@link #pullMissing}, but the missing entities are requested by the executor and have
+     * to be written using {@link PullRequest#handleNextPage}.
+     * Needs to be called by the thread that writes the pages.
+     */
+    public PullRequest startPullMissing(List<String> uuids, Executor executor, PullPageLimit pageLimit, Runnable onPageAvailable) {
+
+        final AbstractAdoDao<ADO> dao = DatabaseHelper.getAdoDao(getAdoClass());
+        uuids = dao.filterMissing(uuids);
+
+        return startPullRequest(dao, 0, uuids, executor, pageLimit, onPageAvailable);
+    }
+
+    /**
+     * @param missingUuids null to pull the entities changed since the given time
+     */
+    protected PullRequest startPullRequest(AbstractAdoDao<ADO> dao, long since, List<String> missingUuids, Executor executor,
+                                           PullPageLimit pageLimit, Runnable onPageAvailable) {
+
+        PullRequest pullRequest = new PullRequest(dao, since, missingUuids, pageLimit, onPageAvailable);
+        executor.execute(pullRequest);
+        return pullRequest;
+    }
+
+    /**
+     * Pages of pulled entities that are requested by another thread than the one writing them.
+     * At most two received pages are waiting to be written. As long as the entities the pulled ones depend on
+     * have not been written, the pages also count against the {@link PullPageLimit} shared with the other
+     * pull requests. So the memory needed doesn't depend on the number of pulled entities.
+     */
+    public final class PullRequest implements Runnable {
+
+        private final AbstractAdoDao<ADO> dao;
+        private final long since;
+        private final List<String> missingUuids;
+        private final PullPageLimit pageLimit;
+        private final Runnable onPageAvailable;
+
+        /**
+         * Responses, followed by {@link #END_OF_PULL} or the throwable that stopped the pull
+         */
+        private final BlockingQueue<Object> pages = new ArrayBlockingQueue<>(2);
+        /**
+         * Received pages that count against the page limit; these are always the first ones in {@link #pages}
+         */
+        private final AtomicInteger limitedPageCount = new AtomicInteger();
+        private volatile boolean dependenciesWritten;
+
+        private volatile long networkMillis;
+        private long writeMillis;
+        private int pulledCount;
+
+        private PullRequest(AbstractAdoDao<ADO> dao, long since, List<String> missingUuids, PullPageLimit pageLimit, Runnable onPageAvailable) {
+            this.dao = dao;
+            this.since = since;
+            this.missingUuids = missingUuids;
+            this.pageLimit = pageLimit;
+            this.onPageAvailable = onPageAvailable;
+        }
+
+        /**
+         * Called by the writing thread as soon as the pages can be written, i.e. the entities this
+         * entity type depends on have been written. The pages received from now on don't count against
+         * the page limit anymore.
+         */
+        public void setDependenciesWritten() {
+            if (!dependenciesWritten) {
+                dependenciesWritten = true;
+                pageLimit.dependenciesWritten();
+            }
+        }
+
+        boolean isDependenciesWritten() {
+            return dependenciesWritten;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Call<List<DTO>> dtoCall;
+                if (missingUuids == null) {
+                    dtoCall = firstPullCall(since);
+                } else {
+                    dtoCall = !missingUuids.isEmpty() ? pullByUuids(missingUuids) : null;
+                }
+
+                while (dtoCall != null) {
+                    long start = SystemClock.elapsedRealtime();
+                    Response<List<DTO>> response = executePull(dtoCall);
+                    networkMillis += SystemClock.elapsedRealtime() - start;
+
+                    dtoCall = missingUuids == null ? nextPullCall(since, response) : null;
+                    if (pageLimit.acquire(this)) {
+                        limitedPageCount.incrementAndGet();
+                    }
+                    putPage(response);
+                }
+                putPage(END_OF_PULL);
+
+            } catch (InterruptedException e) {
+                // synchronization has been cancelled
+            } catch (Throwable e) {
+                // the writing thread waits for a last page, whatever stopped the pull
+                try {
+                    putPage(e);
+                } catch (InterruptedException ie) {
+                    // synchronization has been cancelled
+                }
+            }
+        }
+
+        private void putPage(Object page) throws InterruptedException {
+            pages.put(page);
+            onPageAvailable.run();
+        }
+
+        /**
+         * @return true when {@link #handleNextPage} will not have to wait for the server
+         */
+        public boolean isPageAvailable() {
+            return !pages.isEmpty();
+        }
+
+        /**
+         * Writes the next received page, waits for it when needed.
+         *
+         * @return false when all pages have been written
+         */
+        @SuppressWarnings("unchecked")
+        public boolean handleNextPage(boolean markAsRead) throws DaoException, ServerCommunicationException, ServerConnectionException {
+
+            Object page;
+            try {
+                page = pages.take();
+            } catch (InterruptedException e) {
+                throw new ServerCommunicationException(e);
+            }
+            if (limitedPageCount.get() > 0) {
+                limitedPageCount.decrementAndGet();
+                pageLimit.release();
+            }
+
+            if (page == END_OF_PULL) {
+                return false;
+            } else if (page instanceof ServerCommunicationException) {
+                throw (ServerCommunicationException) page;
+            } else if (page instanceof ServerConnectionException) {
+                throw (ServerConnectionException) page;
+            } else if (page instanceof RuntimeException) {
+                Log.e(getClass().getName(), "Exception thrown when trying to pull entities");
+                throw new DaoException((RuntimeException) page);
+            } else if (page instanceof Exception) {
+                throw new ServerCommunicationException((Exception) page);
+            } else if (page instanceof Error) {
+                throw (Error) page;
+            } else if (page instanceof Throwable) {
+                throw new ServerCommunicationException((Throwable) page);
+            }
+
+            long start = SystemClock.elapsedRealtime();
+            try {
+                pulledCount += handlePullResponse(markAsRead, dao, (Response<List<DTO>>) page);
+            } catch (RuntimeException e) {
+                Log.e(getClass().getName(), "Exception thrown when trying to pull entities");
+                throw new DaoException(e);
+            } finally {
+                writeMillis += SystemClock.elapsedRealtime() - start;
+            }
+            return true;
+        }
+
+        /**
+         * @return time spent waiting for the server responses
+         */
+        public long getNetworkMillis() {
+            return networkMillis;
+        }
+
+        /**
+         * @return time spent writing the pulled entities to the database
+         */
+        public long getWriteMillis() {
+            return writeMillis;
+        }
+
+        public int getPulledCount() {
+            return pulledCount;
+        }
+    }
+
     public ADO fillOrCreateFromDto(ADO ado, DTO dto) {
         if (dto == null) {
             return null;
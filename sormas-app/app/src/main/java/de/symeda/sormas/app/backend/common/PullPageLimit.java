@@ -0,0 +1,70 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.app.backend.common;
+
+/**
+ * Limits the received pages that wait for the entities they depend on to be written, shared by all
+ * {@link AdoDtoHelper.PullRequest}s of a synchronization. Without it, every entity type could keep pages
+ * in memory while the ones it depends on are still pulled.
+ *
+ * The pages of a request whose dependencies have been written don't count, so these are never blocked
+ * by waiting pages of other entity types.
+ */
+public class PullPageLimit {
+
+    private final int maxWaitingPages;
+    private int waitingPages;
+
+    public PullPageLimit(int maxWaitingPages) {
+        this.maxWaitingPages = maxWaitingPages;
+    }
+
+    /**
+     * Waits until the next page of the request may be kept or the dependencies of the request have been written.
+     *
+     * @return true when the page counts against the limit and has to be released once it has been taken
+     */
+    synchronized boolean acquire(AdoDtoHelper<?, ?>.PullRequest pullRequest) throws InterruptedException {
+
+        while (!pullRequest.isDependenciesWritten()) {
+            if (waitingPages < maxWaitingPages) {
+                waitingPages++;
+                return true;
+            }
+            wait();
+        }
+        return false;
+    }
+
+    synchronized void release() {
+        waitingPages--;
+        notifyAll();
+    }
+
+    /**
+     * Wakes up the requests waiting in {@link #acquire}, so the one whose dependencies have been written can go on.
+     */
+    synchronized void dependenciesWritten() {
+        notifyAll();
+    }
+
+    public synchronized int getWaitingPages() {
+        return waitingPages;
+    }
+}
@@ -27,6 +27,7 @@ import retrofit2.http.Body;
 import retrofit2.http.GET;
 import retrofit2.http.POST;
 import retrofit2.http.Path;
+import retrofit2.http.Query;
 
 /**
  * Created by Martin Wahnschaffe on 07.06.2016.
@@ -36,6 +37,9 @@ public interface CaseFacadeRetro {
     @GET("cases/all/{since}")
     Call<List<CaseDataDto>> pullAllSince(@Path("since") long since);
 
+    @GET("cases/all/{since}")
+    Call<List<CaseDataDto>> pullPageSince(@Path("since") long since, @Query("cursor") String cursor, @Query("limit") int limit);
+
     @POST("cases/query")
     Call<List<CaseDataDto>> pullByUuids(@Body List<String> uuids);
 
@@ -157,8 +157,9 @@ public final class RetroProvider {
 
         OkHttpClient.Builder httpClient = new OkHttpClient.Builder();
         httpClient.readTimeout(5 * 60, TimeUnit.SECONDS); // for infrastructure data - actually 30 seconds should be enough...
-        // adds "Accept-Encoding: gzip" by default
+        // adds "Accept-Encoding: gzip" by default and decompresses the responses
         httpClient.addInterceptor(interceptor);
+        httpClient.addInterceptor(new GzipRequestInterceptor());
         for (Interceptor additionalInterceptor : additionalInterceptors) {
             httpClient.addInterceptor(additionalInterceptor);
         }
@@ -0,0 +1,404 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.app.rest;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.google.android.gms.analytics.HitBuilders;
+import com.google.android.gms.analytics.Tracker;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import de.symeda.sormas.app.backend.common.AdoDtoHelper;
+import de.symeda.sormas.app.backend.common.DaoException;
+import de.symeda.sormas.app.backend.common.PullPageLimit;
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Synchronizes the entities of several {@link AdoDtoHelper}s, taking the dependencies between them into account
+ * (e.g. a case can only be written or pushed after its person).
+ *
+ * The server requests of all entity types are done in parallel by a small thread pool, while the
+ * synchronizing thread writes the received pages and pushes the changed entities. Entities are
+ * written and pushed only after all entities they depend on; entity types that don't depend on each
+ * other are handled in the order their pages are received. Pages that have to wait for other entity
+ * types are limited to {@link #MAX_WAITING_PAGES} in total.
+ *
+ * Not thread-safe: all methods have to be called by the synchronizing thread. Call {@link #shutdown()}
+ * when done.
+ */
+public class SyncScheduler {
+
+    /**
+     * Requests done at the same time - keeps the load on the server and on slow mobile connections low
+     */
+    public static final int MAX_PARALLEL_REQUESTS = 3;
+
+    /**
+     * Received pages of all entity types that wait for the entities they depend on to be written
+     */
+    public static final int MAX_WAITING_PAGES = 4;
+
+    private static final String TIMING_CATEGORY = "Synchronization";
+
+    /**
+     * In order of adding, which is a topological order of the dependencies
+     */
+    private final Map<AdoDtoHelper<?, ?>, EntityNode> nodes = new LinkedHashMap<>();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(MAX_PARALLEL_REQUESTS);
+
+    private final PullPageLimit pageLimit = new PullPageLimit(MAX_WAITING_PAGES);
+
+    /**
+     * Released whenever a page has been received
+     */
+    private final Semaphore pageReceived = new Semaphore(0);
+
+    private final Runnable onPageAvailable = new Runnable() {
+        @Override
+        public void run() {
+            pageReceived.release();
+        }
+    };
+
+    /**
+     * @param dependencies have to be added before
+     */
+    public SyncScheduler add(AdoDtoHelper<?, ?> dtoHelper, AdoDtoHelper<?, ?>... dependencies) {
+
+        List<EntityNode> dependencyNodes = new ArrayList<>(dependencies.length);
+        for (AdoDtoHelper<?, ?> dependency : dependencies) {
+            EntityNode dependencyNode = nodes.get(dependency);
+            if (dependencyNode == null) {
+                throw new IllegalArgumentException("Dependency has to be added first: " + dependency.getClass().getSimpleName());
+            }
+            dependencyNodes.add(dependencyNode);
+        }
+        nodes.put(dtoHelper, new EntityNode(dtoHelper, dependencyNodes));
+        return this;
+    }
+
+    /**
+     * @return the added instance of the dto helper class
+     */
+    public <H extends AdoDtoHelper<?, ?>> H get(Class<H> dtoHelperClass) {
+
+        for (AdoDtoHelper<?, ?> dtoHelper : nodes.keySet()) {
+            if (dtoHelper.getClass() == dtoHelperClass) {
+                return dtoHelperClass.cast(dtoHelper);
+            }
+        }
+        throw new IllegalArgumentException("Not added: " + dtoHelperClass.getSimpleName());
+    }
+
+    /**
+     * Same as {@link AdoDtoHelper#pullAndPushEntities()} for all entity types.
+     *
+     * @return the entity types that need another pull, because data has been changed on the server:
+     * the pushed ones and the ones depending on them, which were pulled before the push and may have
+     * been updated by the server as well
+     */
+    public Set<AdoDtoHelper<?, ?>> pullAndPushEntities() throws DaoException, ServerConnectionException, ServerCommunicationException {
+
+        for (EntityNode node : nodes.values()) {
+            node.pullRequest = node.dtoHelper.startPull(false, executor, pageLimit, onPageAvailable);
+        }
+        run(nodes.values(), false, true);
+
+        Set<AdoDtoHelper<?, ?>> needPull = new LinkedHashSet<>();
+        for (EntityNode node : nodes.values()) {
+            boolean nodeNeedsPull = node.pushed;
+            for (EntityNode dependency : node.dependencies) {
+                nodeNeedsPull |= needPull.contains(dependency.dtoHelper);
+            }
+            if (nodeNeedsPull) {
+                needPull.add(node.dtoHelper);
+            }
+        }
+        return needPull;
+    }
+
+    /**
+     * Same as {@link AdoDtoHelper#pullEntities(boolean)} for the given entity types.
+     */
+    public void pullEntities(Collection<AdoDtoHelper<?, ?>> dtoHelpers, boolean markAsRead) throws DaoException, ServerConnectionException, ServerCommunicationException {
+
+        List<EntityNode> pulledNodes = getNodes(dtoHelpers);
+        for (EntityNode node : pulledNodes) {
+            node.pullRequest = node.dtoHelper.startPull(false, executor, pageLimit, onPageAvailable);
+        }
+        run(pulledNodes, markAsRead, false);
+    }
+
+    /**
+     * Same as {@link AdoDtoHelper#repullEntities()} for all entity types.
+     */
+    public void repullEntities() throws DaoException, ServerConnectionException, ServerCommunicationException {
+
+        for (EntityNode node : nodes.values()) {
+            node.pullRequest = node.dtoHelper.startPull(true, executor, pageLimit, onPageAvailable);
+        }
+        run(nodes.values(), false, false);
+    }
+
+    /**
+     * Same as {@link AdoDtoHelper#pullMissing(List)} for the given entity types.
+     */
+    public void pullMissing(Map<AdoDtoHelper<?, ?>, List<String>> uuids) throws DaoException, ServerConnectionException, ServerCommunicationException {
+
+        List<EntityNode> pulledNodes = getNodes(uuids.keySet());
+        for (EntityNode node : pulledNodes) {
+            node.pullRequest = node.dtoHelper.startPullMissing(uuids.get(node.dtoHelper), executor, pageLimit, onPageAvailable);
+        }
+        run(pulledNodes, false, false);
+    }
+
+    /**
+     * Starts the uuid request in the background; the result is available through {@link UuidRequest#get()}.
+     */
+    public UuidRequest requestUuids(final Call<List<String>> call) {
+        return new UuidRequest(executor.submit(new Callable<List<String>>() {
+            @Override
+            public List<String> call() throws Exception {
+                Response<List<String>> response;
+                try {
+                    response = call.execute();
+                } catch (IOException e) {
+                    throw new ServerCommunicationException(e);
+                }
+                if (!response.isSuccessful()) {
+                    RetroProvider.throwException(response);
+                }
+                return response.body();
+            }
+        }));
+    }
+
+    /**
+     * Logs the time spent per entity type since the scheduler has been created and reports it to the tracker.
+     *
+     * @param tracker may be null
+     */
+    public void reportTimings(String syncMode, Tracker tracker) {
+
+        for (EntityNode node : nodes.values()) {
+            if (node.pulledCount == 0 && node.networkMillis == 0 && node.pushMillis == 0) {
+                continue;
+            }
+
+            Log.i(SyncScheduler.class.getSimpleName(), node.name + ": pulled " + node.pulledCount
+                    + " (network " + node.networkMillis + " ms, waited " + node.waitMillis + " ms, written in " + node.writeMillis
+                    + " ms), pushed in " + node.pushMillis + " ms");
+
+            if (tracker != null) {
+                sendTiming(tracker, syncMode, node.name + " network", node.networkMillis);
+                sendTiming(tracker, syncMode, node.name + " write", node.writeMillis);
+                sendTiming(tracker, syncMode, node.name + " push", node.pushMillis);
+            }
+        }
+    }
+
+    private static void sendTiming(Tracker tracker, String syncMode, String variable, long millis) {
+        tracker.send(new HitBuilders.TimingBuilder()
+                .setCategory(TIMING_CATEGORY)
+                .setVariable(variable)
+                .setLabel(syncMode)
+                .setValue(millis)
+                .build());
+    }
+
+    /**
+     * Cancels running requests and stops the threads.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private List<EntityNode> getNodes(Collection<AdoDtoHelper<?, ?>> dtoHelpers) {
+
+        // keep the topological order
+        List<EntityNode> result = new ArrayList<>();
+        for (EntityNode node : nodes.values()) {
+            if (dtoHelpers.contains(node.dtoHelper)) {
+                result.add(node);
+            }
+        }
+        if (result.size() != dtoHelpers.size()) {
+            throw new IllegalArgumentException("Unknown entity type in " + Arrays.toString(dtoHelpers.toArray()));
+        }
+        return result;
+    }
+
+    /**
+     * Writes the pages of the started pull requests, each entity type after the ones it depends on.
+     * Entity types that are not part of this run count as done.
+     *
+     * The requests are started in topological order and the thread pool runs them in that order, so a request
+     * that waits for its pages to be written never blocks a request the written entity type depends on.
+     * The requests of ready entity types are no longer held back by the page limit, so the first pending
+     * entity type always receives its pages.
+     */
+    private void run(Collection<EntityNode> runNodes, boolean markAsRead, boolean push) throws DaoException, ServerConnectionException, ServerCommunicationException {
+
+        for (EntityNode node : nodes.values()) {
+            node.done = !runNodes.contains(node);
+            node.pushed = false;
+        }
+
+        List<EntityNode> pending = new ArrayList<>(runNodes);
+        while (!pending.isEmpty()) {
+
+            // pages received from now on wake up the wait below
+            pageReceived.drainPermits();
+
+            // any entity type that can be written without waiting for the server
+            EntityNode next = null;
+            EntityNode firstReady = null;
+            for (EntityNode node : pending) {
+                if (node.isReady()) {
+                    node.pullRequest.setDependenciesWritten();
+                    if (firstReady == null) {
+                        firstReady = node;
+                    }
+                    if (node.pullRequest.isPageAvailable()) {
+                        next = node;
+                        break;
+                    }
+                }
+            }
+
+            if (next == null) {
+                // there always is a ready entity type, because the first pending one only depends on done ones
+                long start = SystemClock.elapsedRealtime();
+                try {
+                    pageReceived.acquire();
+                } catch (InterruptedException e) {
+                    throw new ServerCommunicationException(e);
+                }
+                firstReady.waitMillis += SystemClock.elapsedRealtime() - start;
+                continue;
+            }
+
+            if (!next.handleNextPage(markAsRead)) {
+                if (push) {
+                    long start = SystemClock.elapsedRealtime();
+                    next.pushed = next.dtoHelper.pushEntities();
+                    next.pushMillis += SystemClock.elapsedRealtime() - start;
+                }
+                next.done = true;
+                pending.remove(next);
+            }
+        }
+    }
+
+    private static final class EntityNode {
+
+        private final AdoDtoHelper<?, ?> dtoHelper;
+        private final List<EntityNode> dependencies;
+        private final String name;
+
+        private AdoDtoHelper<?, ?>.PullRequest pullRequest;
+        private boolean done;
+        private boolean pushed;
+
+        private long networkMillis;
+        private long waitMillis;
+        private long writeMillis;
+        private long pushMillis;
+        private int pulledCount;
+
+        private EntityNode(AdoDtoHelper<?, ?> dtoHelper, List<EntityNode> dependencies) {
+            this.dtoHelper = dtoHelper;
+            this.dependencies = dependencies;
+            this.name = dtoHelper.getClass().getSimpleName().replace("DtoHelper", "");
+        }
+
+        private boolean isReady() {
+            for (EntityNode dependency : dependencies) {
+                if (!dependency.done) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return false when all pages have been written; the timings of the request are added then
+         */
+        private boolean handleNextPage(boolean markAsRead) throws DaoException, ServerConnectionException, ServerCommunicationException {
+
+            if (pullRequest.handleNextPage(markAsRead)) {
+                return true;
+            }
+            networkMillis += pullRequest.getNetworkMillis();
+            writeMillis += pullRequest.getWriteMillis();
+            pulledCount += pullRequest.getPulledCount();
+            pullRequest = null;
+            return false;
+        }
+    }
+
+    /**
+     * Uuids requested in the background by {@link #requestUuids(Call)}
+     */
+    public static final class UuidRequest {
+
+        private final Future<List<String>> future;
+
+        private UuidRequest(Future<List<String>> future) {
+            this.future = future;
+        }
+
+        /**
+         * Waits for the response.
+         */
+        public List<String> get() throws ServerConnectionException, ServerCommunicationException {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                throw new ServerCommunicationException(e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof ServerConnectionException) {
+                    throw (ServerConnectionException) cause;
+                } else if (cause instanceof ServerCommunicationException) {
+                    throw (ServerCommunicationException) cause;
+                }
+                throw new ServerCommunicationException(cause);
+            }
+        }
+    }
+}
@@ -28,13 +28,17 @@ import com.google.android.gms.analytics.Tracker;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.app.R;
 import de.symeda.sormas.app.SormasApplication;
 import de.symeda.sormas.app.backend.caze.CaseDtoHelper;
 import de.symeda.sormas.app.backend.classification.DiseaseClassificationDtoHelper;
+import de.symeda.sormas.app.backend.common.AdoDtoHelper;
 import de.symeda.sormas.app.backend.common.DaoException;
 import de.symeda.sormas.app.backend.common.DatabaseHelper;
 import de.symeda.sormas.app.backend.config.ConfigProvider;
@@ -182,83 +186,65 @@ public class SynchronizeDataAsync extends AsyncTask<Void, Void, Void> {
                 DatabaseHelper.getWeeklyReportDao().isAnyModified();
     }
 
-    private void synchronizeChangedData() throws DaoException, ServerConnectionException, ServerCommunicationException {
+    /**
+     * The entity types of the data, each one added after the ones it depends on (e.g. case & person)
+     */
+    private static SyncScheduler createDataScheduler() {
         PersonDtoHelper personDtoHelper = new PersonDtoHelper();
         CaseDtoHelper caseDtoHelper = new CaseDtoHelper();
         EventDtoHelper eventDtoHelper = new EventDtoHelper();
         EventParticipantDtoHelper eventParticipantDtoHelper = new EventParticipantDtoHelper();
         SampleDtoHelper sampleDtoHelper = new SampleDtoHelper();
-        SampleTestDtoHelper sampleTestDtoHelper = new SampleTestDtoHelper();
         ContactDtoHelper contactDtoHelper = new ContactDtoHelper();
-        VisitDtoHelper visitDtoHelper = new VisitDtoHelper();
-        TaskDtoHelper taskDtoHelper = new TaskDtoHelper();
-        WeeklyReportDtoHelper weeklyReportDtoHelper = new WeeklyReportDtoHelper();
 
-        // order is important, due to dependencies (e.g. case & person)
+        return new SyncScheduler()
+                .add(personDtoHelper)
+                .add(caseDtoHelper, personDtoHelper)
+                .add(eventDtoHelper)
+                .add(eventParticipantDtoHelper, eventDtoHelper, personDtoHelper)
+                .add(sampleDtoHelper, caseDtoHelper)
+                .add(new SampleTestDtoHelper(), sampleDtoHelper)
+                .add(contactDtoHelper, personDtoHelper, caseDtoHelper)
+                .add(new VisitDtoHelper(), personDtoHelper, contactDtoHelper)
+                .add(new TaskDtoHelper(), caseDtoHelper, contactDtoHelper, eventDtoHelper)
+                .add(new WeeklyReportDtoHelper());
+    }
+
+    private void reportTimingsAndShutdown(SyncScheduler scheduler) {
+        try {
+            SormasApplication application = (SormasApplication) context.getApplicationContext();
+            scheduler.reportTimings(syncMode.toString(), application.getDefaultTracker());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private void synchronizeChangedData() throws DaoException, ServerConnectionException, ServerCommunicationException {
 
         new OutbreakDtoHelper().pullEntities(false);
 
-        boolean personsNeedPull = personDtoHelper.pullAndPushEntities();
-        boolean casesNeedPull = caseDtoHelper.pullAndPushEntities();
-        boolean eventsNeedPull = eventDtoHelper.pullAndPushEntities();
-        boolean eventParticipantsNeedPull = eventParticipantDtoHelper.pullAndPushEntities();
-        boolean samplesNeedPull = sampleDtoHelper.pullAndPushEntities();
-        boolean sampleTestsNeedPull = sampleTestDtoHelper.pullAndPushEntities();
-        boolean contactsNeedPull = contactDtoHelper.pullAndPushEntities();
-        boolean visitsNeedPull = visitDtoHelper.pullAndPushEntities();
-        boolean tasksNeedPull = taskDtoHelper.pullAndPushEntities();
-        boolean weeklyReportsNeedPull = weeklyReportDtoHelper.pullAndPushEntities();
-
-        if (personsNeedPull)
-            personDtoHelper.pullEntities(true);
-        if (casesNeedPull)
-            caseDtoHelper.pullEntities(true);
-        if (eventsNeedPull)
-            eventDtoHelper.pullEntities(true);
-        if (eventParticipantsNeedPull)
-            eventParticipantDtoHelper.pullEntities(true);
-        if (samplesNeedPull)
-            sampleDtoHelper.pullEntities(true);
-        if (sampleTestsNeedPull)
-            sampleTestDtoHelper.pullEntities(true);
-        if (contactsNeedPull)
-            contactDtoHelper.pullEntities(true);
-        if (visitsNeedPull)
-            visitDtoHelper.pullEntities(true);
-        if (tasksNeedPull)
-            taskDtoHelper.pullEntities(true);
-        if (weeklyReportsNeedPull)
-            weeklyReportDtoHelper.pullEntities(true);
+        SyncScheduler scheduler = createDataScheduler();
+        try {
+            Set<AdoDtoHelper<?, ?>> needPull = scheduler.pullAndPushEntities();
+            scheduler.pullEntities(needPull, true);
+        } finally {
+            reportTimingsAndShutdown(scheduler);
+        }
     }
 
     private void repullData() throws DaoException, ServerConnectionException, ServerCommunicationException {
-        PersonDtoHelper personDtoHelper = new PersonDtoHelper();
-        CaseDtoHelper caseDtoHelper = new CaseDtoHelper();
-        EventDtoHelper eventDtoHelper = new EventDtoHelper();
-        EventParticipantDtoHelper eventParticipantDtoHelper = new EventParticipantDtoHelper();
-        SampleDtoHelper sampleDtoHelper = new SampleDtoHelper();
-        SampleTestDtoHelper sampleTestDtoHelper = new SampleTestDtoHelper();
-        ContactDtoHelper contactDtoHelper = new ContactDtoHelper();
-        VisitDtoHelper visitDtoHelper = new VisitDtoHelper();
-        TaskDtoHelper taskDtoHelper = new TaskDtoHelper();
-        WeeklyReportDtoHelper weeklyReportDtoHelper = new WeeklyReportDtoHelper();
-
-        // order is important, due to dependencies (e.g. case & person)
 
         new UserRoleConfigDtoHelper().repullEntities();
         new DiseaseClassificationDtoHelper().repullEntities();
         new UserDtoHelper().repullEntities();
         new OutbreakDtoHelper().repullEntities();
-        personDtoHelper.repullEntities();
-        caseDtoHelper.repullEntities();
-        eventDtoHelper.repullEntities();
-        eventParticipantDtoHelper.repullEntities();
-        sampleDtoHelper.repullEntities();
-        sampleTestDtoHelper.repullEntities();
-        contactDtoHelper.repullEntities();
-        visitDtoHelper.repullEntities();
-        taskDtoHelper.repullEntities();
-        weeklyReportDtoHelper.repullEntities();
+
+        SyncScheduler scheduler = createDataScheduler();
+        try {
+            scheduler.repullEntities();
+        } finally {
+            reportTimingsAndShutdown(scheduler);
+        }
     }
 
     private void pullInfrastructure() throws DaoException, ServerConnectionException, ServerCommunicationException {
@@ -312,54 +298,74 @@ public class SynchronizeDataAsync extends AsyncTask<Void, Void, Void> {
 
         Log.d(SynchronizeDataAsync.class.getSimpleName(), "pullMissingAndDeleteInvalidData");
 
-        // order is important, due to dependencies (e.g. case & person)
-
-        // weekly reports and entries
-        List<String> weeklyReportUuids = executeUuidCall(RetroProvider.getWeeklyReportFacade().pullUuids());
-        DatabaseHelper.getWeeklyReportDao().deleteInvalid(weeklyReportUuids);
-        // tasks
-        List<String> taskUuids = executeUuidCall(RetroProvider.getTaskFacade().pullUuids());
-        DatabaseHelper.getTaskDao().deleteInvalid(taskUuids);
-        // visits
-        List<String> visitUuids = executeUuidCall(RetroProvider.getVisitFacade().pullUuids());
-        DatabaseHelper.getVisitDao().deleteInvalid(visitUuids);
-        // contacts
-        List<String> contactUuids = executeUuidCall(RetroProvider.getContactFacade().pullUuids());
-        DatabaseHelper.getContactDao().deleteInvalid(contactUuids);
-        // sample tests
-        List<String> sampleTestUuids = executeUuidCall(RetroProvider.getSampleTestFacade().pullUuids());
-        DatabaseHelper.getSampleTestDao().deleteInvalid(sampleTestUuids);
-        // samples
-        List<String> sampleUuids = executeUuidCall(RetroProvider.getSampleFacade().pullUuids());
-        DatabaseHelper.getSampleDao().deleteInvalid(sampleUuids);
-        // event participants
-        List<String> eventParticipantUuids = executeUuidCall(RetroProvider.getEventParticipantFacade().pullUuids());
-        DatabaseHelper.getEventParticipantDao().deleteInvalid(eventParticipantUuids);
-        // events
-        List<String> eventUuids = executeUuidCall(RetroProvider.getEventFacade().pullUuids());
-        DatabaseHelper.getEventDao().deleteInvalid(eventUuids);
-        // cases
-        List<String> caseUuids = executeUuidCall(RetroProvider.getCaseFacade().pullUuids());
-        DatabaseHelper.getCaseDao().deleteInvalid(caseUuids);
-        // persons
-        List<String> personUuids = executeUuidCall(RetroProvider.getPersonFacade().pullUuids());
-        DatabaseHelper.getPersonDao().deleteInvalid(personUuids);
-        // outbreak
-        List<String> outbreakUuids = executeUuidCall(RetroProvider.getOutbreakFacade().pullActiveUuids());
-        DatabaseHelper.getOutbreakDao().deleteInvalid(outbreakUuids);
-
-        // order is important, due to dependencies (e.g. case & person)
-
-        new PersonDtoHelper().pullMissing(personUuids);
-        new CaseDtoHelper().pullMissing(caseUuids);
-        new EventDtoHelper().pullMissing(eventUuids);
-        new EventParticipantDtoHelper().pullMissing(eventParticipantUuids);
-        new SampleDtoHelper().pullMissing(sampleUuids);
-        new SampleTestDtoHelper().pullMissing(sampleTestUuids);
-        new ContactDtoHelper().pullMissing(contactUuids);
-        new VisitDtoHelper().pullMissing(visitUuids);
-        new TaskDtoHelper().pullMissing(taskUuids);
-        new WeeklyReportDtoHelper().pullMissing(weeklyReportUuids);
+        SyncScheduler scheduler = createDataScheduler();
+        try {
+            // request all uuid lists at once
+            SyncScheduler.UuidRequest weeklyReportUuidsRequest = scheduler.requestUuids(RetroProvider.getWeeklyReportFacade().pullUuids());
+            SyncScheduler.UuidRequest taskUuidsRequest = scheduler.requestUuids(RetroProvider.getTaskFacade().pullUuids());
+            SyncScheduler.UuidRequest visitUuidsRequest = scheduler.requestUuids(RetroProvider.getVisitFacade().pullUuids());
+            SyncScheduler.UuidRequest contactUuidsRequest = scheduler.requestUuids(RetroProvider.getContactFacade().pullUuids());
+            SyncScheduler.UuidRequest sampleTestUuidsRequest = scheduler.requestUuids(RetroProvider.getSampleTestFacade().pullUuids());
+            SyncScheduler.UuidRequest sampleUuidsRequest = scheduler.requestUuids(RetroProvider.getSampleFacade().pullUuids());
+            SyncScheduler.UuidRequest eventParticipantUuidsRequest = scheduler.requestUuids(RetroProvider.getEventParticipantFacade().pullUuids());
+            SyncScheduler.UuidRequest eventUuidsRequest = scheduler.requestUuids(RetroProvider.getEventFacade().pullUuids());
+            SyncScheduler.UuidRequest caseUuidsRequest = scheduler.requestUuids(RetroProvider.getCaseFacade().pullUuids());
+            SyncScheduler.UuidRequest personUuidsRequest = scheduler.requestUuids(RetroProvider.getPersonFacade().pullUuids());
+            SyncScheduler.UuidRequest outbreakUuidsRequest = scheduler.requestUuids(RetroProvider.getOutbreakFacade().pullActiveUuids());
+
+            // order is important, due to dependencies (e.g. case & person)
+
+            // weekly reports and entries
+            List<String> weeklyReportUuids = weeklyReportUuidsRequest.get();
+            DatabaseHelper.getWeeklyReportDao().deleteInvalid(weeklyReportUuids);
+            // tasks
+            List<String> taskUuids = taskUuidsRequest.get();
+            DatabaseHelper.getTaskDao().deleteInvalid(taskUuids);
+            // visits
+            List<String> visitUuids = visitUuidsRequest.get();
+            DatabaseHelper.getVisitDao().deleteInvalid(visitUuids);
+            // contacts
+            List<String> contactUuids = contactUuidsRequest.get();
+            DatabaseHelper.getContactDao().deleteInvalid(contactUuids);
+            // sample tests
+            List<String> sampleTestUuids = sampleTestUuidsRequest.get();
+            DatabaseHelper.getSampleTestDao().deleteInvalid(sampleTestUuids);
+            // samples
+            List<String> sampleUuids = sampleUuidsRequest.get();
+            DatabaseHelper.getSampleDao().deleteInvalid(sampleUuids);
+            // event participants
+            List<String> eventParticipantUuids = eventParticipantUuidsRequest.get();
+            DatabaseHelper.getEventParticipantDao().deleteInvalid(eventParticipantUuids);
+            // events
+            List<String> eventUuids = eventUuidsRequest.get();
+            DatabaseHelper.getEventDao().deleteInvalid(eventUuids);
+            // cases
+            List<String> caseUuids = caseUuidsRequest.get();
+            DatabaseHelper.getCaseDao().deleteInvalid(caseUuids);
+            // persons
+            List<String> personUuids = personUuidsRequest.get();
+            DatabaseHelper.getPersonDao().deleteInvalid(personUuids);
+            // outbreak
+            List<String> outbreakUuids = outbreakUuidsRequest.get();
+            DatabaseHelper.getOutbreakDao().deleteInvalid(outbreakUuids);
+
+            // order is important, due to dependencies (e.g. case & person)
+
+            Map<AdoDtoHelper<?, ?>, List<String>> missingUuids = new LinkedHashMap<>();
+            missingUuids.put(scheduler.get(PersonDtoHelper.class), personUuids);
+            missingUuids.put(scheduler.get(CaseDtoHelper.class), caseUuids);
+            missingUuids.put(scheduler.get(EventDtoHelper.class), eventUuids);
+            missingUuids.put(scheduler.get(EventParticipantDtoHelper.class), eventParticipantUuids);
+            missingUuids.put(scheduler.get(SampleDtoHelper.class), sampleUuids);
+            missingUuids.put(scheduler.get(SampleTestDtoHelper.class), sampleTestUuids);
+            missingUuids.put(scheduler.get(ContactDtoHelper.class), contactUuids);
+            missingUuids.put(scheduler.get(VisitDtoHelper.class), visitUuids);
+            missingUuids.put(scheduler.get(TaskDtoHelper.class), taskUuids);
+            missingUuids.put(scheduler.get(WeeklyReportDtoHelper.class), weeklyReportUuids);
+            scheduler.pullMissing(missingUuids);
+        } finally {
+            reportTimingsAndShutdown(scheduler);
+        }
     }
 
     private void pullMissingAndDeleteInvalidInfrastructure() throws ServerConnectionException, ServerCommunicationException, DaoException {
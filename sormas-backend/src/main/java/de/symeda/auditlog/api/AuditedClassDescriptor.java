@@ -0,0 +1,298 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.auditlog.api;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.persistence.Embedded;
+
+import org.apache.commons.lang3.ObjectUtils;
+
+import de.symeda.auditlog.api.value.DefaultValueContainer;
+import de.symeda.auditlog.api.value.format.ValueFormatter;
+import de.symeda.auditlog.api.value.format.override.DateFormatOverrideDetector;
+import de.symeda.auditlog.api.value.format.override.OverrideDetector;
+import de.symeda.auditlog.api.value.reflection.EntityInspector;
+
+/**
+ * The audited attributes of a class, determined once per class: the name, the accessor and the formatter of each attribute.
+ * <p/>
+ * Taking the state of an entity with {@link #capture(Object)} only calls the getters. Formatting the state with
+ * {@link #format(Object[])} is left to the moment the state is actually compared, i.e. when the entity is saved.
+ * The formatters are shared by all threads, so they must not keep any state.
+ * 
+ * @see Auditor
+ */
+final class AuditedClassDescriptor {
+
+	private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final ConcurrentMap<Class<?>, AuditedClassDescriptor> descriptors = new ConcurrentHashMap<>();
+
+	private final boolean audited;
+	private final List<AttributeDescriptor> attributes;
+	/**
+	 * The attributes when the class is embedded: All of them are handled like singular attributes.
+	 */
+	private final List<AttributeDescriptor> embeddedAttributes;
+
+	private AuditedClassDescriptor(Class<?> clazz) {
+
+		audited = isClassAudited(clazz);
+
+		List<AttributeDescriptor> attributes = new ArrayList<>();
+		List<AttributeDescriptor> embeddedAttributes = new ArrayList<>();
+		for (Method method : EntityInspector.getAuditedAttributes(clazz)) {
+			MethodHandle accessor = toAccessor(method);
+			String fieldName = EntityInspector.buildFieldName(method);
+			AuditedAttribute auditedAttribute = method.getAnnotation(AuditedAttribute.class);
+			AuditedCollection auditedCollection = method.getAnnotation(AuditedCollection.class);
+			boolean isCollection = Collection.class.isAssignableFrom(method.getReturnType());
+
+			AttributeDescriptor singularAttribute = new AttributeDescriptor(fieldName, accessor, AttributeType.SINGULAR,
+					overrideFormatter(EntityInspector.getFormatter(auditedAttribute), method), auditedAttribute);
+			embeddedAttributes.add(singularAttribute);
+
+			if (auditedAttribute != null || !isCollection) {
+				if (method.getDeclaredAnnotation(Embedded.class) == null) {
+					attributes.add(singularAttribute);
+				} else if (isClassAudited(method.getReturnType())) {
+					attributes.add(new AttributeDescriptor(fieldName, accessor, AttributeType.EMBEDDED, null, null));
+				}
+			} else {
+				attributes.add(new AttributeDescriptor(fieldName, accessor, AttributeType.COLLECTION,
+						EntityInspector.getCollectionFormatter(auditedCollection), null));
+			}
+		}
+		this.attributes = Collections.unmodifiableList(attributes);
+		this.embeddedAttributes = Collections.unmodifiableList(embeddedAttributes);
+	}
+
+	static AuditedClassDescriptor of(Class<?> clazz) {
+		return descriptors.computeIfAbsent(clazz, AuditedClassDescriptor::new);
+	}
+
+	/**
+	 * @return <code>true</code> if the class itself is annotated with {@link Audited}.
+	 */
+	boolean isAudited() {
+		return audited;
+	}
+
+	/**
+	 * Reads the values of the audited attributes without formatting them. Collections and dates are copied, so the
+	 * values don't change with the entity.
+	 * 
+	 * @return The values in the order of the attributes, to be passed to {@link #format(Object[])}.
+	 */
+	Object[] capture(Object entity) {
+		return capture(entity, attributes);
+	}
+
+	/**
+	 * @param values
+	 *            Captured by {@link #capture(Object)} of this descriptor.
+	 */
+	DefaultValueContainer format(Object[] values) {
+
+		DefaultValueContainer result = new DefaultValueContainer();
+		format(result, "", attributes, values);
+		return result;
+	}
+
+	private static Object[] capture(Object entity, List<AttributeDescriptor> attributes) {
+
+		Object[] values = new Object[attributes.size()];
+		for (int i = 0; i < values.length; i++) {
+			AttributeDescriptor attribute = attributes.get(i);
+			Object value;
+			try {
+				value = (Object) attribute.accessor.invokeExact(entity);
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new AuditlogException(String.format("No changes for entity %s can be detected.", entity.toString()), e);
+			}
+
+			if (value == null) {
+				values[i] = null;
+			} else if (attribute.type == AttributeType.EMBEDDED) {
+				AuditedClassDescriptor embeddableDescriptor = of(value.getClass());
+				values[i] = new EmbeddedValues(embeddableDescriptor, capture(value, embeddableDescriptor.embeddedAttributes));
+			} else if (attribute.type == AttributeType.COLLECTION) {
+				values[i] = new ArrayList<>((Collection<?>) value);
+			} else if (value instanceof Date) {
+				values[i] = ((Date) value).clone();
+			} else {
+				values[i] = value;
+			}
+		}
+		return values;
+	}
+
+	@SuppressWarnings({
+			"unchecked",
+			"rawtypes" })
+	private static void format(DefaultValueContainer result, String prefix, List<AttributeDescriptor> attributes, Object[] values) {
+
+		for (int i = 0; i < values.length; i++) {
+			AttributeDescriptor attribute = attributes.get(i);
+			Object value = values[i];
+
+			if (attribute.type == AttributeType.EMBEDDED) {
+				// Log the attributes of the Embeddable
+				if (value != null) {
+					EmbeddedValues embedded = (EmbeddedValues) value;
+					format(result, attribute.fieldName, embedded.descriptor.embeddedAttributes, embedded.values);
+				}
+			} else {
+				result.put(prefixFieldNameWith(prefix, attribute.fieldName), value, (ValueFormatter) attribute.formatter);
+				if (attribute.anonymizingString != null) {
+					result.configureAnonymizeValue(attribute.fieldName, attribute.anonymizingString);
+				}
+			}
+		}
+	}
+
+	private static MethodHandle toAccessor(Method method) {
+
+		try {
+			return MethodHandles.publicLookup().unreflect(method).asType(ACCESSOR_TYPE);
+		} catch (IllegalAccessException e) {
+			throw new AuditlogException(String.format("Audited attribute %s is not accessible.", method), e);
+		}
+	}
+
+	private static boolean isClassAudited(final Class<?> clazz) {
+
+		return clazz.getDeclaredAnnotation(Audited.class) != null;
+	}
+
+	private static String prefixFieldNameWith(String prefix, final String fieldName) {
+
+		if (prefix.isEmpty()) {
+			return fieldName;
+		} else {
+			return prefix + "." + fieldName;
+		}
+	}
+
+	/**
+	 * Decides which {@link ValueFormatter} should be used for this entity property. Returns the original {@link ValueFormatter} if
+	 * <ol>
+	 * <li>it already differs from the default ValueFormatter</li>
+	 * <li>no reasonable derivation based on the entity property can be found</li>
+	 * <ol>
+	 * 
+	 * @param original
+	 * 			The {@link ValueFormatter} given as a parameter to {@link AuditedAttribute}.
+	 * @param m
+	 * 			The entity property.
+	 * @return	The {@link ValueFormatter} to be used. Must not return <code>null</code>.
+	 */
+	static ValueFormatter<?> overrideFormatter(ValueFormatter<?> original, Method m) {
+
+		if (isDefaultFormatter(original.getClass())) {
+			OverrideDetector<?> detector = findOverrideDector(m);
+
+			if (detector != null) {
+				// If a reasonable default exists, use it.
+				return ObjectUtils.firstNonNull(detector.override(m), original);
+			} else {
+				return original;
+			}
+		}
+
+		return original;
+	}
+
+	/**
+	 * Checks based on the entity property which OverrideDetector may be used.
+	 * 
+	 * @param m
+	 * 			The entity property.
+	 * @return	Returns <code>null</code> if no {@link OverrideDetector} for the entity property can be found.
+	 */
+	private static OverrideDetector<?> findOverrideDector(Method m) {
+
+		OverrideDetector<?> suitedDetector = null;
+		if (Date.class.isAssignableFrom(m.getReturnType())) {
+			suitedDetector = new DateFormatOverrideDetector();
+		}
+
+		return suitedDetector;
+	}
+
+	/**
+	 * Checks whether a {@link ValueFormatter} is the default ValueFormatter.
+	 * 
+	 * @param specifiedFormatter
+	 * 			The {@link ValueFormatter} to check.
+	 * @return	Returns <code>true</code> if the Formatter to check matches the default ValueFormatter. Returns <code>false</code> otherwise.
+	 */
+	@SuppressWarnings("rawtypes")
+	private static boolean isDefaultFormatter(Class<? extends ValueFormatter> specifiedFormatter) {
+		return AuditedAttribute.DEFAULT_FORMATTER.equals(specifiedFormatter);
+	}
+
+	private enum AttributeType {
+		SINGULAR,
+		COLLECTION,
+		EMBEDDED
+	}
+
+	private static final class AttributeDescriptor {
+
+		private final String fieldName;
+		private final MethodHandle accessor;
+		private final AttributeType type;
+		private final ValueFormatter<?> formatter;
+		private final String anonymizingString;
+
+		private AttributeDescriptor(String fieldName, MethodHandle accessor, AttributeType type, ValueFormatter<?> formatter,
+				AuditedAttribute annotation) {
+
+			this.fieldName = fieldName;
+			this.accessor = accessor;
+			this.type = type;
+			this.formatter = formatter;
+			this.anonymizingString = annotation != null && annotation.anonymous() ? annotation.anonymizingString() : null;
+		}
+	}
+
+	private static final class EmbeddedValues {
+
+		private final AuditedClassDescriptor descriptor;
+		private final Object[] values;
+
+		private EmbeddedValues(AuditedClassDescriptor descriptor, Object[] values) {
+			this.descriptor = descriptor;
+			this.values = values;
+		}
+	}
+}
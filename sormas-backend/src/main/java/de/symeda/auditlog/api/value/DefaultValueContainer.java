@@ -17,7 +17,6 @@
  *******************************************************************************/
 package de.symeda.auditlog.api.value;
 
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -25,6 +24,8 @@ import java.util.Objects;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
+import org.apache.commons.lang3.time.FastDateFormat;
+
 import de.symeda.auditlog.api.value.format.EnumFormatter;
 import de.symeda.auditlog.api.value.format.ValueFormatter;
 
@@ -172,7 +173,7 @@ public class DefaultValueContainer implements SimpleValueContainer {
 	@Override
 	public void put(String key, Date date, String datePattern) {
 
-		put(key, date, value -> new SimpleDateFormat(datePattern).format(value));
+		put(key, date, FastDateFormat.getInstance(datePattern)::format);
 	}
 
 	/**
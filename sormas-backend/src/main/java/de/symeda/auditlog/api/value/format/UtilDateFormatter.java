@@ -18,11 +18,12 @@
 package de.symeda.auditlog.api.value.format;
 
 import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 
 import javax.persistence.TemporalType;
 
+import org.apache.commons.lang3.time.FastDateFormat;
+
 /**
  * Formats {@link Date}s according to a configurable pattern.
  * 
@@ -35,6 +36,7 @@ public class UtilDateFormatter implements ValueFormatter<Date> {
 	public static final String HOUR_MIN_PATTERN = "HH:mm";
 
 	private final String pattern;
+	private final FastDateFormat dateFormat;
 
 	/**
 	 * <ul>
@@ -63,6 +65,7 @@ public class UtilDateFormatter implements ValueFormatter<Date> {
 	 */
 	public UtilDateFormatter(String pattern) {
 		this.pattern = pattern;
+		this.dateFormat = FastDateFormat.getInstance(pattern);
 	}
 
 	/**
@@ -74,7 +77,7 @@ public class UtilDateFormatter implements ValueFormatter<Date> {
 
 	@Override
 	public String format(Date value) {
-		return new SimpleDateFormat(pattern).format(value);
+		return dateFormat.format(value);
 
 	}
 
@@ -22,12 +22,19 @@ import javax.ejb.SessionContext;
 import javax.ejb.Stateless;
 import javax.enterprise.context.Dependent;
 import javax.enterprise.inject.Produces;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import javax.transaction.TransactionScoped;
 
+import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
+import org.eclipse.persistence.sessions.UnitOfWork;
+
 import de.symeda.auditlog.api.Auditor;
 import de.symeda.auditlog.api.Current;
 import de.symeda.auditlog.api.TransactionId;
 import de.symeda.auditlog.api.UserId;
+import de.symeda.sormas.api.HasUuid;
+import de.symeda.sormas.backend.util.ModelConstants;
 
 /**
  * Provides the relevant environment for the Auditlog.
@@ -41,6 +48,9 @@ public class AuditContextProducer {
 	@Resource
 	private SessionContext context;
 
+	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
+	private EntityManager em;
+
 	/**
 	 * Returns the information which user a change should be associated with according to the EJB context.
 	 */
@@ -68,4 +78,23 @@ public class AuditContextProducer {
 
 		return new TransactionId();
 	}
+
+	/**
+	 * Looks up the backup copy of the entity that EclipseLink keeps in the persistence context to detect its changes,
+	 * i.e. the entity in the state it has been loaded in. The copy only exists with deferred change detection, which is
+	 * why change tracking is not woven into the entities (see persistence.xml).
+	 * 
+	 * @return <code>null</code> if the entity is not managed or there is no copy
+	 */
+	public HasUuid getOriginal(HasUuid entity) {
+
+		UnitOfWork unitOfWork = em.unwrap(UnitOfWork.class);
+		if (!(unitOfWork instanceof UnitOfWorkImpl) || !unitOfWork.isObjectRegistered(entity)) {
+			return null;
+		}
+
+		Object backupClone = ((UnitOfWorkImpl) unitOfWork).getBackupClone(entity);
+		// With attribute change tracking, the entity itself is returned
+		return backupClone != entity ? (HasUuid) backupClone : null;
+	}
 }
@@ -23,7 +23,6 @@ import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.BeanManager;
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
-import javax.persistence.PostLoad;
 import javax.persistence.PrePersist;
 import javax.persistence.PreRemove;
 import javax.persistence.PreUpdate;
@@ -63,7 +62,6 @@ public class AuditListenerCdiWrapper implements Serializable, AuditListener {
 	}
 
 	@Override
-	@PreUpdate
 	@PrePersist
 	public void prePersist(HasUuid o) {
 
@@ -71,10 +69,10 @@ public class AuditListenerCdiWrapper implements Serializable, AuditListener {
 	}
 
 	@Override
-	@PostLoad
-	public void postLoad(HasUuid o) {
+	@PreUpdate
+	public void preUpdate(HasUuid o) {
 
-		this.getBeanByName().postLoad(o);
+		this.getBeanByName().preUpdate(o);
 	}
 
 	@Override
@@ -50,9 +50,18 @@ public class AuditLogEntry implements Serializable {
 
 	private static final String SEQ_JPA_NAME = "Auditlog_seq";
 	private static final String SEQ_SQL_NAME = "auditlog_seq";
+	/**
+	 * Has to match the increment of the sequence.
+	 */
+	private static final int SEQ_ALLOCATION_SIZE = 50;
+
+	public static final String ID = "id";
+	public static final String UUID = "uuid";
+	public static final String DETECTION_TIMESTAMP = "detectionTimestamp";
+	public static final String ATTRIBUTES = "attributes";
 
 	@Id
-	@SequenceGenerator(name = SEQ_JPA_NAME, allocationSize = 1, sequenceName = SEQ_SQL_NAME)
+	@SequenceGenerator(name = SEQ_JPA_NAME, allocationSize = SEQ_ALLOCATION_SIZE, sequenceName = SEQ_SQL_NAME)
 	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SEQ_JPA_NAME)
 	private Long id;
 
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.auditlog;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Counts what happens to the entries handed to the {@link AuditLogWriter}.
+ */
+public class AuditLogMetrics implements AuditLogMetricsMXBean {
+
+	public static final String OBJECT_NAME = "de.symeda.sormas:type=AuditLogWriter";
+
+	private static final Logger logger = LoggerFactory.getLogger(AuditLogMetrics.class);
+
+	private final Collection<?> queue;
+
+	private final AtomicLong enqueuedCount = new AtomicLong();
+	private final AtomicLong writtenCount = new AtomicLong();
+	private final AtomicLong backPressureCount = new AtomicLong();
+	private final AtomicLong overflowCount = new AtomicLong();
+	private final AtomicLong failedBatchCount = new AtomicLong();
+	private final AtomicLong lostCount = new AtomicLong();
+
+	AuditLogMetrics(Collection<?> queue) {
+		this.queue = queue;
+	}
+
+	void countEnqueued() {
+		enqueuedCount.incrementAndGet();
+	}
+
+	void countWritten(int count) {
+		writtenCount.addAndGet(count);
+	}
+
+	void countBackPressure() {
+		backPressureCount.incrementAndGet();
+	}
+
+	void countOverflow(int count) {
+		overflowCount.addAndGet(count);
+	}
+
+	void countFailedBatch() {
+		failedBatchCount.incrementAndGet();
+	}
+
+	void countLost(int count) {
+		lostCount.addAndGet(count);
+	}
+
+	@Override
+	public int getQueueSize() {
+		return queue.size();
+	}
+
+	@Override
+	public long getEnqueuedCount() {
+		return enqueuedCount.get();
+	}
+
+	@Override
+	public long getWrittenCount() {
+		return writtenCount.get();
+	}
+
+	@Override
+	public long getBackPressureCount() {
+		return backPressureCount.get();
+	}
+
+	@Override
+	public long getOverflowCount() {
+		return overflowCount.get();
+	}
+
+	@Override
+	public long getFailedBatchCount() {
+		return failedBatchCount.get();
+	}
+
+	@Override
+	public long getLostCount() {
+		return lostCount.get();
+	}
+
+	/**
+	 * An MBean left over by a previous deployment is replaced.
+	 */
+	void registerMBean() {
+		try {
+			MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = new ObjectName(OBJECT_NAME);
+			if (mBeanServer.isRegistered(objectName)) {
+				mBeanServer.unregisterMBean(objectName);
+			}
+			mBeanServer.registerMBean(this, objectName);
+		} catch (JMException e) {
+			logger.warn("Could not register the audit log metrics MBean: " + e.getMessage(), e);
+		}
+	}
+
+	void unregisterMBean() {
+		try {
+			MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = new ObjectName(OBJECT_NAME);
+			if (mBeanServer.isRegistered(objectName)) {
+				mBeanServer.unregisterMBean(objectName);
+			}
+		} catch (JMException e) {
+			logger.warn("Could not unregister the audit log metrics MBean: " + e.getMessage(), e);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.auditlog;
+
+/**
+ * JMX view of the {@link AuditLogMetrics} of the {@link AuditLogWriter}, registered as
+ * {@value AuditLogMetrics#OBJECT_NAME}.
+ */
+public interface AuditLogMetricsMXBean {
+
+	/**
+	 * Entries currently waiting in the queue of the writer
+	 */
+	int getQueueSize();
+
+	/**
+	 * Entries put into the queue since the start
+	 */
+	long getEnqueuedCount();
+
+	/**
+	 * Entries written since the start, including the overflow
+	 */
+	long getWrittenCount();
+
+	/**
+	 * How often a committing transaction had to wait for free space in the queue
+	 */
+	long getBackPressureCount();
+
+	/**
+	 * Entries that did not fit into the queue and were handed to the writer directly
+	 */
+	long getOverflowCount();
+
+	/**
+	 * Batches that could not be written together and were written entry by entry
+	 */
+	long getFailedBatchCount();
+
+	/**
+	 * Entries that could not be written after {@value AuditLogWriter#MAX_WRITE_ATTEMPTS} attempts or could not be
+	 * queued again
+	 */
+	long getLostCount();
+}
@@ -17,8 +17,13 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.auditlog;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
+import javax.annotation.Resource;
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
@@ -26,6 +31,13 @@ import javax.enterprise.event.Observes;
 import javax.enterprise.event.TransactionPhase;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
 
 import de.symeda.auditlog.api.ChangeEvent;
 import de.symeda.sormas.backend.util.ModelConstants;
@@ -33,14 +45,27 @@ import de.symeda.sormas.backend.util.ModelConstants;
 /**
  * Turns {@link ChangeEvent}s to {@link AuditLogEntry} and saves it.
  * 
+ * The entries of a transaction are collected until the transaction has been committed and then handed over
+ * to the {@link AuditLogWriter}, which saves them in batches. Entries of transactions that are rolled back are
+ * discarded.
+ * 
  * @author Oliver Milke
  */
 @Stateless
+@LocalBean
 public class AuditLogServiceBean {
 
+	private static final String TRANSACTION_ENTRIES_KEY = AuditLogServiceBean.class.getName() + ".entries";
+
 	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME_AUDITLOG)
 	private EntityManager entityManager;
 
+	@Resource
+	private TransactionSynchronizationRegistry transactionRegistry;
+
+	@EJB
+	private AuditLogWriter auditLogWriter;
+
 	@TransactionAttribute(TransactionAttributeType.MANDATORY)
 	public void receiveChanges(@Observes(during = TransactionPhase.IN_PROGRESS) ChangeEvent event) {
 
@@ -55,6 +80,65 @@ public class AuditLogServiceBean {
 		log.setUuid(event.getOid().getEntityUuid());
 		log.setClazz(event.getOid().getEntityClass().getName());
 
-		this.entityManager.persist(log);
+		getTransactionEntries().add(log);
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<AuditLogEntry> getTransactionEntries() {
+
+		List<AuditLogEntry> entries = (List<AuditLogEntry>) transactionRegistry.getResource(TRANSACTION_ENTRIES_KEY);
+		if (entries == null) {
+			List<AuditLogEntry> transactionEntries = new ArrayList<>();
+			transactionRegistry.putResource(TRANSACTION_ENTRIES_KEY, transactionEntries);
+			transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+
+				@Override
+				public void beforeCompletion() {
+					// nothing to do
+				}
+
+				@Override
+				public void afterCompletion(int status) {
+					if (status == Status.STATUS_COMMITTED) {
+						List<AuditLogEntry> overflow = auditLogWriter.enqueue(transactionEntries);
+						if (!overflow.isEmpty()) {
+							// asynchronously, so the completing transaction doesn't wait for the audit log database
+							auditLogWriter.writeOverflow(overflow);
+						}
+					}
+				}
+			});
+			entries = transactionEntries;
+		}
+		return entries;
+	}
+
+	/**
+	 * Saves the entries in a transaction of their own.
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public void persist(List<AuditLogEntry> entries) {
+
+		for (AuditLogEntry entry : entries) {
+			entityManager.persist(entry);
+		}
+	}
+
+	/**
+	 * @return The changes of the entity with the given uuid and their attributes, oldest first. Changes that have just
+	 *         been committed might not have been written yet.
+	 */
+	public List<AuditLogEntry> getEntityHistory(String uuid) {
+
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<AuditLogEntry> cq = cb.createQuery(AuditLogEntry.class);
+		Root<AuditLogEntry> from = cq.from(AuditLogEntry.class);
+		from.fetch(AuditLogEntry.ATTRIBUTES, JoinType.LEFT);
+
+		cq.distinct(true);
+		cq.where(cb.equal(from.get(AuditLogEntry.UUID), uuid));
+		cq.orderBy(cb.asc(from.get(AuditLogEntry.DETECTION_TIMESTAMP)), cb.asc(from.get(AuditLogEntry.ID)));
+
+		return entityManager.createQuery(cq).getResultList();
 	}
 }
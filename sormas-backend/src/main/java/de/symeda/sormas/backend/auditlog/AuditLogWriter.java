@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.auditlog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.Asynchronous;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the {@link AuditLogEntry}s of committed transactions in the background, so the transactions don't have to
+ * wait for the audit log database.
+ * 
+ * The entries are kept in a bounded queue. When it is full, committing transactions wait up to
+ * {@link #BACK_PRESSURE_TIMEOUT_MILLIS} for free space. Their remaining entries are then handed to
+ * {@link #writeOverflow(List)}, so no entries are lost.
+ * 
+ * Entries of a batch that can't be written are written one by one. An entry that still fails is retried with the
+ * next runs and dropped after {@link #MAX_WRITE_ATTEMPTS} attempts, so it doesn't keep the queue from being written.
+ * The counters are available as {@link AuditLogMetricsMXBean}.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@LocalBean
+public class AuditLogWriter {
+
+	public static final int QUEUE_CAPACITY = 20000;
+	public static final int BATCH_SIZE = 500;
+	public static final long BACK_PRESSURE_TIMEOUT_MILLIS = 1000;
+	public static final int MAX_WRITE_ATTEMPTS = 5;
+
+	private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+	private final BlockingDeque<QueuedEntry> queue = new LinkedBlockingDeque<>(QUEUE_CAPACITY);
+	private final AtomicBoolean writing = new AtomicBoolean();
+	private final AuditLogMetrics metrics = new AuditLogMetrics(queue);
+
+	@EJB
+	private AuditLogServiceBean auditLogService;
+
+	public AuditLogWriter() {
+	}
+
+	AuditLogWriter(AuditLogServiceBean auditLogService) {
+		this.auditLogService = auditLogService;
+	}
+
+	@PostConstruct
+	public void registerMetrics() {
+		metrics.registerMBean();
+	}
+
+	/**
+	 * Called after the commit of a transaction with its entries.
+	 * 
+	 * @return The entries that did not fit into the queue, to be passed to {@link #writeOverflow(List)}.
+	 */
+	public List<AuditLogEntry> enqueue(List<AuditLogEntry> entries) {
+
+		for (int i = 0; i < entries.size(); i++) {
+			QueuedEntry entry = new QueuedEntry(entries.get(i));
+
+			boolean queued = queue.offer(entry);
+			if (!queued) {
+				metrics.countBackPressure();
+				try {
+					queued = queue.offer(entry, BACK_PRESSURE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			if (!queued) {
+				List<AuditLogEntry> overflow = new ArrayList<>(entries.subList(i, entries.size()));
+				metrics.countOverflow(overflow.size());
+				logger.warn("Audit log queue is full - " + overflow.size() + " entries are written directly");
+				return overflow;
+			}
+			metrics.countEnqueued();
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Writes the entries that did not fit into the queue, outside of the transaction that produced them. Entries
+	 * that can't be written are queued for a retry, if there is space again.
+	 */
+	@Asynchronous
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+	public void writeOverflow(List<AuditLogEntry> entries) {
+
+		List<QueuedEntry> queuedEntries = new ArrayList<>(entries.size());
+		for (AuditLogEntry entry : entries) {
+			queuedEntries.add(new QueuedEntry(entry));
+		}
+
+		List<QueuedEntry> failed = new ArrayList<>();
+		write(queuedEntries, failed);
+		requeue(failed);
+	}
+
+	/**
+	 * Writes all queued entries in batches of {@link #BATCH_SIZE}, each batch in a transaction of its own.
+	 * Entries that can't be written are put back at the end of the queue and retried with the next run.
+	 */
+	@Schedule(hour = "*", minute = "*", second = "*/5", persistent = false)
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+	public void writeQueuedEntries() {
+
+		if (!writing.compareAndSet(false, true)) {
+			// still busy with the previous run
+			return;
+		}
+
+		List<QueuedEntry> failed = new ArrayList<>();
+		try {
+			List<QueuedEntry> batch = new ArrayList<>(BATCH_SIZE);
+			while (queue.drainTo(batch, BATCH_SIZE) > 0) {
+				if (write(batch, failed) == 0) {
+					// most likely the audit log database is not available - the next run tries again
+					return;
+				}
+				batch.clear();
+			}
+		} finally {
+			requeue(failed);
+			writing.set(false);
+		}
+	}
+
+	/**
+	 * Writes the entries together or, if that fails, one by one. When an entry that has not failed before can't be
+	 * written and no entry could be written so far, the database is most likely not available and the remaining
+	 * entries are not tried.
+	 * 
+	 * @param failed
+	 *            Receives the entries that could not be written, unless they have been dropped after
+	 *            {@link #MAX_WRITE_ATTEMPTS} attempts.
+	 * @return The number of written entries.
+	 */
+	private int write(List<QueuedEntry> entries, List<QueuedEntry> failed) {
+
+		try {
+			List<AuditLogEntry> batch = new ArrayList<>(entries.size());
+			for (QueuedEntry entry : entries) {
+				batch.add(entry.entry);
+			}
+			auditLogService.persist(batch);
+			metrics.countWritten(entries.size());
+			return entries.size();
+		} catch (RuntimeException e) {
+			metrics.countFailedBatch();
+			logger.warn("Could not write " + entries.size() + " audit log entries together, writing them one by one: " + e.getMessage());
+		}
+
+		int writtenCount = 0;
+		for (int i = 0; i < entries.size(); i++) {
+			QueuedEntry entry = entries.get(i);
+			try {
+				auditLogService.persist(Collections.singletonList(entry.entry));
+				writtenCount++;
+				metrics.countWritten(1);
+			} catch (RuntimeException e) {
+				entry.failedAttempts++;
+				if (entry.failedAttempts < MAX_WRITE_ATTEMPTS) {
+					failed.add(entry);
+				} else {
+					metrics.countLost(1);
+					logger.error("Could not write the audit log entry of " + entry.entry.getClazz() + " " + entry.entry.getUuid()
+							+ " after " + MAX_WRITE_ATTEMPTS + " attempts, it is lost: " + e.getMessage(), e);
+				}
+
+				if (writtenCount == 0 && entry.failedAttempts == 1) {
+					failed.addAll(entries.subList(i + 1, entries.size()));
+					return 0;
+				}
+			}
+		}
+		return writtenCount;
+	}
+
+	private void requeue(List<QueuedEntry> entries) {
+
+		// at the end of the queue, so the next run starts with other entries
+		for (int i = 0; i < entries.size(); i++) {
+			if (!queue.offerLast(entries.get(i))) {
+				int lostCount = entries.size() - i;
+				metrics.countLost(lostCount);
+				logger.error("Audit log queue is full - " + lostCount + " entries could not be queued again and are lost");
+				return;
+			}
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		writeQueuedEntries();
+		metrics.unregisterMBean();
+	}
+
+	AuditLogMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * An entry with the number of its failed write attempts.
+	 */
+	private static final class QueuedEntry {
+
+		private final AuditLogEntry entry;
+		private int failedAttempts;
+
+		private QueuedEntry(AuditLogEntry entry) {
+			this.entry = entry;
+		}
+	}
+}
@@ -23,7 +23,6 @@ import java.util.Collections;
 
 import javax.enterprise.event.Event;
 import javax.inject.Inject;
-import javax.persistence.PostLoad;
 import javax.persistence.PrePersist;
 import javax.persistence.PreRemove;
 import javax.persistence.PreUpdate;
@@ -60,12 +59,14 @@ public class DefaultAuditListener implements Serializable, AuditListener {
 	@Current
 	private UserId userId;
 
+	@Inject
+	private AuditContextProducer auditContext;
+
 	@Inject
 	Event<ChangeEvent> event;
 
 	@Override
 	@PrePersist
-	@PreUpdate
 	public void prePersist(HasUuid o) {
 
 		ChangeEvent data = new ChangeEvent(this.auditor.detectChanges(o), EntityId.getOidFromHasUuid(o), LocalDateTime.now(), userId, transactionId);
@@ -73,10 +74,12 @@ public class DefaultAuditListener implements Serializable, AuditListener {
 	}
 
 	@Override
-	@PostLoad
-	public void postLoad(HasUuid o) {
+	@PreUpdate
+	public void preUpdate(HasUuid o) {
 
-		auditor.register(o);
+		ChangeEvent data = new ChangeEvent(this.auditor.detectChanges(o, auditContext.getOriginal(o)), EntityId.getOidFromHasUuid(o), LocalDateTime.now(),
+				userId, transactionId);
+		event.fire(data);
 	}
 
 	@Override
@@ -17,6 +17,7 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.caze;
 
+import java.sql.Timestamp;
 import java.util.Date;
 import java.util.List;
 
@@ -105,6 +106,7 @@ public class Case extends AbstractDomainObject {
 	public static final String SEQUELAE_DETAILS = "sequelaeDetails";
 	public static final String CASE_AGE = "caseAge";
 	public static final String ARCHIVED = "archived";
+	public static final String CHANGE_DATE_AGGREGATE = "changeDateAggregate";
 
 	private Person person;
 	private String description;
@@ -166,6 +168,7 @@ public class Case extends AbstractDomainObject {
 	private boolean archived;
 
 	private List<Task> tasks;
+	private Timestamp changeDateAggregate;
 
 	@ManyToOne(cascade = {})
 	@JoinColumn(nullable = false)
@@ -619,4 +622,17 @@ public class Case extends AbstractDomainObject {
 		this.systemCaseClassification = systemCaseClassification;
 	}
 
+	/**
+	 * Latest change date of the case and its symptoms, hospitalization (incl. previous hospitalizations) and epi data (incl. travels, burials and gatherings).
+	 * Maintained by database triggers (see sormas_schema.sql), so the sync only needs to check this column.
+	 */
+	@Column(insertable = false, updatable = false)
+	@AuditedIgnore
+	public Timestamp getChangeDateAggregate() {
+		return changeDateAggregate;
+	}
+
+	public void setChangeDateAggregate(Timestamp changeDateAggregate) {
+		this.changeDateAggregate = changeDateAggregate;
+	}
 }
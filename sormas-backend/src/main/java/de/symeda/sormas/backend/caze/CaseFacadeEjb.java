@@ -26,18 +26,25 @@ import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Order;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
@@ -53,6 +60,7 @@ import de.symeda.sormas.api.DiseaseHelper;
 import de.symeda.sormas.api.IntegerRange;
 import de.symeda.sormas.api.Month;
 import de.symeda.sormas.api.MonthOfYear;
+import de.symeda.sormas.api.PushResult;
 import de.symeda.sormas.api.Quarter;
 import de.symeda.sormas.api.QuarterOfYear;
 import de.symeda.sormas.api.Year;
@@ -84,6 +92,7 @@ import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.region.RegionDto;
 import de.symeda.sormas.api.region.RegionReferenceDto;
 import de.symeda.sormas.api.sample.SampleTestDto;
+import de.symeda.sormas.api.sample.SampleTestResultType;
 import de.symeda.sormas.api.statistics.StatisticsCaseAttribute;
 import de.symeda.sormas.api.statistics.StatisticsCaseCriteria;
 import de.symeda.sormas.api.statistics.StatisticsCaseSubAttribute;
@@ -102,20 +111,26 @@ import de.symeda.sormas.api.utils.DataHelper;
 import de.symeda.sormas.api.utils.DataHelper.Pair;
 import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.api.utils.EpiWeek;
+import de.symeda.sormas.api.utils.SortProperty;
+import de.symeda.sormas.api.utils.SyncCursor;
 import de.symeda.sormas.api.utils.ValidationRuntimeException;
 import de.symeda.sormas.api.utils.YesNoUnknown;
+import de.symeda.sormas.backend.caze.classification.CaseClassificationFacadeEjb;
 import de.symeda.sormas.backend.caze.classification.CaseClassificationFacadeEjb.CaseClassificationFacadeEjbLocal;
 import de.symeda.sormas.backend.clinicalcourse.ClinicalCourseFacadeEjb;
 import de.symeda.sormas.backend.clinicalcourse.ClinicalCourseFacadeEjb.ClinicalCourseFacadeEjbLocal;
 import de.symeda.sormas.backend.common.AbstractAdoService;
 import de.symeda.sormas.backend.common.AbstractDomainObject;
 import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
+import de.symeda.sormas.backend.common.InfrastructureCache;
 import de.symeda.sormas.backend.common.MessageType;
 import de.symeda.sormas.backend.common.MessagingService;
-import de.symeda.sormas.backend.common.NotificationDeliveryFailedException;
+import de.symeda.sormas.backend.common.PushBatchService;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactFacadeEjb.ContactFacadeEjbLocal;
 import de.symeda.sormas.backend.contact.ContactService;
+import de.symeda.sormas.backend.disease.DiseaseDailyCountService;
+import de.symeda.sormas.backend.disease.DiseaseDailyCountService.Cell;
 import de.symeda.sormas.backend.epidata.EpiData;
 import de.symeda.sormas.backend.epidata.EpiDataFacadeEjb;
 import de.symeda.sormas.backend.epidata.EpiDataFacadeEjb.EpiDataFacadeEjbLocal;
@@ -133,6 +148,7 @@ import de.symeda.sormas.backend.hospitalization.HospitalizationFacadeEjb.Hospita
 import de.symeda.sormas.backend.hospitalization.HospitalizationService;
 import de.symeda.sormas.backend.hospitalization.PreviousHospitalization;
 import de.symeda.sormas.backend.hospitalization.PreviousHospitalizationService;
+import de.symeda.sormas.backend.location.Location;
 import de.symeda.sormas.backend.location.LocationFacadeEjb.LocationFacadeEjbLocal;
 import de.symeda.sormas.backend.location.LocationService;
 import de.symeda.sormas.backend.person.Person;
@@ -155,6 +171,9 @@ import de.symeda.sormas.backend.sample.Sample;
 import de.symeda.sormas.backend.sample.SampleService;
 import de.symeda.sormas.backend.sample.SampleTestFacadeEjb.SampleTestFacadeEjbLocal;
 import de.symeda.sormas.backend.sample.SampleTestService;
+import de.symeda.sormas.backend.statistics.StatisticsCaseCount;
+import de.symeda.sormas.backend.statistics.StatisticsCaseCountDateType;
+import de.symeda.sormas.backend.statistics.StatisticsCaseCountService;
 import de.symeda.sormas.backend.symptoms.Symptoms;
 import de.symeda.sormas.backend.symptoms.SymptomsFacadeEjb;
 import de.symeda.sormas.backend.symptoms.SymptomsFacadeEjb.SymptomsFacadeEjbLocal;
@@ -246,6 +265,14 @@ public class CaseFacadeEjb implements CaseFacade {
 	private TherapyFacadeEjbLocal therapyFacade;
 	@EJB
 	private ClinicalCourseFacadeEjbLocal clinicalCourseFacade;
+	@EJB
+	private PushBatchService pushBatchService;
+	@EJB
+	private DiseaseDailyCountService diseaseDailyCountService;
+	@EJB
+	private StatisticsCaseCountService statisticsCaseCountService;
+	@EJB
+	private InfrastructureCache infrastructureCache;
 	
 	private static final Logger logger = LoggerFactory.getLogger(CaseFacadeEjb.class);
 
@@ -262,6 +289,19 @@ public class CaseFacadeEjb implements CaseFacade {
 				.collect(Collectors.toList());
 	}
 
+	@Override
+	public List<CaseDataDto> getAllActiveCasesAfter(Date date, String userUuid, SyncCursor cursor, int limit) {
+		User user = userService.getByUuid(userUuid);
+
+		if (user == null) {
+			return Collections.emptyList();
+		}
+
+		return caseService.getAllActiveCasesAfter(date, user, cursor, limit).stream()
+				.map(c -> toDto(c))
+				.collect(Collectors.toList());
+	}
+
 	@Override
 	public List<CaseDataDto> getByUuids(List<String> uuids) {
 		return caseService.getByUuids(uuids).stream().map(c -> toDto(c)).collect(Collectors.toList());
@@ -269,6 +309,11 @@ public class CaseFacadeEjb implements CaseFacade {
 
 	@Override
 	public List<CaseIndexDto> getIndexList(String userUuid, CaseCriteria caseCriteria) {
+		return getIndexList(userUuid, caseCriteria, null, null, null);
+	}
+
+	@Override
+	public List<CaseIndexDto> getIndexList(String userUuid, CaseCriteria caseCriteria, Integer first, Integer max, List<SortProperty> sortProperties) {
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<CaseIndexDto> cq = cb.createQuery(CaseIndexDto.class);
 		Root<Case> caze = cq.from(Case.class);
@@ -284,22 +329,91 @@ public class CaseFacadeEjb implements CaseFacade {
 				person.get(Person.PRESENT_CONDITION), caze.get(Case.REPORT_DATE), caze.get(AbstractDomainObject.CREATION_DATE),
 				region.get(Region.UUID), district.get(District.UUID), district.get(District.NAME), facility.get(Facility.UUID),
 				facility.get(Facility.NAME), caze.get(Case.HEALTH_FACILITY_DETAILS), surveillanceOfficer.get(User.UUID),
-				caze.get(Case.OUTCOME));
+				caze.get(Case.OUTCOME), taskService.createPendingTaskCountSubquery(cb, cq, caze, Task.CAZE));
 
-		User user = userService.getByUuid(userUuid);
-		Predicate filter = caseService.createUserFilter(cb, cq, caze, user);
+		Predicate filter = createIndexListFilter(userUuid, caseCriteria, cb, cq, caze);
+		if (filter != null) {
+			cq.where(filter);
+		}
 
-		if (caseCriteria != null) {
-			Predicate criteriaFilter = caseService.buildCriteriaFilter(caseCriteria, cb, caze);
-			filter = AbstractAdoService.and(cb, filter, criteriaFilter);
+		List<Order> order = new ArrayList<>();
+		if (sortProperties != null) {
+			for (SortProperty sortProperty : sortProperties) {
+				Expression<?> expression;
+				switch (sortProperty.getPropertyName()) {
+				case CaseIndexDto.UUID:
+				case CaseIndexDto.EPID_NUMBER:
+				case CaseIndexDto.DISEASE:
+				case CaseIndexDto.DISEASE_DETAILS:
+				case CaseIndexDto.CASE_CLASSIFICATION:
+				case CaseIndexDto.INVESTIGATION_STATUS:
+				case CaseIndexDto.REPORT_DATE:
+				case CaseIndexDto.CREATION_DATE:
+				case CaseIndexDto.OUTCOME:
+					expression = caze.get(sortProperty.getPropertyName());
+					break;
+				case CaseIndexDto.PERSON_FIRST_NAME:
+					expression = person.get(Person.FIRST_NAME);
+					break;
+				case CaseIndexDto.PERSON_LAST_NAME:
+					expression = person.get(Person.LAST_NAME);
+					break;
+				case CaseIndexDto.PRESENT_CONDITION:
+					expression = person.get(Person.PRESENT_CONDITION);
+					break;
+				case CaseIndexDto.DISTRICT_NAME:
+					expression = district.get(District.NAME);
+					break;
+				case CaseIndexDto.HEALTH_FACILITY_NAME:
+					expression = facility.get(Facility.NAME);
+					break;
+				default:
+					throw new IllegalArgumentException(sortProperty.getPropertyName());
+				}
+				order.add(sortProperty.isAscending() ? cb.asc(expression) : cb.desc(expression));
+			}
 		}
+		if (order.isEmpty()) {
+			order.add(cb.desc(caze.get(Case.REPORT_DATE)));
+		}
+		// unique order, so the pages don't overlap
+		order.add(cb.desc(caze.get(Case.ID)));
+		cq.orderBy(order);
+
+		TypedQuery<CaseIndexDto> query = em.createQuery(cq);
+		if (first != null) {
+			query.setFirstResult(first);
+		}
+		if (max != null) {
+			query.setMaxResults(max);
+		}
+		return query.getResultList();
+	}
+
+	@Override
+	public long count(String userUuid, CaseCriteria caseCriteria) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		Root<Case> caze = cq.from(Case.class);
 
+		Predicate filter = createIndexListFilter(userUuid, caseCriteria, cb, cq, caze);
 		if (filter != null) {
 			cq.where(filter);
 		}
 
-		List<CaseIndexDto> resultList = em.createQuery(cq).getResultList();
-		return resultList;
+		cq.select(cb.count(caze));
+		return em.createQuery(cq).getSingleResult();
+	}
+
+	private Predicate createIndexListFilter(String userUuid, CaseCriteria caseCriteria, CriteriaBuilder cb, CriteriaQuery<?> cq, Root<Case> caze) {
+		User user = userService.getByUuid(userUuid);
+		Predicate filter = caseService.createUserFilter(cb, cq, caze, user);
+
+		if (caseCriteria != null) {
+			Predicate criteriaFilter = caseService.buildCriteriaFilter(caseCriteria, cb, caze);
+			filter = AbstractAdoService.and(cb, filter, criteriaFilter);
+		}
+		return filter;
 	}
 
 	@Override
@@ -377,17 +491,35 @@ public class CaseFacadeEjb implements CaseFacade {
 
 		List<CaseExportDto> resultList = em.createQuery(cq).setFirstResult(first).setMaxResults(max).getResultList();
 
+		if (resultList.isEmpty()) {
+			return resultList;
+		}
+
+		// Fetch everything that is added retrospectively with one query per type for the whole page
+		List<Long> caseIds = resultList.stream().map(CaseExportDto::getId).collect(Collectors.toList());
+		Map<Long, List<Date>> sampleDatesByCase = sampleService.getSampleDatesForCases(caseIds);
+		Map<Long, List<SampleTestResultType>> labResultsByCase = sampleTestService.getSampleTestResultsForCases(caseIds);
+		Map<Long, Symptoms> symptomsById = symptomsService.getByIds(resultList.stream()
+				.map(CaseExportDto::getSymptomsId).collect(Collectors.toList())).stream()
+				.collect(Collectors.toMap(Symptoms::getId, Function.identity()));
+		Map<Long, Location> addressesByPerson = personService.getAddressesByPersonIds(resultList.stream()
+				.map(CaseExportDto::getPersonId).collect(Collectors.toList()));
+		Map<Long, List<EpiDataTravel>> travelsByEpiData = epiDataTravelService.getAllByEpiDataIds(resultList.stream()
+				.map(CaseExportDto::getEpiDataId).collect(Collectors.toList()));
+		Map<Long, PreviousHospitalization> initialPrevHospsByHospitalization = previousHospitalizationService
+				.getInitialHospitalizations(resultList.stream()
+						.map(CaseExportDto::getHospitalizationId).collect(Collectors.toList()));
+
 		for (CaseExportDto exportDto : resultList) {
-			// TODO: Speed up this code, e.g. by persisting symptoms, lab results, etc. as a String in the database
-			List<Date> sampleDates = sampleService.getSampleDatesForCase(exportDto.getId());
-			exportDto.setSampleTaken((sampleDates == null || sampleDates.isEmpty()) ? YesNoUnknown.NO : YesNoUnknown.YES);
+			List<Date> sampleDates = sampleDatesByCase.getOrDefault(exportDto.getId(), Collections.emptyList());
+			exportDto.setSampleTaken(sampleDates.isEmpty() ? YesNoUnknown.NO : YesNoUnknown.YES);
 			exportDto.setSampleDates(sampleDates);
-			exportDto.setLabResults(sampleTestService.getSampleTestResultsForCase(exportDto.getId()));
-			exportDto.setSymptoms(symptomsService.getById(exportDto.getSymptomsId()).toHumanString(false));
-			exportDto.setAddress(personService.getAddressByPersonId(exportDto.getPersonId()).toString());
+			exportDto.setLabResults(labResultsByCase.getOrDefault(exportDto.getId(), Collections.emptyList()));
+			exportDto.setSymptoms(symptomsById.get(exportDto.getSymptomsId()).toHumanString(false));
+			exportDto.setAddress(addressesByPerson.get(exportDto.getPersonId()).toString());
 
 			// Build travel history - done here to avoid transforming EpiDataTravel to EpiDataTravelDto
-			List<EpiDataTravel> travels = epiDataTravelService.getAllByEpiDataId(exportDto.getEpiDataId());
+			List<EpiDataTravel> travels = travelsByEpiData.getOrDefault(exportDto.getEpiDataId(), Collections.emptyList());
 			StringBuilder travelHistoryBuilder = new StringBuilder();
 			for (int i = 0; i < travels.size(); i++) {
 				EpiDataTravel travel = travels.get(i);
@@ -401,7 +533,7 @@ public class CaseFacadeEjb implements CaseFacade {
 			exportDto.setTravelHistory(travelHistoryBuilder.toString());
 
 			// Place of initial detection
-			PreviousHospitalization firstPrevHosp = previousHospitalizationService.getInitialHospitalization(exportDto.getHospitalizationId());
+			PreviousHospitalization firstPrevHosp = initialPrevHospsByHospitalization.get(exportDto.getHospitalizationId());
 			if (firstPrevHosp != null) {
 				exportDto.setInitialDetectionPlace(firstPrevHosp.getHealthFacility().toString());
 			} else {
@@ -644,6 +776,27 @@ public class CaseFacadeEjb implements CaseFacade {
 		return toDto(caze);
 	}
 
+	@Override
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+	public List<PushResult> saveCases(List<CaseDataDto> dtos) {
+		return pushBatchService.savePushedDtos(dtos, this::preloadPushedCases, this::saveCase);
+	}
+
+	/**
+	 * Loads the existing cases and the referenced entities of the chunk with a few queries
+	 * instead of one query per reference and case.
+	 */
+	private void preloadPushedCases(List<CaseDataDto> dtos) {
+		caseService.preloadByUuids(dtos.stream().map(CaseDataDto::getUuid).collect(Collectors.toList()));
+		personService.preloadByUuids(DtoHelper.collectReferenceUuids(dtos, CaseDataDto::getPerson));
+		userService.preloadByUuids(DtoHelper.collectReferenceUuids(dtos, CaseDataDto::getReportingUser,
+				CaseDataDto::getClassificationUser, CaseDataDto::getSurveillanceOfficer, CaseDataDto::getCaseOfficer));
+		regionService.preloadByUuids(DtoHelper.collectReferenceUuids(dtos, CaseDataDto::getRegion));
+		districtService.preloadByUuids(DtoHelper.collectReferenceUuids(dtos, CaseDataDto::getDistrict));
+		communityService.preloadByUuids(DtoHelper.collectReferenceUuids(dtos, CaseDataDto::getCommunity));
+		facilityService.preloadByUuids(DtoHelper.collectReferenceUuids(dtos, CaseDataDto::getHealthFacility));
+	}
+
 	@Override
 	public void validate(CaseDataDto caze) throws ValidationRuntimeException {
 		// Check whether any required field that does not have a not null constraint in
@@ -693,6 +846,17 @@ public class CaseFacadeEjb implements CaseFacade {
 	 * after a case has been created/saved
 	 */
 	public void onCaseChanged(CaseDataDto existingCase, Case newCase) {
+		onCaseChanged(existingCase, newCase, true);
+	}
+
+	/**
+	 * @param refreshStatisticsCaseCounts false when the caller recounts the statistics case counts itself,
+	 *            once for several changes of the case
+	 */
+	public void onCaseChanged(CaseDataDto existingCase, Case newCase, boolean refreshStatisticsCaseCounts) {
+		// the case age is not part of the dto and only changed here
+		Integer existingCaseAge = existingCase != null ? newCase.getCaseAge() : null;
+
 		// If the case is new and the geo coordinates of the case's health facility are
 		// null, set its coordinates to the case's report coordinates, if available
 		Facility facility = newCase.getHealthFacility();
@@ -773,18 +937,7 @@ public class CaseFacadeEjb implements CaseFacade {
 				List<SampleTestDto> sampleTests = sampleTestService.getAllByCase(newCase).stream()
 						.map(s -> sampleTestFacade.toDto(s)).collect(Collectors.toList());
 				CaseClassification classification = caseClassificationFacade.getClassification(newCaseDto, sampleTests);
-
-				// only update when classification by system changes - user may overwrite this
-				if (classification != newCase.getSystemCaseClassification()) {
-					newCase.setSystemCaseClassification(classification);
-
-					// really a change? (user may have already set it)
-					if (classification != newCase.getCaseClassification()) {
-						newCase.setCaseClassification(classification);
-						newCase.setClassificationUser(null);
-						newCase.setClassificationDate(new Date());
-					}
-				}
+				CaseClassificationFacadeEjb.applySystemClassification(newCase, classification);
 			}
 		}
 
@@ -794,23 +947,38 @@ public class CaseFacadeEjb implements CaseFacade {
 			List<User> messageRecipients = userService.getAllByRegionAndUserRoles(newCase.getRegion(),
 					UserRole.SURVEILLANCE_SUPERVISOR, UserRole.CASE_SUPERVISOR, UserRole.CONTACT_SUPERVISOR);
 			for (User recipient : messageRecipients) {
-				try {
-					messagingService.sendMessage(recipient,
-							I18nProperties.getString(MessagingService.SUBJECT_CASE_CLASSIFICATION_CHANGED),
-							String.format(
-									I18nProperties.getString(MessagingService.CONTENT_CASE_CLASSIFICATION_CHANGED),
-									DataHelper.getShortUuid(newCase.getUuid()),
-									newCase.getCaseClassification().toString()),
-							MessageType.EMAIL, MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(String.format(
-							"NotificationDeliveryFailedException when trying to notify supervisors about the change of a case classification. "
-									+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-									recipient.getUuid()));
-				}
+				messagingService.sendMessage(recipient,
+						I18nProperties.getString(MessagingService.SUBJECT_CASE_CLASSIFICATION_CHANGED),
+						String.format(
+								I18nProperties.getString(MessagingService.CONTENT_CASE_CLASSIFICATION_CHANGED),
+								DataHelper.getShortUuid(newCase.getUuid()),
+								newCase.getCaseClassification().toString()),
+						MessageType.EMAIL, MessageType.SMS);
 			}
 		}
 
+		// Recount the dashboard counts the case was and is part of
+		Set<Cell> countCells = diseaseDailyCountService.getCaseCells(newCase);
+		if (existingCase != null) {
+			countCells.addAll(diseaseDailyCountService.getCaseCells(newCase, existingCase.getDisease(),
+					regionService.getByReferenceDto(existingCase.getRegion()),
+					districtService.getByReferenceDto(existingCase.getDistrict()),
+					existingCase.getSymptoms().getOnsetDate(), existingCase.getReceptionDate(),
+					existingCase.getReportDate()));
+		}
+		diseaseDailyCountService.refresh(countCells);
+
+		// Recount the statistics case counts the case was and is part of, unless it is counted with the same values
+		if (refreshStatisticsCaseCounts && statisticsCaseCountService.isCountChanged(existingCase, existingCaseAge, newCase)) {
+			Set<StatisticsCaseCountService.Cell> statisticsCells = statisticsCaseCountService.getCells(newCase);
+			if (existingCase != null) {
+				statisticsCells.addAll(statisticsCaseCountService.getCells(existingCase.getDisease(),
+						districtService.getByReferenceDto(existingCase.getDistrict()),
+						existingCase.getSymptoms().getOnsetDate(), existingCase.getReceptionDate(),
+						existingCase.getReportDate()));
+			}
+			statisticsCaseCountService.refresh(statisticsCells);
+		}
 	}
 
 	private void updatePersonAndCaseByOutcome(CaseDataDto existingCase, Case newCase) {
@@ -897,6 +1065,8 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		Case caze = caseService.getByReferenceDto(caseRef);
+		Set<Cell> countCells = diseaseDailyCountService.getCaseCells(caze);
+		Set<StatisticsCaseCountService.Cell> statisticsCells = statisticsCaseCountService.getCells(caze);
 		List<Contact> contacts = contactService.getAllByCase(caze);
 		for (Contact contact : contacts) {
 			contactService.delete(contact);
@@ -914,6 +1084,8 @@ public class CaseFacadeEjb implements CaseFacade {
 			taskService.delete(task);
 		}
 		caseService.delete(caze);
+		diseaseDailyCountService.refresh(countCells);
+		statisticsCaseCountService.refresh(statisticsCells);
 	}
 
 	@Override
@@ -1289,18 +1461,11 @@ public class CaseFacadeEjb implements CaseFacade {
 		List<User> messageRecipients = userService.getAllByRegionAndUserRoles(caze.getRegion(),
 				UserRole.SURVEILLANCE_SUPERVISOR, UserRole.CASE_SUPERVISOR, UserRole.CONTACT_SUPERVISOR);
 		for (User recipient : messageRecipients) {
-			try {
-				messagingService.sendMessage(recipient,
-						I18nProperties.getString(MessagingService.SUBJECT_CASE_INVESTIGATION_DONE),
-						String.format(I18nProperties.getString(MessagingService.CONTENT_CASE_INVESTIGATION_DONE),
-								DataHelper.getShortUuid(caze.getUuid())),
-						MessageType.EMAIL, MessageType.SMS);
-			} catch (NotificationDeliveryFailedException e) {
-				logger.error(String.format(
-						"NotificationDeliveryFailedException when trying to notify supervisors about the completion of a case investigation. "
-								+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-								recipient.getUuid()));
-			}
+			messagingService.sendMessage(recipient,
+					I18nProperties.getString(MessagingService.SUBJECT_CASE_INVESTIGATION_DONE),
+					String.format(I18nProperties.getString(MessagingService.CONTENT_CASE_INVESTIGATION_DONE),
+							DataHelper.getShortUuid(caze.getUuid())),
+					MessageType.EMAIL, MessageType.SMS);
 		}
 	}
 
@@ -1316,28 +1481,19 @@ public class CaseFacadeEjb implements CaseFacade {
 		// 3. Add selected groupings
 		// 4. Retrieve and prepare the results
 
+		// Count the pre-aggregated statistics case counts instead of the cases when they can answer the query
+		StatisticsCaseCountDateType countDateType = statisticsCaseCountService.getAnsweringDateType(caseCriteria, groupingA, groupingB);
+		CaseCountSource source = countDateType != null ? CaseCountSource.statisticsCaseCounts(countDateType)
+				: CaseCountSource.CASES;
+
 		// 1. Join tables that cases are grouped by or that are used in the caseCriteria
+		// Regions and districts are filtered and grouped by id, their uuids are resolved through the infrastructure cache
 
 		StringBuilder sqlBuilder = new StringBuilder();
-		sqlBuilder.append(" FROM ").append(Case.TABLE_NAME).append(" LEFT JOIN ").append(Symptoms.TABLE_NAME)
-		.append(" ON ").append(Case.TABLE_NAME).append(".").append(Case.SYMPTOMS).append("_id").append(" = ")
-		.append(Symptoms.TABLE_NAME).append(".").append(Symptoms.ID);
-
-		if (subGroupingA == StatisticsCaseSubAttribute.REGION || subGroupingB == StatisticsCaseSubAttribute.REGION
-				|| caseCriteria.getRegions() != null) {
-			sqlBuilder.append(" LEFT JOIN ").append(Region.TABLE_NAME).append(" ON ").append(Case.TABLE_NAME)
-			.append(".").append(Case.REGION).append("_id").append(" = ").append(Region.TABLE_NAME).append(".")
-			.append(Region.ID);
-		}
-
-		if (subGroupingA == StatisticsCaseSubAttribute.DISTRICT || subGroupingB == StatisticsCaseSubAttribute.DISTRICT
-				|| caseCriteria.getDistricts() != null) {
-			sqlBuilder.append(" LEFT JOIN ").append(District.TABLE_NAME).append(" ON ").append(Case.TABLE_NAME)
-			.append(".").append(Case.DISTRICT).append("_id").append(" = ").append(District.TABLE_NAME)
-			.append(".").append(District.ID);
-		}
+		sqlBuilder.append(" FROM ").append(source.from);
 
-		if (groupingA == StatisticsCaseAttribute.SEX || groupingB == StatisticsCaseAttribute.SEX
+		if (source == CaseCountSource.CASES && (groupingA == StatisticsCaseAttribute.SEX
+				|| groupingB == StatisticsCaseAttribute.SEX
 				|| groupingA == StatisticsCaseAttribute.AGE_INTERVAL_1_YEAR
 				|| groupingB == StatisticsCaseAttribute.AGE_INTERVAL_1_YEAR
 				|| groupingA == StatisticsCaseAttribute.AGE_INTERVAL_5_YEARS
@@ -1350,7 +1506,7 @@ public class CaseFacadeEjb implements CaseFacade {
 				|| groupingB == StatisticsCaseAttribute.AGE_INTERVAL_CHILDREN_MEDIUM
 				|| groupingA == StatisticsCaseAttribute.AGE_INTERVAL_BASIC
 				|| groupingB == StatisticsCaseAttribute.AGE_INTERVAL_BASIC || caseCriteria.getSexes() != null
-				|| caseCriteria.getAgeIntervals() != null) {
+				|| caseCriteria.getAgeIntervals() != null)) {
 			sqlBuilder.append(" LEFT JOIN ").append(Person.TABLE_NAME).append(" ON ").append(Case.TABLE_NAME)
 			.append(".").append(Case.PERSON).append("_id").append(" = ").append(Person.TABLE_NAME).append(".")
 			.append(Person.ID);
@@ -1358,10 +1514,10 @@ public class CaseFacadeEjb implements CaseFacade {
 
 		// 2. Build filter based on caseCriteria
 
-		StringBuilder filterBuilder = new StringBuilder();
+		StringBuilder filterBuilder = new StringBuilder(source.filter);
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetYears())) {
-			extendFilterBuilderWithDateElement(filterBuilder, "YEAR", Symptoms.TABLE_NAME, Symptoms.ONSET_DATE);
+			extendFilterBuilderWithDateElement(filterBuilder, "YEAR", source.onsetDate);
 			for (Year onsetYear : caseCriteria.getOnsetYears()) {
 				filterBuilder.append(onsetYear.getValue()).append(",");
 			}
@@ -1369,7 +1525,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetQuarters())) {
-			extendFilterBuilderWithDateElement(filterBuilder, "QUARTER", Symptoms.TABLE_NAME, Symptoms.ONSET_DATE);
+			extendFilterBuilderWithDateElement(filterBuilder, "QUARTER", source.onsetDate);
 			for (Quarter onsetQuarter : caseCriteria.getOnsetQuarters()) {
 				filterBuilder.append(onsetQuarter.getValue()).append(",");
 			}
@@ -1377,7 +1533,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetMonths())) {
-			extendFilterBuilderWithDateElement(filterBuilder, "MONTH", Symptoms.TABLE_NAME, Symptoms.ONSET_DATE);
+			extendFilterBuilderWithDateElement(filterBuilder, "MONTH", source.onsetDate);
 			for (Month onsetMonth : caseCriteria.getOnsetMonths()) {
 				filterBuilder.append(onsetMonth.ordinal() + 1).append(",");
 			}
@@ -1385,7 +1541,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetEpiWeeks())) {
-			extendFilterBuilderWithEpiWeek(filterBuilder, Symptoms.TABLE_NAME, Symptoms.ONSET_DATE);
+			extendFilterBuilderWithEpiWeek(filterBuilder, source.onsetDate);
 			for (EpiWeek epiWeek : caseCriteria.getOnsetEpiWeeks()) {
 				filterBuilder.append(epiWeek.getWeek()).append(",");
 			}
@@ -1393,7 +1549,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetQuartersOfYear())) {
-			extendFilterBuilderWithQuarterOfYear(filterBuilder, Symptoms.TABLE_NAME, Symptoms.ONSET_DATE);
+			extendFilterBuilderWithQuarterOfYear(filterBuilder, source.onsetDate);
 			for (QuarterOfYear quarterOfYear : caseCriteria.getOnsetQuartersOfYear()) {
 				filterBuilder.append(quarterOfYear.getYear().getValue() * 10 + quarterOfYear.getQuarter().getValue())
 				.append(",");
@@ -1402,7 +1558,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetMonthsOfYear())) {
-			extendFilterBuilderWithMonthOfYear(filterBuilder, Symptoms.TABLE_NAME, Symptoms.ONSET_DATE);
+			extendFilterBuilderWithMonthOfYear(filterBuilder, source.onsetDate);
 			for (MonthOfYear monthOfYear : caseCriteria.getOnsetMonthsOfYear()) {
 				filterBuilder.append(monthOfYear.getYear().getValue() * 100 + (monthOfYear.getMonth().ordinal() + 1))
 				.append(",");
@@ -1411,7 +1567,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetEpiWeeksOfYear())) {
-			extendFilterBuilderWithEpiWeekOfYear(filterBuilder, Symptoms.TABLE_NAME, Symptoms.ONSET_DATE);
+			extendFilterBuilderWithEpiWeekOfYear(filterBuilder, source.onsetDate);
 			for (EpiWeek epiWeek : caseCriteria.getOnsetEpiWeeksOfYear()) {
 				filterBuilder.append(epiWeek.getYear() * 100 + epiWeek.getWeek()).append(",");
 			}
@@ -1420,11 +1576,11 @@ public class CaseFacadeEjb implements CaseFacade {
 
 		if (caseCriteria.getOnsetDateFrom() != null || caseCriteria.getOnsetDateTo() != null) {
 			extendFilterBuilderWithDate(filterBuilder, caseCriteria.getOnsetDateFrom(), caseCriteria.getOnsetDateTo(),
-					Symptoms.TABLE_NAME, Symptoms.ONSET_DATE);
+					source.onsetDate);
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReceptionYears())) {
-			extendFilterBuilderWithDateElement(filterBuilder, "YEAR", Case.TABLE_NAME, Case.RECEPTION_DATE);
+			extendFilterBuilderWithDateElement(filterBuilder, "YEAR", source.receptionDate);
 			for (Year receptionYear : caseCriteria.getReceptionYears()) {
 				filterBuilder.append(receptionYear.getValue()).append(",");
 			}
@@ -1432,7 +1588,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReceptionQuarters())) {
-			extendFilterBuilderWithDateElement(filterBuilder, "QUARTER", Case.TABLE_NAME, Case.RECEPTION_DATE);
+			extendFilterBuilderWithDateElement(filterBuilder, "QUARTER", source.receptionDate);
 			for (Quarter receptionQuarter : caseCriteria.getReceptionQuarters()) {
 				filterBuilder.append(receptionQuarter.getValue()).append(",");
 			}
@@ -1440,7 +1596,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReceptionMonths())) {
-			extendFilterBuilderWithDateElement(filterBuilder, "MONTH", Case.TABLE_NAME, Case.RECEPTION_DATE);
+			extendFilterBuilderWithDateElement(filterBuilder, "MONTH", source.receptionDate);
 			for (Month receptionMonth : caseCriteria.getReceptionMonths()) {
 				filterBuilder.append(receptionMonth.ordinal() + 1).append(",");
 			}
@@ -1448,7 +1604,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReceptionEpiWeeks())) {
-			extendFilterBuilderWithEpiWeek(filterBuilder, Case.TABLE_NAME, Case.RECEPTION_DATE);
+			extendFilterBuilderWithEpiWeek(filterBuilder, source.receptionDate);
 			for (EpiWeek epiWeek : caseCriteria.getReceptionEpiWeeks()) {
 				filterBuilder.append(epiWeek.getWeek()).append(",");
 			}
@@ -1456,7 +1612,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReceptionQuartersOfYear())) {
-			extendFilterBuilderWithQuarterOfYear(filterBuilder, Case.TABLE_NAME, Case.RECEPTION_DATE);
+			extendFilterBuilderWithQuarterOfYear(filterBuilder, source.receptionDate);
 			for (QuarterOfYear quarterOfYear : caseCriteria.getReceptionQuartersOfYear()) {
 				filterBuilder.append(quarterOfYear.getYear().getValue() * 10 + quarterOfYear.getQuarter().getValue())
 				.append(",");
@@ -1465,7 +1621,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReceptionMonthsOfYear())) {
-			extendFilterBuilderWithMonthOfYear(filterBuilder, Case.TABLE_NAME, Case.RECEPTION_DATE);
+			extendFilterBuilderWithMonthOfYear(filterBuilder, source.receptionDate);
 			for (MonthOfYear monthOfYear : caseCriteria.getReceptionMonthsOfYear()) {
 				filterBuilder.append(monthOfYear.getYear().getValue() * 100 + (monthOfYear.getMonth().ordinal() + 1))
 				.append(",");
@@ -1474,7 +1630,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReceptionEpiWeeksOfYear())) {
-			extendFilterBuilderWithEpiWeekOfYear(filterBuilder, Case.TABLE_NAME, Case.RECEPTION_DATE);
+			extendFilterBuilderWithEpiWeekOfYear(filterBuilder, source.receptionDate);
 			for (EpiWeek epiWeek : caseCriteria.getReceptionEpiWeeksOfYear()) {
 				filterBuilder.append(epiWeek.getYear() * 100 + epiWeek.getWeek()).append(",");
 			}
@@ -1483,11 +1639,11 @@ public class CaseFacadeEjb implements CaseFacade {
 
 		if (caseCriteria.getReceptionDateFrom() != null || caseCriteria.getReceptionDateTo() != null) {
 			extendFilterBuilderWithDate(filterBuilder, caseCriteria.getReceptionDateFrom(),
-					caseCriteria.getReceptionDateTo(), Case.TABLE_NAME, Case.RECEPTION_DATE);
+					caseCriteria.getReceptionDateTo(), source.receptionDate);
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReportYears())) {
-			extendFilterBuilderWithDateElement(filterBuilder, "YEAR", Case.TABLE_NAME, Case.REPORT_DATE);
+			extendFilterBuilderWithDateElement(filterBuilder, "YEAR", source.reportDate);
 			for (Year reportYear : caseCriteria.getReportYears()) {
 				filterBuilder.append(reportYear.getValue()).append(",");
 			}
@@ -1495,7 +1651,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReportQuarters())) {
-			extendFilterBuilderWithDateElement(filterBuilder, "QUARTER", Case.TABLE_NAME, Case.REPORT_DATE);
+			extendFilterBuilderWithDateElement(filterBuilder, "QUARTER", source.reportDate);
 			for (Quarter reportQuarter : caseCriteria.getReportQuarters()) {
 				filterBuilder.append(reportQuarter.getValue()).append(",");
 			}
@@ -1503,7 +1659,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReportMonths())) {
-			extendFilterBuilderWithDateElement(filterBuilder, "MONTH", Case.TABLE_NAME, Case.REPORT_DATE);
+			extendFilterBuilderWithDateElement(filterBuilder, "MONTH", source.reportDate);
 			for (Month reportMonth : caseCriteria.getReportMonths()) {
 				filterBuilder.append(reportMonth.ordinal() + 1).append(",");
 			}
@@ -1511,7 +1667,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReportEpiWeeks())) {
-			extendFilterBuilderWithEpiWeek(filterBuilder, Case.TABLE_NAME, Case.REPORT_DATE);
+			extendFilterBuilderWithEpiWeek(filterBuilder, source.reportDate);
 			for (EpiWeek epiWeek : caseCriteria.getReportEpiWeeks()) {
 				filterBuilder.append(epiWeek.getWeek()).append(",");
 			}
@@ -1519,7 +1675,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReportQuartersOfYear())) {
-			extendFilterBuilderWithQuarterOfYear(filterBuilder, Case.TABLE_NAME, Case.REPORT_DATE);
+			extendFilterBuilderWithQuarterOfYear(filterBuilder, source.reportDate);
 			for (QuarterOfYear quarterOfYear : caseCriteria.getReportQuartersOfYear()) {
 				filterBuilder.append(quarterOfYear.getYear().getValue() * 10 + quarterOfYear.getQuarter().getValue())
 				.append(",");
@@ -1528,7 +1684,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReportMonthsOfYear())) {
-			extendFilterBuilderWithMonthOfYear(filterBuilder, Case.TABLE_NAME, Case.REPORT_DATE);
+			extendFilterBuilderWithMonthOfYear(filterBuilder, source.reportDate);
 			for (MonthOfYear monthOfYear : caseCriteria.getReportMonthsOfYear()) {
 				filterBuilder.append(monthOfYear.getYear().getValue() * 100 + (monthOfYear.getMonth().ordinal() + 1))
 				.append(",");
@@ -1537,7 +1693,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReportEpiWeeksOfYear())) {
-			extendFilterBuilderWithEpiWeekOfYear(filterBuilder, Case.TABLE_NAME, Case.REPORT_DATE);
+			extendFilterBuilderWithEpiWeekOfYear(filterBuilder, source.reportDate);
 			for (EpiWeek epiWeek : caseCriteria.getReportEpiWeeksOfYear()) {
 				filterBuilder.append(epiWeek.getYear() * 100 + epiWeek.getWeek()).append(",");
 			}
@@ -1546,7 +1702,7 @@ public class CaseFacadeEjb implements CaseFacade {
 
 		if (caseCriteria.getReportDateFrom() != null || caseCriteria.getReportDateTo() != null) {
 			extendFilterBuilderWithDate(filterBuilder, caseCriteria.getReportDateFrom(), caseCriteria.getReportDateTo(),
-					Case.TABLE_NAME, Case.REPORT_DATE);
+					source.reportDate);
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getSexes()) || caseCriteria.isSexUnknown() != null) {
@@ -1554,7 +1710,7 @@ public class CaseFacadeEjb implements CaseFacade {
 				filterBuilder.append(" AND ");
 			}
 
-			filterBuilder.append("(").append(Person.TABLE_NAME).append(".").append(Person.SEX);
+			filterBuilder.append("(").append(source.sex);
 
 			if (CollectionUtils.isNotEmpty(caseCriteria.getSexes())) {
 				filterBuilder.append(" IN (");
@@ -1566,7 +1722,7 @@ public class CaseFacadeEjb implements CaseFacade {
 
 			if (caseCriteria.isSexUnknown() != null) {
 				if (CollectionUtils.isNotEmpty(caseCriteria.getSexes())) {
-					filterBuilder.append(" OR ").append(Person.TABLE_NAME).append(".").append(Person.SEX);
+					filterBuilder.append(" OR ").append(source.sex);
 				}
 				filterBuilder.append(" IS ").append(caseCriteria.isSexUnknown() == true ? " NULL" : " NOT NULL");
 			}
@@ -1595,7 +1751,7 @@ public class CaseFacadeEjb implements CaseFacade {
 				} else {
 					for (int age : IntStream.rangeClosed(range.getFrom(), range.getTo()).toArray()) {
 						if (ageIntervalStringBuilder.length() == 0) {
-							ageIntervalStringBuilder.append(Case.TABLE_NAME).append(".").append(Case.CASE_AGE)
+							ageIntervalStringBuilder.append(source.caseAge)
 							.append(" IN (");
 						}
 						ageIntervalStringBuilder.append(age + ",");
@@ -1611,7 +1767,7 @@ public class CaseFacadeEjb implements CaseFacade {
 				if (ageIntervalStringBuilder.length() > 0) {
 					ageIntervalStringBuilder.append(" OR ");
 				}
-				ageIntervalStringBuilder.append(Case.TABLE_NAME).append(".").append(Case.CASE_AGE)
+				ageIntervalStringBuilder.append(source.caseAge)
 				.append(" >= " + upperRangeBoundary);
 			}
 
@@ -1619,7 +1775,7 @@ public class CaseFacadeEjb implements CaseFacade {
 				if (ageIntervalStringBuilder.length() > 0) {
 					ageIntervalStringBuilder.append(" OR ");
 				}
-				ageIntervalStringBuilder.append(Case.TABLE_NAME).append(".").append(Case.CASE_AGE).append(" IS NULL");
+				ageIntervalStringBuilder.append(source.caseAge).append(" IS NULL");
 			}
 
 			ageIntervalStringBuilder.append(")");
@@ -1628,7 +1784,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getDiseases())) {
-			extendFilterBuilderWithSimpleValue(filterBuilder, Case.TABLE_NAME, Case.DISEASE);
+			extendFilterBuilderWithSimpleValue(filterBuilder, source.disease);
 			for (Disease disease : caseCriteria.getDiseases()) {
 				filterBuilder.append("'" + disease.name() + "',");
 			}
@@ -1636,7 +1792,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getClassifications())) {
-			extendFilterBuilderWithSimpleValue(filterBuilder, Case.TABLE_NAME, Case.CASE_CLASSIFICATION);
+			extendFilterBuilderWithSimpleValue(filterBuilder, source.caseClassification);
 			for (CaseClassification classification : caseCriteria.getClassifications()) {
 				filterBuilder.append("'" + classification.name() + "',");
 			}
@@ -1644,7 +1800,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOutcomes())) {
-			extendFilterBuilderWithSimpleValue(filterBuilder, Case.TABLE_NAME, Case.OUTCOME);
+			extendFilterBuilderWithSimpleValue(filterBuilder, source.outcome);
 			for (CaseOutcome outcome : caseCriteria.getOutcomes()) {
 				filterBuilder.append("'" + outcome.name() + "',");
 			}
@@ -1652,19 +1808,15 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getRegions())) {
-			extendFilterBuilderWithSimpleValue(filterBuilder, Region.TABLE_NAME, Region.UUID);
-			for (RegionReferenceDto region : caseCriteria.getRegions()) {
-				filterBuilder.append("'" + region.getUuid() + "',");
-			}
-			finalizeFilterBuilderSegment(filterBuilder);
+			extendFilterBuilderWithSimpleValue(filterBuilder, source.region);
+			extendFilterBuilderWithIds(filterBuilder, infrastructureCache.getByUuids(Region.class,
+					caseCriteria.getRegions().stream().map(RegionReferenceDto::getUuid).collect(Collectors.toList())));
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getDistricts())) {
-			extendFilterBuilderWithSimpleValue(filterBuilder, District.TABLE_NAME, District.UUID);
-			for (DistrictReferenceDto district : caseCriteria.getDistricts()) {
-				filterBuilder.append("'" + district.getUuid() + "',");
-			}
-			finalizeFilterBuilderSegment(filterBuilder);
+			extendFilterBuilderWithSimpleValue(filterBuilder, source.district);
+			extendFilterBuilderWithIds(filterBuilder, infrastructureCache.getByUuids(District.class,
+					caseCriteria.getDistricts().stream().map(DistrictReferenceDto::getUuid).collect(Collectors.toList())));
 		}
 
 		if (filterBuilder.length() > 0) {
@@ -1680,11 +1832,11 @@ public class CaseFacadeEjb implements CaseFacade {
 			String groupingSelectQueryA = null, groupingSelectQueryB = null;
 
 			if (groupingA != null) {
-				groupingSelectQueryA = buildGroupingSelectQuery(groupingA, subGroupingA, groupAAlias);
+				groupingSelectQueryA = buildGroupingSelectQuery(groupingA, subGroupingA, groupAAlias, source);
 				sqlBuilder.append(groupAAlias);
 			}
 			if (groupingB != null) {
-				groupingSelectQueryB = buildGroupingSelectQuery(groupingB, subGroupingB, groupBAlias);
+				groupingSelectQueryB = buildGroupingSelectQuery(groupingB, subGroupingB, groupBAlias, source);
 				if (groupingA != null) {
 					sqlBuilder.append(",");
 				}
@@ -1710,7 +1862,7 @@ public class CaseFacadeEjb implements CaseFacade {
 				sqlBuilder.insert(0, "," + groupingSelectQueryA);
 			}
 		}
-		sqlBuilder.insert(0, "SELECT COUNT(*)");
+		sqlBuilder.insert(0, "SELECT " + source.count);
 
 		// 4. Retrieve the results of the query and prepare the results for usage in the
 		// UI
@@ -1745,35 +1897,62 @@ public class CaseFacadeEjb implements CaseFacade {
 			for (int i = 1; i < resultRow.length; i++) {
 				Object resultsEntry = resultRow[i];
 				if (resultsEntry != null && !StatisticsHelper.UNKNOWN.equals(resultsEntry)) {
-					StatisticsGroupingKey reformattedEntry = null;
-					if (i == 1) {
-						if (groupingA != null) {
-							reformattedEntry = StatisticsHelper.buildGroupingKey(resultsEntry, groupingA, subGroupingA);
-						} else {
-							reformattedEntry = StatisticsHelper.buildGroupingKey(resultsEntry, groupingB, subGroupingB);
-						}
-					} else {
-						reformattedEntry = StatisticsHelper.buildGroupingKey(resultsEntry, groupingB, subGroupingB);
+					StatisticsCaseAttribute grouping = i == 1 && groupingA != null ? groupingA : groupingB;
+					StatisticsCaseSubAttribute subGrouping = i == 1 && groupingA != null ? subGroupingA : subGroupingB;
+					if (grouping == StatisticsCaseAttribute.REGION_DISTRICT) {
+						resultsEntry = getInfrastructureUuid(subGrouping, ((Number) resultsEntry).longValue());
 					}
+					StatisticsGroupingKey reformattedEntry = StatisticsHelper.buildGroupingKey(resultsEntry, grouping,
+							subGrouping);
 					resultRow[i] = reformattedEntry;
 				}
 			}
 		}
 	}
 
-	private StringBuilder extendFilterBuilderWithSimpleValue(StringBuilder filterBuilder, String tableName,
-			String fieldName) {
+	/**
+	 * Regions and districts are grouped by id, but their grouping keys are built from the uuid.
+	 */
+	private String getInfrastructureUuid(StatisticsCaseSubAttribute subGrouping, long id) {
+
+		InfrastructureCache.Entry entry;
+		switch (subGrouping) {
+		case REGION:
+			entry = infrastructureCache.getById(Region.class, id);
+			return entry != null ? entry.getUuid() : regionService.getById(id).getUuid();
+		case DISTRICT:
+			entry = infrastructureCache.getById(District.class, id);
+			return entry != null ? entry.getUuid() : districtService.getById(id).getUuid();
+		default:
+			throw new IllegalArgumentException(subGrouping.toString());
+		}
+	}
+
+	/**
+	 * Completes an IN segment with the ids of the entries; matches nothing when there are none.
+	 */
+	private StringBuilder extendFilterBuilderWithIds(StringBuilder filterBuilder, List<InfrastructureCache.Entry> entries) {
+
+		if (entries.isEmpty()) {
+			return filterBuilder.append("NULL)");
+		}
+		for (InfrastructureCache.Entry entry : entries) {
+			filterBuilder.append(entry.getId()).append(",");
+		}
+		return finalizeFilterBuilderSegment(filterBuilder);
+	}
+
+	private StringBuilder extendFilterBuilderWithSimpleValue(StringBuilder filterBuilder, String column) {
 		if (filterBuilder.length() > 0) {
 			filterBuilder.append(" AND ");
 		}
 
-		filterBuilder.append(tableName).append(".").append(fieldName).append(" IN (");
+		filterBuilder.append(column).append(" IN (");
 
 		return filterBuilder;
 	}
 
-	private StringBuilder extendFilterBuilderWithDate(StringBuilder filterBuilder, Date from, Date to, String tableName,
-			String fieldName) {
+	private StringBuilder extendFilterBuilderWithDate(StringBuilder filterBuilder, Date from, Date to, String column) {
 
 		if (from != null || to != null) {
 			if (filterBuilder.length() > 0) {
@@ -1781,12 +1960,12 @@ public class CaseFacadeEjb implements CaseFacade {
 			}
 
 			if (from != null && to != null) {
-				filterBuilder.append(tableName).append(".").append(fieldName).append(" BETWEEN '").append(from)
+				filterBuilder.append(column).append(" BETWEEN '").append(from)
 				.append("' AND '").append(to).append("'");
 			} else if (from != null) {
-				filterBuilder.append(tableName).append(".").append(fieldName).append(" >= '").append(from).append("'");
+				filterBuilder.append(column).append(" >= '").append(from).append("'");
 			} else {
-				filterBuilder.append(tableName).append(".").append(fieldName).append(" <= '").append(to).append("'");
+				filterBuilder.append(column).append(" <= '").append(to).append("'");
 			}
 		}
 
@@ -1794,62 +1973,56 @@ public class CaseFacadeEjb implements CaseFacade {
 	}
 
 	private StringBuilder extendFilterBuilderWithDateElement(StringBuilder filterBuilder, String dateElementToExtract,
-			String tableName, String fieldName) {
+			String column) {
 		if (filterBuilder.length() > 0) {
 			filterBuilder.append(" AND ");
 		}
 
-		filterBuilder.append("(EXTRACT(" + dateElementToExtract + " FROM ").append(tableName).append(".")
-		.append(fieldName).append(")::integer)").append(" IN (");
+		filterBuilder.append("(EXTRACT(" + dateElementToExtract + " FROM ").append(column).append(")::integer)").append(" IN (");
 
 		return filterBuilder;
 	}
 
-	private StringBuilder extendFilterBuilderWithEpiWeek(StringBuilder filterBuilder, String tableName,
-			String fieldName) {
+	private StringBuilder extendFilterBuilderWithEpiWeek(StringBuilder filterBuilder, String column) {
 		if (filterBuilder.length() > 0) {
 			filterBuilder.append(" AND ");
 		}
 
-		filterBuilder.append("epi_week(").append(tableName).append(".").append(fieldName).append(")").append(" IN (");
+		filterBuilder.append("epi_week(").append(column).append(")").append(" IN (");
 
 		return filterBuilder;
 	}
 
-	private StringBuilder extendFilterBuilderWithEpiWeekOfYear(StringBuilder filterBuilder, String tableName,
-			String fieldName) {
+	private StringBuilder extendFilterBuilderWithEpiWeekOfYear(StringBuilder filterBuilder, String column) {
 		if (filterBuilder.length() > 0) {
 			filterBuilder.append(" AND ");
 		}
 
-		filterBuilder.append("(epi_year(").append(tableName).append(".").append(fieldName).append(")").append(" * 100")
-		.append(" + epi_week(").append(tableName).append(".").append(fieldName).append("))").append(" IN (");
+		filterBuilder.append("(epi_year(").append(column).append(")").append(" * 100")
+		.append(" + epi_week(").append(column).append("))").append(" IN (");
 
 		return filterBuilder;
 	}
 
-	// TODO THIS DOESN'T WORK
-	private StringBuilder extendFilterBuilderWithQuarterOfYear(StringBuilder filterBuilder, String tableName,
-			String fieldName) {
+	private StringBuilder extendFilterBuilderWithQuarterOfYear(StringBuilder filterBuilder, String column) {
 		if (filterBuilder.length() > 0) {
 			filterBuilder.append(" AND ");
 		}
 
-		filterBuilder.append("((EXTRACT(YEAR FROM ").append(tableName).append(".").append(fieldName).append(")")
-		.append(" * 10)::integer) + (EXTRACT(QUARTER FROM ").append(tableName).append(".").append(fieldName)
-		.append(")::integer)").append(" IN (");
+		filterBuilder.append("(((EXTRACT(YEAR FROM ").append(column).append(")")
+		.append(" * 10)::integer) + (EXTRACT(QUARTER FROM ").append(column)
+		.append(")::integer))").append(" IN (");
 
 		return filterBuilder;
 	}
 
-	private StringBuilder extendFilterBuilderWithMonthOfYear(StringBuilder filterBuilder, String tableName,
-			String fieldName) {
+	private StringBuilder extendFilterBuilderWithMonthOfYear(StringBuilder filterBuilder, String column) {
 		if (filterBuilder.length() > 0) {
 			filterBuilder.append(" AND ");
 		}
 
-		filterBuilder.append("((EXTRACT(YEAR FROM ").append(tableName).append(".").append(fieldName).append(")")
-		.append(" * 100)::integer) + (EXTRACT(MONTH FROM ").append(tableName).append(".").append(fieldName)
+		filterBuilder.append("((EXTRACT(YEAR FROM ").append(column).append(")")
+		.append(" * 100)::integer) + (EXTRACT(MONTH FROM ").append(column)
 		.append(")::integer)").append(" IN (");
 
 		return filterBuilder;
@@ -1911,34 +2084,32 @@ public class CaseFacadeEjb implements CaseFacade {
 	}
 
 	private String buildGroupingSelectQuery(StatisticsCaseAttribute grouping, StatisticsCaseSubAttribute subGrouping,
-			String groupAlias) {
+			String groupAlias, CaseCountSource source) {
 		StringBuilder groupingSelectPartBuilder = new StringBuilder();
 		switch (grouping) {
 		case SEX:
-			groupingSelectPartBuilder.append(Person.TABLE_NAME).append(".").append(Person.SEX).append(" AS ")
+			groupingSelectPartBuilder.append(source.sex).append(" AS ")
 			.append(groupAlias);
 			break;
 		case DISEASE:
-			groupingSelectPartBuilder.append(Case.TABLE_NAME).append(".").append(Case.DISEASE).append(" AS ")
+			groupingSelectPartBuilder.append(source.disease).append(" AS ")
 			.append(groupAlias);
 			break;
 		case CLASSIFICATION:
-			groupingSelectPartBuilder.append(Case.TABLE_NAME).append(".").append(Case.CASE_CLASSIFICATION)
+			groupingSelectPartBuilder.append(source.caseClassification)
 			.append(" AS ").append(groupAlias);
 			break;
 		case OUTCOME:
-			groupingSelectPartBuilder.append(Case.TABLE_NAME).append(".").append(Case.OUTCOME).append(" AS ")
+			groupingSelectPartBuilder.append(source.outcome).append(" AS ")
 			.append(groupAlias);
 			break;
 		case REGION_DISTRICT: {
 			switch (subGrouping) {
 			case REGION:
-				groupingSelectPartBuilder.append(Region.TABLE_NAME).append(".").append(Region.UUID).append(" AS ")
-				.append(groupAlias);
+				groupingSelectPartBuilder.append(source.region).append(" AS ").append(groupAlias);
 				break;
 			case DISTRICT:
-				groupingSelectPartBuilder.append(District.TABLE_NAME).append(".").append(District.UUID).append(" AS ")
-				.append(groupAlias);
+				groupingSelectPartBuilder.append(source.district).append(" AS ").append(groupAlias);
 				break;
 			default:
 				throw new IllegalArgumentException(subGrouping.toString());
@@ -1951,37 +2122,31 @@ public class CaseFacadeEjb implements CaseFacade {
 		case AGE_INTERVAL_CHILDREN_FINE:
 		case AGE_INTERVAL_CHILDREN_MEDIUM:
 		case AGE_INTERVAL_BASIC:
-			extendGroupingBuilderWithAgeInterval(groupingSelectPartBuilder, grouping, groupAlias);
+			extendGroupingBuilderWithAgeInterval(groupingSelectPartBuilder, grouping, groupAlias, source);
 			break;
 		case ONSET_TIME:
 			switch (subGrouping) {
 			case YEAR:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "YEAR", Symptoms.TABLE_NAME,
-						Symptoms.ONSET_DATE, groupAlias);
+				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "YEAR", source.onsetDate, groupAlias);
 				break;
 			case QUARTER:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "QUARTER", Symptoms.TABLE_NAME,
-						Symptoms.ONSET_DATE, groupAlias);
+				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "QUARTER", source.onsetDate, groupAlias);
 				break;
 			case MONTH:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "MONTH", Symptoms.TABLE_NAME,
-						Symptoms.ONSET_DATE, groupAlias);
+				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "MONTH", source.onsetDate, groupAlias);
 				break;
 			case EPI_WEEK:
-				extendGroupingBuilderWithEpiWeek(groupingSelectPartBuilder, Symptoms.TABLE_NAME, Symptoms.ONSET_DATE,
+				extendGroupingBuilderWithEpiWeek(groupingSelectPartBuilder, source.onsetDate,
 						groupAlias);
 				break;
 			case QUARTER_OF_YEAR:
-				extendGroupingBuilderWithQuarterOfYear(groupingSelectPartBuilder, Symptoms.TABLE_NAME,
-						Symptoms.ONSET_DATE, groupAlias);
+				extendGroupingBuilderWithQuarterOfYear(groupingSelectPartBuilder, source.onsetDate, groupAlias);
 				break;
 			case MONTH_OF_YEAR:
-				extendGroupingBuilderWithMonthOfYear(groupingSelectPartBuilder, Symptoms.TABLE_NAME,
-						Symptoms.ONSET_DATE, groupAlias);
+				extendGroupingBuilderWithMonthOfYear(groupingSelectPartBuilder, source.onsetDate, groupAlias);
 				break;
 			case EPI_WEEK_OF_YEAR:
-				extendGroupingBuilderWithEpiWeekOfYear(groupingSelectPartBuilder, Symptoms.TABLE_NAME,
-						Symptoms.ONSET_DATE, groupAlias);
+				extendGroupingBuilderWithEpiWeekOfYear(groupingSelectPartBuilder, source.onsetDate, groupAlias);
 				break;
 			default:
 				throw new IllegalArgumentException(subGrouping.toString());
@@ -1990,31 +2155,30 @@ public class CaseFacadeEjb implements CaseFacade {
 		case RECEPTION_TIME:
 			switch (subGrouping) {
 			case YEAR:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "YEAR", Case.TABLE_NAME, Case.RECEPTION_DATE,
+				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "YEAR", source.receptionDate,
 						groupAlias);
 				break;
 			case QUARTER:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "QUARTER", Case.TABLE_NAME,
-						Case.RECEPTION_DATE, groupAlias);
+				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "QUARTER", source.receptionDate, groupAlias);
 				break;
 			case MONTH:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "MONTH", Case.TABLE_NAME, Case.RECEPTION_DATE,
+				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "MONTH", source.receptionDate,
 						groupAlias);
 				break;
 			case EPI_WEEK:
-				extendGroupingBuilderWithEpiWeek(groupingSelectPartBuilder, Case.TABLE_NAME, Case.RECEPTION_DATE,
+				extendGroupingBuilderWithEpiWeek(groupingSelectPartBuilder, source.receptionDate,
 						groupAlias);
 				break;
 			case QUARTER_OF_YEAR:
-				extendGroupingBuilderWithQuarterOfYear(groupingSelectPartBuilder, Case.TABLE_NAME, Case.RECEPTION_DATE,
+				extendGroupingBuilderWithQuarterOfYear(groupingSelectPartBuilder, source.receptionDate,
 						groupAlias);
 				break;
 			case MONTH_OF_YEAR:
-				extendGroupingBuilderWithMonthOfYear(groupingSelectPartBuilder, Case.TABLE_NAME, Case.RECEPTION_DATE,
+				extendGroupingBuilderWithMonthOfYear(groupingSelectPartBuilder, source.receptionDate,
 						groupAlias);
 				break;
 			case EPI_WEEK_OF_YEAR:
-				extendGroupingBuilderWithEpiWeekOfYear(groupingSelectPartBuilder, Case.TABLE_NAME, Case.RECEPTION_DATE,
+				extendGroupingBuilderWithEpiWeekOfYear(groupingSelectPartBuilder, source.receptionDate,
 						groupAlias);
 				break;
 			default:
@@ -2024,31 +2188,31 @@ public class CaseFacadeEjb implements CaseFacade {
 		case REPORT_TIME:
 			switch (subGrouping) {
 			case YEAR:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "YEAR", Case.TABLE_NAME, Case.REPORT_DATE,
+				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "YEAR", source.reportDate,
 						groupAlias);
 				break;
 			case QUARTER:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "QUARTER", Case.TABLE_NAME, Case.REPORT_DATE,
+				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "QUARTER", source.reportDate,
 						groupAlias);
 				break;
 			case MONTH:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "MONTH", Case.TABLE_NAME, Case.REPORT_DATE,
+				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "MONTH", source.reportDate,
 						groupAlias);
 				break;
 			case EPI_WEEK:
-				extendGroupingBuilderWithEpiWeek(groupingSelectPartBuilder, Case.TABLE_NAME, Case.REPORT_DATE,
+				extendGroupingBuilderWithEpiWeek(groupingSelectPartBuilder, source.reportDate,
 						groupAlias);
 				break;
 			case QUARTER_OF_YEAR:
-				extendGroupingBuilderWithQuarterOfYear(groupingSelectPartBuilder, Case.TABLE_NAME, Case.REPORT_DATE,
+				extendGroupingBuilderWithQuarterOfYear(groupingSelectPartBuilder, source.reportDate,
 						groupAlias);
 				break;
 			case MONTH_OF_YEAR:
-				extendGroupingBuilderWithMonthOfYear(groupingSelectPartBuilder, Case.TABLE_NAME, Case.REPORT_DATE,
+				extendGroupingBuilderWithMonthOfYear(groupingSelectPartBuilder, source.reportDate,
 						groupAlias);
 				break;
 			case EPI_WEEK_OF_YEAR:
-				extendGroupingBuilderWithEpiWeekOfYear(groupingSelectPartBuilder, Case.TABLE_NAME, Case.REPORT_DATE,
+				extendGroupingBuilderWithEpiWeekOfYear(groupingSelectPartBuilder, source.reportDate,
 						groupAlias);
 				break;
 			default:
@@ -2061,90 +2225,85 @@ public class CaseFacadeEjb implements CaseFacade {
 		return groupingSelectPartBuilder.toString();
 	}
 
-	private void extendGroupingBuilderWithDate(StringBuilder groupingBuilder, String dateToExtract, String tableName,
-			String fieldName, String groupAlias) {
-		groupingBuilder.append("(EXTRACT(" + dateToExtract + " FROM ").append(tableName).append(".").append(fieldName)
+	private void extendGroupingBuilderWithDate(StringBuilder groupingBuilder, String dateToExtract, String column, String groupAlias) {
+		groupingBuilder.append("(EXTRACT(" + dateToExtract + " FROM ").append(column)
 		.append(")::integer) AS ").append(groupAlias);
 	}
 
-	private void extendGroupingBuilderWithEpiWeek(StringBuilder groupingBuilder, String tableName, String fieldName,
+	private void extendGroupingBuilderWithEpiWeek(StringBuilder groupingBuilder, String column,
 			String groupAlias) {
-		groupingBuilder.append("epi_week(").append(tableName).append(".").append(fieldName).append(") AS ")
+		groupingBuilder.append("epi_week(").append(column).append(") AS ")
 		.append(groupAlias);
 	}
 
-	private void extendGroupingBuilderWithEpiWeekOfYear(StringBuilder groupingBuilder, String tableName,
-			String fieldName, String groupAlias) {
-		groupingBuilder.append("(epi_year(").append(tableName).append(".").append(fieldName).append(") * 100")
-		.append(" + epi_week(").append(tableName).append(".").append(fieldName).append(")) AS ")
+	private void extendGroupingBuilderWithEpiWeekOfYear(StringBuilder groupingBuilder, String column, String groupAlias) {
+		groupingBuilder.append("(epi_year(").append(column).append(") * 100")
+		.append(" + epi_week(").append(column).append(")) AS ")
 		.append(groupAlias);
 	}
 
-	private void extendGroupingBuilderWithQuarterOfYear(StringBuilder groupingBuilder, String tableName,
-			String fieldName, String groupAlias) {
-		groupingBuilder.append("((EXTRACT(YEAR FROM ").append(tableName).append(".").append(fieldName)
-		.append(") * 10)::integer)").append(" + (EXTRACT(QUARTER FROM ").append(tableName).append(".")
-		.append(fieldName).append(")::integer) AS ").append(groupAlias);
+	private void extendGroupingBuilderWithQuarterOfYear(StringBuilder groupingBuilder, String column, String groupAlias) {
+		groupingBuilder.append("((EXTRACT(YEAR FROM ").append(column)
+		.append(") * 10)::integer)").append(" + (EXTRACT(QUARTER FROM ").append(column).append(")::integer) AS ").append(groupAlias);
 	}
 
-	private void extendGroupingBuilderWithMonthOfYear(StringBuilder groupingBuilder, String tableName, String fieldName,
+	private void extendGroupingBuilderWithMonthOfYear(StringBuilder groupingBuilder, String column,
 			String groupAlias) {
-		groupingBuilder.append("((EXTRACT(YEAR FROM ").append(tableName).append(".").append(fieldName)
-		.append(") * 100)::integer)").append(" + (EXTRACT(MONTH FROM ").append(tableName).append(".")
-		.append(fieldName).append(")::integer) AS ").append(groupAlias);
+		groupingBuilder.append("((EXTRACT(YEAR FROM ").append(column)
+		.append(") * 100)::integer)").append(" + (EXTRACT(MONTH FROM ").append(column).append(")::integer) AS ").append(groupAlias);
 	}
 
 	private void extendGroupingBuilderWithAgeInterval(StringBuilder groupingBuilder, StatisticsCaseAttribute grouping,
-			String groupAlias) {
+			String groupAlias, CaseCountSource source) {
 		groupingBuilder.append("CASE ");
 		switch (grouping) {
 		case AGE_INTERVAL_1_YEAR:
 			for (int i = 0; i < 80; i++) {
-				groupingBuilder.append("WHEN ").append(Case.TABLE_NAME).append(".").append(Case.CASE_AGE).append(" = ")
+				groupingBuilder.append("WHEN ").append(source.caseAge).append(" = ")
 				.append(i < 10 ? "0" + i : i).append(" THEN ").append("'").append(i < 10 ? "0" + i : i)
 				.append("' ");
 			}
 			break;
 		case AGE_INTERVAL_5_YEARS:
 			for (int i = 0; i < 80; i += 5) {
-				addAgeIntervalToStringBuilder(groupingBuilder, i, 4);
+				addAgeIntervalToStringBuilder(groupingBuilder, source, i, 4);
 			}
 			break;
 		case AGE_INTERVAL_CHILDREN_COARSE:
-			addAgeIntervalToStringBuilder(groupingBuilder, 0, 14);
+			addAgeIntervalToStringBuilder(groupingBuilder, source, 0, 14);
 			for (int i = 15; i < 30; i += 5) {
-				addAgeIntervalToStringBuilder(groupingBuilder, i, 4);
+				addAgeIntervalToStringBuilder(groupingBuilder, source, i, 4);
 			}
 			for (int i = 30; i < 80; i += 10) {
-				addAgeIntervalToStringBuilder(groupingBuilder, i, 9);
+				addAgeIntervalToStringBuilder(groupingBuilder, source, i, 9);
 			}
 			break;
 		case AGE_INTERVAL_CHILDREN_FINE:
 			for (int i = 0; i < 5; i++) {
-				groupingBuilder.append("WHEN ").append(Case.TABLE_NAME).append(".").append(Case.CASE_AGE).append(" = ")
+				groupingBuilder.append("WHEN ").append(source.caseAge).append(" = ")
 				.append(i).append(" THEN ").append("'").append("0" + i).append("-").append("0" + i)
 				.append("' ");
 			}
 			for (int i = 5; i < 30; i += 5) {
-				addAgeIntervalToStringBuilder(groupingBuilder, i, 4);
+				addAgeIntervalToStringBuilder(groupingBuilder, source, i, 4);
 			}
 			for (int i = 30; i < 80; i += 10) {
-				addAgeIntervalToStringBuilder(groupingBuilder, i, 9);
+				addAgeIntervalToStringBuilder(groupingBuilder, source, i, 9);
 			}
 			break;
 		case AGE_INTERVAL_CHILDREN_MEDIUM:
 			for (int i = 0; i < 30; i += 5) {
-				addAgeIntervalToStringBuilder(groupingBuilder, i, 4);
+				addAgeIntervalToStringBuilder(groupingBuilder, source, i, 4);
 			}
 			for (int i = 30; i < 80; i += 10) {
-				addAgeIntervalToStringBuilder(groupingBuilder, i, 9);
+				addAgeIntervalToStringBuilder(groupingBuilder, source, i, 9);
 			}
 			break;
 		case AGE_INTERVAL_BASIC:
-			addAgeIntervalToStringBuilder(groupingBuilder, 0, 0);
-			addAgeIntervalToStringBuilder(groupingBuilder, 1, 3);
-			addAgeIntervalToStringBuilder(groupingBuilder, 5, 9);
-			groupingBuilder.append("WHEN ").append(Case.TABLE_NAME).append(".").append(Case.CASE_AGE)
+			addAgeIntervalToStringBuilder(groupingBuilder, source, 0, 0);
+			addAgeIntervalToStringBuilder(groupingBuilder, source, 1, 3);
+			addAgeIntervalToStringBuilder(groupingBuilder, source, 5, 9);
+			groupingBuilder.append("WHEN ").append(source.caseAge)
 			.append(" >= 15 THEN '15+' ");
 			break;
 		default:
@@ -2152,21 +2311,94 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 
 		if (grouping != StatisticsCaseAttribute.AGE_INTERVAL_BASIC) {
-			groupingBuilder.append("WHEN ").append(Case.TABLE_NAME).append(".").append(Case.CASE_AGE)
+			groupingBuilder.append("WHEN ").append(source.caseAge)
 			.append(" >= 80 THEN '80+' ");
 		}
 		groupingBuilder.append("ELSE 'Unknown' END AS " + groupAlias);
 	}
 
-	private void addAgeIntervalToStringBuilder(StringBuilder groupingBuilder, int number, int increase) {
+	private void addAgeIntervalToStringBuilder(StringBuilder groupingBuilder, CaseCountSource source, int number, int increase) {
 		String lowerNumberString = number < 10 ? "0" + number : String.valueOf(number);
 		String higherNumberString = number + increase < 10 ? "0" + (number + increase)
 				: String.valueOf(number + increase);
-		groupingBuilder.append("WHEN ").append(Case.TABLE_NAME).append(".").append(Case.CASE_AGE).append(" BETWEEN ")
+		groupingBuilder.append("WHEN ").append(source.caseAge).append(" BETWEEN ")
 		.append(number).append(" AND ").append(number + increase).append(" THEN '").append(lowerNumberString)
 		.append("-").append(higherNumberString).append("' ");
 	}
 
+	/**
+	 * Tables and columns the case statistics are counted from: the cases themselves or the pre-aggregated
+	 * {@link StatisticsCaseCount}s of one date type. Both provide the same values, the date of the latter
+	 * truncated to the day and the case age capped.
+	 */
+	private static final class CaseCountSource {
+
+		private static final CaseCountSource CASES = new CaseCountSource("COUNT(*)",
+				Case.TABLE_NAME + " LEFT JOIN " + Symptoms.TABLE_NAME + " ON " + Case.TABLE_NAME + "." + Case.SYMPTOMS
+						+ "_id = " + Symptoms.TABLE_NAME + "." + Symptoms.ID,
+				Case.TABLE_NAME, "", Symptoms.TABLE_NAME + "." + Symptoms.ONSET_DATE,
+				Case.TABLE_NAME + "." + Case.RECEPTION_DATE, Case.TABLE_NAME + "." + Case.REPORT_DATE,
+				Person.TABLE_NAME + "." + Person.SEX, Case.TABLE_NAME + "." + Case.CASE_AGE,
+				Case.TABLE_NAME + "." + Case.DISEASE, Case.TABLE_NAME + "." + Case.CASE_CLASSIFICATION,
+				Case.TABLE_NAME + "." + Case.OUTCOME);
+
+		/**
+		 * The day of the counts is used for the date the query filters or groups by, the other dates must not be used
+		 */
+		private static CaseCountSource statisticsCaseCounts(StatisticsCaseCountDateType dateType) {
+
+			String day = StatisticsCaseCount.TABLE_NAME + "." + StatisticsCaseCount.DAY;
+			return new CaseCountSource(
+					"COALESCE(SUM(" + StatisticsCaseCount.TABLE_NAME + "." + StatisticsCaseCount.CASE_COUNT + "), 0)::bigint",
+					StatisticsCaseCount.TABLE_NAME, StatisticsCaseCount.TABLE_NAME,
+					StatisticsCaseCount.TABLE_NAME + "." + StatisticsCaseCount.DATE_TYPE + " = '" + dateType.name() + "'",
+					day, day, day,
+					StatisticsCaseCount.TABLE_NAME + "." + StatisticsCaseCount.SEX,
+					StatisticsCaseCount.TABLE_NAME + "." + StatisticsCaseCount.CASE_AGE,
+					StatisticsCaseCount.TABLE_NAME + "." + StatisticsCaseCount.DISEASE,
+					StatisticsCaseCount.TABLE_NAME + "." + StatisticsCaseCount.CASE_CLASSIFICATION,
+					StatisticsCaseCount.TABLE_NAME + "." + StatisticsCaseCount.OUTCOME);
+		}
+
+		private final String count;
+		private final String from;
+		/**
+		 * The region and district id columns of the table referencing them
+		 */
+		private final String region;
+		private final String district;
+		/**
+		 * Always applied, may be empty
+		 */
+		private final String filter;
+		private final String onsetDate;
+		private final String receptionDate;
+		private final String reportDate;
+		private final String sex;
+		private final String caseAge;
+		private final String disease;
+		private final String caseClassification;
+		private final String outcome;
+
+		private CaseCountSource(String count, String from, String table, String filter, String onsetDate,
+				String receptionDate, String reportDate, String sex, String caseAge, String disease,
+				String caseClassification, String outcome) {
+			this.count = count;
+			this.from = from;
+			this.region = table + "." + Case.REGION + "_id";
+			this.district = table + "." + Case.DISTRICT + "_id";
+			this.filter = filter;
+			this.onsetDate = onsetDate;
+			this.receptionDate = receptionDate;
+			this.reportDate = reportDate;
+			this.sex = sex;
+			this.caseAge = caseAge;
+			this.disease = disease;
+			this.caseClassification = caseClassification;
+			this.outcome = outcome;
+		}
+	}
+
 	@LocalBean
 	@Stateless
 	public static class CaseFacadeEjbLocal extends CaseFacadeEjb {
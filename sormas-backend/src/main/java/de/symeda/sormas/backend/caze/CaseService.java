@@ -17,11 +17,15 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.caze;
 
+import java.sql.Timestamp;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
@@ -36,6 +40,7 @@ import javax.persistence.criteria.Root;
 import javax.persistence.criteria.Subquery;
 
 import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.caze.CaseClassification;
 import de.symeda.sormas.api.caze.CaseCriteria;
 import de.symeda.sormas.api.caze.CaseLogic;
 import de.symeda.sormas.api.caze.MapCaseDto;
@@ -44,30 +49,27 @@ import de.symeda.sormas.api.person.PresentCondition;
 import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.api.utils.DataHelper;
 import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.api.utils.SyncCursor;
 import de.symeda.sormas.backend.common.AbstractAdoService;
-import de.symeda.sormas.backend.common.AbstractDomainObject;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactService;
-import de.symeda.sormas.backend.epidata.EpiData;
-import de.symeda.sormas.backend.epidata.EpiDataBurial;
-import de.symeda.sormas.backend.epidata.EpiDataGathering;
 import de.symeda.sormas.backend.epidata.EpiDataService;
-import de.symeda.sormas.backend.epidata.EpiDataTravel;
 import de.symeda.sormas.backend.event.EventParticipantService;
 import de.symeda.sormas.backend.facility.Facility;
-import de.symeda.sormas.backend.hospitalization.Hospitalization;
 import de.symeda.sormas.backend.hospitalization.HospitalizationService;
-import de.symeda.sormas.backend.hospitalization.PreviousHospitalization;
 import de.symeda.sormas.backend.location.Location;
 import de.symeda.sormas.backend.person.Person;
 import de.symeda.sormas.backend.person.PersonFacadeEjb.PersonFacadeEjbLocal;
 import de.symeda.sormas.backend.person.PersonService;
+import de.symeda.sormas.backend.region.Community;
 import de.symeda.sormas.backend.region.District;
 import de.symeda.sormas.backend.region.Region;
 import de.symeda.sormas.backend.sample.Sample;
 import de.symeda.sormas.backend.sample.SampleService;
 import de.symeda.sormas.backend.symptoms.Symptoms;
 import de.symeda.sormas.backend.user.User;
+import de.symeda.sormas.backend.user.UserAccessScope;
+import de.symeda.sormas.backend.user.UserAccessScopeCache;
 import de.symeda.sormas.backend.user.UserService;
 
 @Stateless
@@ -90,6 +92,14 @@ public class CaseService extends AbstractAdoService<Case> {
 	EpiDataService epiDataService;
 	@EJB
 	UserService userService;
+	@EJB
+	UserAccessScopeCache userAccessScopeCache;
+
+	/**
+	 * Cases granted to a user through contacts or samples are listed in the user filter up to this number,
+	 * above it the filter falls back to a subquery.
+	 */
+	private static final int MAX_GRANTED_CASE_IDS = 1000;
 
 	public CaseService() {
 		super(Case.class);
@@ -141,6 +151,22 @@ public class CaseService extends AbstractAdoService<Case> {
 		return resultList;
 	}
 
+	/**
+	 * Ids of all cases of the disease that have to be considered by the automatic case classification
+	 */
+	public List<Long> getIdsForClassification(Disease disease) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		Root<Case> from = cq.from(getElementClass());
+
+		cq.where(cb.equal(from.get(Case.DISEASE), disease),
+				cb.notEqual(from.get(Case.CASE_CLASSIFICATION), CaseClassification.NO_CASE));
+		cq.select(from.get(Case.ID));
+		cq.orderBy(cb.asc(from.get(Case.ID)));
+
+		return em.createQuery(cq).getResultList();
+	}
+
 	public List<Case> getAllActiveCasesAfter(Date date, User user) {
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<Case> cq = cb.createQuery(getElementClass());
@@ -166,11 +192,78 @@ public class CaseService extends AbstractAdoService<Case> {
 
 		cq.where(filter);
 		cq.orderBy(cb.desc(from.get(Case.CHANGE_DATE)));
-		cq.distinct(true);
 
 		return em.createQuery(cq).getResultList();
 	}
 
+	/**
+	 * Keyset paged variant of {@link #getAllActiveCasesAfter(Date, User)}: Cases are ordered by change date and uuid,
+	 * the page starts right after the cursor position. Stable even when cases are changed in between page requests.
+	 */
+	public List<Case> getAllActiveCasesAfter(Date date, User user, SyncCursor cursor, int limit) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Case> cq = cb.createQuery(getElementClass());
+		Root<Case> from = cq.from(getElementClass());
+
+		Predicate filter = cb.or(
+				cb.equal(from.get(Case.ARCHIVED), false),
+				cb.isNull(from.get(Case.ARCHIVED)));
+
+		if (user != null) {
+			Predicate userFilter = createUserFilter(cb, cq, from, user);
+			if (userFilter != null) {
+				filter = cb.and(filter, userFilter);
+			}
+		}
+
+		if (date != null) {
+			Predicate dateFilter = createChangeDateFilter(cb, from, date);
+			if (dateFilter != null) {
+				filter = cb.and(filter, dateFilter);	
+			}
+		}
+
+		if (cursor != null) {
+			Timestamp cursorChangeDate = getCursorChangeDate(cursor);
+			Predicate cursorFilter = cb.or(
+					cb.greaterThan(from.get(Case.CHANGE_DATE), cursorChangeDate),
+					cb.and(
+							cb.equal(from.get(Case.CHANGE_DATE), cursorChangeDate),
+							cb.greaterThan(from.get(Case.UUID), cursor.getUuid())));
+			filter = cb.and(filter, cursorFilter);
+		}
+
+		cq.where(filter);
+		cq.orderBy(cb.asc(from.get(Case.CHANGE_DATE)), cb.asc(from.get(Case.UUID)));
+
+		return em.createQuery(cq).setMaxResults(limit).getResultList();
+	}
+
+	/**
+	 * The mobile app only receives the milliseconds of the change date, while it is stored with microseconds.
+	 * In that case the exact change date is taken from the cursor's case, as long as it has not been changed since.
+	 * Otherwise the cases of that millisecond are sent again, which the client handles like any other update.
+	 */
+	private Timestamp getCursorChangeDate(SyncCursor cursor) {
+
+		Timestamp changeDate = cursor.getChangeDate();
+		if (!cursor.isTruncatedToMillis()) {
+			return changeDate;
+		}
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Timestamp> cq = cb.createQuery(Timestamp.class);
+		Root<Case> from = cq.from(getElementClass());
+		cq.select(from.<Timestamp>get(Case.CHANGE_DATE));
+		cq.where(cb.equal(from.get(Case.UUID), cursor.getUuid()));
+
+		List<Timestamp> caseChangeDates = em.createQuery(cq).getResultList();
+		if (!caseChangeDates.isEmpty() && caseChangeDates.get(0).getTime() == changeDate.getTime()) {
+			return caseChangeDates.get(0);
+		}
+		return changeDate;
+	}
+
 	public List<String> getAllActiveUuids(User user) {
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<String> cq = cb.createQuery(String.class);
@@ -382,12 +475,90 @@ public class CaseService extends AbstractAdoService<Case> {
 			return null;
 		}
 
-		// whoever created the case or is assigned to it is allowed to access it
-		Predicate filter = cb.equal(casePath.join(Case.REPORTING_USER, JoinType.LEFT), user);
-		filter = cb.or(filter, cb.equal(casePath.join(Case.SURVEILLANCE_OFFICER, JoinType.LEFT), user));
-		filter = cb.or(filter, cb.equal(casePath.join(Case.CASE_OFFICER, JoinType.LEFT), user));
+		UserAccessScope scope = userAccessScopeCache.get(user, this::buildUserAccessScope);
+
+		Predicate filter = null;
+		if (scope.isOwnCases()) {
+			// whoever created the case or is assigned to it is allowed to access it
+			filter = cb.equal(casePath.get(Case.REPORTING_USER), user);
+			filter = cb.or(filter, cb.equal(casePath.get(Case.SURVEILLANCE_OFFICER), user));
+			filter = cb.or(filter, cb.equal(casePath.get(Case.CASE_OFFICER), user));
+		}
+
+		if (scope.isLabUser()) {
+			// get all cases based on the user's sample association
+			filter = or(cb, filter, createCaseIdFilter(cb, casePath, scope.getSampleCaseIds(), () -> {
+				Subquery<Long> sampleCaseSubquery = cq.subquery(Long.class);
+				Root<Sample> sampleRoot = sampleCaseSubquery.from(Sample.class);
+				Predicate sampleFilter = sampleService.createUserFilterWithoutCase(cb, cq, sampleRoot, user);
+				if (sampleFilter != null) {
+					sampleCaseSubquery.where(sampleFilter);
+				}
+				sampleCaseSubquery.select(sampleRoot.get(Sample.ASSOCIATED_CASE).get(Case.ID));
+				return sampleCaseSubquery;
+			}));
+		}
 
 		// allow case access based on user role
+		if (!scope.getRegionIds().isEmpty()) {
+			filter = or(cb, filter, casePath.get(Case.REGION).get(Region.ID).in(scope.getRegionIds()));
+		}
+		if (!scope.getDistrictIds().isEmpty()) {
+			filter = or(cb, filter, casePath.get(Case.DISTRICT).get(District.ID).in(scope.getDistrictIds()));
+		}
+		if (!scope.getFacilityIds().isEmpty()) {
+			filter = or(cb, filter, casePath.get(Case.HEALTH_FACILITY).get(Facility.ID).in(scope.getFacilityIds()));
+		}
+		if (!scope.getCommunityIds().isEmpty()) {
+			filter = or(cb, filter, casePath.get(Case.COMMUNITY).get(Community.ID).in(scope.getCommunityIds()));
+		}
+
+		// get all cases based on the user's contact association
+		filter = or(cb, filter, createCaseIdFilter(cb, casePath, scope.getContactCaseIds(), () -> {
+			Subquery<Long> contactCaseSubquery = cq.subquery(Long.class);
+			Root<Contact> contactRoot = contactCaseSubquery.from(Contact.class);
+			contactCaseSubquery.where(contactService.createUserFilterWithoutCase(cb, cq, contactRoot, user));
+			contactCaseSubquery.select(contactRoot.get(Contact.CAZE).get(Case.ID));
+			return contactCaseSubquery;
+		}));
+
+		if (filter == null) {
+			// no access to any case
+			filter = cb.disjunction();
+		}
+
+		// users can only be assigned to a task when they have also access to the case
+		//Join<Case, Task> tasksJoin = from.join(Case.TASKS, JoinType.LEFT);
+		//filter = cb.or(filter, cb.equal(tasksJoin.get(Task.ASSIGNEE_USER), user));
+
+		return filter;
+	}
+
+	/**
+	 * @param caseIds when null, the subquery is used instead
+	 * @return null when there are no case ids
+	 */
+	private Predicate createCaseIdFilter(CriteriaBuilder cb, From<Case,Case> casePath, Set<Long> caseIds, Supplier<Subquery<Long>> caseIdSubquery) {
+		if (caseIds == null) {
+			return cb.in(casePath.get(Case.ID)).value(caseIdSubquery.get());
+		} else if (caseIds.isEmpty()) {
+			return null;
+		} else {
+			return casePath.get(Case.ID).in(caseIds);
+		}
+	}
+
+	/**
+	 * Resolves the case jurisdiction of the user to ids, see {@link #createUserFilter(CriteriaBuilder, CriteriaQuery, From, User)}
+	 */
+	private UserAccessScope buildUserAccessScope(User user) {
+
+		Set<Long> regionIds = new HashSet<>();
+		Set<Long> districtIds = new HashSet<>();
+		Set<Long> facilityIds = new HashSet<>();
+		Set<Long> communityIds = new HashSet<>();
+		boolean ownCases = true;
+		boolean labUser = false;
 		for (UserRole userRole : user.getUserRoles()) {
 			switch (userRole) {
 			case SURVEILLANCE_SUPERVISOR:
@@ -397,7 +568,7 @@ public class CaseService extends AbstractAdoService<Case> {
 			case STATE_OBSERVER:
 				// supervisors see all cases of their region
 				if (user.getRegion() != null) {
-					filter = cb.or(filter, cb.equal(casePath.get(Case.REGION), user.getRegion()));
+					regionIds.add(user.getRegion().getId());
 				}
 				break;
 			case SURVEILLANCE_OFFICER:
@@ -406,28 +577,29 @@ public class CaseService extends AbstractAdoService<Case> {
 			case DISTRICT_OBSERVER:
 				// officers see all cases of their district
 				if (user.getDistrict() != null) {
-					filter = cb.or(filter, cb.equal(casePath.get(Case.DISTRICT), user.getDistrict()));
+					districtIds.add(user.getDistrict().getId());
 				}
 				break;
 			case HOSPITAL_INFORMANT:
 				// hospital informants see all cases of their facility
 				if (user.getHealthFacility() != null) {
-					filter = cb.or(filter, cb.equal(casePath.get(Case.HEALTH_FACILITY), user.getHealthFacility()));
+					facilityIds.add(user.getHealthFacility().getId());
 				}
 				break;
 			case COMMUNITY_INFORMANT:
 				// community informants see all cases of their community
 				if (user.getCommunity() != null) {
-					filter = cb.or(filter, cb.equal(casePath.get(Case.COMMUNITY), user.getCommunity()));
+					communityIds.add(user.getCommunity().getId());
 				}
 				break;
 			case LAB_USER:
-				// get all cases based on the user's sample association
-				Subquery<Long> sampleCaseSubquery = cq.subquery(Long.class);
-				Root<Sample> sampleRoot = sampleCaseSubquery.from(Sample.class);
-				sampleCaseSubquery.where(sampleService.createUserFilterWithoutCase(cb, cq, sampleRoot, user));
-				sampleCaseSubquery.select(sampleRoot.get(Sample.ASSOCIATED_CASE).get(Case.ID));
-				filter = cb.in(casePath.get(Case.ID)).value(sampleCaseSubquery);
+				// the cases of the lab user's samples replace the access granted by the roles handled so far
+				regionIds.clear();
+				districtIds.clear();
+				facilityIds.clear();
+				communityIds.clear();
+				ownCases = false;
+				labUser = true;
 				break;
 			case ADMIN:
 			case EXTERNAL_LAB_USER:
@@ -438,50 +610,51 @@ public class CaseService extends AbstractAdoService<Case> {
 			}
 		}
 
-		// get all cases based on the user's contact association
-		Subquery<Long> contactCaseSubquery = cq.subquery(Long.class);
-		Root<Contact> contactRoot = contactCaseSubquery.from(Contact.class);
-		contactCaseSubquery.where(contactService.createUserFilterWithoutCase(cb, cq, contactRoot, user));
-		contactCaseSubquery.select(contactRoot.get(Contact.CAZE).get(Case.ID));
-		filter = cb.or(filter, cb.in(casePath.get(Case.ID)).value(contactCaseSubquery));
+		CriteriaBuilder cb = em.getCriteriaBuilder();
 
-		// users can only be assigned to a task when they have also access to the case
-		//Join<Case, Task> tasksJoin = from.join(Case.TASKS, JoinType.LEFT);
-		//filter = cb.or(filter, cb.equal(tasksJoin.get(Task.ASSIGNEE_USER), user));
+		CriteriaQuery<Long> contactCaseQuery = cb.createQuery(Long.class);
+		Root<Contact> contactRoot = contactCaseQuery.from(Contact.class);
+		contactCaseQuery.where(contactService.createUserFilterWithoutCase(cb, contactCaseQuery, contactRoot, user));
+		contactCaseQuery.select(contactRoot.get(Contact.CAZE).get(Case.ID));
+		contactCaseQuery.distinct(true);
+		Set<Long> contactCaseIds = getGrantedCaseIds(contactCaseQuery);
+
+		Long laboratoryId = null;
+		Set<Long> sampleCaseIds = null;
+		if (labUser) {
+			laboratoryId = user.getLaboratory() != null ? user.getLaboratory().getId() : null;
+			CriteriaQuery<Long> sampleCaseQuery = cb.createQuery(Long.class);
+			Root<Sample> sampleRoot = sampleCaseQuery.from(Sample.class);
+			// lab users without laboratory have access to the cases of all samples
+			Predicate sampleFilter = sampleService.createUserFilterWithoutCase(cb, sampleCaseQuery, sampleRoot, user);
+			sampleCaseQuery.where(and(cb, sampleFilter, cb.isNotNull(sampleRoot.get(Sample.ASSOCIATED_CASE))));
+			sampleCaseQuery.select(sampleRoot.get(Sample.ASSOCIATED_CASE).get(Case.ID));
+			sampleCaseQuery.distinct(true);
+			sampleCaseIds = getGrantedCaseIds(sampleCaseQuery);
+		}
+
+		return new UserAccessScope(user.getId(), user.getChangeDate(), regionIds, districtIds, facilityIds, communityIds,
+				ownCases, labUser, laboratoryId, contactCaseIds, sampleCaseIds);
+	}
 
-		return filter;
+	/**
+	 * @return null when there are more than {@link #MAX_GRANTED_CASE_IDS} cases
+	 */
+	private Set<Long> getGrantedCaseIds(CriteriaQuery<Long> caseIdQuery) {
+		List<Long> caseIds = em.createQuery(caseIdQuery).setMaxResults(MAX_GRANTED_CASE_IDS + 1).getResultList();
+		if (caseIds.size() > MAX_GRANTED_CASE_IDS) {
+			return null;
+		}
+		return new HashSet<>(caseIds);
 	}
 
+	/**
+	 * Uses the aggregated change date of the case and its embedded entities (symptoms, hospitalization, epi data, ...),
+	 * which is kept up to date by the database.
+	 */
 	@Override
 	public Predicate createChangeDateFilter(CriteriaBuilder cb, From<Case,Case> casePath, Date date) {
-
-		Predicate dateFilter = cb.greaterThan(casePath.get(Case.CHANGE_DATE), date);
-
-		Join<Case, Symptoms> symptoms = casePath.join(Case.SYMPTOMS, JoinType.LEFT);
-		dateFilter = cb.or(dateFilter, cb.greaterThan(symptoms.get(AbstractDomainObject.CHANGE_DATE), date));
-
-		Join<Case, Hospitalization> hospitalization = casePath.join(Case.HOSPITALIZATION, JoinType.LEFT);
-		dateFilter = cb.or(dateFilter, cb.greaterThan(hospitalization.get(AbstractDomainObject.CHANGE_DATE), date));
-
-		Join<Hospitalization, PreviousHospitalization> previousHospitalization 
-		= hospitalization.join(Hospitalization.PREVIOUS_HOSPITALIZATIONS, JoinType.LEFT);
-		dateFilter = cb.or(dateFilter, cb.greaterThan(previousHospitalization.get(AbstractDomainObject.CHANGE_DATE), date));
-
-		Join<Case, EpiData> epiData = casePath.join(Case.EPI_DATA, JoinType.LEFT);
-		dateFilter = cb.or(dateFilter, cb.greaterThan(epiData.get(AbstractDomainObject.CHANGE_DATE), date));
-
-		Join<EpiData, EpiDataTravel> epiDataTravels = epiData.join(EpiData.TRAVELS, JoinType.LEFT);
-		dateFilter = cb.or(dateFilter, cb.greaterThan(epiDataTravels.get(AbstractDomainObject.CHANGE_DATE), date));
-
-		Join<EpiData, EpiDataBurial> epiDataBurials = epiData.join(EpiData.BURIALS, JoinType.LEFT);
-		dateFilter = cb.or(dateFilter, cb.greaterThan(epiDataBurials.get(AbstractDomainObject.CHANGE_DATE), date));
-		dateFilter = cb.or(dateFilter, cb.greaterThan(epiDataBurials.join(EpiDataBurial.BURIAL_ADDRESS, JoinType.LEFT).get(Location.CHANGE_DATE), date));
-
-		Join<EpiData, EpiDataGathering> epiDataGatherings = epiData.join(EpiData.GATHERINGS, JoinType.LEFT);
-		dateFilter = cb.or(dateFilter, cb.greaterThan(epiDataGatherings.get(AbstractDomainObject.CHANGE_DATE), date));
-		dateFilter = cb.or(dateFilter, cb.greaterThan(epiDataGatherings.join(EpiDataGathering.GATHERING_ADDRESS, JoinType.LEFT).get(Location.CHANGE_DATE), date));
-
-		return dateFilter;
+		return cb.greaterThan(casePath.get(Case.CHANGE_DATE_AGGREGATE), date);
 	}
 
 	/**
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.caze.classification;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.caze.CaseLogic;
+import de.symeda.sormas.api.caze.classification.ClassificationAllOfCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationCaseCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationEpiDataCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationNoneOfCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationNotInStartDateRangeCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationSampleTestCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationSampleTestPositiveResultCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationSymptomsCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationXOfCriteriaDto;
+import de.symeda.sormas.api.epidata.EpiDataDto;
+import de.symeda.sormas.api.sample.SampleTestDto;
+import de.symeda.sormas.api.sample.SampleTestResultType;
+import de.symeda.sormas.api.sample.SampleTestType;
+import de.symeda.sormas.api.symptoms.SymptomsDto;
+import de.symeda.sormas.api.utils.DateHelper;
+
+/**
+ * Compiles {@link ClassificationCriteriaDto} trees to {@link CompiledClassificationCriteria}.
+ *
+ * Collective criteria are flattened into arrays of their compiled sub criteria. The properties of case, symptoms,
+ * epi data and sample tests are read with accessors that are resolved once during compilation, instead of
+ * looking up the getter by reflection on each evaluation.
+ */
+public final class ClassificationCriteriaCompiler {
+
+	private ClassificationCriteriaCompiler() {
+	}
+
+	public static CompiledClassificationCriteria compile(ClassificationCriteriaDto criteria) {
+
+		if (criteria instanceof ClassificationAllOfCriteriaDto) {
+			CompiledClassificationCriteria[] subCriteria = compileAll(((ClassificationAllOfCriteriaDto) criteria).getSubCriteria());
+			return (caze, person, sampleTests) -> {
+				for (CompiledClassificationCriteria subCriterion : subCriteria) {
+					if (!subCriterion.eval(caze, person, sampleTests)) {
+						return false;
+					}
+				}
+				return true;
+			};
+
+		} else if (criteria instanceof ClassificationXOfCriteriaDto) {
+			ClassificationXOfCriteriaDto xOfCriteria = (ClassificationXOfCriteriaDto) criteria;
+			CompiledClassificationCriteria[] subCriteria = compileAll(xOfCriteria.getSubCriteria());
+			int requiredAmount = xOfCriteria.getRequiredAmount();
+			return (caze, person, sampleTests) -> {
+				int amount = 0;
+				for (CompiledClassificationCriteria subCriterion : subCriteria) {
+					if (subCriterion.eval(caze, person, sampleTests) && ++amount >= requiredAmount) {
+						return true;
+					}
+				}
+				return false;
+			};
+
+		} else if (criteria instanceof ClassificationNoneOfCriteriaDto) {
+			CompiledClassificationCriteria[] subCriteria = compileAll(((ClassificationNoneOfCriteriaDto) criteria).getSubCriteria());
+			return (caze, person, sampleTests) -> {
+				for (CompiledClassificationCriteria subCriterion : subCriteria) {
+					if (subCriterion.eval(caze, person, sampleTests)) {
+						return false;
+					}
+				}
+				return true;
+			};
+
+		} else if (criteria instanceof ClassificationSampleTestPositiveResultCriteriaDto) {
+			Set<SampleTestType> testTypes = toEnumSet(((ClassificationSampleTestPositiveResultCriteriaDto) criteria).getSampleTestTypes());
+			return (caze, person, sampleTests) -> {
+				for (SampleTestDto sampleTest : sampleTests) {
+					if (sampleTest.getTestResult() == SampleTestResultType.POSITIVE
+							&& testTypes.contains(sampleTest.getTestType())) {
+						return true;
+					}
+				}
+				return false;
+			};
+
+		} else if (criteria instanceof ClassificationSampleTestCriteriaDto) {
+			ClassificationSampleTestCriteriaDto sampleTestCriteria = (ClassificationSampleTestCriteriaDto) criteria;
+			Set<SampleTestType> testTypes = toEnumSet(sampleTestCriteria.getTestTypes());
+			MethodHandle accessor = findGetter(SampleTestDto.class, sampleTestCriteria.getPropertyId(), true);
+			Object[] propertyValues = sampleTestCriteria.getPropertyValues().toArray();
+			return (caze, person, sampleTests) -> {
+				for (SampleTestDto sampleTest : sampleTests) {
+					if (testTypes.contains(sampleTest.getTestType())
+							&& containsValue(propertyValues, invoke(accessor, sampleTest))) {
+						return true;
+					}
+				}
+				return false;
+			};
+
+		} else if (criteria instanceof ClassificationNotInStartDateRangeCriteriaDto) {
+			ClassificationNotInStartDateRangeCriteriaDto dateRangeCriteria = (ClassificationNotInStartDateRangeCriteriaDto) criteria;
+			MethodHandle accessor = findGetter(CaseDataDto.class, dateRangeCriteria.getPropertyId(), false);
+			int daysBeforeStartDate = dateRangeCriteria.getDaysBeforeStartDate();
+			return (caze, person, sampleTests) -> {
+				Object value = invoke(accessor, caze);
+				if (!(value instanceof Date)) {
+					return true;
+				}
+				Date date = (Date) value;
+				Date startDate = CaseLogic.getStartDate(caze.getSymptoms().getOnsetDate(), caze.getReceptionDate(), caze.getReportDate());
+				Date lowerThresholdDate = DateHelper.subtractDays(startDate, daysBeforeStartDate);
+				return !(date.equals(lowerThresholdDate) || date.equals(startDate)
+						|| (date.after(lowerThresholdDate) && date.before(startDate)));
+			};
+
+		} else if (criteria instanceof ClassificationSymptomsCriteriaDto) {
+			return compilePropertyCriteria((ClassificationCaseCriteriaDto) criteria, SymptomsDto.class, CaseDataDto::getSymptoms);
+
+		} else if (criteria instanceof ClassificationEpiDataCriteriaDto) {
+			return compilePropertyCriteria((ClassificationCaseCriteriaDto) criteria, EpiDataDto.class, CaseDataDto::getEpiData);
+
+		} else if (criteria != null && criteria.getClass() == ClassificationCaseCriteriaDto.class) {
+			return compilePropertyCriteria((ClassificationCaseCriteriaDto) criteria, CaseDataDto.class, Function.identity());
+
+		} else {
+			// e.g. person age - not worth compiling
+			return (caze, person, sampleTests) -> criteria.eval(caze, person.get(), sampleTests);
+		}
+	}
+
+	private static CompiledClassificationCriteria[] compileAll(List<ClassificationCriteriaDto> criteria) {
+		return criteria.stream().map(ClassificationCriteriaCompiler::compile).toArray(CompiledClassificationCriteria[]::new);
+	}
+
+	private static <T> CompiledClassificationCriteria compilePropertyCriteria(ClassificationCaseCriteriaDto criteria,
+			Class<T> invokeClass, Function<CaseDataDto, T> invokeObject) {
+
+		MethodHandle accessor = findGetter(invokeClass, criteria.getPropertyId(), false);
+		Object[] propertyValues = criteria.getPropertyValues().toArray();
+		return (caze, person, sampleTests) -> containsValue(propertyValues, invoke(accessor, invokeObject.apply(caze)));
+	}
+
+	private static MethodHandle findGetter(Class<?> invokeClass, String propertyId, boolean allowIsGetter) {
+
+		String capitalizedPropertyId = propertyId.substring(0, 1).toUpperCase() + propertyId.substring(1);
+		MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+		MethodType accessorType = MethodType.methodType(Object.class, Object.class);
+		try {
+			try {
+				return lookup.unreflect(invokeClass.getMethod("get" + capitalizedPropertyId)).asType(accessorType);
+			} catch (NoSuchMethodException e) {
+				if (!allowIsGetter) {
+					throw e;
+				}
+				return lookup.unreflect(invokeClass.getMethod("is" + capitalizedPropertyId)).asType(accessorType);
+			}
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new IllegalArgumentException("No getter for " + propertyId + " in " + invokeClass.getSimpleName(), e);
+		}
+	}
+
+	private static Object invoke(MethodHandle accessor, Object invokeObject) {
+		try {
+			return (Object) accessor.invokeExact(invokeObject);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static boolean containsValue(Object[] propertyValues, Object value) {
+		for (Object propertyValue : propertyValues) {
+			if (propertyValue == null ? value == null : propertyValue.equals(value)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Set<SampleTestType> toEnumSet(List<SampleTestType> testTypes) {
+		return testTypes.isEmpty() ? EnumSet.noneOf(SampleTestType.class) : EnumSet.copyOf(testTypes);
+	}
+}
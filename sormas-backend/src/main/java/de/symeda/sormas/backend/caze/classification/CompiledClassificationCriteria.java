@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.caze.classification;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.caze.classification.ClassificationCriteriaDto;
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.sample.SampleTestDto;
+
+/**
+ * Evaluable form of a {@link ClassificationCriteriaDto} tree, created by the {@link ClassificationCriteriaCompiler}.
+ * The result is the same as the one of {@link ClassificationCriteriaDto#eval(CaseDataDto, PersonDto, List)}.
+ *
+ * The person is only requested from the supplier by criteria that need it.
+ */
+@FunctionalInterface
+public interface CompiledClassificationCriteria {
+
+	boolean eval(CaseDataDto caze, Supplier<PersonDto> person, List<SampleTestDto> sampleTests);
+}
@@ -18,8 +18,13 @@
 package de.symeda.sormas.backend.common;
 
 import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import javax.annotation.Resource;
 import javax.ejb.SessionContext;
@@ -35,6 +40,7 @@ import javax.persistence.criteria.ParameterExpression;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.transaction.TransactionSynchronizationRegistry;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,6 +62,11 @@ public abstract class AbstractAdoService<ADO extends AbstractDomainObject> imple
 	@Resource
 	private SessionContext context;
 
+	@Resource
+	private TransactionSynchronizationRegistry transactionRegistry;
+
+	private static final String PRELOADED_ENTITIES_KEY = AbstractAdoService.class.getName() + ".preloaded";
+
 	private final Class<ADO> elementClass;
 
 	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
@@ -177,6 +188,20 @@ public abstract class AbstractAdoService<ADO extends AbstractDomainObject> imple
 		return em.createQuery(cq).getResultList();
 	}
 
+	public List<ADO> getByIds(Collection<Long> ids) {
+
+		if (ids == null || ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<ADO> cq = cb.createQuery(getElementClass());
+		Root<ADO> from = cq.from(getElementClass());
+		cq.where(from.get(AbstractDomainObject.ID).in(ids));
+
+		return em.createQuery(cq).getResultList();
+	}
+
 	/**
 	 * Used by most getAll* and getAllUuids methods to filter by user 
 	 */
@@ -202,9 +227,33 @@ public abstract class AbstractAdoService<ADO extends AbstractDomainObject> imple
 		}
 	}
 	
+	/**
+	 * Services of cached types return the id of the entity here, so {@link #getByUuid(String)} doesn't need to
+	 * query it by uuid.
+	 * 
+	 * @return null if the id is not known without a query
+	 */
+	protected Long getCachedId(String uuid) {
+		return null;
+	}
+
 	@Override
 	public ADO getByUuid(String uuid) {
 		
+		Map<String, ADO> preloadedEntities = getPreloadedEntities(false);
+		if (preloadedEntities != null && preloadedEntities.get(uuid) != null) {
+			return preloadedEntities.get(uuid);
+		}
+
+		Long cachedId = uuid != null ? getCachedId(uuid) : null;
+		if (cachedId != null) {
+			// looked up in the persistence context first, no flush needed
+			ADO entity = em.find(getElementClass(), cachedId);
+			if (entity != null) {
+				return entity;
+			}
+		}
+
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		ParameterExpression<String> uuidParam = cb.parameter(String.class, AbstractDomainObject.UUID);
 		CriteriaQuery<ADO> cq = cb.createQuery(getElementClass());
@@ -221,6 +270,59 @@ public abstract class AbstractAdoService<ADO extends AbstractDomainObject> imple
 		return entity;
 	}
 
+	/**
+	 * Loads the entities with the given uuids using one query and keeps them until the end of the current transaction,
+	 * so subsequent {@link #getByUuid(String)} calls for them don't need a query of their own.
+	 * Meant for bulk operations that resolve a lot of references. Does nothing outside of a transaction.
+	 */
+	public void preloadByUuids(Collection<String> uuids) {
+
+		Map<String, ADO> preloadedEntities = getPreloadedEntities(true);
+		if (preloadedEntities == null) {
+			return;
+		}
+
+		List<String> missingUuids = uuids.stream()
+				.filter(uuid -> uuid != null && !preloadedEntities.containsKey(uuid))
+				.distinct()
+				.collect(Collectors.toList());
+		if (missingUuids.isEmpty()) {
+			return;
+		}
+
+		for (ADO entity : getByUuids(missingUuids)) {
+			preloadedEntities.put(entity.getUuid(), entity);
+		}
+	}
+
+	/**
+	 * @return null when there is no active transaction
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<String, ADO> getPreloadedEntities(boolean create) {
+
+		if (transactionRegistry == null || transactionRegistry.getTransactionKey() == null) {
+			return null;
+		}
+
+		Map<Class<?>, Map<String, ADO>> preloadedEntitiesByClass = 
+				(Map<Class<?>, Map<String, ADO>>) transactionRegistry.getResource(PRELOADED_ENTITIES_KEY);
+		if (preloadedEntitiesByClass == null) {
+			if (!create) {
+				return null;
+			}
+			preloadedEntitiesByClass = new HashMap<>();
+			transactionRegistry.putResource(PRELOADED_ENTITIES_KEY, preloadedEntitiesByClass);
+		}
+
+		Map<String, ADO> preloadedEntities = preloadedEntitiesByClass.get(getElementClass());
+		if (preloadedEntities == null && create) {
+			preloadedEntities = new HashMap<>();
+			preloadedEntitiesByClass.put(getElementClass(), preloadedEntities);
+		}
+		return preloadedEntities;
+	}
+
 	@Override
 	public void ensurePersisted(ADO ado) throws EntityExistsException {
 		if (ado.getId() == null) {
@@ -23,10 +23,15 @@ import java.nio.file.Files;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Date;
 
+import javax.annotation.Resource;
 import javax.annotation.security.RunAs;
 import javax.ejb.EJB;
 import javax.ejb.Schedule;
 import javax.ejb.Singleton;
+import javax.ejb.Timeout;
+import javax.ejb.Timer;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +39,7 @@ import org.slf4j.LoggerFactory;
 import de.symeda.sormas.api.importexport.ImportExportUtils;
 import de.symeda.sormas.api.task.TaskFacade;
 import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb;
 import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
 import de.symeda.sormas.backend.contact.ContactFacadeEjb.ContactFacadeEjbLocal;
@@ -51,8 +57,18 @@ public class CronService {
 	private WeeklyReportFacadeEjbLocal weeklyReportFacade;
 	@EJB
 	private TaskFacade taskFacade;
+	@EJB
+	private MessagingService messagingService;
+	@Resource
+	private TimerService timerService;
+
+	/**
+	 * Only one timer for the rescheduled dispatch of messages is pending at a time
+	 */
+	private boolean dispatchRescheduled;
 
 	public static final int REPEATEDLY_PER_HOUR_INTERVAL = 10;
+	public static final int SENT_MESSAGES_RETENTION_DAYS = 30;
 	
 	private static final Logger logger = LoggerFactory.getLogger(CaseFacadeEjb.class);
 	
@@ -67,6 +83,29 @@ public class CronService {
 		taskFacade.sendNewAndDueTaskMessages();
 	}
 	
+	@Schedule(hour = "*", minute = "*", second = "30", persistent = false)
+	public void runEveryMinute() {
+		dispatchQueuedMessages();
+	}
+
+	/**
+	 * Repeats the dispatch of the SMS that had to wait for the throttle, see {@link MessagingService#dispatchQueuedMessages()}
+	 */
+	@Timeout
+	public void runRescheduledDispatch(Timer timer) {
+		dispatchRescheduled = false;
+		dispatchQueuedMessages();
+	}
+
+	private void dispatchQueuedMessages() {
+
+		Long smsDelay = messagingService.dispatchQueuedMessages();
+		if (smsDelay != null && !dispatchRescheduled) {
+			timerService.createSingleActionTimer(smsDelay, new TimerConfig(null, false));
+			dispatchRescheduled = true;
+		}
+	}
+	
 	@Schedule(hour = "0", minute ="0", second = "0", persistent = false)
 	public void runAtMidnight() {
 		// Remove all files with the sormas prefix from the export folder that are older than two hours
@@ -91,6 +130,8 @@ public class CronService {
 		}
 		
 		logger.info("Deleted " + numberOfDeletedFiles + " export files");
+
+		messagingService.deleteSentMessages(DateHelper.subtractDays(now, SENT_MESSAGES_RETENTION_DAYS));
 	}
 	
 }
@@ -18,9 +18,10 @@
 package de.symeda.sormas.backend.common;
 
 import java.io.UnsupportedEncodingException;
+import java.util.List;
+import java.util.function.BiConsumer;
 
 import javax.annotation.Resource;
-import javax.ejb.Asynchronous;
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
@@ -28,7 +29,6 @@ import javax.mail.Message;
 import javax.mail.MessagingException;
 import javax.mail.Session;
 import javax.mail.Transport;
-import javax.mail.internet.AddressException;
 import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
 
@@ -49,30 +49,48 @@ public class EmailService {
 	@EJB
 	private ConfigFacadeEjbLocal configFacade;
 
-	@Asynchronous
-	public void sendEmail(String recipient, String subject, String content) throws AddressException, MessagingException {
-		 
+	/**
+	 * Sends the emails using one connection to the mail server.
+	 * 
+	 * @param resultConsumer called for each email, with the exception if it could not be sent
+	 * @throws MessagingException when the connection to the mail server failed; none of the emails have been sent
+	 */
+	public void sendEmails(List<QueuedMessage> emails, BiConsumer<QueuedMessage, MessagingException> resultConsumer) throws MessagingException {
+
 		Thread.currentThread().setContextClassLoader(getClass().getClassLoader());
- 
-		MimeMessage message = new MimeMessage(mailSession);
- 
+
 		String senderAddress = configFacade.getEmailSenderAddress();
-		String senderName = configFacade.getEmailSenderName();
- 
+		InternetAddress fromAddress;
 		try {
-			InternetAddress fromAddress = new InternetAddress(senderAddress, senderName);
-			message.setFrom(fromAddress);
+			fromAddress = new InternetAddress(senderAddress, configFacade.getEmailSenderName());
 		} catch (UnsupportedEncodingException e) {
 			logger.error(e.getMessage());
+			fromAddress = new InternetAddress(senderAddress);
+		}
+
+		// the same transport Transport.send would use
+		Transport transport = mailSession.getTransport(fromAddress);
+		transport.connect();
+		try {
+			for (QueuedMessage email : emails) {
+				try {
+					MimeMessage message = new MimeMessage(mailSession);
+					message.setFrom(fromAddress);
+					message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(email.getRecipientAddress(), false));
+					message.setSubject(email.getSubject(), "UTF-8");
+					message.setContent(email.getContent(), "text/plain; charset=utf-8");
+					message.saveChanges();
+
+					transport.sendMessage(message, message.getAllRecipients());
+					logger.info("Mail sent to {}.", email.getRecipientAddress());
+					resultConsumer.accept(email, null);
+				} catch (MessagingException e) {
+					resultConsumer.accept(email, e);
+				}
+			}
+		} finally {
+			transport.close();
 		}
- 
-		message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(recipient, false));
- 
-		message.setSubject(subject, "UTF-8");
-		message.setContent(content, "text/plain; charset=utf-8");
- 
-		Transport.send(message);
-		logger.info("Mail sent to {}.", recipient);
 	}
 	
 }
@@ -0,0 +1,460 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.common;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.api.ReferenceDto;
+import de.symeda.sormas.api.facility.FacilityHelper;
+import de.symeda.sormas.api.facility.FacilityReferenceDto;
+import de.symeda.sormas.api.facility.FacilityType;
+import de.symeda.sormas.api.region.CommunityReferenceDto;
+import de.symeda.sormas.api.region.DistrictReferenceDto;
+import de.symeda.sormas.api.region.RegionReferenceDto;
+import de.symeda.sormas.api.user.UserReferenceDto;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.backend.facility.Facility;
+import de.symeda.sormas.backend.region.Community;
+import de.symeda.sormas.backend.region.District;
+import de.symeda.sormas.backend.region.Region;
+import de.symeda.sormas.backend.user.User;
+import de.symeda.sormas.backend.util.ModelConstants;
+
+/**
+ * Application-wide cache of the infrastructure data (regions, districts, communities and facilities) and the users.
+ * Keeps the ids, the position in the hierarchy and the reference captions, keyed by uuid, id and name, so reference
+ * and name lookups - e.g. of the importers - don't need a query each. The services use the ids to load the
+ * entities referenced by dtos without a query by uuid (see {@link AbstractAdoService#getCachedId(String)}).
+ *
+ * Each type is loaded with one query when it is first needed and kept as an immutable snapshot that is shared by
+ * all threads. Writes through JPA invalidate the snapshot of their type, again after the transaction has completed
+ * (see {@link InfrastructureCacheListener}).
+ * Changes made by other servers or directly in the database are detected by comparing the latest change date and
+ * the number of entries, which is done at most once per {@link #VALIDATION_INTERVAL_MILLIS}.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@LocalBean
+public class InfrastructureCache {
+
+	public static final long VALIDATION_INTERVAL_MILLIS = 10_000;
+
+	private static final Logger logger = LoggerFactory.getLogger(InfrastructureCache.class);
+
+	/**
+	 * Static, because the entity listeners are not managed by the container
+	 */
+	private static final Set<Class<?>> invalidatedTypes = ConcurrentHashMap.newKeySet();
+
+	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
+	private EntityManager em;
+
+	private final Map<Class<?>, CachedType> cachedTypes = new HashMap<>();
+
+	public InfrastructureCache() {
+		cachedTypes.put(Region.class, new CachedType(this::loadRegions));
+		cachedTypes.put(District.class, new CachedType(this::loadDistricts));
+		cachedTypes.put(Community.class, new CachedType(this::loadCommunities));
+		cachedTypes.put(Facility.class, new CachedType(this::loadFacilities));
+		cachedTypes.put(User.class, new CachedType(this::loadUsers));
+	}
+
+	/**
+	 * The next access to the type will reload it.
+	 */
+	public static void invalidate(Class<?> type) {
+		invalidatedTypes.add(type);
+	}
+
+	/**
+	 * @return null if there is no entity with the uuid
+	 */
+	public Entry getByUuid(Class<? extends AbstractDomainObject> type, String uuid) {
+		return getSnapshot(type).byUuid.get(uuid);
+	}
+
+	/**
+	 * @return the entries in the order of the uuids, unknown uuids are left out
+	 */
+	public List<Entry> getByUuids(Class<? extends AbstractDomainObject> type, Collection<String> uuids) {
+
+		Snapshot snapshot = getSnapshot(type);
+		return uuids.stream()
+				.map(snapshot.byUuid::get)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * @return null if there is no entity with the id
+	 */
+	public Entry getById(Class<? extends AbstractDomainObject> type, long id) {
+		return getSnapshot(type).byId.get(id);
+	}
+
+	public RegionReferenceDto getRegionReference(String uuid) {
+		return getReference(Region.class, uuid, RegionReferenceDto::new);
+	}
+
+	public List<RegionReferenceDto> getRegionsByName(String name) {
+		return getByName(Region.class, name, e -> true, RegionReferenceDto::new);
+	}
+
+	public DistrictReferenceDto getDistrictReference(String uuid) {
+		return getReference(District.class, uuid, DistrictReferenceDto::new);
+	}
+
+	/**
+	 * @param region Optional
+	 */
+	public List<DistrictReferenceDto> getDistrictsByName(String name, RegionReferenceDto region) {
+
+		Long regionId = getParentId(Region.class, region);
+		return getByName(District.class, name, e -> regionId == null || regionId.equals(e.getRegionId()),
+				DistrictReferenceDto::new);
+	}
+
+	public CommunityReferenceDto getCommunityReference(String uuid) {
+		return getReference(Community.class, uuid, CommunityReferenceDto::new);
+	}
+
+	/**
+	 * @param district Optional
+	 */
+	public List<CommunityReferenceDto> getCommunitiesByName(String name, DistrictReferenceDto district) {
+
+		Long districtId = getParentId(District.class, district);
+		return getByName(Community.class, name, e -> districtId == null || districtId.equals(e.getDistrictId()),
+				CommunityReferenceDto::new);
+	}
+
+	public FacilityReferenceDto getFacilityReference(String uuid) {
+		return getReference(Facility.class, uuid, FacilityReferenceDto::new);
+	}
+
+	/**
+	 * Laboratories are left out. Filters by the community if given, otherwise by the district if given.
+	 */
+	public List<FacilityReferenceDto> getHealthFacilitiesByName(String name, DistrictReferenceDto district,
+			CommunityReferenceDto community) {
+
+		Long districtId = getParentId(District.class, district);
+		Long communityId = getParentId(Community.class, community);
+		return getByName(Facility.class, name, e -> e.getFacilityType() != FacilityType.LABORATORY
+				&& (communityId != null ? communityId.equals(e.getCommunityId())
+						: districtId == null || districtId.equals(e.getDistrictId())),
+				FacilityReferenceDto::new);
+	}
+
+	public UserReferenceDto getUserReference(String uuid) {
+		return getReference(User.class, uuid, UserReferenceDto::new);
+	}
+
+	public UserReferenceDto getUserReferenceByUserName(String userName) {
+		return getByName(User.class, userName, e -> true, UserReferenceDto::new).stream()
+				.findFirst()
+				.orElse(null);
+	}
+
+	private <R extends ReferenceDto> R getReference(Class<?> type, String uuid, BiFunction<String, String, R> referenceFactory) {
+
+		if (uuid == null) {
+			return null;
+		}
+		Entry entry = getSnapshot(type).byUuid.get(uuid);
+		// new instances - reference dtos are mutable
+		return entry != null ? referenceFactory.apply(entry.getUuid(), entry.getCaption()) : null;
+	}
+
+	private <R extends ReferenceDto> List<R> getByName(Class<?> type, String name, Predicate<Entry> filter,
+			BiFunction<String, String, R> referenceFactory) {
+
+		return getSnapshot(type).byName.getOrDefault(name, Collections.emptyList()).stream()
+				.filter(filter)
+				.map(e -> referenceFactory.apply(e.getUuid(), e.getCaption()))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Same as the database queries by name, an unknown parent does not restrict the result.
+	 */
+	private Long getParentId(Class<? extends AbstractDomainObject> type, ReferenceDto parent) {
+
+		Entry entry = parent != null ? getByUuid(type, parent.getUuid()) : null;
+		return entry != null ? entry.getId() : null;
+	}
+
+	private Snapshot getSnapshot(Class<?> type) {
+
+		CachedType cachedType = cachedTypes.get(type);
+		if (cachedType == null) {
+			throw new IllegalArgumentException("Type is not cached: " + type.getName());
+		}
+
+		Snapshot snapshot = cachedType.snapshot;
+		boolean invalidated = invalidatedTypes.remove(type);
+		long now = System.currentTimeMillis();
+		if (snapshot != null && !invalidated) {
+			if (now - snapshot.validatedAt < VALIDATION_INTERVAL_MILLIS) {
+				return snapshot;
+			}
+			Object[] state = queryState(type);
+			if (Objects.equals(state[0], snapshot.latestChangeDate) && Objects.equals(state[1], snapshot.count)) {
+				snapshot.validatedAt = now;
+				return snapshot;
+			}
+		}
+
+		synchronized (cachedType) {
+			// the state is queried first, so changes made while loading lead to another reload
+			Object[] state = queryState(type);
+			List<Entry> entries = cachedType.loader.get();
+			snapshot = new Snapshot((Timestamp) state[0], (Long) state[1], now, entries);
+			cachedType.snapshot = snapshot;
+			logger.debug("Loaded " + entries.size() + " entries of " + type.getSimpleName() + " into the infrastructure cache in "
+					+ (System.currentTimeMillis() - now) + " ms");
+		}
+		return snapshot;
+	}
+
+	private Object[] queryState(Class<?> type) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<?> from = cq.from(type);
+		cq.multiselect(cb.greatest(from.<Timestamp>get(AbstractDomainObject.CHANGE_DATE)), cb.count(from));
+		return em.createQuery(cq).getSingleResult();
+	}
+
+	private List<Entry> loadRegions() {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Region> from = cq.from(Region.class);
+		cq.multiselect(from.get(Region.ID), from.get(Region.UUID), from.get(Region.NAME));
+
+		return em.createQuery(cq).getResultList().stream()
+				.map(r -> new Entry((Long) r[0], (String) r[1], (String) r[2], (String) r[2], null, null, null, null))
+				.collect(Collectors.toList());
+	}
+
+	private List<Entry> loadDistricts() {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<District> from = cq.from(District.class);
+		Join<District, Region> region = from.join(District.REGION, JoinType.LEFT);
+		cq.multiselect(from.get(District.ID), from.get(District.UUID), from.get(District.NAME), region.get(Region.ID));
+
+		return em.createQuery(cq).getResultList().stream()
+				.map(r -> new Entry((Long) r[0], (String) r[1], (String) r[2], (String) r[2], (Long) r[3], null, null, null))
+				.collect(Collectors.toList());
+	}
+
+	private List<Entry> loadCommunities() {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Community> from = cq.from(Community.class);
+		Join<Community, District> district = from.join(Community.DISTRICT, JoinType.LEFT);
+		cq.multiselect(from.get(Community.ID), from.get(Community.UUID), from.get(Community.NAME),
+				district.get(District.REGION).get(Region.ID), district.get(District.ID));
+
+		return em.createQuery(cq).getResultList().stream()
+				.map(r -> new Entry((Long) r[0], (String) r[1], (String) r[2], (String) r[2], (Long) r[3], (Long) r[4], null, null))
+				.collect(Collectors.toList());
+	}
+
+	private List<Entry> loadFacilities() {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Facility> from = cq.from(Facility.class);
+		Join<Facility, Region> region = from.join(Facility.REGION, JoinType.LEFT);
+		Join<Facility, District> district = from.join(Facility.DISTRICT, JoinType.LEFT);
+		Join<Facility, Community> community = from.join(Facility.COMMUNITY, JoinType.LEFT);
+		cq.multiselect(from.get(Facility.ID), from.get(Facility.UUID), from.get(Facility.NAME), from.get(Facility.TYPE),
+				region.get(Region.ID), district.get(District.ID), community.get(Community.ID));
+
+		return em.createQuery(cq).getResultList().stream()
+				.map(r -> new Entry((Long) r[0], (String) r[1], (String) r[2],
+						FacilityHelper.buildFacilityString((String) r[1], (String) r[2]),
+						(Long) r[4], (Long) r[5], (Long) r[6], (FacilityType) r[3]))
+				.collect(Collectors.toList());
+	}
+
+	private List<Entry> loadUsers() {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<User> from = cq.from(User.class);
+		Join<User, Region> region = from.join(User.REGION, JoinType.LEFT);
+		Join<User, District> district = from.join(User.DISTRICT, JoinType.LEFT);
+		Join<User, UserRole> userRoles = from.join(User.USER_ROLES, JoinType.LEFT);
+		cq.multiselect(from.get(User.ID), from.get(User.UUID), from.get(User.USER_NAME), from.get(User.FIRST_NAME),
+				from.get(User.LAST_NAME), region.get(Region.ID), district.get(District.ID), userRoles);
+
+		// one row per role
+		Map<Long, Object[]> userRows = new LinkedHashMap<>();
+		Map<Long, Set<UserRole>> rolesByUser = new HashMap<>();
+		for (Object[] row : em.createQuery(cq).getResultList()) {
+			Long id = (Long) row[0];
+			userRows.putIfAbsent(id, row);
+			Set<UserRole> roles = rolesByUser.computeIfAbsent(id, k -> EnumSet.noneOf(UserRole.class));
+			if (row[7] != null) {
+				roles.add((UserRole) row[7]);
+			}
+		}
+
+		List<Entry> entries = new ArrayList<>(userRows.size());
+		for (Object[] r : userRows.values()) {
+			String caption = UserReferenceDto.buildCaption((String) r[3], (String) r[4], rolesByUser.get(r[0]));
+			entries.add(new Entry((Long) r[0], (String) r[1], (String) r[2], caption, (Long) r[5], (Long) r[6], null, null));
+		}
+		return entries;
+	}
+
+	private static final class CachedType {
+
+		private final Supplier<List<Entry>> loader;
+		private volatile Snapshot snapshot;
+
+		private CachedType(Supplier<List<Entry>> loader) {
+			this.loader = loader;
+		}
+	}
+
+	private static final class Snapshot {
+
+		private final Timestamp latestChangeDate;
+		private final Long count;
+		private volatile long validatedAt;
+
+		private final Map<String, Entry> byUuid;
+		private final Map<Long, Entry> byId;
+		private final Map<String, List<Entry>> byName;
+
+		private Snapshot(Timestamp latestChangeDate, Long count, long validatedAt, List<Entry> entries) {
+
+			this.latestChangeDate = latestChangeDate;
+			this.count = count;
+			this.validatedAt = validatedAt;
+
+			Map<String, Entry> byUuid = new HashMap<>(entries.size() * 2);
+			Map<Long, Entry> byId = new HashMap<>(entries.size() * 2);
+			Map<String, List<Entry>> byName = new HashMap<>(entries.size() * 2);
+			for (Entry entry : entries) {
+				byUuid.put(entry.getUuid(), entry);
+				byId.put(entry.getId(), entry);
+				byName.computeIfAbsent(entry.getName(), k -> new ArrayList<>(1)).add(entry);
+			}
+			this.byUuid = Collections.unmodifiableMap(byUuid);
+			this.byId = Collections.unmodifiableMap(byId);
+			this.byName = Collections.unmodifiableMap(byName);
+		}
+	}
+
+	/**
+	 * Cached data of one entity. The name of users is the user name.
+	 */
+	public static final class Entry {
+
+		private final long id;
+		private final String uuid;
+		private final String name;
+		private final String caption;
+		private final Long regionId;
+		private final Long districtId;
+		private final Long communityId;
+		private final FacilityType facilityType;
+
+		private Entry(long id, String uuid, String name, String caption, Long regionId, Long districtId,
+				Long communityId, FacilityType facilityType) {
+			this.id = id;
+			this.uuid = uuid;
+			this.name = name;
+			this.caption = caption;
+			this.regionId = regionId;
+			this.districtId = districtId;
+			this.communityId = communityId;
+			this.facilityType = facilityType;
+		}
+
+		public long getId() {
+			return id;
+		}
+
+		public String getUuid() {
+			return uuid;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getCaption() {
+			return caption;
+		}
+
+		public Long getRegionId() {
+			return regionId;
+		}
+
+		public Long getDistrictId() {
+			return districtId;
+		}
+
+		public Long getCommunityId() {
+			return communityId;
+		}
+
+		public FacilityType getFacilityType() {
+			return facilityType;
+		}
+	}
+}
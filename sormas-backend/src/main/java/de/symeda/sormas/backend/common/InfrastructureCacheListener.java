@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.common;
+
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Invalidates the {@link InfrastructureCache} entries of the type of each written entity.
+ *
+ * The type is invalidated right away, so the writing transaction reads its own changes, and again after the
+ * transaction has completed, so a snapshot that another thread loaded from the not yet committed state in between
+ * is not kept.
+ */
+public class InfrastructureCacheListener {
+
+	private static final Logger logger = LoggerFactory.getLogger(InfrastructureCacheListener.class);
+
+	private static final String TRANSACTION_REGISTRY_NAME = "java:comp/TransactionSynchronizationRegistry";
+
+	private TransactionSynchronizationRegistry transactionRegistry;
+	private boolean transactionRegistryLookedUp;
+
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	public void invalidate(Object entity) {
+
+		Class<?> type = entity.getClass();
+		InfrastructureCache.invalidate(type);
+
+		TransactionSynchronizationRegistry transactionRegistry = getTransactionRegistry();
+		if (transactionRegistry != null && transactionRegistry.getTransactionKey() != null) {
+			transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+
+				@Override
+				public void beforeCompletion() {
+				}
+
+				@Override
+				public void afterCompletion(int status) {
+					InfrastructureCache.invalidate(type);
+				}
+			});
+		}
+	}
+
+	/**
+	 * The entity listeners are not managed by the container, so the registry is looked up through JNDI.
+	 */
+	private TransactionSynchronizationRegistry getTransactionRegistry() {
+
+		if (!transactionRegistryLookedUp) {
+			try {
+				transactionRegistry = (TransactionSynchronizationRegistry) new InitialContext().lookup(TRANSACTION_REGISTRY_NAME);
+			} catch (NamingException e) {
+				logger.warn("Couldn't get the TransactionSynchronizationRegistry through JNDI, the infrastructure cache is only invalidated on flush", e);
+			}
+			transactionRegistryLookedUp = true;
+		}
+		return transactionRegistry;
+	}
+}
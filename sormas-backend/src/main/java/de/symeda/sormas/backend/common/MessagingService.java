@@ -18,10 +18,18 @@
 package de.symeda.sormas.backend.common;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
 import javax.mail.MessagingException;
 
 import org.slf4j.Logger;
@@ -36,6 +44,10 @@ import de.symeda.sormas.backend.user.UserService;
 /**
  * Service used to send email and SMS messages to SORMAS users.
  * 
+ * Messages are queued in the transaction of the action that caused them and sent later by
+ * {@link #dispatchQueuedMessages()}, so they are only sent when the transaction has been committed
+ * and saving doesn't have to wait for the mail server or SMS gateway.
+ * 
  * @author Maté Strysewske
  */
 @Stateless(name = "MessagingService")
@@ -67,20 +79,39 @@ public class MessagingService {
 	public static final String CONTENT_TASK_DUE_SPECIFIC = "notificationTaskDueSpecific";
 	public static final String CONTENT_VISIT_COMPLETED = "notificationVisitCompleted";
 	
+	public static final int EMAIL_DISPATCH_BATCH_SIZE = 200;
+	public static final int SMS_DISPATCH_BATCH_SIZE = 30;
+	/**
+	 * Minimum time between two SMS, to stay within the throughput allowed by the SMS gateway
+	 */
+	public static final long SMS_INTERVAL_MILLIS = 500;
+	public static final int MAX_ATTEMPTS = 6;
+	/**
+	 * Delay after the first failed attempt, doubled with each further attempt
+	 */
+	public static final long RETRY_DELAY_MILLIS = 60 * 1000;
+
 	private static final Logger logger = LoggerFactory.getLogger(MessagingService.class);
 
+	/**
+	 * Earliest time the next SMS may be sent. Shared by all dispatches, which are run one at a time by the {@link CronService}.
+	 */
+	private static final AtomicLong nextSmsMillis = new AtomicLong();
+
 	@EJB
 	private UserService userService;
 	@EJB
 	private EmailService emailService;
 	@EJB
 	private SmsService smsService;
+	@EJB
+	private QueuedMessageService queuedMessageService;
 	
 	/**
-	 * Sends the message specified by the messageContent via mail and/or SMS, according to the messageTypes, to the specified recipient's
+	 * Queues the message specified by the messageContent to be sent via mail and/or SMS, according to the messageTypes, to the specified recipient's
 	 * email address and/or phone number. Logs an error if the email address or phone number is not set.
 	 */
-	public void sendMessage(User recipient, String subject, String messageContent, MessageType... messageTypes) throws NotificationDeliveryFailedException {
+	public void sendMessage(User recipient, String subject, String messageContent, MessageType... messageTypes) {
 		// Don't send notifications to users that initiated an action
 		if (recipient.equals(userService.getCurrentUser())) {
 			return;
@@ -95,22 +126,111 @@ public class MessagingService {
 			} else if (messageType == MessageType.SMS && DataHelper.isNullOrEmpty(phoneNumber)) {
 				logger.info(String.format("Tried to send an SMS to a user without a phone number (UUID: %s).", recipient.getUuid()));
 			} else {
-				try {
-					if (messageType == MessageType.EMAIL) {
-						emailService.sendEmail(emailAddress, subject, messageContent);
-					} else if (messageType == MessageType.SMS) {
-						smsService.sendSms(phoneNumber, subject, messageContent);
+				String recipientAddress = messageType == MessageType.EMAIL ? emailAddress : phoneNumber;
+				queuedMessageService.persist(queuedMessageService.buildQueuedMessage(messageType, recipientAddress, subject, messageContent));
+			}
+		}
+	}
+
+	/**
+	 * Sends the queued messages that are due. Emails are sent using one connection to the mail server, SMS are
+	 * throttled to {@link #SMS_INTERVAL_MILLIS}. Messages that could not be sent are retried with an exponential backoff.
+	 * 
+	 * Instead of waiting for the throttle, the dispatch of SMS stops when the next one can't be sent yet.
+	 * 
+	 * @return the time in milliseconds after which the dispatch should be repeated for the remaining SMS;
+	 * null when there are no more SMS due
+	 */
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+	public Long dispatchQueuedMessages() {
+
+		long startTime = System.currentTimeMillis();
+		List<Long> sentIds = new ArrayList<>();
+		Map<QueuedMessage, Exception> failures = new LinkedHashMap<>();
+
+		List<QueuedMessage> emails = queuedMessageService.getDue(MessageType.EMAIL, new Date(), EMAIL_DISPATCH_BATCH_SIZE);
+		if (!emails.isEmpty()) {
+			try {
+				emailService.sendEmails(emails, (email, e) -> {
+					if (e == null) {
+						sentIds.add(email.getId());
+					} else {
+						failures.put(email, e);
+					}
+				});
+			} catch (MessagingException e) {
+				// no connection to the mail server - retry all emails that have not been sent
+				for (QueuedMessage email : emails) {
+					if (!sentIds.contains(email.getId()) && !failures.containsKey(email)) {
+						failures.put(email, e);
 					}
-				} catch (MessagingException e) {
-					throw new NotificationDeliveryFailedException("Email could not be sent due to an unexpected error.", MessageType.EMAIL, e);
-				} catch (IOException | NexmoClientException e) {
-					throw new NotificationDeliveryFailedException("SMS could not be sent due to an unexpected error.", MessageType.SMS, e);
-				} catch (InvalidPhoneNumberException e) {
-					throw new NotificationDeliveryFailedException("SMS could not be sent because of an invalid phone number.", MessageType.SMS, e);
 				}
 			}
 		}
-		
+
+		List<QueuedMessage> smsList = queuedMessageService.getDue(MessageType.SMS, new Date(), SMS_DISPATCH_BATCH_SIZE);
+		int smsCount = 0;
+		Long smsDelay = null;
+		for (QueuedMessage sms : smsList) {
+			long now = System.currentTimeMillis();
+			long waitMillis = nextSmsMillis.get() - now;
+			if (waitMillis > 0) {
+				// the remaining SMS are sent by the repeated dispatch
+				smsDelay = waitMillis;
+				break;
+			}
+			nextSmsMillis.set(now + SMS_INTERVAL_MILLIS);
+			smsCount++;
+			try {
+				smsService.sendSms(sms.getRecipientAddress(), sms.getSubject(), sms.getContent());
+				sentIds.add(sms.getId());
+			} catch (IOException | NexmoClientException | InvalidPhoneNumberException e) {
+				failures.put(sms, e);
+			}
+		}
+		if (smsDelay == null && smsList.size() == SMS_DISPATCH_BATCH_SIZE) {
+			// there may be more SMS due than fetched
+			smsDelay = Math.max(0, nextSmsMillis.get() - System.currentTimeMillis());
+		}
+
+		if (!sentIds.isEmpty()) {
+			queuedMessageService.markSent(sentIds, new Date());
+		}
+		for (Map.Entry<QueuedMessage, Exception> failure : failures.entrySet()) {
+			recordFailedAttempt(failure.getKey(), failure.getValue());
+		}
+
+		if (!emails.isEmpty() || smsCount > 0) {
+			logger.info("Dispatched " + emails.size() + " emails and " + smsCount + " SMS: " + sentIds.size() + " sent, "
+					+ failures.size() + " failed; took " + (System.currentTimeMillis() - startTime) + " ms");
+		}
+
+		return smsDelay;
+	}
+
+	private void recordFailedAttempt(QueuedMessage message, Exception e) {
+
+		int attempts = message.getAttempts() + 1;
+		// an invalid phone number won't become valid by retrying
+		boolean retry = attempts < MAX_ATTEMPTS && !(e instanceof InvalidPhoneNumberException);
+		Date nextAttemptDate = retry ? new Date(System.currentTimeMillis() + (RETRY_DELAY_MILLIS << (attempts - 1))) : null;
+
+		queuedMessageService.markAttemptFailed(message.getId(), e.getMessage(), nextAttemptDate);
+
+		if (retry) {
+			logger.warn(String.format("%s to %s could not be sent (attempt %d), retrying at %s: %s", message.getMessageType(),
+					message.getRecipientAddress(), attempts, nextAttemptDate, e.getMessage()));
+		} else {
+			logger.error(String.format("%s to %s could not be sent (attempt %d), giving up: %s", message.getMessageType(),
+					message.getRecipientAddress(), attempts, e.getMessage()), e);
+		}
+	}
+
+	/**
+	 * Removes sent messages from the queue
+	 */
+	public void deleteSentMessages(Date sentBefore) {
+		int count = queuedMessageService.deleteSent(sentBefore);
+		logger.info("Deleted " + count + " sent messages from the queue");
 	}
-	
 }
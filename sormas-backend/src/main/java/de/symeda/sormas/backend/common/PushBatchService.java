@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.api.EntityDto;
+import de.symeda.sormas.api.PushResult;
+import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.api.utils.OutdatedEntityException;
+import de.symeda.sormas.api.utils.ValidationRuntimeException;
+
+/**
+ * Saves entities pushed by the mobile app in chunks. Each chunk is saved in a transaction of its own,
+ * so commit and the preloading of referenced entities are shared by all entities of the chunk.
+ *
+ * Rejected entities (validation errors, outdated changes) don't affect the chunk. When the chunk fails for
+ * another reason, its entities are saved one by one again, so one broken entity can't take down the others.
+ */
+@Stateless
+@LocalBean
+public class PushBatchService {
+
+	public static final int CHUNK_SIZE = 100;
+
+	private static final Logger logger = LoggerFactory.getLogger(PushBatchService.class);
+
+	@EJB
+	private PushChunkSaver chunkSaver;
+
+	/**
+	 * @param preloader called at the beginning of each chunk transaction, e.g. to preload referenced entities
+	 * @param saveEntityDto the regular save method of the facade
+	 * @return one result per dto, in the same order
+	 */
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+	public <T extends EntityDto> List<PushResult> savePushedDtos(List<T> dtos, Consumer<List<T>> preloader, Function<T, T> saveEntityDto) {
+
+		List<PushResult> results = new ArrayList<>(dtos.size());
+		for (int chunkStart = 0; chunkStart < dtos.size(); chunkStart += CHUNK_SIZE) {
+			List<T> chunk = dtos.subList(chunkStart, Math.min(chunkStart + CHUNK_SIZE, dtos.size()));
+			try {
+				results.addAll(chunkSaver.saveChunk(chunk, preloader, saveEntityDto));
+			} catch (RuntimeException e) {
+				logger.warn("Saving chunk of " + chunk.size() + " pushed " + chunk.get(0).getClass().getSimpleName()
+						+ "s failed, saving one by one: " + e.getMessage());
+				for (T dto : chunk) {
+					PushResult result;
+					try {
+						result = chunkSaver.saveSingle(dto, saveEntityDto);
+					} catch (RuntimeException singleException) {
+						result = toPushResult(dto, singleException);
+					}
+					results.add(result);
+				}
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Separate bean, so the chunks are actually run in new transactions.
+	 */
+	@Stateless
+	@LocalBean
+	public static class PushChunkSaver {
+
+		@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+		public <T extends EntityDto> List<PushResult> saveChunk(List<T> chunk, Consumer<List<T>> preloader, Function<T, T> saveEntityDto) {
+
+			preloader.accept(chunk);
+
+			List<PushResult> results = new ArrayList<>(chunk.size());
+			for (T dto : chunk) {
+				try {
+					saveEntityDto.apply(dto);
+					results.add(PushResult.OK);
+				} catch (ValidationRuntimeException e) {
+					// application exception without rollback - the rest of the chunk can still be saved
+					results.add(toPushResult(dto, e));
+				}
+			}
+			return results;
+		}
+
+		@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+		public <T extends EntityDto> PushResult saveSingle(T dto, Function<T, T> saveEntityDto) {
+
+			try {
+				saveEntityDto.apply(dto);
+				return PushResult.OK;
+			} catch (ValidationRuntimeException e) {
+				return toPushResult(dto, e);
+			}
+		}
+	}
+
+	private static PushResult toPushResult(EntityDto dto, RuntimeException e) {
+
+		String errorMessage = dto.getClass().getSimpleName()
+				+ " " + dto.getUuid() + " " + DateHelper.formatLocalShortDateTime(dto.getChangeDate()) + "\n";
+		errorMessage += e.getMessage();
+		if (e instanceof OutdatedEntityException
+				|| ExceptionUtils.getRootCause(e) instanceof OutdatedEntityException) {
+			logger.warn(errorMessage, e);
+			return PushResult.TOO_OLD;
+		} else {
+			logger.error(errorMessage, e);
+			return PushResult.ERROR;
+		}
+	}
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.common;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * Email or SMS notification waiting to be sent by the {@link MessagingService}.
+ * Queued messages are saved in the transaction that triggered the notification and only dispatched after it was committed.
+ */
+@Entity(name = "queuedmessage")
+public class QueuedMessage extends AbstractDomainObject {
+
+	private static final long serialVersionUID = 4625931787125371632L;
+
+	public static final String MESSAGE_TYPE = "messageType";
+	public static final String RECIPIENT_ADDRESS = "recipientAddress";
+	public static final String SUBJECT = "subject";
+	public static final String CONTENT = "content";
+	public static final String STATUS = "status";
+	public static final String ATTEMPTS = "attempts";
+	public static final String NEXT_ATTEMPT_DATE = "nextAttemptDate";
+	public static final String SENT_DATE = "sentDate";
+	public static final String LAST_ERROR = "lastError";
+
+	private MessageType messageType;
+	private String recipientAddress;
+	private String subject;
+	private String content;
+	private QueuedMessageStatus status;
+	private int attempts;
+	private Date nextAttemptDate;
+	private Date sentDate;
+	private String lastError;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	public MessageType getMessageType() {
+		return messageType;
+	}
+	public void setMessageType(MessageType messageType) {
+		this.messageType = messageType;
+	}
+
+	/**
+	 * Email address or phone number, depending on the message type
+	 */
+	@Column(nullable = false)
+	public String getRecipientAddress() {
+		return recipientAddress;
+	}
+	public void setRecipientAddress(String recipientAddress) {
+		this.recipientAddress = recipientAddress;
+	}
+
+	@Column(length = 512)
+	public String getSubject() {
+		return subject;
+	}
+	public void setSubject(String subject) {
+		this.subject = subject;
+	}
+
+	@Column(length = 4096)
+	public String getContent() {
+		return content;
+	}
+	public void setContent(String content) {
+		this.content = content;
+	}
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	public QueuedMessageStatus getStatus() {
+		return status;
+	}
+	public void setStatus(QueuedMessageStatus status) {
+		this.status = status;
+	}
+
+	@Column(nullable = false)
+	public int getAttempts() {
+		return attempts;
+	}
+	public void setAttempts(int attempts) {
+		this.attempts = attempts;
+	}
+
+	@Temporal(TemporalType.TIMESTAMP)
+	public Date getNextAttemptDate() {
+		return nextAttemptDate;
+	}
+	public void setNextAttemptDate(Date nextAttemptDate) {
+		this.nextAttemptDate = nextAttemptDate;
+	}
+
+	@Temporal(TemporalType.TIMESTAMP)
+	public Date getSentDate() {
+		return sentDate;
+	}
+	public void setSentDate(Date sentDate) {
+		this.sentDate = sentDate;
+	}
+
+	@Column(length = 512)
+	public String getLastError() {
+		return lastError;
+	}
+	public void setLastError(String lastError) {
+		this.lastError = lastError;
+	}
+
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.common;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import de.symeda.sormas.backend.user.User;
+
+@Stateless
+@LocalBean
+public class QueuedMessageService extends AbstractAdoService<QueuedMessage> {
+
+	public QueuedMessageService() {
+		super(QueuedMessage.class);
+	}
+
+	/**
+	 * @return pending messages of the given type that are due to be sent, oldest first
+	 */
+	public List<QueuedMessage> getDue(MessageType messageType, Date date, int maxResults) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<QueuedMessage> cq = cb.createQuery(getElementClass());
+		Root<QueuedMessage> from = cq.from(getElementClass());
+		cq.where(
+				cb.equal(from.get(QueuedMessage.MESSAGE_TYPE), messageType),
+				cb.equal(from.get(QueuedMessage.STATUS), QueuedMessageStatus.PENDING),
+				cb.lessThanOrEqualTo(from.get(QueuedMessage.NEXT_ATTEMPT_DATE), date));
+		cq.orderBy(cb.asc(from.get(QueuedMessage.ID)));
+
+		return em.createQuery(cq).setMaxResults(maxResults).getResultList();
+	}
+
+	public QueuedMessage buildQueuedMessage(MessageType messageType, String recipientAddress, String subject, String content) {
+
+		QueuedMessage message = new QueuedMessage();
+		message.setMessageType(messageType);
+		message.setRecipientAddress(recipientAddress);
+		message.setSubject(subject);
+		message.setContent(content);
+		message.setStatus(QueuedMessageStatus.PENDING);
+		message.setNextAttemptDate(new Date());
+		return message;
+	}
+
+	public void markSent(Collection<Long> messageIds, Date sentDate) {
+
+		for (QueuedMessage message : getByIds(messageIds)) {
+			message.setStatus(QueuedMessageStatus.SENT);
+			message.setAttempts(message.getAttempts() + 1);
+			message.setSentDate(sentDate);
+			message.setNextAttemptDate(null);
+		}
+	}
+
+	/**
+	 * @param nextAttemptDate null when the message should not be retried
+	 */
+	public void markAttemptFailed(Long messageId, String error, Date nextAttemptDate) {
+
+		QueuedMessage message = em.find(getElementClass(), messageId);
+		message.setAttempts(message.getAttempts() + 1);
+		message.setLastError(error != null && error.length() > 512 ? error.substring(0, 512) : error);
+		message.setNextAttemptDate(nextAttemptDate);
+		if (nextAttemptDate == null) {
+			message.setStatus(QueuedMessageStatus.FAILED);
+		}
+	}
+
+	/**
+	 * @return the number of deleted messages
+	 */
+	public int deleteSent(Date sentBefore) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaDelete<QueuedMessage> cd = cb.createCriteriaDelete(getElementClass());
+		Root<QueuedMessage> from = cd.from(getElementClass());
+		cd.where(
+				cb.equal(from.get(QueuedMessage.STATUS), QueuedMessageStatus.SENT),
+				cb.lessThan(from.get(QueuedMessage.SENT_DATE), sentBefore));
+
+		return em.createQuery(cd).executeUpdate();
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	public Predicate createUserFilter(CriteriaBuilder cb, CriteriaQuery cq, From<QueuedMessage, QueuedMessage> from, User user) {
+		// A user should not directly query for this
+		throw new UnsupportedOperationException();
+	}
+}
@@ -17,18 +17,10 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.common;
 
-@SuppressWarnings("serial")
-public class NotificationDeliveryFailedException extends Exception {
+public enum QueuedMessageStatus {
+
+	PENDING,
+	SENT,
+	FAILED;
 
-	private MessageType messageType;
-	
-	public NotificationDeliveryFailedException(String message, MessageType messageType, Throwable cause) {
-		super(message, cause);
-		this.messageType = messageType;
-	}
-	
-	public MessageType getMessageType() {
-		return messageType;
-	}
-	
 }
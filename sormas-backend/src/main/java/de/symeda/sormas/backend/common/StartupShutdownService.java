@@ -43,6 +43,7 @@ import de.symeda.sormas.backend.caze.CaseService;
 import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactService;
+import de.symeda.sormas.backend.disease.DiseaseDailyCountService;
 import de.symeda.sormas.backend.epidata.EpiDataService;
 import de.symeda.sormas.backend.event.EventParticipantService;
 import de.symeda.sormas.backend.facility.Facility;
@@ -55,6 +56,7 @@ import de.symeda.sormas.backend.region.District;
 import de.symeda.sormas.backend.region.DistrictService;
 import de.symeda.sormas.backend.region.Region;
 import de.symeda.sormas.backend.region.RegionService;
+import de.symeda.sormas.backend.statistics.StatisticsCaseCountService;
 import de.symeda.sormas.backend.symptoms.SymptomsService;
 import de.symeda.sormas.backend.user.User;
 import de.symeda.sormas.backend.user.UserService;
@@ -97,6 +99,10 @@ public class StartupShutdownService {
 	private FacilityService facilityService;
 	@EJB
 	private ImportFacadeEjbLocal importFacade;
+	@EJB
+	private DiseaseDailyCountService diseaseDailyCountService;
+	@EJB
+	private StatisticsCaseCountService statisticsCaseCountService;
 
 	@PostConstruct
 	public void startup() {
@@ -188,6 +194,23 @@ public class StartupShutdownService {
 						contactService.udpateContactStatus(contact);
 					}
 					break;
+				case 135:
+					diseaseDailyCountService.rebuild();
+					break;
+				case 136:
+					statisticsCaseCountService.rebuild();
+					break;
+				case 137:
+					for (Contact contact : contactService.getAll()) {
+						contactService.updateFollowUpSummary(contact);
+					}
+					break;
+				case 139:
+					diseaseDailyCountService.rebuild();
+					break;
+				case 140:
+					statisticsCaseCountService.rebuild();
+					break;
 				
 				default:
 					throw new NoSuchElementException(DataHelper.toStringNullable(versionNeedingUpgrade)); 
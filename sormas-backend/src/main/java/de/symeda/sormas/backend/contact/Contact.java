@@ -31,12 +31,14 @@ import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 
 import de.symeda.auditlog.api.Audited;
+import de.symeda.auditlog.api.AuditedIgnore;
 import de.symeda.sormas.api.contact.ContactClassification;
 import de.symeda.sormas.api.contact.ContactProximity;
 import de.symeda.sormas.api.contact.ContactReferenceDto;
 import de.symeda.sormas.api.contact.ContactRelation;
 import de.symeda.sormas.api.contact.ContactStatus;
 import de.symeda.sormas.api.contact.FollowUpStatus;
+import de.symeda.sormas.api.visit.VisitStatus;
 import de.symeda.sormas.backend.caze.Case;
 import de.symeda.sormas.backend.common.AbstractDomainObject;
 import de.symeda.sormas.backend.person.Person;
@@ -70,6 +72,13 @@ public class Contact extends AbstractDomainObject {
 	public static final String REPORT_LAT = "reportLat";
 	public static final String REPORT_LON = "reportLon";
 	public static final String REPORT_LAT_LON_ACCURACY = "reportLatLonAccuracy";
+	public static final String LAST_VISIT_DATE_TIME = "lastVisitDateTime";
+	public static final String LAST_VISIT_STATUS = "lastVisitStatus";
+	public static final String LAST_VISIT_SYMPTOMATIC = "lastVisitSymptomatic";
+	public static final String LAST_COOPERATIVE_VISIT_DATE_TIME = "lastCooperativeVisitDateTime";
+	public static final String VISIT_COUNT = "visitCount";
+	public static final String COOPERATIVE_VISIT_COUNT = "cooperativeVisitCount";
+	public static final String UNCOOPERATIVE_VISIT_COUNT = "uncooperativeVisitCount";
 	
 	private Date reportDateTime;
 	private User reportingUser;
@@ -94,6 +103,14 @@ public class Contact extends AbstractDomainObject {
 	private User resultingCaseUser;
 	
 	private List<Task> tasks;
+
+	private Date lastVisitDateTime;
+	private VisitStatus lastVisitStatus;
+	private Boolean lastVisitSymptomatic;
+	private Date lastCooperativeVisitDateTime;
+	private int visitCount;
+	private int cooperativeVisitCount;
+	private int uncooperativeVisitCount;
 	
 	@ManyToOne(cascade = {})
 	@JoinColumn(nullable=false)
@@ -285,4 +302,76 @@ public class Contact extends AbstractDomainObject {
 	public void setResultingCaseUser(User resultingCaseUser) {
 		this.resultingCaseUser = resultingCaseUser;
 	}	
+
+	/**
+	 * Follow-up summary, maintained by {@link ContactService#updateFollowUpSummary(Contact)}.
+	 */
+	@Temporal(TemporalType.TIMESTAMP)
+	@AuditedIgnore
+	public Date getLastVisitDateTime() {
+		return lastVisitDateTime;
+	}
+
+	public void setLastVisitDateTime(Date lastVisitDateTime) {
+		this.lastVisitDateTime = lastVisitDateTime;
+	}
+
+	@Enumerated(EnumType.STRING)
+	@AuditedIgnore
+	public VisitStatus getLastVisitStatus() {
+		return lastVisitStatus;
+	}
+
+	public void setLastVisitStatus(VisitStatus lastVisitStatus) {
+		this.lastVisitStatus = lastVisitStatus;
+	}
+
+	@AuditedIgnore
+	public Boolean getLastVisitSymptomatic() {
+		return lastVisitSymptomatic;
+	}
+
+	public void setLastVisitSymptomatic(Boolean lastVisitSymptomatic) {
+		this.lastVisitSymptomatic = lastVisitSymptomatic;
+	}
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@AuditedIgnore
+	public Date getLastCooperativeVisitDateTime() {
+		return lastCooperativeVisitDateTime;
+	}
+
+	public void setLastCooperativeVisitDateTime(Date lastCooperativeVisitDateTime) {
+		this.lastCooperativeVisitDateTime = lastCooperativeVisitDateTime;
+	}
+
+	@Column(nullable = false)
+	@AuditedIgnore
+	public int getVisitCount() {
+		return visitCount;
+	}
+
+	public void setVisitCount(int visitCount) {
+		this.visitCount = visitCount;
+	}
+
+	@Column(nullable = false)
+	@AuditedIgnore
+	public int getCooperativeVisitCount() {
+		return cooperativeVisitCount;
+	}
+
+	public void setCooperativeVisitCount(int cooperativeVisitCount) {
+		this.cooperativeVisitCount = cooperativeVisitCount;
+	}
+
+	@Column(nullable = false)
+	@AuditedIgnore
+	public int getUncooperativeVisitCount() {
+		return uncooperativeVisitCount;
+	}
+
+	public void setUncooperativeVisitCount(int uncooperativeVisitCount) {
+		this.uncooperativeVisitCount = uncooperativeVisitCount;
+	}
 }
@@ -23,20 +23,28 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.annotation.security.RolesAllowed;
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Order;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.validation.constraints.NotNull;
@@ -59,12 +67,10 @@ import de.symeda.sormas.api.contact.FollowUpStatus;
 import de.symeda.sormas.api.contact.MapContactDto;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.region.RegionReferenceDto;
-import de.symeda.sormas.api.task.TaskContext;
 import de.symeda.sormas.api.task.TaskCriteria;
-import de.symeda.sormas.api.task.TaskStatus;
-import de.symeda.sormas.api.task.TaskType;
 import de.symeda.sormas.api.user.UserReferenceDto;
 import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.api.utils.SortProperty;
 import de.symeda.sormas.api.utils.YesNoUnknown;
 import de.symeda.sormas.api.visit.VisitReferenceDto;
 import de.symeda.sormas.api.visit.VisitStatus;
@@ -73,6 +79,7 @@ import de.symeda.sormas.backend.caze.CaseFacadeEjb;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb.CaseFacadeEjbLocal;
 import de.symeda.sormas.backend.caze.CaseService;
 import de.symeda.sormas.backend.common.AbstractAdoService;
+import de.symeda.sormas.backend.contact.ContactService.FollowUpTaskCandidate;
 import de.symeda.sormas.backend.facility.Facility;
 import de.symeda.sormas.backend.location.LocationService;
 import de.symeda.sormas.backend.person.Person;
@@ -85,6 +92,7 @@ import de.symeda.sormas.backend.region.RegionService;
 import de.symeda.sormas.backend.task.Task;
 import de.symeda.sormas.backend.task.TaskService;
 import de.symeda.sormas.backend.user.User;
+import de.symeda.sormas.backend.user.UserAccessScopeCache;
 import de.symeda.sormas.backend.user.UserFacadeEjb;
 import de.symeda.sormas.backend.user.UserService;
 import de.symeda.sormas.backend.util.DateHelper8;
@@ -96,6 +104,8 @@ import de.symeda.sormas.backend.visit.VisitService;
 @Stateless(name = "ContactFacade")
 public class ContactFacadeEjb implements ContactFacade {
 
+	public static final int FOLLOW_UP_TASK_BATCH_SIZE = 500;
+
 	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
 	protected EntityManager em;
 	
@@ -110,6 +120,8 @@ public class ContactFacadeEjb implements ContactFacade {
 	@EJB
 	private UserService userService;
 	@EJB
+	private UserAccessScopeCache userAccessScopeCache;
+	@EJB
 	private VisitService visitService;
 	@EJB
 	private TaskService taskService;
@@ -181,7 +193,16 @@ public class ContactFacadeEjb implements ContactFacade {
 	@Override
 	public ContactDto saveContact(ContactDto dto) {
 		
+		// the users of the contact have access to its case
+		Contact existingContact = contactService.getByUuid(dto.getUuid());
+		if (existingContact != null) {
+			userAccessScopeCache.invalidate(existingContact.getReportingUser());
+			userAccessScopeCache.invalidate(existingContact.getContactOfficer());
+		}
+
 		Contact entity = fromDto(dto);
+		userAccessScopeCache.invalidate(entity.getReportingUser());
+		userAccessScopeCache.invalidate(entity.getContactOfficer());
 
 		// taking this out because it may lead to server problems
 		// case disease can change over time and there is currently no mechanism that would delete all related contacts
@@ -322,6 +343,11 @@ public class ContactFacadeEjb implements ContactFacade {
 	
 	@Override
 	public List<ContactIndexDto> getIndexList(String userUuid, ContactCriteria contactCriteria) {
+		return getIndexList(userUuid, contactCriteria, null, null, null);
+	}
+
+	@Override
+	public List<ContactIndexDto> getIndexList(String userUuid, ContactCriteria contactCriteria, Integer first, Integer max, List<SortProperty> sortProperties) {
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<ContactIndexDto> cq = cb.createQuery(ContactIndexDto.class);
 		Root<Contact> contact = cq.from(Contact.class);
@@ -338,8 +364,80 @@ public class ContactFacadeEjb implements ContactFacade {
 				contactCasePerson.get(Person.LAST_NAME), contactCaseRegion.get(Region.UUID), contactCaseDistrict.get(District.UUID),
 				contactCaseFacility.get(Facility.UUID), contact.get(Contact.LAST_CONTACT_DATE), contact.get(Contact.CONTACT_PROXIMITY),
 				contact.get(Contact.CONTACT_CLASSIFICATION), contact.get(Contact.CONTACT_STATUS), contact.get(Contact.FOLLOW_UP_STATUS), contact.get(Contact.FOLLOW_UP_UNTIL),
-				contactOfficer.get(User.UUID), contact.get(Contact.REPORT_DATE_TIME));
+				contactOfficer.get(User.UUID), contact.get(Contact.REPORT_DATE_TIME),
+				taskService.createPendingTaskCountSubquery(cb, cq, contact, Task.CONTACT), contact.get(Contact.VISIT_COUNT));
 		
+		Predicate filter = createIndexListFilter(userUuid, contactCriteria, cb, cq, contact);
+		if (filter != null) {
+			cq.where(filter);
+		}
+
+		List<Order> order = new ArrayList<>();
+		if (sortProperties != null) {
+			for (SortProperty sortProperty : sortProperties) {
+				List<Expression<?>> expressions = new ArrayList<>();
+				switch (sortProperty.getPropertyName()) {
+				case ContactIndexDto.UUID:
+				case ContactIndexDto.LAST_CONTACT_DATE:
+				case ContactIndexDto.CONTACT_PROXIMITY:
+				case ContactIndexDto.CONTACT_CLASSIFICATION:
+				case ContactIndexDto.CONTACT_STATUS:
+				case ContactIndexDto.FOLLOW_UP_STATUS:
+				case ContactIndexDto.FOLLOW_UP_UNTIL:
+					expressions.add(contact.get(sortProperty.getPropertyName()));
+					break;
+				case ContactIndexDto.PERSON:
+					expressions.add(contactPerson.get(Person.FIRST_NAME));
+					expressions.add(contactPerson.get(Person.LAST_NAME));
+					break;
+				case ContactIndexDto.CAZE:
+					expressions.add(contactCasePerson.get(Person.FIRST_NAME));
+					expressions.add(contactCasePerson.get(Person.LAST_NAME));
+					break;
+				case ContactIndexDto.CASE_DISEASE:
+					expressions.add(contactCase.get(Case.DISEASE));
+					break;
+				default:
+					throw new IllegalArgumentException(sortProperty.getPropertyName());
+				}
+				for (Expression<?> expression : expressions) {
+					order.add(sortProperty.isAscending() ? cb.asc(expression) : cb.desc(expression));
+				}
+			}
+		}
+		if (order.isEmpty()) {
+			order.add(cb.desc(contact.get(Contact.REPORT_DATE_TIME)));
+		}
+		// unique order, so the pages don't overlap
+		order.add(cb.desc(contact.get(Contact.ID)));
+		cq.orderBy(order);
+
+		TypedQuery<ContactIndexDto> query = em.createQuery(cq);
+		if (first != null) {
+			query.setFirstResult(first);
+		}
+		if (max != null) {
+			query.setMaxResults(max);
+		}
+		return query.getResultList();
+	}
+
+	@Override
+	public long count(String userUuid, ContactCriteria contactCriteria) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		Root<Contact> contact = cq.from(Contact.class);
+
+		Predicate filter = createIndexListFilter(userUuid, contactCriteria, cb, cq, contact);
+		if (filter != null) {
+			cq.where(filter);
+		}
+
+		cq.select(cb.count(contact));
+		return em.createQuery(cq).getSingleResult();
+	}
+
+	private Predicate createIndexListFilter(String userUuid, ContactCriteria contactCriteria, CriteriaBuilder cb, CriteriaQuery<?> cq, Root<Contact> contact) {
 		Predicate filter = null;
 		
 		// Only use user filter if no restricting case is specified
@@ -353,16 +451,9 @@ public class ContactFacadeEjb implements ContactFacade {
 			Predicate criteriaFilter = contactService.buildCriteriaFilter(contactCriteria, cb, contact);
 			filter = AbstractAdoService.and(cb, filter, criteriaFilter);
 		}
-
-		if (filter != null) {
-			cq.where(filter);
-		}
-		cq.orderBy(cb.desc(contact.get(Contact.REPORT_DATE_TIME)));
-		
-		List<ContactIndexDto> resultList = em.createQuery(cq).getResultList();
-		return resultList;
+		return filter;
 	}
-	
+
 	@Override
 	public List<ContactReferenceDto> getAllByVisit(VisitReferenceDto visitRef) {
 		Visit visit = visitService.getByReferenceDto(visitRef);
@@ -489,72 +580,87 @@ public class ContactFacadeEjb implements ContactFacade {
 		return target;
 	}
 
+	/**
+	 * Creates the follow-up tasks for today of all contacts that are followed up and don't have one yet.
+	 *
+	 * The contacts are found with one query, the contact supervisors of all regions are loaded once and
+	 * the tasks are inserted in batches of {@link #FOLLOW_UP_TASK_BATCH_SIZE}, each in a transaction of its own.
+	 */
 	@RolesAllowed(UserRole._SYSTEM)
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
 	public void generateContactFollowUpTasks() {
 
-		// get all contacts that are followed up
+		long startTime = System.currentTimeMillis();
+
 		LocalDateTime fromDateTime = LocalDate.now().atStartOfDay();
 		LocalDateTime toDateTime = fromDateTime.plusDays(1);
-		List<Contact> contacts = contactService.getFollowUpBetween(DateHelper8.toDate(fromDateTime), DateHelper8.toDate(toDateTime), null, null, null);
+		Date fromDate = DateHelper8.toDate(fromDateTime);
+		Date toDate = DateHelper8.toDate(toDateTime);
+		Date dueDate = DateHelper8.toDate(toDateTime.minusMinutes(1));
+
+		// all contacts that are followed up and don't have a task for the exact day
+		List<FollowUpTaskCandidate> candidates = contactService.getFollowUpTaskCandidates(fromDate, toDate);
+		Map<Long, Set<Long>> pendingTaskAssigneeIds = taskService.getPendingContactFollowUpAssigneeIds(fromDate, toDate);
+
+		// contact supervisor of each region: the first one by id
+		Map<Long, Long> supervisorIdsByRegionId = new HashMap<>();
+		Long anySupervisorId = null;
+		for (User supervisor : userService.getAllByRegionAndUserRoles(null, UserRole.CONTACT_SUPERVISOR)) {
+			if (anySupervisorId == null) {
+				anySupervisorId = supervisor.getId();
+			}
+			if (supervisor.getRegion() != null) {
+				supervisorIdsByRegionId.putIfAbsent(supervisor.getRegion().getId(), supervisor.getId());
+			}
+		}
 
-		for (Contact contact : contacts) {
+		int createdCount = 0;
+		int pendingCount = 0;
+		int noAssigneeCount = 0;
+		Map<Long, Long> batch = new LinkedHashMap<>();
+		for (FollowUpTaskCandidate candidate : candidates) {
 
-			User assignee;
+			Long assigneeId;
 			// assign responsible user
-			if (contact.getContactOfficer() != null) {
+			if (candidate.getContactOfficerId() != null) {
 				// A. contact officer
-				assignee = contact.getContactOfficer();
+				assigneeId = candidate.getContactOfficerId();
 			} else {
-				// use region where contact person lifes
-				Region region = contact.getPerson().getAddress().getRegion();
-				if (region == null) {
-					// fallback: use region of related caze
-					region = contact.getCaze().getRegion();
-				}
-				// B. contact supervisor
-				List<User> users = userService.getAllByRegionAndUserRoles(region, UserRole.CONTACT_SUPERVISOR);
-				if (!users.isEmpty()) {
-					assignee = users.get(0);
-				} else {
-					logger.warn("Contact has not contact officer and no region - can't create follow-up task: " + contact.getUuid());
+				// B. contact supervisor of the region where the contact person lives (fallback: region of the case)
+				assigneeId = candidate.getRegionId() != null
+						? supervisorIdsByRegionId.get(candidate.getRegionId())
+						: anySupervisorId;
+				if (assigneeId == null) {
+					noAssigneeCount++;
+					logger.warn("Contact has no contact officer and no contact supervisor in its region - can't create follow-up task: "
+							+ candidate.getContactId());
 					continue;
 				}
 			}
 
-			// find already existing tasks
-			TaskCriteria pendingUserTaskCriteria = new TaskCriteria()
-					.contact(contact.toReference())
-					.taskType(TaskType.CONTACT_FOLLOW_UP)
-					.assigneeUser(assignee.toReference())
-					.taskStatus(TaskStatus.PENDING);
-			List<Task> pendingUserTasks = taskService.findBy(pendingUserTaskCriteria);
-
-			if (!pendingUserTasks.isEmpty()) {
+			Set<Long> pendingAssigneeIds = pendingTaskAssigneeIds.get(candidate.getContactId());
+			if (pendingAssigneeIds != null && pendingAssigneeIds.contains(assigneeId)) {
 				// the user still has a pending task for this contact
+				pendingCount++;
 				continue;
 			}
 
-			TaskCriteria dayTaskCriteria = new TaskCriteria()
-					.contact(contact.toReference())
-					.taskType(TaskType.CONTACT_FOLLOW_UP)
-					.dueDateBetween(DateHelper8.toDate(fromDateTime), DateHelper8.toDate(toDateTime));
-			List<Task> dayTasks = taskService.findBy(dayTaskCriteria);
-
-			if (!dayTasks.isEmpty()) {
-				// there is already a task for the exact day
-				continue;
+			batch.put(candidate.getContactId(), assigneeId);
+			if (batch.size() >= FOLLOW_UP_TASK_BATCH_SIZE) {
+				taskService.createContactFollowUpTasks(batch, fromDate, dueDate);
+				createdCount += batch.size();
+				batch.clear();
+				logger.debug("Created " + createdCount + " contact follow-up tasks so far");
 			}
-
-			// none found -> create the task
-			Task task = taskService.buildTask(null);
-			task.setTaskContext(TaskContext.CONTACT);
-			task.setContact(contact);
-			task.setTaskType(TaskType.CONTACT_FOLLOW_UP);
-			task.setSuggestedStart(DateHelper8.toDate(fromDateTime));
-			task.setDueDate(DateHelper8.toDate(toDateTime.minusMinutes(1)));
-			task.setAssigneeUser(assignee);
-			taskService.ensurePersisted(task);
 		}
+		if (!batch.isEmpty()) {
+			taskService.createContactFollowUpTasks(batch, fromDate, dueDate);
+			createdCount += batch.size();
+		}
+
+		logger.info("Contact follow-up task generation: " + candidates.size() + " contacts without task for today, "
+				+ createdCount + " tasks created, " + pendingCount + " skipped with pending task, "
+				+ noAssigneeCount + " without assignee; took " + (System.currentTimeMillis() - startTime) + " ms");
 	}
 
 	@LocalBean
@@ -36,6 +36,7 @@ import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
 import javax.validation.constraints.NotNull;
 
 import de.symeda.sormas.api.Disease;
@@ -47,6 +48,7 @@ import de.symeda.sormas.api.contact.ContactStatus;
 import de.symeda.sormas.api.contact.DashboardContactDto;
 import de.symeda.sormas.api.contact.FollowUpStatus;
 import de.symeda.sormas.api.contact.MapContactDto;
+import de.symeda.sormas.api.task.TaskType;
 import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.api.utils.DataHelper;
 import de.symeda.sormas.api.utils.DateHelper;
@@ -62,7 +64,9 @@ import de.symeda.sormas.backend.person.PersonFacadeEjb.PersonFacadeEjbLocal;
 import de.symeda.sormas.backend.region.District;
 import de.symeda.sormas.backend.region.Region;
 import de.symeda.sormas.backend.symptoms.Symptoms;
+import de.symeda.sormas.backend.task.Task;
 import de.symeda.sormas.backend.user.User;
+import de.symeda.sormas.backend.user.UserAccessScopeCache;
 import de.symeda.sormas.backend.util.DateHelper8;
 import de.symeda.sormas.backend.visit.Visit;
 import de.symeda.sormas.backend.visit.VisitService;
@@ -77,11 +81,22 @@ public class ContactService extends AbstractAdoService<Contact> {
 	VisitService visitService;
 	@EJB
 	PersonFacadeEjbLocal personFacade;
+	@EJB
+	UserAccessScopeCache userAccessScopeCache;
 
 	public ContactService() {
 		super(Contact.class);
 	}
 
+	@Override
+	public void delete(Contact contact) {
+		super.delete(contact);
+
+		// the users of the contact had access to its case
+		userAccessScopeCache.invalidate(contact.getReportingUser());
+		userAccessScopeCache.invalidate(contact.getContactOfficer());
+	}
+
 	public List<Contact> findBy(ContactCriteria contactCriteria, User user) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
@@ -203,9 +218,7 @@ public class ContactService extends AbstractAdoService<Contact> {
 		CriteriaQuery<Contact> cq = cb.createQuery(getElementClass());
 		Root<Contact> from = cq.from(getElementClass());
 
-		Predicate filter = cb.isNotNull(from.get(Contact.FOLLOW_UP_UNTIL));
-		filter = cb.and(filter, cb.greaterThanOrEqualTo(from.get(Contact.FOLLOW_UP_UNTIL), fromDate));
-		filter = cb.and(filter, cb.lessThan(from.get(Contact.LAST_CONTACT_DATE), toDate));
+		Predicate filter = createFollowUpBetweenFilter(cb, from, fromDate, toDate);
 
 		if (user != null) {
 			Predicate userFilter = createUserFilter(cb, cq, from, user);
@@ -230,6 +243,50 @@ public class ContactService extends AbstractAdoService<Contact> {
 		return resultList;
 	}
 
+	/**
+	 * Contacts that are followed up between the given dates
+	 */
+	public Predicate createFollowUpBetweenFilter(CriteriaBuilder cb, From<?, Contact> contactPath, Date fromDate, Date toDate) {
+		return cb.and(
+				cb.isNotNull(contactPath.get(Contact.FOLLOW_UP_UNTIL)),
+				cb.greaterThanOrEqualTo(contactPath.get(Contact.FOLLOW_UP_UNTIL), fromDate),
+				cb.lessThan(contactPath.get(Contact.LAST_CONTACT_DATE), toDate));
+	}
+
+	/**
+	 * Contacts that are followed up between the given dates and don't have a follow-up task due in this period yet.
+	 * Everything needed to find the responsible user is selected with the contact, ordered by contact id.
+	 */
+	public List<FollowUpTaskCandidate> getFollowUpTaskCandidates(@NotNull Date fromDate, @NotNull Date toDate) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<FollowUpTaskCandidate> cq = cb.createQuery(FollowUpTaskCandidate.class);
+		Root<Contact> from = cq.from(getElementClass());
+		Join<Contact, User> contactOfficer = from.join(Contact.CONTACT_OFFICER, JoinType.LEFT);
+		Join<Person, Location> address = from.join(Contact.PERSON).join(Person.ADDRESS, JoinType.LEFT);
+		Join<Location, Region> addressRegion = address.join(Location.REGION, JoinType.LEFT);
+		Join<Case, Region> caseRegion = from.join(Contact.CAZE).join(Case.REGION, JoinType.LEFT);
+
+		// anti-join: no follow-up task due in the period
+		Subquery<Long> periodTasks = cq.subquery(Long.class);
+		Root<Task> task = periodTasks.from(Task.class);
+		periodTasks.select(task.get(Task.ID));
+		periodTasks.where(
+				cb.equal(task.get(Task.CONTACT), from),
+				cb.equal(task.get(Task.TASK_TYPE), TaskType.CONTACT_FOLLOW_UP),
+				cb.greaterThanOrEqualTo(task.get(Task.DUE_DATE), fromDate),
+				cb.lessThan(task.get(Task.DUE_DATE), toDate));
+
+		cq.select(cb.construct(FollowUpTaskCandidate.class,
+				from.get(Contact.ID),
+				contactOfficer.get(User.ID),
+				addressRegion.get(Region.ID),
+				caseRegion.get(Region.ID)));
+		cq.where(createFollowUpBetweenFilter(cb, from, fromDate, toDate), cb.not(cb.exists(periodTasks)));
+		cq.orderBy(cb.asc(from.get(Contact.ID)));
+
+		return em.createQuery(cq).getResultList();
+	}
+
 	public List<Contact> getByPersonAndDisease(Person person, Disease disease) {
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<Contact> cq = cb.createQuery(getElementClass());
@@ -313,16 +370,10 @@ public class ContactService extends AbstractAdoService<Contact> {
 					contact.get(Contact.REPORT_LAT), contact.get(Contact.REPORT_LON),
 					contactPersonAddress.get(Location.LATITUDE), contactPersonAddress.get(Location.LONGITUDE),
 					symptoms.get(Symptoms.ONSET_DATE), caze.get(Case.REPORT_DATE), person.get(Person.FIRST_NAME),
-					person.get(Person.LAST_NAME), casePerson.get(Person.FIRST_NAME), casePerson.get(Person.LAST_NAME));
+					person.get(Person.LAST_NAME), casePerson.get(Person.FIRST_NAME), casePerson.get(Person.LAST_NAME),
+					contact.get(Contact.LAST_COOPERATIVE_VISIT_DATE_TIME));
 
 			result = em.createQuery(cq).getResultList();
-			for (MapContactDto mapContactDto : result) {
-				Visit lastVisit = visitService.getLastVisitByContact(getByUuid(mapContactDto.getUuid()),
-						VisitStatus.COOPERATIVE);
-				if (lastVisit != null) {
-					mapContactDto.setLastVisitDateTime(lastVisit.getVisitDateTime());
-				}
-			}
 		} else {
 			result = Collections.emptyList();
 		}
@@ -385,15 +436,12 @@ public class ContactService extends AbstractAdoService<Contact> {
 					contact.get(Contact.CONTACT_CLASSIFICATION),
 					contact.get(Contact.FOLLOW_UP_STATUS),
 					contact.get(Contact.FOLLOW_UP_UNTIL),
-					caze.get(Case.DISEASE));
-
-			result = em.createQuery(cq).getResultList();	
-			for (DashboardContactDto dashboardContactDto : result) {
-				Visit lastVisit = visitService.getLastVisitByContact(getByUuid(dashboardContactDto.getUuid()), null);
-				dashboardContactDto.setSymptomatic(lastVisit != null ? lastVisit.getSymptoms().getSymptomatic() : false);
-				dashboardContactDto.setLastVisitStatus(lastVisit != null ? lastVisit.getVisitStatus() : null);
-				dashboardContactDto.setLastVisitDateTime(lastVisit != null ? lastVisit.getVisitDateTime() : null);
-			}
+					caze.get(Case.DISEASE),
+					contact.get(Contact.LAST_VISIT_SYMPTOMATIC),
+					contact.get(Contact.LAST_VISIT_STATUS),
+					contact.get(Contact.LAST_VISIT_DATE_TIME));
+
+			result = em.createQuery(cq).getResultList();
 		} else {
 			result = Collections.emptyList();
 		}
@@ -606,12 +654,56 @@ public class ContactService extends AbstractAdoService<Contact> {
 			}
 		}
 
+		// the follow-up period may have changed
+		updateFollowUpSummary(contact);
+
 		ensurePersisted(contact);
 	}
 
 	/**
-	 * Should be used whenever a new visit is created or the status or date of a
-	 * visit changes. Makes sure the follow-up until date of all related contacts is
+	 * Sets the follow-up summary of the contact (last visit, visit counts) based on its visits, so lists and
+	 * the dashboard don't have to query the visits of each contact. Called by
+	 * {@link #updateFollowUpUntilAndStatus(Contact)}, which is done whenever the visits or the follow-up period
+	 * of the contact change.
+	 */
+	public void updateFollowUpSummary(Contact contact) {
+
+		List<Object[]> visits = visitService.getVisitSummariesByContact(contact);
+
+		contact.setLastVisitDateTime(null);
+		contact.setLastVisitStatus(null);
+		contact.setLastVisitSymptomatic(null);
+		contact.setLastCooperativeVisitDateTime(null);
+		int cooperativeVisitCount = 0;
+		int uncooperativeVisitCount = 0;
+
+		// latest visit first
+		for (Object[] visit : visits) {
+			Date visitDateTime = (Date) visit[0];
+			VisitStatus visitStatus = (VisitStatus) visit[1];
+			if (contact.getLastVisitDateTime() == null) {
+				contact.setLastVisitDateTime(visitDateTime);
+				contact.setLastVisitStatus(visitStatus);
+				contact.setLastVisitSymptomatic((Boolean) visit[2]);
+			}
+			if (visitStatus == VisitStatus.COOPERATIVE) {
+				if (contact.getLastCooperativeVisitDateTime() == null) {
+					contact.setLastCooperativeVisitDateTime(visitDateTime);
+				}
+				cooperativeVisitCount++;
+			} else if (visitStatus == VisitStatus.UNCOOPERATIVE) {
+				uncooperativeVisitCount++;
+			}
+		}
+
+		contact.setVisitCount(visits.size());
+		contact.setCooperativeVisitCount(cooperativeVisitCount);
+		contact.setUncooperativeVisitCount(uncooperativeVisitCount);
+	}
+
+	/**
+	 * Should be used whenever a new visit is created or deleted or the status or date of a
+	 * visit changes. Makes sure the follow-up until date and summary of all related contacts is
 	 * updated.
 	 */
 	public void updateFollowUpUntilAndStatusByVisit(Visit visit) {
@@ -757,4 +849,30 @@ public class ContactService extends AbstractAdoService<Contact> {
 
 		return filter;
 	}
+
+	public static class FollowUpTaskCandidate {
+
+		private final Long contactId;
+		private final Long contactOfficerId;
+		private final Long regionId;
+
+		public FollowUpTaskCandidate(Long contactId, Long contactOfficerId, Long addressRegionId, Long caseRegionId) {
+			this.contactId = contactId;
+			this.contactOfficerId = contactOfficerId;
+			// region where the contact person lives, fallback: region of the related case
+			this.regionId = addressRegionId != null ? addressRegionId : caseRegionId;
+		}
+
+		public Long getContactId() {
+			return contactId;
+		}
+
+		public Long getContactOfficerId() {
+			return contactOfficerId;
+		}
+
+		public Long getRegionId() {
+			return regionId;
+		}
+	}
 }
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.disease;
+
+import java.util.Date;
+
+import javax.persistence.CascadeType;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.ManyToOne;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.backend.common.AbstractDomainObject;
+import de.symeda.sormas.backend.region.District;
+import de.symeda.sormas.backend.region.Region;
+
+/**
+ * Pre-aggregated number of cases, events or test results of one disease, jurisdiction, day and category,
+ * used by the dashboard instead of counting the entities themselves.
+ * Maintained by the {@link DiseaseDailyCountService} whenever one of the counted entities is saved.
+ */
+@Entity(name = "diseasedailycount")
+public class DiseaseDailyCount extends AbstractDomainObject {
+
+	private static final long serialVersionUID = -3530532587406155873L;
+
+	public static final String COUNT_TYPE = "countType";
+	public static final String DISEASE = "disease";
+	public static final String REGION = "region";
+	public static final String DISTRICT = "district";
+	public static final String DAY = "day";
+	public static final String CATEGORY = "category";
+	public static final String AMOUNT = "amount";
+
+	private DiseaseDailyCountType countType;
+	private Disease disease;
+	private Region region;
+	private District district;
+	private Date day;
+	private String category;
+	private long amount;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	public DiseaseDailyCountType getCountType() {
+		return countType;
+	}
+	public void setCountType(DiseaseDailyCountType countType) {
+		this.countType = countType;
+	}
+
+	@Enumerated(EnumType.STRING)
+	public Disease getDisease() {
+		return disease;
+	}
+	public void setDisease(Disease disease) {
+		this.disease = disease;
+	}
+
+	@ManyToOne(cascade = CascadeType.REFRESH)
+	public Region getRegion() {
+		return region;
+	}
+	public void setRegion(Region region) {
+		this.region = region;
+	}
+
+	@ManyToOne(cascade = CascadeType.REFRESH)
+	public District getDistrict() {
+		return district;
+	}
+	public void setDistrict(District district) {
+		this.district = district;
+	}
+
+	@Temporal(TemporalType.DATE)
+	@Column(nullable = false)
+	public Date getDay() {
+		return day;
+	}
+	public void setDay(Date day) {
+		this.day = day;
+	}
+
+	/**
+	 * Name of the case classification, event status or test result, depending on the count type
+	 */
+	public String getCategory() {
+		return category;
+	}
+	public void setCategory(String category) {
+		this.category = category;
+	}
+
+	@Column(nullable = false)
+	public long getAmount() {
+		return amount;
+	}
+	public void setAmount(long amount) {
+		this.amount = amount;
+	}
+
+}
@@ -0,0 +1,627 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.disease;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.caze.NewCaseDateType;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.backend.caze.Case;
+import de.symeda.sormas.backend.caze.CaseService;
+import de.symeda.sormas.backend.common.AbstractAdoService;
+import de.symeda.sormas.backend.event.Event;
+import de.symeda.sormas.backend.location.Location;
+import de.symeda.sormas.backend.person.Person;
+import de.symeda.sormas.backend.region.District;
+import de.symeda.sormas.backend.region.Region;
+import de.symeda.sormas.backend.sample.Sample;
+import de.symeda.sormas.backend.sample.SampleTest;
+import de.symeda.sormas.backend.symptoms.Symptoms;
+import de.symeda.sormas.backend.user.User;
+import de.symeda.sormas.backend.util.AggregateLocks;
+
+/**
+ * Maintains the {@link DiseaseDailyCount}s.
+ *
+ * When a counted entity is saved, the {@link Cell}s it was and is counted in are recounted from scratch
+ * within the same transaction. Recounting instead of adding deltas keeps the counts correct no matter
+ * which of the properties of the entity changed. The cells are locked before they are recounted, so
+ * concurrent recounts of the same cell are serialized (see {@link AggregateLocks}); a unique index on
+ * the cell and category columns guards against duplicates.
+ */
+@Stateless
+@LocalBean
+public class DiseaseDailyCountService extends AbstractAdoService<DiseaseDailyCount> {
+
+	private static final Logger logger = LoggerFactory.getLogger(DiseaseDailyCountService.class);
+
+	private static final int REBUILD_BATCH_SIZE = 10000;
+
+	/**
+	 * See CaseService.buildUserAccessScope
+	 */
+	private static final Set<UserRole> REGION_ROLES = EnumSet.of(UserRole.SURVEILLANCE_SUPERVISOR,
+			UserRole.CONTACT_SUPERVISOR, UserRole.CASE_SUPERVISOR, UserRole.EVENT_OFFICER, UserRole.STATE_OBSERVER);
+	private static final Set<UserRole> DISTRICT_ROLES = EnumSet.of(UserRole.SURVEILLANCE_OFFICER,
+			UserRole.CONTACT_OFFICER, UserRole.CASE_OFFICER, UserRole.DISTRICT_OBSERVER);
+
+	@EJB
+	private CaseService caseService;
+
+	public DiseaseDailyCountService() {
+		super(DiseaseDailyCount.class);
+	}
+
+	/**
+	 * @return true when the jurisdiction of the user consists of whole regions or districts, so the counts
+	 *         can be used instead of counting the entities the user has access to. Not the case for informants
+	 *         and lab users.
+	 */
+	public boolean isJurisdictionSupported(User user) {
+
+		if (user.getUserRoles().contains(UserRole.NATIONAL_USER)
+				|| user.getUserRoles().contains(UserRole.NATIONAL_OBSERVER)) {
+			return true;
+		}
+
+		boolean supported = false;
+		for (UserRole userRole : user.getUserRoles()) {
+			if (REGION_ROLES.contains(userRole) || DISTRICT_ROLES.contains(userRole)) {
+				supported = true;
+			} else if (userRole != UserRole.ADMIN) {
+				return false;
+			}
+		}
+		return supported;
+	}
+
+	/**
+	 * Restricts the counts to the region or district of the user. Entities the user can additionally access
+	 * as reporting user or through contacts are not taken into account.
+	 */
+	@SuppressWarnings("rawtypes")
+	@Override
+	public Predicate createUserFilter(CriteriaBuilder cb, CriteriaQuery cq, From<DiseaseDailyCount, DiseaseDailyCount> from, User user) {
+
+		if (user == null
+				|| user.getUserRoles().contains(UserRole.NATIONAL_USER)
+				|| user.getUserRoles().contains(UserRole.NATIONAL_OBSERVER)) {
+			return null;
+		}
+
+		Predicate filter = null;
+		for (UserRole userRole : user.getUserRoles()) {
+			if (REGION_ROLES.contains(userRole) && user.getRegion() != null) {
+				filter = or(cb, filter, cb.equal(from.get(DiseaseDailyCount.REGION), user.getRegion()));
+			} else if (DISTRICT_ROLES.contains(userRole) && user.getDistrict() != null) {
+				filter = or(cb, filter, cb.equal(from.get(DiseaseDailyCount.DISTRICT), user.getDistrict()));
+			}
+		}
+		return filter != null ? filter : cb.disjunction();
+	}
+
+	/**
+	 * @param district when set, the region is ignored
+	 * @return sums of the counts of the disease in the period, by count type and category
+	 */
+	public Map<DiseaseDailyCountType, Map<String, Long>> getCountsPerCategory(Disease disease, Region region,
+			District district, Date from, Date to, User user) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<DiseaseDailyCount> root = cq.from(getElementClass());
+
+		Predicate filter = createFilter(cb, root, region, district, from, to);
+		filter = and(cb, filter, cb.equal(root.get(DiseaseDailyCount.DISEASE), disease));
+		filter = and(cb, filter, createUserFilter(cb, cq, root, user));
+		cq.where(filter);
+		cq.multiselect(root.get(DiseaseDailyCount.COUNT_TYPE), root.get(DiseaseDailyCount.CATEGORY),
+				cb.sum(root.<Long>get(DiseaseDailyCount.AMOUNT)));
+		cq.groupBy(root.get(DiseaseDailyCount.COUNT_TYPE), root.get(DiseaseDailyCount.CATEGORY));
+
+		Map<DiseaseDailyCountType, Map<String, Long>> result = new EnumMap<>(DiseaseDailyCountType.class);
+		for (Object[] row : em.createQuery(cq).getResultList()) {
+			result.computeIfAbsent((DiseaseDailyCountType) row[0], t -> new HashMap<>()).put((String) row[1], (Long) row[2]);
+		}
+		return result;
+	}
+
+	/**
+	 * @param district when set, the region is ignored
+	 * @return sums of the counts of the type in the period, by disease
+	 */
+	public Map<Disease, Long> getCountsPerDisease(DiseaseDailyCountType countType, Region region, District district,
+			Date from, Date to, User user) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<DiseaseDailyCount> root = cq.from(getElementClass());
+
+		Predicate filter = createFilter(cb, root, region, district, from, to);
+		filter = and(cb, filter, cb.equal(root.get(DiseaseDailyCount.COUNT_TYPE), countType));
+		filter = and(cb, filter, createUserFilter(cb, cq, root, user));
+		cq.where(filter);
+		cq.multiselect(root.get(DiseaseDailyCount.DISEASE), cb.sum(root.<Long>get(DiseaseDailyCount.AMOUNT)));
+		cq.groupBy(root.get(DiseaseDailyCount.DISEASE));
+
+		Map<Disease, Long> result = new HashMap<>();
+		for (Object[] row : em.createQuery(cq).getResultList()) {
+			result.put((Disease) row[0], (Long) row[1]);
+		}
+		return result;
+	}
+
+	private Predicate createFilter(CriteriaBuilder cb, Root<DiseaseDailyCount> root, Region region, District district,
+			Date from, Date to) {
+
+		Predicate filter = cb.between(root.<Date>get(DiseaseDailyCount.DAY), DateHelper.getStartOfDay(from),
+				DateHelper.getStartOfDay(to));
+		if (district != null) {
+			filter = cb.and(filter, cb.equal(root.get(DiseaseDailyCount.DISTRICT), district));
+		} else if (region != null) {
+			filter = cb.and(filter, cb.equal(root.get(DiseaseDailyCount.REGION), region));
+		}
+		return filter;
+	}
+
+	/**
+	 * @return the cell the case is counted in, without the ones of its test results. Enough when only
+	 *         the classification of the case changed. Null when the case isn't counted
+	 */
+	public Cell getCaseCell(Case caze) {
+		return Cell.of(DiseaseDailyCountType.CASE, caze.getDisease(), caze.getRegion(), caze.getDistrict(),
+				getMostRelevantDate(caze.getSymptoms().getOnsetDate(), caze.getReceptionDate(), caze.getReportDate()));
+	}
+
+	/**
+	 * @return the cells the case and its test results are counted in
+	 */
+	public Set<Cell> getCaseCells(Case caze) {
+		return getCaseCells(caze, caze.getDisease(), caze.getRegion(), caze.getDistrict(),
+				caze.getSymptoms().getOnsetDate(), caze.getReceptionDate(), caze.getReportDate());
+	}
+
+	/**
+	 * @return the cells the case and its test results are counted in when it has the given disease,
+	 *         jurisdiction and dates, e.g. before it was changed
+	 */
+	public Set<Cell> getCaseCells(Case caze, Disease disease, Region region, District district, Date onsetDate,
+			Date receptionDate, Date reportDate) {
+
+		Set<Cell> cells = new HashSet<>();
+		cells.add(Cell.of(DiseaseDailyCountType.CASE, disease, region, district,
+				getMostRelevantDate(onsetDate, receptionDate, reportDate)));
+
+		if (caze.getId() != null) {
+			CriteriaBuilder cb = em.getCriteriaBuilder();
+			CriteriaQuery<Date> cq = cb.createQuery(Date.class);
+			Root<SampleTest> sampleTest = cq.from(SampleTest.class);
+			cq.where(cb.equal(sampleTest.join(SampleTest.SAMPLE).get(Sample.ASSOCIATED_CASE), caze));
+			cq.select(sampleTest.get(SampleTest.TEST_DATE_TIME));
+			cq.distinct(true);
+			for (Date testDate : em.createQuery(cq).getResultList()) {
+				cells.add(Cell.of(DiseaseDailyCountType.TEST_RESULT, disease, region, district, testDate));
+			}
+		}
+
+		cells.remove(null);
+		return cells;
+	}
+
+	/**
+	 * @return the cells the test results of the sample are counted in
+	 */
+	public Set<Cell> getTestResultCells(Sample sample) {
+
+		Set<Cell> cells = new HashSet<>();
+		for (SampleTest sampleTest : sample.getSampleTests()) {
+			cells.add(getTestResultCell(sampleTest));
+		}
+		cells.remove(null);
+		return cells;
+	}
+
+	/**
+	 * @return null when the test result isn't counted
+	 */
+	public Cell getTestResultCell(SampleTest sampleTest) {
+
+		Case caze = sampleTest.getSample().getAssociatedCase();
+		if (caze == null) {
+			return null;
+		}
+		return Cell.of(DiseaseDailyCountType.TEST_RESULT, caze.getDisease(), caze.getRegion(), caze.getDistrict(),
+				sampleTest.getTestDateTime());
+	}
+
+	/**
+	 * @return null when the event isn't counted
+	 */
+	public Cell getEventCell(Event event) {
+
+		Location location = event.getEventLocation();
+		return Cell.of(DiseaseDailyCountType.EVENT, event.getDisease(),
+				location != null ? location.getRegion() : null,
+				location != null ? location.getDistrict() : null,
+				event.getReportDateTime());
+	}
+
+	/**
+	 * Recounts the cells. Has to be called after all changes of the counted entities have been made.
+	 *
+	 * @param cells
+	 *            may contain null
+	 */
+	public void refresh(Collection<Cell> cells) {
+
+		// cases and fatal cases are always counted together
+		Set<Cell> refreshedCells = new HashSet<>();
+		for (Cell cell : cells) {
+			if (cell == null) {
+				continue;
+			}
+			if (cell.countType == DiseaseDailyCountType.CASE || cell.countType == DiseaseDailyCountType.FATAL_CASE) {
+				refreshedCells.add(cell.withCountType(DiseaseDailyCountType.CASE));
+				refreshedCells.add(cell.withCountType(DiseaseDailyCountType.FATAL_CASE));
+			} else {
+				refreshedCells.add(cell);
+			}
+		}
+
+		AggregateLocks.lockCells(em, AggregateLocks.DISEASE_DAILY_COUNT,
+				refreshedCells.stream().map(Cell::getLockKey).collect(Collectors.toList()));
+
+		Map<Cell, Map<String, Long>> counts = new HashMap<>();
+		for (Cell cell : refreshedCells) {
+			deleteCell(cell);
+			switch (cell.countType) {
+			case CASE:
+				addCaseCounts(queryCaseRows(cell, null, 0), counts);
+				break;
+			case FATAL_CASE:
+				// counted with the cases
+				break;
+			case EVENT:
+				addCounts(queryEventRows(cell, null, 0), DiseaseDailyCountType.EVENT, counts);
+				break;
+			case TEST_RESULT:
+				addCounts(queryTestResultRows(cell, null, 0), DiseaseDailyCountType.TEST_RESULT, counts);
+				break;
+			default:
+				throw new IllegalArgumentException(cell.countType.toString());
+			}
+		}
+
+		counts.keySet().retainAll(refreshedCells);
+		persistCounts(counts);
+	}
+
+	/**
+	 * Replaces all counts by counting all cases, events and test results again
+	 */
+	public void rebuild() {
+
+		long start = System.currentTimeMillis();
+
+		AggregateLocks.lockTable(em, AggregateLocks.DISEASE_DAILY_COUNT);
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaDelete<DiseaseDailyCount> cd = cb.createCriteriaDelete(getElementClass());
+		cd.from(getElementClass());
+		em.createQuery(cd).executeUpdate();
+
+		Map<Cell, Map<String, Long>> counts = new HashMap<>();
+		queryInBatches(afterId -> queryCaseRows(null, afterId, REBUILD_BATCH_SIZE), rows -> addCaseCounts(rows, counts));
+		queryInBatches(afterId -> queryEventRows(null, afterId, REBUILD_BATCH_SIZE),
+				rows -> addCounts(rows, DiseaseDailyCountType.EVENT, counts));
+		queryInBatches(afterId -> queryTestResultRows(null, afterId, REBUILD_BATCH_SIZE),
+				rows -> addCounts(rows, DiseaseDailyCountType.TEST_RESULT, counts));
+		persistCounts(counts);
+
+		logger.info("Rebuilt " + counts.size() + " disease daily count cells in " + (System.currentTimeMillis() - start) + " ms");
+	}
+
+	private void queryInBatches(LongFunction<List<Object[]>> batchQuery, Consumer<List<Object[]>> batchConsumer) {
+
+		long afterId = 0;
+		List<Object[]> rows;
+		do {
+			rows = batchQuery.apply(afterId);
+			batchConsumer.accept(rows);
+			if (!rows.isEmpty()) {
+				afterId = (Long) rows.get(rows.size() - 1)[0];
+			}
+		} while (rows.size() == REBUILD_BATCH_SIZE);
+	}
+
+	private void deleteCell(Cell cell) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaDelete<DiseaseDailyCount> cd = cb.createCriteriaDelete(getElementClass());
+		Root<DiseaseDailyCount> root = cd.from(getElementClass());
+		cd.where(cb.equal(root.get(DiseaseDailyCount.COUNT_TYPE), cell.countType),
+				equalOrNull(cb, root.get(DiseaseDailyCount.DISEASE), cell.disease),
+				equalOrNull(cb, root.get(DiseaseDailyCount.REGION).get(Region.ID), cell.regionId),
+				equalOrNull(cb, root.get(DiseaseDailyCount.DISTRICT).get(District.ID), cell.districtId),
+				cb.equal(root.get(DiseaseDailyCount.DAY), cell.day));
+		em.createQuery(cd).executeUpdate();
+	}
+
+	private void persistCounts(Map<Cell, Map<String, Long>> counts) {
+
+		for (Entry<Cell, Map<String, Long>> cellCounts : counts.entrySet()) {
+			Cell cell = cellCounts.getKey();
+			for (Entry<String, Long> categoryCount : cellCounts.getValue().entrySet()) {
+				DiseaseDailyCount count = new DiseaseDailyCount();
+				count.setCountType(cell.countType);
+				count.setDisease(cell.disease);
+				count.setRegion(cell.regionId != null ? em.getReference(Region.class, cell.regionId) : null);
+				count.setDistrict(cell.districtId != null ? em.getReference(District.class, cell.districtId) : null);
+				count.setDay(cell.day);
+				count.setCategory(categoryCount.getKey());
+				count.setAmount(categoryCount.getValue());
+				em.persist(count);
+			}
+		}
+	}
+
+	/**
+	 * @return id, disease, region id, district id, onset date, reception date, report date, case classification
+	 *         and cause of death disease of the person of the cases, ordered by id
+	 */
+	private List<Object[]> queryCaseRows(Cell cell, Long afterId, int maxResults) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Case> caze = cq.from(Case.class);
+		Join<Case, Symptoms> symptoms = caze.join(Case.SYMPTOMS, JoinType.LEFT);
+		Join<Case, Person> person = caze.join(Case.PERSON, JoinType.LEFT);
+		Join<Case, Region> region = caze.join(Case.REGION, JoinType.LEFT);
+		Join<Case, District> district = caze.join(Case.DISTRICT, JoinType.LEFT);
+
+		Predicate filter = null;
+		if (cell != null) {
+			filter = and(cb, filter, equalOrNull(cb, caze.get(Case.DISEASE), cell.disease));
+			filter = and(cb, filter, equalOrNull(cb, region.get(Region.ID), cell.regionId));
+			filter = and(cb, filter, equalOrNull(cb, district.get(District.ID), cell.districtId));
+			filter = and(cb, filter, caseService.createNewCaseFilter(cb, caze, cell.day, cell.day, NewCaseDateType.MOST_RELEVANT));
+		}
+		if (afterId != null) {
+			filter = and(cb, filter, cb.greaterThan(caze.<Long>get(Case.ID), afterId));
+		}
+		if (filter != null) {
+			cq.where(filter);
+		}
+		cq.multiselect(caze.get(Case.ID), caze.get(Case.DISEASE), region.get(Region.ID), district.get(District.ID),
+				symptoms.get(Symptoms.ONSET_DATE), caze.get(Case.RECEPTION_DATE), caze.get(Case.REPORT_DATE),
+				caze.get(Case.CASE_CLASSIFICATION), person.get(Person.CAUSE_OF_DEATH_DISEASE));
+		cq.orderBy(cb.asc(caze.get(Case.ID)));
+
+		return createQuery(cq, maxResults).getResultList();
+	}
+
+	/**
+	 * @return id, disease, region id, district id, report date and event status of the events, ordered by id
+	 */
+	private List<Object[]> queryEventRows(Cell cell, Long afterId, int maxResults) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Event> event = cq.from(Event.class);
+		Join<Event, Location> location = event.join(Event.EVENT_LOCATION, JoinType.LEFT);
+		Join<Location, Region> region = location.join(Location.REGION, JoinType.LEFT);
+		Join<Location, District> district = location.join(Location.DISTRICT, JoinType.LEFT);
+
+		Predicate filter = null;
+		if (cell != null) {
+			filter = and(cb, filter, equalOrNull(cb, event.get(Event.DISEASE), cell.disease));
+			filter = and(cb, filter, equalOrNull(cb, region.get(Region.ID), cell.regionId));
+			filter = and(cb, filter, equalOrNull(cb, district.get(District.ID), cell.districtId));
+			filter = and(cb, filter, cb.between(event.<Date>get(Event.REPORT_DATE_TIME), cell.day, DateHelper.getEndOfDay(cell.day)));
+		}
+		if (afterId != null) {
+			filter = and(cb, filter, cb.greaterThan(event.<Long>get(Event.ID), afterId));
+		}
+		if (filter != null) {
+			cq.where(filter);
+		}
+		cq.multiselect(event.get(Event.ID), event.get(Event.DISEASE), region.get(Region.ID), district.get(District.ID),
+				event.get(Event.REPORT_DATE_TIME), event.get(Event.EVENT_STATUS));
+		cq.orderBy(cb.asc(event.get(Event.ID)));
+
+		return createQuery(cq, maxResults).getResultList();
+	}
+
+	/**
+	 * @return id, disease, region id and district id of the case, test date and test result of the sample tests, ordered by id
+	 */
+	private List<Object[]> queryTestResultRows(Cell cell, Long afterId, int maxResults) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<SampleTest> sampleTest = cq.from(SampleTest.class);
+		Join<SampleTest, Sample> sample = sampleTest.join(SampleTest.SAMPLE);
+		Join<Sample, Case> caze = sample.join(Sample.ASSOCIATED_CASE);
+		Join<Case, Region> region = caze.join(Case.REGION, JoinType.LEFT);
+		Join<Case, District> district = caze.join(Case.DISTRICT, JoinType.LEFT);
+
+		Predicate filter = null;
+		if (cell != null) {
+			filter = and(cb, filter, equalOrNull(cb, caze.get(Case.DISEASE), cell.disease));
+			filter = and(cb, filter, equalOrNull(cb, region.get(Region.ID), cell.regionId));
+			filter = and(cb, filter, equalOrNull(cb, district.get(District.ID), cell.districtId));
+			filter = and(cb, filter, cb.between(sampleTest.<Date>get(SampleTest.TEST_DATE_TIME), cell.day, DateHelper.getEndOfDay(cell.day)));
+		}
+		if (afterId != null) {
+			filter = and(cb, filter, cb.greaterThan(sampleTest.<Long>get(SampleTest.ID), afterId));
+		}
+		if (filter != null) {
+			cq.where(filter);
+		}
+		cq.multiselect(sampleTest.get(SampleTest.ID), caze.get(Case.DISEASE), region.get(Region.ID), district.get(District.ID),
+				sampleTest.get(SampleTest.TEST_DATE_TIME), sampleTest.get(SampleTest.TEST_RESULT));
+		cq.orderBy(cb.asc(sampleTest.get(SampleTest.ID)));
+
+		return createQuery(cq, maxResults).getResultList();
+	}
+
+	private TypedQuery<Object[]> createQuery(CriteriaQuery<Object[]> cq, int maxResults) {
+
+		TypedQuery<Object[]> query = em.createQuery(cq);
+		if (maxResults > 0) {
+			query.setMaxResults(maxResults);
+		}
+		return query;
+	}
+
+	private static void addCaseCounts(List<Object[]> rows, Map<Cell, Map<String, Long>> counts) {
+
+		for (Object[] row : rows) {
+			Date caseDate = getMostRelevantDate((Date) row[4], (Date) row[5], (Date) row[6]);
+			Cell cell = Cell.of(DiseaseDailyCountType.CASE, (Disease) row[1], (Long) row[2], (Long) row[3], caseDate);
+			addCount(counts, cell, (Enum<?>) row[7]);
+			if (row[8] != null && row[8] == row[1]) {
+				addCount(counts, cell.withCountType(DiseaseDailyCountType.FATAL_CASE), (Enum<?>) row[7]);
+			}
+		}
+	}
+
+	/**
+	 * @param rows id, disease, region id, district id, date and category
+	 */
+	private static void addCounts(List<Object[]> rows, DiseaseDailyCountType countType, Map<Cell, Map<String, Long>> counts) {
+
+		for (Object[] row : rows) {
+			Cell cell = Cell.of(countType, (Disease) row[1], (Long) row[2], (Long) row[3], (Date) row[4]);
+			addCount(counts, cell, (Enum<?>) row[5]);
+		}
+	}
+
+	private static void addCount(Map<Cell, Map<String, Long>> counts, Cell cell, Enum<?> category) {
+
+		if (cell != null) {
+			counts.computeIfAbsent(cell, c -> new HashMap<>()).merge(category != null ? category.name() : null, 1L, Long::sum);
+		}
+	}
+
+	private static <T> Predicate equalOrNull(CriteriaBuilder cb, Path<T> path, T value) {
+		return value != null ? cb.equal(path, value) : cb.isNull(path);
+	}
+
+	/**
+	 * Onset date > reception date > report date, see CaseService.createNewCaseFilter
+	 */
+	private static Date getMostRelevantDate(Date onsetDate, Date receptionDate, Date reportDate) {
+		return onsetDate != null ? onsetDate : receptionDate != null ? receptionDate : reportDate;
+	}
+
+	/**
+	 * Counts of one type, disease, jurisdiction and day - the unit in which the counts are refreshed
+	 */
+	public static final class Cell {
+
+		private final DiseaseDailyCountType countType;
+		private final Disease disease;
+		private final Long regionId;
+		private final Long districtId;
+		private final Date day;
+
+		private Cell(DiseaseDailyCountType countType, Disease disease, Long regionId, Long districtId, Date day) {
+			this.countType = countType;
+			this.disease = disease;
+			this.regionId = regionId;
+			this.districtId = districtId;
+			this.day = day;
+		}
+
+		/**
+		 * @return null when there is no date
+		 */
+		private static Cell of(DiseaseDailyCountType countType, Disease disease, Long regionId, Long districtId, Date date) {
+			if (date == null) {
+				return null;
+			}
+			return new Cell(countType, disease, regionId, districtId, DateHelper.getStartOfDay(date));
+		}
+
+		private static Cell of(DiseaseDailyCountType countType, Disease disease, Region region, District district, Date date) {
+			return of(countType, disease, region != null ? region.getId() : null, district != null ? district.getId() : null, date);
+		}
+
+		private Cell withCountType(DiseaseDailyCountType countType) {
+			return new Cell(countType, disease, regionId, districtId, day);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Cell)) {
+				return false;
+			}
+			Cell other = (Cell) o;
+			return countType == other.countType && disease == other.disease && Objects.equals(regionId, other.regionId)
+					&& Objects.equals(districtId, other.districtId) && day.getTime() == other.day.getTime();
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(countType, disease, regionId, districtId, day.getTime());
+		}
+
+		/**
+		 * Like {@link #hashCode()}, but based on the names of the enums, so all servers use the same key
+		 */
+		private int getLockKey() {
+			return Objects.hash(countType.name(), disease != null ? disease.name() : null, regionId, districtId, day.getTime());
+		}
+	}
+}
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.disease;
+
+/**
+ * What is counted by a {@link DiseaseDailyCount} and which enum its category is the name of
+ */
+public enum DiseaseDailyCountType {
+
+	/**
+	 * New cases by most relevant date (onset, reception or report), per case classification
+	 */
+	CASE,
+	/**
+	 * New cases whose person died of the disease of the case, per case classification
+	 */
+	FATAL_CASE,
+	/**
+	 * Events by report date, per event status
+	 */
+	EVENT,
+	/**
+	 * Sample tests of cases by test date, per test result
+	 */
+	TEST_RESULT,
+}
@@ -17,6 +17,7 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.disease;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -36,20 +37,34 @@ import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
 import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.caze.CaseClassification;
 import de.symeda.sormas.api.caze.CaseCriteria;
+import de.symeda.sormas.api.caze.DashboardCaseDto;
+import de.symeda.sormas.api.caze.NewCaseDateType;
+import de.symeda.sormas.api.disease.DashboardDiseaseCountsDto;
 import de.symeda.sormas.api.disease.DiseaseBurdenDto;
 import de.symeda.sormas.api.disease.DiseaseFacade;
+import de.symeda.sormas.api.event.DashboardEventDto;
+import de.symeda.sormas.api.event.EventStatus;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.region.RegionReferenceDto;
+import de.symeda.sormas.api.sample.DashboardTestResultDto;
+import de.symeda.sormas.api.sample.SampleTestResultType;
 import de.symeda.sormas.backend.caze.Case;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb.CaseFacadeEjbLocal;
 import de.symeda.sormas.backend.common.AbstractAdoService;
 import de.symeda.sormas.backend.event.Event;
+import de.symeda.sormas.backend.event.EventService;
 import de.symeda.sormas.backend.location.Location;
 import de.symeda.sormas.backend.outbreak.Outbreak;
 import de.symeda.sormas.backend.person.Person;
 import de.symeda.sormas.backend.region.District;
+import de.symeda.sormas.backend.region.DistrictService;
 import de.symeda.sormas.backend.region.Region;
+import de.symeda.sormas.backend.region.RegionService;
+import de.symeda.sormas.backend.sample.SampleTestService;
+import de.symeda.sormas.backend.user.User;
+import de.symeda.sormas.backend.user.UserService;
 import de.symeda.sormas.backend.util.ModelConstants;
 //import de.symeda.sormas.ui.UserProvider;
 
@@ -64,6 +79,18 @@ public class DiseaseFacadeEjb implements DiseaseFacade {
 	
 	@EJB
 	private CaseFacadeEjbLocal caseFacade;
+	@EJB
+	private UserService userService;
+	@EJB
+	private RegionService regionService;
+	@EJB
+	private DistrictService districtService;
+	@EJB
+	private EventService eventService;
+	@EJB
+	private SampleTestService sampleTestService;
+	@EJB
+	private DiseaseDailyCountService diseaseDailyCountService;
 	
 	//@Override
 	public List<DiseaseBurdenDto> getDiseaseBurdenForDashboard(
@@ -77,50 +104,64 @@ public class DiseaseFacadeEjb implements DiseaseFacade {
 		
 		//diseases
 		List<Disease> diseases = Stream.of(Disease.values()).collect(Collectors.toList());
-				
-		//new cases
-		CaseCriteria caseCriteria = new CaseCriteria()
-				.newCaseDateBetween(from, to, null)
-				.region(regionRef)
-				.district(districtRef);
 
-		Map<Disease, Long> newCases = caseFacade.getCaseCountPerDisease(caseCriteria, userUuid);
-		
-		//previous cases
-		caseCriteria.newCaseDateBetween(previousFrom, previousTo, null);
-		
-		Map<Disease, Long> previousCases = caseFacade.getCaseCountPerDisease(caseCriteria, userUuid);
-				
+		User user = userService.getByUuid(userUuid);
+		Region region = regionService.getByReferenceDto(regionRef);
+		District district = districtService.getByReferenceDto(districtRef);
+		boolean useDailyCounts = diseaseDailyCountService.isJurisdictionSupported(user);
+
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<Object[]> cq = null;
 		Predicate filter = null;
 		List<Object[]> results;
-		
-		//events
-		cq = cb.createQuery(Object[].class);
-		Root<Event> event = cq.from(Event.class);
-		Join<Event, Location> eventLocation = event.join(Event.EVENT_LOCATION, JoinType.LEFT);
-		cq.multiselect(event.get(Event.DISEASE), cb.count(event));
-		cq.groupBy(event.get(Event.DISEASE));
-		
-		filter = null;
-		if (from != null || to != null) {
-			filter = AbstractAdoService.and(cb, filter, cb.between(event.get(Event.REPORT_DATE_TIME), from, to));
-		}
-		if (districtRef != null) {
-			filter = AbstractAdoService.and(cb, filter, cb.equal(eventLocation.join(Location.DISTRICT, JoinType.LEFT).get(District.UUID), districtRef.getUuid()));
-		}
-		else if (regionRef != null) {
-			filter = AbstractAdoService.and(cb, filter, cb.equal(eventLocation.join(Location.REGION, JoinType.LEFT).get(Region.UUID), regionRef.getUuid()));
-		}
-		if (filter != null) {
-			cq.where(filter);
+
+		Map<Disease, Long> newCases;
+		Map<Disease, Long> previousCases;
+		Map<Disease, Long> events;
+		if (useDailyCounts) {
+			newCases = diseaseDailyCountService.getCountsPerDisease(DiseaseDailyCountType.CASE, region, district, from, to, user);
+			previousCases = diseaseDailyCountService.getCountsPerDisease(DiseaseDailyCountType.CASE, region, district, previousFrom, previousTo, user);
+			events = diseaseDailyCountService.getCountsPerDisease(DiseaseDailyCountType.EVENT, region, district, from, to, user);
+		} else {
+			//new cases
+			CaseCriteria caseCriteria = new CaseCriteria()
+					.newCaseDateBetween(from, to, null)
+					.region(regionRef)
+					.district(districtRef);
+
+			newCases = caseFacade.getCaseCountPerDisease(caseCriteria, userUuid);
+
+			//previous cases
+			caseCriteria.newCaseDateBetween(previousFrom, previousTo, null);
+
+			previousCases = caseFacade.getCaseCountPerDisease(caseCriteria, userUuid);
+
+			//events
+			cq = cb.createQuery(Object[].class);
+			Root<Event> event = cq.from(Event.class);
+			Join<Event, Location> eventLocation = event.join(Event.EVENT_LOCATION, JoinType.LEFT);
+			cq.multiselect(event.get(Event.DISEASE), cb.count(event));
+			cq.groupBy(event.get(Event.DISEASE));
+
+			filter = null;
+			if (from != null || to != null) {
+				filter = AbstractAdoService.and(cb, filter, cb.between(event.get(Event.REPORT_DATE_TIME), from, to));
+			}
+			if (districtRef != null) {
+				filter = AbstractAdoService.and(cb, filter, cb.equal(eventLocation.join(Location.DISTRICT, JoinType.LEFT).get(District.UUID), districtRef.getUuid()));
+			}
+			else if (regionRef != null) {
+				filter = AbstractAdoService.and(cb, filter, cb.equal(eventLocation.join(Location.REGION, JoinType.LEFT).get(Region.UUID), regionRef.getUuid()));
+			}
+			if (filter != null) {
+				cq.where(filter);
+			}
+
+			results = em.createQuery(cq).getResultList();
+
+			events = results.stream().collect(
+					Collectors.toMap(e -> (Disease) e[0], e -> (Long) e[1]));
 		}
-		
-		results = em.createQuery(cq).getResultList();
-		
-		Map<Disease, Long> events = results.stream().collect(
-				Collectors.toMap(e -> (Disease) e[0], e -> (Long) e[1]));
 					
 		//outbreaks
 		cq = cb.createQuery(Object[].class);
@@ -186,7 +227,50 @@ public class DiseaseFacadeEjb implements DiseaseFacade {
 		
 		return diseasesBurden;
 	}
-	
+
+
+	@Override
+	public DashboardDiseaseCountsDto getDashboardCounts(RegionReferenceDto regionRef, DistrictReferenceDto districtRef,
+			Disease disease, Date from, Date to, String userUuid) {
+
+		User user = userService.getByUuid(userUuid);
+		Region region = regionService.getByReferenceDto(regionRef);
+		District district = districtService.getByReferenceDto(districtRef);
+
+		DashboardDiseaseCountsDto counts = new DashboardDiseaseCountsDto();
+		if (diseaseDailyCountService.isJurisdictionSupported(user)) {
+			Map<DiseaseDailyCountType, Map<String, Long>> dailyCounts = diseaseDailyCountService.getCountsPerCategory(disease, region, district, from, to, user);
+			dailyCounts.getOrDefault(DiseaseDailyCountType.CASE, Collections.emptyMap())
+					.forEach((category, count) -> counts.addCaseCount(toEnum(CaseClassification.class, category), count));
+			dailyCounts.getOrDefault(DiseaseDailyCountType.FATAL_CASE, Collections.emptyMap())
+					.forEach((category, count) -> counts.addFatalCaseCount(toEnum(CaseClassification.class, category), count));
+			dailyCounts.getOrDefault(DiseaseDailyCountType.EVENT, Collections.emptyMap())
+					.forEach((category, count) -> counts.addEventCount(toEnum(EventStatus.class, category), count));
+			dailyCounts.getOrDefault(DiseaseDailyCountType.TEST_RESULT, Collections.emptyMap())
+					.forEach((category, count) -> counts.addTestResultCount(toEnum(SampleTestResultType.class, category), count));
+		} else {
+			// users with access to individual cases only (informants, lab users)
+			CaseCriteria caseCriteria = new CaseCriteria().region(regionRef).district(districtRef).disease(disease)
+					.newCaseDateBetween(from, to, NewCaseDateType.MOST_RELEVANT);
+			for (DashboardCaseDto caze : caseFacade.getCasesForDashboard(caseCriteria, userUuid)) {
+				counts.addCaseCount(caze.getCaseClassification(), 1);
+				if (caze.wasFatal()) {
+					counts.addFatalCaseCount(caze.getCaseClassification(), 1);
+				}
+			}
+			for (DashboardEventDto event : eventService.getNewEventsForDashboard(region, district, disease, from, to, user)) {
+				counts.addEventCount(event.getEventStatus(), 1);
+			}
+			for (DashboardTestResultDto testResult : sampleTestService.getNewTestResultsForDashboard(region, district, disease, from, to, user)) {
+				counts.addTestResultCount(testResult.getTestResult(), 1);
+			}
+		}
+		return counts;
+	}
+
+	private static <E extends Enum<E>> E toEnum(Class<E> enumClass, String name) {
+		return name != null ? Enum.valueOf(enumClass, name) : null;
+	}
 	
 	//@Override
 	public List<DiseaseBurdenDto> getDiseaseBurdenForDashboard_old(
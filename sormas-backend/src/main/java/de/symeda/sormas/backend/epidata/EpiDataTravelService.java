@@ -17,13 +17,19 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.epidata;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.From;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
@@ -49,6 +55,30 @@ public class EpiDataTravelService extends AbstractAdoService<EpiDataTravel> {
 		return result;
 	}
 
+	/**
+	 * Batch variant of {@link #getAllByEpiDataId(long)}
+	 * @return travels by epi data id; epi data without travels are not contained
+	 */
+	public Map<Long, List<EpiDataTravel>> getAllByEpiDataIds(Collection<Long> epiDataIds) {
+		if (epiDataIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<EpiDataTravel> root = cq.from(getElementClass());
+		Path<Long> epiDataId = root.get(EpiDataTravel.EPI_DATA).get(EpiData.ID);
+		cq.where(epiDataId.in(epiDataIds));
+		cq.multiselect(epiDataId, root);
+		cq.orderBy(cb.asc(root.get(EpiDataTravel.ID)));
+
+		Map<Long, List<EpiDataTravel>> result = new HashMap<>();
+		for (Object[] row : em.createQuery(cq).getResultList()) {
+			result.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((EpiDataTravel) row[1]);
+		}
+		return result;
+	}
+
 	@SuppressWarnings("rawtypes")
 	@Override
 	public Predicate createUserFilter(CriteriaBuilder cb, CriteriaQuery cq, From<EpiDataTravel, EpiDataTravel> from,
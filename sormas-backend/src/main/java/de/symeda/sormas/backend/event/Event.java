@@ -17,6 +17,7 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.event;
 
+import java.sql.Timestamp;
 import java.util.Date;
 import java.util.List;
 
@@ -33,6 +34,7 @@ import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 
 import de.symeda.auditlog.api.Audited;
+import de.symeda.auditlog.api.AuditedIgnore;
 import de.symeda.sormas.api.Disease;
 import de.symeda.sormas.api.event.EventStatus;
 import de.symeda.sormas.api.event.EventType;
@@ -75,6 +77,7 @@ public class Event extends AbstractDomainObject {
 	public static final String REPORT_LAT = "reportLat";
 	public static final String REPORT_LON = "reportLon";
 	public static final String ARCHIVED = "archived";
+	public static final String CHANGE_DATE_AGGREGATE = "changeDateAggregate";
 	
 	private EventType eventType;
 	private EventStatus eventStatus;
@@ -100,6 +103,7 @@ public class Event extends AbstractDomainObject {
 	private boolean archived;
 
 	private List<Task> tasks;
+	private Timestamp changeDateAggregate;
 	
 	@Enumerated(EnumType.STRING)
 	@Column(nullable=false)
@@ -309,4 +313,17 @@ public class Event extends AbstractDomainObject {
 		this.reportLatLonAccuracy = reportLatLonAccuracy;
 	}
 
+	/**
+	 * Latest change date of the event and its location.
+	 * Maintained by database triggers (see sormas_schema.sql), so the sync only needs to check this column.
+	 */
+	@Column(insertable = false, updatable = false)
+	@AuditedIgnore
+	public Timestamp getChangeDateAggregate() {
+		return changeDateAggregate;
+	}
+
+	public void setChangeDateAggregate(Timestamp changeDateAggregate) {
+		this.changeDateAggregate = changeDateAggregate;
+	}
 }
@@ -18,6 +18,8 @@
 package de.symeda.sormas.backend.event;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -28,10 +30,13 @@ import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Order;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.validation.constraints.NotNull;
@@ -48,8 +53,11 @@ import de.symeda.sormas.api.region.RegionReferenceDto;
 import de.symeda.sormas.api.task.TaskCriteria;
 import de.symeda.sormas.api.user.UserReferenceDto;
 import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.api.utils.SortProperty;
 import de.symeda.sormas.backend.common.AbstractAdoService;
 import de.symeda.sormas.backend.common.AbstractDomainObject;
+import de.symeda.sormas.backend.disease.DiseaseDailyCountService;
+import de.symeda.sormas.backend.disease.DiseaseDailyCountService.Cell;
 import de.symeda.sormas.backend.location.Location;
 import de.symeda.sormas.backend.location.LocationFacadeEjb;
 import de.symeda.sormas.backend.location.LocationFacadeEjb.LocationFacadeEjbLocal;
@@ -89,6 +97,8 @@ public class EventFacadeEjb implements EventFacade {
 	private RegionService regionService;
 	@EJB
 	private DistrictService districtService;
+	@EJB
+	private DiseaseDailyCountService diseaseDailyCountService;
 	
 	@Override
 	public List<String> getAllActiveUuids(String userUuid) {
@@ -157,8 +167,13 @@ public class EventFacadeEjb implements EventFacade {
 	
 	@Override
 	public EventDto saveEvent(EventDto dto) {
+		Event existingEvent = eventService.getByUuid(dto.getUuid());
+		Cell previousCountCell = existingEvent != null ? diseaseDailyCountService.getEventCell(existingEvent) : null;
+
 		Event event = fromDto(dto);
 		eventService.ensurePersisted(event);
+
+		diseaseDailyCountService.refresh(Arrays.asList(previousCountCell, diseaseDailyCountService.getEventCell(event)));
 		
 		return toDto(event);
 	}
@@ -187,11 +202,18 @@ public class EventFacadeEjb implements EventFacade {
 		for (Task task : tasks) {
 			taskService.delete(task);
 		}
+		Cell countCell = diseaseDailyCountService.getEventCell(event);
 		eventService.delete(event);
+		diseaseDailyCountService.refresh(Collections.singleton(countCell));
 	}
 	
 	@Override
 	public List<EventIndexDto> getIndexList(String userUuid, EventCriteria eventCriteria) {
+		return getIndexList(userUuid, eventCriteria, null, null, null);
+	}
+
+	@Override
+	public List<EventIndexDto> getIndexList(String userUuid, EventCriteria eventCriteria, Integer first, Integer max, List<SortProperty> sortProperties) {
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<EventIndexDto> cq = cb.createQuery(EventIndexDto.class);
 		Root<Event> event = cq.from(Event.class);
@@ -216,9 +238,81 @@ public class EventFacadeEjb implements EventFacade {
 				event.get(Event.SRC_FIRST_NAME),
 				event.get(Event.SRC_LAST_NAME),
 				event.get(Event.SRC_TEL_NO),
-				event.get(Event.REPORT_DATE_TIME)
+				event.get(Event.REPORT_DATE_TIME),
+				taskService.createPendingTaskCountSubquery(cb, cq, event, Task.EVENT)
 		);
 		
+		Predicate filter = createIndexListFilter(userUuid, eventCriteria, cb, cq, event);
+		if (filter != null) {
+			cq.where(filter);
+		}
+
+		List<Order> order = new ArrayList<>();
+		if (sortProperties != null) {
+			for (SortProperty sortProperty : sortProperties) {
+				List<Expression<?>> expressions = new ArrayList<>();
+				switch (sortProperty.getPropertyName()) {
+				case EventIndexDto.UUID:
+				case EventIndexDto.EVENT_TYPE:
+				case EventIndexDto.EVENT_STATUS:
+				case EventIndexDto.DISEASE:
+				case EventIndexDto.DISEASE_DETAILS:
+				case EventIndexDto.EVENT_DATE:
+				case EventIndexDto.EVENT_DESC:
+				case EventIndexDto.SRC_FIRST_NAME:
+				case EventIndexDto.SRC_LAST_NAME:
+				case EventIndexDto.SRC_TEL_NO:
+				case EventIndexDto.REPORT_DATE_TIME:
+					expressions.add(event.get(sortProperty.getPropertyName()));
+					break;
+				case EventIndexDto.EVENT_LOCATION:
+					expressions.add(region.get(Region.NAME));
+					expressions.add(district.get(District.NAME));
+					expressions.add(community.get(Community.NAME));
+					expressions.add(location.get(Location.CITY));
+					expressions.add(location.get(Location.ADDRESS));
+					break;
+				default:
+					throw new IllegalArgumentException(sortProperty.getPropertyName());
+				}
+				for (Expression<?> expression : expressions) {
+					order.add(sortProperty.isAscending() ? cb.asc(expression) : cb.desc(expression));
+				}
+			}
+		}
+		if (order.isEmpty()) {
+			order.add(cb.desc(event.get(Event.REPORT_DATE_TIME)));
+		}
+		// unique order, so the pages don't overlap
+		order.add(cb.desc(event.get(Event.ID)));
+		cq.orderBy(order);
+
+		TypedQuery<EventIndexDto> query = em.createQuery(cq);
+		if (first != null) {
+			query.setFirstResult(first);
+		}
+		if (max != null) {
+			query.setMaxResults(max);
+		}
+		return query.getResultList();
+	}
+
+	@Override
+	public long count(String userUuid, EventCriteria eventCriteria) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		Root<Event> event = cq.from(Event.class);
+
+		Predicate filter = createIndexListFilter(userUuid, eventCriteria, cb, cq, event);
+		if (filter != null) {
+			cq.where(filter);
+		}
+
+		cq.select(cb.count(event));
+		return em.createQuery(cq).getSingleResult();
+	}
+
+	private Predicate createIndexListFilter(String userUuid, EventCriteria eventCriteria, CriteriaBuilder cb, CriteriaQuery<?> cq, Root<Event> event) {
 		Predicate filter = null;
 		if (userUuid != null) {
 			User user = userService.getByUuid(userUuid);
@@ -229,14 +323,7 @@ public class EventFacadeEjb implements EventFacade {
 			Predicate criteriaFilter = eventService.buildCriteriaFilter(eventCriteria, cb, event);
 			filter = AbstractAdoService.and(cb, filter, criteriaFilter);
 		}
-		
-		if (filter != null) {
-			cq.where(filter);
-		}
-		cq.orderBy(cb.desc(event.get(Event.REPORT_DATE_TIME)));
-		
-		List<EventIndexDto> resultList = em.createQuery(cq).getResultList();
-		return resultList;
+		return filter;
 	}
 
 	@Override
@@ -19,6 +19,7 @@ package de.symeda.sormas.backend.facility;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.ManyToOne;
@@ -26,11 +27,13 @@ import javax.persistence.ManyToOne;
 import de.symeda.sormas.api.facility.FacilityHelper;
 import de.symeda.sormas.api.facility.FacilityType;
 import de.symeda.sormas.backend.common.AbstractDomainObject;
+import de.symeda.sormas.backend.common.InfrastructureCacheListener;
 import de.symeda.sormas.backend.region.Community;
 import de.symeda.sormas.backend.region.District;
 import de.symeda.sormas.backend.region.Region;
 
 @Entity
+@EntityListeners(InfrastructureCacheListener.class)
 public class Facility extends AbstractDomainObject {
 	
 	private static final long serialVersionUID = 8572137127616417072L;
@@ -47,6 +47,7 @@ import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.region.RegionReferenceDto;
 import de.symeda.sormas.api.utils.ValidationRuntimeException;
 import de.symeda.sormas.backend.common.AbstractAdoService;
+import de.symeda.sormas.backend.common.InfrastructureCache;
 import de.symeda.sormas.backend.region.Community;
 import de.symeda.sormas.backend.region.CommunityFacadeEjb;
 import de.symeda.sormas.backend.region.CommunityService;
@@ -78,6 +79,8 @@ public class FacilityFacadeEjb implements FacilityFacade {
 	private DistrictService districtService;
 	@EJB
 	private RegionService regionService;
+	@EJB
+	private InfrastructureCache infrastructureCache;
 
 	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
 	protected EntityManager em;
@@ -166,15 +169,12 @@ public class FacilityFacadeEjb implements FacilityFacade {
 	
 	@Override
 	public FacilityReferenceDto getFacilityReferenceByUuid(String uuid) {
-		return toReferenceDto(facilityService.getByUuid(uuid));
+		return infrastructureCache.getFacilityReference(uuid);
 	}
 
 	@Override
 	public List<FacilityReferenceDto> getByName(String name, DistrictReferenceDto districtRef, CommunityReferenceDto communityRef) {
-		return facilityService.getHealthFacilitiesByName(name, districtService.getByReferenceDto(districtRef), communityService.getByReferenceDto(communityRef))
-				.stream()
-				.map(f -> toReferenceDto(f))
-				.collect(Collectors.toList());
+		return infrastructureCache.getHealthFacilitiesByName(name, districtRef, communityRef);
 	}
 
 	public static FacilityReferenceDto toReferenceDto(Facility entity) {
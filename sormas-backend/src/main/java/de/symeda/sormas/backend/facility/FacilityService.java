@@ -38,6 +38,8 @@ import de.symeda.sormas.api.facility.FacilityType;
 import de.symeda.sormas.api.utils.DataHelper;
 import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.backend.common.AbstractAdoService;
+import de.symeda.sormas.backend.common.InfrastructureCache;
+import de.symeda.sormas.backend.common.InfrastructureCache.Entry;
 import de.symeda.sormas.backend.region.Community;
 import de.symeda.sormas.backend.region.District;
 import de.symeda.sormas.backend.region.Region;
@@ -57,10 +59,19 @@ public class FacilityService extends AbstractAdoService<Facility> {
 	@EJB
 	private RegionService regionService;
 
+	@EJB
+	private InfrastructureCache infrastructureCache;
+
 	public FacilityService() {
 		super(Facility.class);
 	}
 
+	@Override
+	protected Long getCachedId(String uuid) {
+		Entry entry = infrastructureCache.getByUuid(Facility.class, uuid);
+		return entry != null ? entry.getId() : null;
+	}
+
 	public List<Facility> getHealthFacilitiesByCommunity(Community community, boolean includeStaticFacilities) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
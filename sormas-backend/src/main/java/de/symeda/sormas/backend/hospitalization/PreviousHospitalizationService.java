@@ -17,7 +17,11 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.hospitalization;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
@@ -25,6 +29,8 @@ import javax.persistence.NoResultException;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.From;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
@@ -91,4 +97,29 @@ public class PreviousHospitalizationService extends AbstractAdoService<PreviousH
 		}
 	}
 
+	/**
+	 * Batch variant of {@link #getInitialHospitalization(long)}, also fetches the health facilities
+	 * @return initial previous hospitalization by hospitalization id; hospitalizations without previous hospitalizations are not contained
+	 */
+	public Map<Long, PreviousHospitalization> getInitialHospitalizations(Collection<Long> hospitalizationIds) {
+		if (hospitalizationIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<PreviousHospitalization> prevHosp = cq.from(getElementClass());
+		Path<Long> hospitalizationId = prevHosp.get(PreviousHospitalization.HOSPITALIZATION).get(Hospitalization.ID);
+		cq.where(hospitalizationId.in(hospitalizationIds));
+		// facilities are selected before the previous hospitalizations, so they are already known when these are built
+		cq.multiselect(hospitalizationId, prevHosp.join(PreviousHospitalization.HEALTH_FACILIY, JoinType.LEFT), prevHosp);
+		cq.orderBy(cb.asc(prevHosp.get(PreviousHospitalization.ADMISSION_DATE)));
+
+		Map<Long, PreviousHospitalization> result = new HashMap<>();
+		for (Object[] row : em.createQuery(cq).getResultList()) {
+			result.putIfAbsent((Long) row[0], (PreviousHospitalization) row[2]);
+		}
+		return result;
+	}
+
 }
@@ -17,6 +17,7 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.person;
 
+import java.sql.Timestamp;
 import java.util.Date;
 
 import javax.persistence.CascadeType;
@@ -30,6 +31,7 @@ import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 
 import de.symeda.auditlog.api.Audited;
+import de.symeda.auditlog.api.AuditedIgnore;
 import de.symeda.sormas.api.Disease;
 import de.symeda.sormas.api.person.ApproximateAgeType;
 import de.symeda.sormas.api.person.BurialConductor;
@@ -87,6 +89,7 @@ public class Person extends AbstractDomainObject {
 	public static final String OCCUPATION_FACILITY_DETAILS = "occupationFacilityDetails";
 	public static final String PHONE = "phone";
 	public static final String PHONE_OWNER = "phoneOwner";
+	public static final String CHANGE_DATE_AGGREGATE = "changeDateAggregate";
 
 	private String firstName;
 	private String lastName;
@@ -128,6 +131,7 @@ public class Person extends AbstractDomainObject {
 	private Community occupationCommunity;
 	private Facility occupationFacility;
 	private String occupationFacilityDetails;
+	private Timestamp changeDateAggregate;
 	
 	@Column(nullable = false)
 	public String getFirstName() {
@@ -384,6 +388,20 @@ public class Person extends AbstractDomainObject {
 	public void setOccupationFacilityDetails(String occupationFacilityDetails) {
 		this.occupationFacilityDetails = occupationFacilityDetails;
 	}
+
+	/**
+	 * Latest change date of the person and its address.
+	 * Maintained by database triggers (see sormas_schema.sql), so the sync only needs to check this column.
+	 */
+	@Column(insertable = false, updatable = false)
+	@AuditedIgnore
+	public Timestamp getChangeDateAggregate() {
+		return changeDateAggregate;
+	}
+
+	public void setChangeDateAggregate(Timestamp changeDateAggregate) {
+		this.changeDateAggregate = changeDateAggregate;
+	}
 	
 	@Override
 	public String toString() {
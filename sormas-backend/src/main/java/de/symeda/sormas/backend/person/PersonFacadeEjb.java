@@ -23,24 +23,32 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
 import javax.validation.constraints.NotNull;
 
 import com.auth0.jwt.internal.org.apache.commons.lang3.StringUtils;
 
 import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.PushResult;
 import de.symeda.sormas.api.caze.CaseCriteria;
 import de.symeda.sormas.api.caze.CaseDataDto;
 import de.symeda.sormas.api.caze.CaseLogic;
 import de.symeda.sormas.api.caze.CaseOutcome;
 import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.i18n.Validations;
+import de.symeda.sormas.api.location.LocationDto;
 import de.symeda.sormas.api.person.ApproximateAgeType;
 import de.symeda.sormas.api.person.ApproximateAgeType.ApproximateAgeHelper;
 import de.symeda.sormas.api.person.PersonDto;
@@ -57,6 +65,7 @@ import de.symeda.sormas.api.utils.ValidationRuntimeException;
 import de.symeda.sormas.backend.caze.Case;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb.CaseFacadeEjbLocal;
 import de.symeda.sormas.backend.caze.CaseService;
+import de.symeda.sormas.backend.common.PushBatchService;
 import de.symeda.sormas.backend.facility.FacilityFacadeEjb;
 import de.symeda.sormas.backend.facility.FacilityService;
 import de.symeda.sormas.backend.location.LocationFacadeEjb;
@@ -68,6 +77,7 @@ import de.symeda.sormas.backend.region.DistrictFacadeEjb;
 import de.symeda.sormas.backend.region.DistrictService;
 import de.symeda.sormas.backend.region.RegionFacadeEjb;
 import de.symeda.sormas.backend.region.RegionService;
+import de.symeda.sormas.backend.statistics.StatisticsCaseCountService;
 import de.symeda.sormas.backend.user.User;
 import de.symeda.sormas.backend.user.UserService;
 import de.symeda.sormas.backend.util.DtoHelper;
@@ -93,6 +103,10 @@ public class PersonFacadeEjb implements PersonFacade {
 	private LocationFacadeEjbLocal locationFacade;
 	@EJB
 	private UserService userService;
+	@EJB
+	private PushBatchService pushBatchService;
+	@EJB
+	private StatisticsCaseCountService statisticsCaseCountService;
 
 
 	@Override
@@ -214,6 +228,28 @@ public class PersonFacadeEjb implements PersonFacade {
 
 		return toDto(person);
 	}
+
+	@Override
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+	public List<PushResult> savePersons(List<PersonDto> dtos) {
+		return pushBatchService.savePushedDtos(dtos, this::preloadPushedPersons, this::savePerson);
+	}
+
+	/**
+	 * Loads the existing persons and the referenced infrastructure of the chunk with a few queries
+	 * instead of one query per reference and person.
+	 */
+	private void preloadPushedPersons(List<PersonDto> dtos) {
+		personService.preloadByUuids(dtos.stream().map(PersonDto::getUuid).collect(Collectors.toList()));
+		List<LocationDto> addresses = dtos.stream().map(PersonDto::getAddress).filter(a -> a != null).collect(Collectors.toList());
+		regionService.preloadByUuids(DtoHelper.collectReferenceUuids(dtos, PersonDto::getOccupationRegion));
+		regionService.preloadByUuids(DtoHelper.collectReferenceUuids(addresses, LocationDto::getRegion));
+		districtService.preloadByUuids(DtoHelper.collectReferenceUuids(dtos, PersonDto::getOccupationDistrict));
+		districtService.preloadByUuids(DtoHelper.collectReferenceUuids(addresses, LocationDto::getDistrict));
+		communityService.preloadByUuids(DtoHelper.collectReferenceUuids(dtos, PersonDto::getOccupationCommunity));
+		communityService.preloadByUuids(DtoHelper.collectReferenceUuids(addresses, LocationDto::getCommunity));
+		facilityService.preloadByUuids(DtoHelper.collectReferenceUuids(dtos, PersonDto::getOccupationFacility));
+	}
 	
 	@Override
 	public void validate(PersonDto source) throws ValidationRuntimeException {
@@ -227,11 +263,16 @@ public class PersonFacadeEjb implements PersonFacade {
 
 	public void onPersonChanged(PersonDto existingPerson, Person newPerson) {
 		List<Case> personCases = caseService.findBy(new CaseCriteria().person(new PersonReferenceDto(newPerson.getUuid())), null);
+		// The statistics case counts are recounted once after all changes of the cases below
+		Map<Long, CaseDataDto> casesBefore = new HashMap<>();
+		Map<Long, Integer> caseAgesBefore = new HashMap<>();
 		// Call onCaseChanged once for every case to update case classification
 		// Attention: this may lead to infinite recursion when not properly implemented
 		for (Case personCase : personCases) {
 			CaseDataDto existingCase = CaseFacadeEjbLocal.toDto(personCase);
-			caseFacade.onCaseChanged(existingCase, personCase);
+			casesBefore.put(personCase.getId(), existingCase);
+			caseAgesBefore.put(personCase.getId(), personCase.getCaseAge());
+			caseFacade.onCaseChanged(existingCase, personCase, false);
 		}
 
 		// Update cases if present condition has changed
@@ -247,14 +288,14 @@ public class PersonFacadeEjb implements PersonFacade {
 							personCase.setOutcome(CaseOutcome.DECEASED);
 							personCase.setOutcomeDate(new Date());
 							// Attention: this may lead to infinite recursion when not properly implemented
-							caseFacade.onCaseChanged(existingCase, personCase);
+							caseFacade.onCaseChanged(existingCase, personCase, false);
 						}
 					} else if (personCase.getOutcome() == CaseOutcome.DECEASED) {
 						CaseDataDto existingCase = CaseFacadeEjbLocal.toDto(personCase);
 						personCase.setOutcome(CaseOutcome.NO_OUTCOME);
 						personCase.setOutcomeDate(null);
 						// Attention: this may lead to infinite recursion when not properly implemented
-						caseFacade.onCaseChanged(existingCase, personCase);
+						caseFacade.onCaseChanged(existingCase, personCase, false);
 					}
 				}
 			}
@@ -277,9 +318,20 @@ public class PersonFacadeEjb implements PersonFacade {
 						personCase.setCaseAge(0);
 					}
 				}
-				caseFacade.onCaseChanged(existingCase, personCase);
+				caseFacade.onCaseChanged(existingCase, personCase, false);
+			}
+		}
+
+		boolean sexChanged = existingPerson != null && existingPerson.getSex() != newPerson.getSex();
+		Set<StatisticsCaseCountService.Cell> statisticsCells = new HashSet<>();
+		for (Case personCase : personCases) {
+			if (sexChanged || statisticsCaseCountService.isCountChanged(casesBefore.get(personCase.getId()),
+					caseAgesBefore.get(personCase.getId()), personCase)) {
+				// the person can't change the disease, district or dates of the case, so the cells stay the same
+				statisticsCells.addAll(statisticsCaseCountService.getCells(personCase));
 			}
 		}
+		statisticsCaseCountService.refresh(statisticsCells);
 	}
 
 	@Override
@@ -17,10 +17,14 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.person;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -43,7 +47,6 @@ import de.symeda.sormas.api.person.PersonNameDto;
 import de.symeda.sormas.backend.caze.Case;
 import de.symeda.sormas.backend.caze.CaseService;
 import de.symeda.sormas.backend.common.AbstractAdoService;
-import de.symeda.sormas.backend.common.AbstractDomainObject;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactService;
 import de.symeda.sormas.backend.event.EventParticipant;
@@ -328,6 +331,28 @@ public class PersonService extends AbstractAdoService<Person> {
 		return result;
 	}
 
+	/**
+	 * Batch variant of {@link #getAddressByPersonId(long)}
+	 * @return addresses by person id
+	 */
+	public Map<Long, Location> getAddressesByPersonIds(Collection<Long> personIds) {
+		if (personIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Person> root = cq.from(getElementClass());
+		cq.where(root.get(Person.ID).in(personIds));
+		cq.multiselect(root.get(Person.ID), root.get(Person.ADDRESS));
+
+		Map<Long, Location> result = new HashMap<>();
+		for (Object[] row : em.createQuery(cq).getResultList()) {
+			result.put((Long) row[0], (Location) row[1]);
+		}
+		return result;
+	}
+
 	@SuppressWarnings("rawtypes")
 	@Override
 	public Predicate createUserFilter(CriteriaBuilder cb, CriteriaQuery cq, From<Person, Person> from, User user) {
@@ -337,9 +362,7 @@ public class PersonService extends AbstractAdoService<Person> {
 
 	@Override
 	public Predicate createChangeDateFilter(CriteriaBuilder cb, From<Person, Person> from, Date date) {
-		Predicate dateFilter = cb.greaterThan(from.get(AbstractDomainObject.CHANGE_DATE), date);
-		Join<Person, Location> address = from.join(Person.ADDRESS);
-		dateFilter = cb.or(dateFilter, cb.greaterThan(address.get(AbstractDomainObject.CHANGE_DATE), date));
-		return dateFilter;
+		// aggregated change date of the person and its address, kept up to date by the database
+		return cb.greaterThan(from.get(Person.CHANGE_DATE_AGGREGATE), date);
 	}
 }
@@ -19,12 +19,15 @@ package de.symeda.sormas.backend.region;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 
 import de.symeda.sormas.backend.common.AbstractDomainObject;
+import de.symeda.sormas.backend.common.InfrastructureCacheListener;
 
 @Entity
+@EntityListeners(InfrastructureCacheListener.class)
 public class Community extends AbstractDomainObject {
 
 	private static final long serialVersionUID = 1971053920357795693L;
@@ -43,6 +43,7 @@ import de.symeda.sormas.api.region.CommunityFacade;
 import de.symeda.sormas.api.region.CommunityReferenceDto;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.utils.ValidationRuntimeException;
+import de.symeda.sormas.backend.common.InfrastructureCache;
 import de.symeda.sormas.backend.user.User;
 import de.symeda.sormas.backend.user.UserService;
 import de.symeda.sormas.backend.util.DtoHelper;
@@ -60,6 +61,8 @@ public class CommunityFacadeEjb implements CommunityFacade {
 	private UserService userService;
 	@EJB
 	private DistrictService districtService;
+	@EJB
+	private InfrastructureCache infrastructureCache;
 
 	@Override
 	public List<CommunityReferenceDto> getAllByDistrict(String districtUuid) {
@@ -130,7 +133,7 @@ public class CommunityFacadeEjb implements CommunityFacade {
 	
 	@Override
 	public CommunityReferenceDto getCommunityReferenceByUuid(String uuid) {
-		return toReferenceDto(communityService.getByUuid(uuid));
+		return infrastructureCache.getCommunityReference(uuid);
 	}
 	
 	@Override
@@ -147,7 +150,7 @@ public class CommunityFacadeEjb implements CommunityFacade {
 
 	@Override
 	public List<CommunityReferenceDto> getByName(String name, DistrictReferenceDto districtRef) {
-		return communityService.getByName(name, districtService.getByReferenceDto(districtRef)).stream().map(c -> toReferenceDto(c)).collect(Collectors.toList());
+		return infrastructureCache.getCommunitiesByName(name, districtRef);
 	}
 	
 	public static CommunityReferenceDto toReferenceDto(Community entity) {
@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
 import javax.persistence.criteria.CriteriaBuilder;
@@ -34,6 +35,8 @@ import javax.persistence.criteria.Root;
 import de.symeda.sormas.api.region.CommunityCriteria;
 import de.symeda.sormas.api.utils.DataHelper;
 import de.symeda.sormas.backend.common.AbstractAdoService;
+import de.symeda.sormas.backend.common.InfrastructureCache;
+import de.symeda.sormas.backend.common.InfrastructureCache.Entry;
 import de.symeda.sormas.backend.user.User;
 import de.symeda.sormas.backend.util.InfrastructureDataImporter;
 import de.symeda.sormas.backend.util.InfrastructureDataImporter.CommunityConsumer;
@@ -42,10 +45,19 @@ import de.symeda.sormas.backend.util.InfrastructureDataImporter.CommunityConsume
 @LocalBean
 public class CommunityService extends AbstractAdoService<Community> {
 	
+	@EJB
+	private InfrastructureCache infrastructureCache;
+
 	public CommunityService() {
 		super(Community.class);
 	}
 
+	@Override
+	protected Long getCachedId(String uuid) {
+		Entry entry = infrastructureCache.getByUuid(Community.class, uuid);
+		return entry != null ? entry.getId() : null;
+	}
+
 	public List<Community> getByName(String name, District district) {
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<Community> cq = cb.createQuery(getElementClass());
@@ -21,6 +21,7 @@ import java.util.List;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
@@ -28,8 +29,10 @@ import javax.persistence.OneToMany;
 import javax.persistence.OrderBy;
 
 import de.symeda.sormas.backend.common.AbstractDomainObject;
+import de.symeda.sormas.backend.common.InfrastructureCacheListener;
 
 @Entity
+@EntityListeners(InfrastructureCacheListener.class)
 public class District extends AbstractDomainObject {
 	
 	private static final long serialVersionUID = -6057113756091470463L;
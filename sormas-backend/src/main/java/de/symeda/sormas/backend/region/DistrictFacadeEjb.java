@@ -43,6 +43,7 @@ import de.symeda.sormas.api.region.DistrictFacade;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.region.RegionReferenceDto;
 import de.symeda.sormas.api.utils.ValidationRuntimeException;
+import de.symeda.sormas.backend.common.InfrastructureCache;
 import de.symeda.sormas.backend.user.User;
 import de.symeda.sormas.backend.user.UserService;
 import de.symeda.sormas.backend.util.DtoHelper;
@@ -60,6 +61,8 @@ public class DistrictFacadeEjb implements DistrictFacade {
 	private UserService userService;
 	@EJB
 	private RegionService regionService;
+	@EJB
+	private InfrastructureCache infrastructureCache;
 
 	@Override
 	public List<DistrictReferenceDto> getAllAsReference() {
@@ -148,12 +151,13 @@ public class DistrictFacadeEjb implements DistrictFacade {
 
 	@Override
 	public DistrictReferenceDto getDistrictReferenceByUuid(String uuid) {
-		return toReferenceDto(districtService.getByUuid(uuid));
+		return infrastructureCache.getDistrictReference(uuid);
 	}
 
 	@Override
 	public DistrictReferenceDto getDistrictReferenceById(int id) {
-		return toReferenceDto(districtService.getById(id));
+		InfrastructureCache.Entry entry = infrastructureCache.getById(District.class, id);
+		return entry != null ? infrastructureCache.getDistrictReference(entry.getUuid()) : null;
 	}
 	
 	@Override
@@ -170,7 +174,7 @@ public class DistrictFacadeEjb implements DistrictFacade {
 
 	@Override
 	public List<DistrictReferenceDto> getByName(String name, RegionReferenceDto regionRef) {
-		return districtService.getByName(name, regionService.getByReferenceDto(regionRef)).stream().map(d -> toReferenceDto(d)).collect(Collectors.toList());
+		return infrastructureCache.getDistrictsByName(name, regionRef);
 	}
 
 	public static DistrictReferenceDto toReferenceDto(District entity) {
@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
 import javax.persistence.criteria.CriteriaBuilder;
@@ -34,6 +35,8 @@ import de.symeda.sormas.api.region.DistrictCriteria;
 import de.symeda.sormas.api.utils.DataHelper;
 import de.symeda.sormas.backend.common.AbstractAdoService;
 import de.symeda.sormas.backend.common.AbstractDomainObject;
+import de.symeda.sormas.backend.common.InfrastructureCache;
+import de.symeda.sormas.backend.common.InfrastructureCache.Entry;
 import de.symeda.sormas.backend.user.User;
 import de.symeda.sormas.backend.util.InfrastructureDataImporter;
 import de.symeda.sormas.backend.util.InfrastructureDataImporter.DistrictConsumer;
@@ -44,9 +47,18 @@ import de.symeda.sormas.backend.util.InfrastructureDataImporter.DistrictConsumer
 @LocalBean
 public class DistrictService extends AbstractAdoService<District> {
 	
+	@EJB
+	private InfrastructureCache infrastructureCache;
+
 	public DistrictService() {
 		super(District.class);
 	}
+
+	@Override
+	protected Long getCachedId(String uuid) {
+		Entry entry = infrastructureCache.getByUuid(District.class, uuid);
+		return entry != null ? entry.getId() : null;
+	}
 	
 	public List<District> getAllWithoutEpidCode() {
 		CriteriaBuilder cb = em.getCriteriaBuilder();
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.region;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.MultiPolygon;
+import com.vividsolutions.jts.geom.Point;
+import com.vividsolutions.jts.geom.Polygon;
+import com.vividsolutions.jts.geom.prep.PreparedGeometry;
+import com.vividsolutions.jts.geom.prep.PreparedGeometryFactory;
+import com.vividsolutions.jts.index.strtree.STRtree;
+
+import de.symeda.sormas.api.region.GeoLatLon;
+
+/**
+ * Immutable geometry of the shapes of one type (e.g. regions or districts).
+ *
+ * Point lookups first narrow down the candidates using an STR-tree of the bounding boxes and then
+ * test them with prepared geometries, instead of testing the point against every shape.
+ * Safe to be used by concurrent threads.
+ */
+public class GeoShapeIndex<T> {
+
+	private final GeometryFactory geometryFactory = new GeometryFactory();
+
+	private final Map<T, MultiPolygon> multiPolygons;
+	private final Map<T, GeoLatLon[][]> shapes;
+	private final STRtree tree;
+
+	public GeoShapeIndex(Map<T, MultiPolygon> multiPolygons) {
+
+		this.multiPolygons = Collections.unmodifiableMap(new HashMap<>(multiPolygons));
+
+		Map<T, GeoLatLon[][]> shapes = new HashMap<>();
+		tree = new STRtree();
+		for (Entry<T, MultiPolygon> entry : multiPolygons.entrySet()) {
+			MultiPolygon multiPolygon = entry.getValue();
+
+			GeoLatLon[][] shape = new GeoLatLon[multiPolygon.getNumGeometries()][];
+			for (int i = 0; i < multiPolygon.getNumGeometries(); i++) {
+				Polygon polygon = (Polygon) multiPolygon.getGeometryN(i);
+				shape[i] = Arrays.stream(polygon.getExteriorRing().getCoordinates())
+						.map(c -> new GeoLatLon(c.y, c.x)).toArray(size -> new GeoLatLon[size]);
+			}
+			shapes.put(entry.getKey(), shape);
+
+			tree.insert(multiPolygon.getEnvelopeInternal(),
+					new IndexedShape<>(entry.getKey(), PreparedGeometryFactory.prepare(multiPolygon)));
+		}
+		// build now - the tree is read-only afterwards and can be queried concurrently
+		tree.build();
+		this.shapes = Collections.unmodifiableMap(shapes);
+	}
+
+	public boolean isEmpty() {
+		return multiPolygons.isEmpty();
+	}
+
+	public Map<T, MultiPolygon> getMultiPolygons() {
+		return multiPolygons;
+	}
+
+	public GeoLatLon[][] getShape(T key) {
+		return shapes.get(key);
+	}
+
+	public GeoLatLon getCenter(T key) {
+		Point polygonCenter = multiPolygons.get(key).getCentroid();
+		return new GeoLatLon(polygonCenter.getX(), polygonCenter.getY());
+	}
+
+	/**
+	 * @return the shape containing the coordinate, null if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	public T getByCoord(GeoLatLon latLon) {
+
+		if (latLon == null) {
+			return null;
+		}
+		Point point = geometryFactory.createPoint(new Coordinate(latLon.getLon(), latLon.getLat()));
+		for (Object candidate : tree.query(point.getEnvelopeInternal())) {
+			IndexedShape<T> indexedShape = (IndexedShape<T>) candidate;
+			if (indexedShape.geometry.contains(point)) {
+				return indexedShape.key;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the shapes containing the coordinates, in the same order; null for coordinates outside of all shapes
+	 */
+	public List<T> getByCoords(List<GeoLatLon> latLons) {
+
+		List<T> result = new ArrayList<>(latLons.size());
+		for (GeoLatLon latLon : latLons) {
+			result.add(getByCoord(latLon));
+		}
+		return result;
+	}
+
+	private static final class IndexedShape<T> {
+
+		private final T key;
+		private final PreparedGeometry geometry;
+
+		private IndexedShape(T key, PreparedGeometry geometry) {
+			this.key = key;
+			this.geometry = geometry;
+		}
+	}
+}
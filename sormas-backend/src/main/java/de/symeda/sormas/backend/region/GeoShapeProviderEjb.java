@@ -18,17 +18,18 @@
 package de.symeda.sormas.backend.region;
 
 import java.net.URL;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
 
 import javax.annotation.PostConstruct;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
-import javax.ejb.Stateless;
+import javax.ejb.Singleton;
 
 import org.geotools.data.shapefile.ShapefileDataStore;
 import org.geotools.data.simple.SimpleFeatureIterator;
@@ -39,11 +40,7 @@ import org.opengis.feature.simple.SimpleFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.vividsolutions.jts.geom.Coordinate;
-import com.vividsolutions.jts.geom.GeometryFactory;
 import com.vividsolutions.jts.geom.MultiPolygon;
-import com.vividsolutions.jts.geom.Point;
-import com.vividsolutions.jts.geom.Polygon;
 
 import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.region.GeoLatLon;
@@ -53,7 +50,15 @@ import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
 import de.symeda.sormas.backend.region.DistrictFacadeEjb.DistrictFacadeEjbLocal;
 import de.symeda.sormas.backend.region.RegionFacadeEjb.RegionFacadeEjbLocal;
 
-@Stateless(name = "GeoShapeProvider")
+/**
+ * Loads the region and district shapes of the configured country once and keeps them as immutable
+ * {@link GeoShapeIndex}, so all requests share the same geometry.
+ *
+ * The remote and the local view belong to the same singleton, so the shapes are only loaded once.
+ */
+@Singleton(name = "GeoShapeProvider")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@LocalBean
 public class GeoShapeProviderEjb implements GeoShapeProvider {
 
 	final static Logger logger = LoggerFactory.getLogger(GeoShapeProviderEjb.class);
@@ -66,39 +71,35 @@ public class GeoShapeProviderEjb implements GeoShapeProvider {
 	private ConfigFacadeEjbLocal configFacade;
 
 	private static final GeoLatLon defaultCenter = new GeoLatLon(13.5, 2);
-	
-	private Map<RegionReferenceDto, MultiPolygon> regionMultiPolygons = new HashMap<>();
-	private Map<RegionReferenceDto, GeoLatLon[][]> regionShapes = new HashMap<>();
 
-	private Map<DistrictReferenceDto, MultiPolygon> districtMultiPolygons = new HashMap<>();
-	private Map<DistrictReferenceDto, GeoLatLon[][]> districtShapes = new HashMap<>();
+	private GeoShapeIndex<RegionReferenceDto> regionShapes = new GeoShapeIndex<>(Collections.emptyMap());
+	private GeoShapeIndex<DistrictReferenceDto> districtShapes = new GeoShapeIndex<>(Collections.emptyMap());
 
 	@Override
 	public GeoLatLon[][] getRegionShape(RegionReferenceDto region) {
-		return regionShapes.get(region);
+		return regionShapes.getShape(region);
 	}
 
 	@Override
 	public RegionReferenceDto getRegionByCoord(GeoLatLon latLon) {
-		for (Entry<RegionReferenceDto, MultiPolygon> regionMultiPolygon : regionMultiPolygons.entrySet()) {
-			if (regionMultiPolygon.getValue().contains(GeometryFactory.createPointFromInternalCoord(
-					new Coordinate(latLon.getLon(), latLon.getLat()), regionMultiPolygon.getValue()))) {
-				return regionMultiPolygon.getKey();
-			}
-		}
-		return null;
+		return regionShapes.getByCoord(latLon);
+	}
+
+	@Override
+	public List<RegionReferenceDto> getRegionsByCoords(List<GeoLatLon> latLons) {
+		return regionShapes.getByCoords(latLons);
 	}
 
 	@Override
 	public GeoLatLon getCenterOfAllRegions() {
 
-		if (regionMultiPolygons.isEmpty()) {
+		if (regionShapes.isEmpty()) {
 			return defaultCenter;
 		}
 		
 		double lat = 0, lon = 0;
 		int count = 0;
-		for (MultiPolygon polygon : regionMultiPolygons.values()) {
+		for (MultiPolygon polygon : regionShapes.getMultiPolygons().values()) {
 			lat += polygon.getCentroid().getX();
 			lon += polygon.getCentroid().getY();
 			count++;
@@ -113,40 +114,37 @@ public class GeoShapeProviderEjb implements GeoShapeProvider {
 	@Override
 	public GeoLatLon getCenterOfRegion(RegionReferenceDto region) {
 		
-		if (regionMultiPolygons.isEmpty()) {
+		if (regionShapes.isEmpty()) {
 			return defaultCenter;
 		}
 		
-		Point polygonCenter = regionMultiPolygons.get(region).getCentroid();
-		return new GeoLatLon(polygonCenter.getX(), polygonCenter.getY());
+		return regionShapes.getCenter(region);
 	}
 	
 
 	@Override
 	public GeoLatLon[][] getDistrictShape(DistrictReferenceDto district) {
-		return districtShapes.get(district);
+		return districtShapes.getShape(district);
 	}
 
 	@Override
 	public DistrictReferenceDto getDistrictByCoord(GeoLatLon latLon) {
-		for (Entry<DistrictReferenceDto, MultiPolygon> districtMultiPolygon : districtMultiPolygons.entrySet()) {
-			if (districtMultiPolygon.getValue().contains(GeometryFactory.createPointFromInternalCoord(
-					new Coordinate(latLon.getLon(), latLon.getLat()), districtMultiPolygon.getValue()))) {
-				return districtMultiPolygon.getKey();
-			}
-		}
-		return null;
+		return districtShapes.getByCoord(latLon);
+	}
+
+	@Override
+	public List<DistrictReferenceDto> getDistrictsByCoords(List<GeoLatLon> latLons) {
+		return districtShapes.getByCoords(latLons);
 	}
 	
 	@Override
 	public GeoLatLon getCenterOfDistrict(DistrictReferenceDto district) {
 		
-		if (districtMultiPolygons.isEmpty()) {
+		if (districtShapes.isEmpty()) {
 			return defaultCenter;
 		}
 		
-		Point polygonCenter = districtMultiPolygons.get(district).getCentroid();
-		return new GeoLatLon(polygonCenter.getX(), polygonCenter.getY());
+		return districtShapes.getCenter(district);
 	}
 
 	@PostConstruct
@@ -158,9 +156,6 @@ public class GeoShapeProviderEjb implements GeoShapeProvider {
 
 	private void loadRegionData() {
 
-		regionShapes.clear();
-		regionMultiPolygons.clear();
-
 		// load shapefile
 		String countryName = configFacade.getCountryName();
 		String filepath = "shapefiles/" + countryName + "/regions.shp";
@@ -175,6 +170,7 @@ public class GeoShapeProviderEjb implements GeoShapeProvider {
 			ContentFeatureCollection featureCollection = featureSource.getFeatures();
 
 			List<RegionReferenceDto> regions = regionFacade.getAllAsReference();
+			Map<RegionReferenceDto, MultiPolygon> regionMultiPolygons = new HashMap<>();
 
 			SimpleFeatureIterator iterator = featureCollection.features();
 			while (iterator.hasNext()) {
@@ -209,21 +205,15 @@ public class GeoShapeProviderEjb implements GeoShapeProvider {
 				RegionReferenceDto region = regionResult.get();
 
 				regionMultiPolygons.put(region, multiPolygon);
-
-				GeoLatLon[][] regionShape = new GeoLatLon[multiPolygon.getNumGeometries()][];
-				for (int i = 0; i < multiPolygon.getNumGeometries(); i++) {
-					Polygon polygon = (Polygon) multiPolygon.getGeometryN(i);
-					regionShape[i] = Arrays.stream(polygon.getExteriorRing().getCoordinates())
-							.map(c -> new GeoLatLon(c.y, c.x)).toArray(size -> new GeoLatLon[size]);
-				}
-				regionShapes.put(region, regionShape);
 			}
 			iterator.close();
 			dataStore.dispose();
 
+			regionShapes = new GeoShapeIndex<>(regionMultiPolygons);
+
 			StringBuilder notFoundRegions = new StringBuilder();
 			for (RegionReferenceDto region : regions) {
-				if (!regionShapes.containsKey(region)) {
+				if (!regionMultiPolygons.containsKey(region)) {
 					if (notFoundRegions.length() > 0) {
 						notFoundRegions.append(", ");
 					}
@@ -240,9 +230,6 @@ public class GeoShapeProviderEjb implements GeoShapeProvider {
 
 	private void loadDistrictData() {
 
-		districtShapes.clear();
-		districtMultiPolygons.clear();
-
 		// load shapefile
 		String countryName = configFacade.getCountryName();
 		String filepath = "shapefiles/" + countryName + "/districts.shp";
@@ -257,6 +244,7 @@ public class GeoShapeProviderEjb implements GeoShapeProvider {
 			ContentFeatureCollection featureCollection = featureSource.getFeatures();
 
 			List<DistrictReferenceDto> districts = districtFacade.getAllAsReference();
+			Map<DistrictReferenceDto, MultiPolygon> districtMultiPolygons = new HashMap<>();
 
 			SimpleFeatureIterator iterator = featureCollection.features();
 			while (iterator.hasNext()) {
@@ -292,21 +280,15 @@ public class GeoShapeProviderEjb implements GeoShapeProvider {
 				DistrictReferenceDto district = districtResult.get();
 
 				districtMultiPolygons.put(district, multiPolygon);
-
-				GeoLatLon[][] districtShape = new GeoLatLon[multiPolygon.getNumGeometries()][];
-				for (int i = 0; i < multiPolygon.getNumGeometries(); i++) {
-					Polygon polygon = (Polygon) multiPolygon.getGeometryN(i);
-					districtShape[i] = Arrays.stream(polygon.getExteriorRing().getCoordinates())
-							.map(c -> new GeoLatLon(c.y, c.x)).toArray(size -> new GeoLatLon[size]);
-				}
-				districtShapes.put(district, districtShape);
 			}
 			iterator.close();
 			dataStore.dispose();
 
+			districtShapes = new GeoShapeIndex<>(districtMultiPolygons);
+
 			StringBuilder notFoundDistricts = new StringBuilder();
 			for (DistrictReferenceDto district : districts) {
-				if (!districtShapes.containsKey(district)) {
+				if (!districtMultiPolygons.containsKey(district)) {
 					if (notFoundDistricts.length() > 0) {
 						notFoundDistricts.append(", ");
 					}
@@ -372,9 +354,4 @@ public class GeoShapeProviderEjb implements GeoShapeProvider {
 		}
 		return costs[s2.length()];
 	}
-	
-	@LocalBean
-	@Stateless
-	public static class GeoShapeProviderEjbLocal extends GeoShapeProviderEjb {
-	}
 }
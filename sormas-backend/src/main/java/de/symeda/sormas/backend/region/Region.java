@@ -20,13 +20,16 @@ package de.symeda.sormas.backend.region;
 import java.util.List;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.OneToMany;
 import javax.persistence.OrderBy;
 
 import de.symeda.sormas.backend.common.AbstractDomainObject;
+import de.symeda.sormas.backend.common.InfrastructureCacheListener;
 
 @Entity
+@EntityListeners(InfrastructureCacheListener.class)
 public class Region extends AbstractDomainObject {
 	
 	private static final long serialVersionUID = -2958216667876104358L;
@@ -37,6 +37,7 @@ import de.symeda.sormas.api.region.RegionCriteria;
 import de.symeda.sormas.api.region.RegionDto;
 import de.symeda.sormas.api.region.RegionFacade;
 import de.symeda.sormas.api.region.RegionReferenceDto;
+import de.symeda.sormas.backend.common.InfrastructureCache;
 import de.symeda.sormas.backend.user.User;
 import de.symeda.sormas.backend.user.UserService;
 import de.symeda.sormas.backend.util.DtoHelper;
@@ -51,6 +52,8 @@ public class RegionFacadeEjb implements RegionFacade {
 	@EJB
 	protected RegionService regionService;
 	@EJB
+	protected InfrastructureCache infrastructureCache;
+	@EJB
 	protected UserService userService;
 	@EJB
 	protected DistrictService districtService;
@@ -124,12 +127,13 @@ public class RegionFacadeEjb implements RegionFacade {
 	
 	@Override
 	public RegionReferenceDto getRegionReferenceByUuid(String uuid) {
-		return toReferenceDto(regionService.getByUuid(uuid));
+		return infrastructureCache.getRegionReference(uuid);
 	}
 	
 	@Override
 	public RegionReferenceDto getRegionReferenceById(int id) {
-		return toReferenceDto(regionService.getById(id));
+		InfrastructureCache.Entry entry = infrastructureCache.getById(Region.class, id);
+		return entry != null ? infrastructureCache.getRegionReference(entry.getUuid()) : null;
 	}
 	
 	public static RegionReferenceDto toReferenceDto(Region entity) {
@@ -164,7 +168,7 @@ public class RegionFacadeEjb implements RegionFacade {
 	
 	@Override
 	public List<RegionReferenceDto> getByName(String name) {
-		return regionService.getByName(name).stream().map(r -> toReferenceDto(r)).collect(Collectors.toList());
+		return infrastructureCache.getRegionsByName(name);
 	}
 	
 	private Region fillOrBuildEntity(@NotNull RegionDto source, Region target) {
@@ -20,6 +20,7 @@ package de.symeda.sormas.backend.region;
 import java.util.List;
 import java.util.Optional;
 
+import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
 import javax.persistence.criteria.CriteriaBuilder;
@@ -32,6 +33,8 @@ import de.symeda.sormas.api.region.RegionCriteria;
 import de.symeda.sormas.api.utils.DataHelper;
 import de.symeda.sormas.backend.common.AbstractAdoService;
 import de.symeda.sormas.backend.common.AbstractDomainObject;
+import de.symeda.sormas.backend.common.InfrastructureCache;
+import de.symeda.sormas.backend.common.InfrastructureCache.Entry;
 import de.symeda.sormas.backend.user.User;
 import de.symeda.sormas.backend.util.InfrastructureDataImporter;
 
@@ -39,9 +42,18 @@ import de.symeda.sormas.backend.util.InfrastructureDataImporter;
 @LocalBean
 public class RegionService extends AbstractAdoService<Region> {
 	
+	@EJB
+	private InfrastructureCache infrastructureCache;
+
 	public RegionService() {
 		super(Region.class);
 	}
+
+	@Override
+	protected Long getCachedId(String uuid) {
+		Entry entry = infrastructureCache.getByUuid(Region.class, uuid);
+		return entry != null ? entry.getId() : null;
+	}
 	
 	public List<Region> getAllWithoutEpidCode() {
 		CriteriaBuilder cb = em.getCriteriaBuilder();
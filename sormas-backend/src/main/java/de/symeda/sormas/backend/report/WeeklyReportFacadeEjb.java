@@ -23,7 +23,9 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import javax.annotation.security.RolesAllowed;
@@ -33,7 +35,6 @@ import javax.ejb.Stateless;
 import javax.validation.constraints.NotNull;
 
 import de.symeda.sormas.api.region.RegionReferenceDto;
-import de.symeda.sormas.api.report.WeeklyReportCriteria;
 import de.symeda.sormas.api.report.WeeklyReportDto;
 import de.symeda.sormas.api.report.WeeklyReportEntryDto;
 import de.symeda.sormas.api.report.WeeklyReportFacade;
@@ -137,41 +138,31 @@ public class WeeklyReportFacadeEjb implements WeeklyReportFacade {
 	public List<WeeklyReportRegionSummaryDto> getSummariesPerRegion(EpiWeek epiWeek) {
 		List<WeeklyReportRegionSummaryDto> summaryDtos = new ArrayList<>();
 
-		WeeklyReportCriteria regionReportCriteria = new WeeklyReportCriteria().epiWeek(epiWeek);
+		// grouped counts for all regions instead of six queries per region
+		Map<Long, Long> officersPerRegion = userService.countPerRegion(UserRole.SURVEILLANCE_OFFICER);
+		Map<Long, Long> informantsPerRegion = userService.countPerRegion(UserRole.HOSPITAL_INFORMANT,
+				UserRole.COMMUNITY_INFORMANT);
+		Map<Long, long[]> reportsPerRegion = weeklyReportService.countPerRegion(epiWeek);
 
 		List<Region> regions = regionService.getAll(Region.NAME, true);
 
 		for (Region region : regions) {
 
-			WeeklyReportRegionSummaryDto summaryDto = new WeeklyReportRegionSummaryDto();
-			summaryDto.setRegion(RegionFacadeEjb.toReferenceDto(region));
-
-			Long officers = userService.countByRegion(region, UserRole.SURVEILLANCE_OFFICER);
-			if (officers.intValue() == 0) {
+			Long officers = officersPerRegion.get(region.getId());
+			if (officers == null) {
 				continue; // summarize only regions that do have officers
 			}
-			
+
+			WeeklyReportRegionSummaryDto summaryDto = new WeeklyReportRegionSummaryDto();
+			summaryDto.setRegion(RegionFacadeEjb.toReferenceDto(region));
 			summaryDto.setOfficers(officers.intValue());
-			Long informants = userService.countByRegion(region, UserRole.HOSPITAL_INFORMANT,
-					UserRole.COMMUNITY_INFORMANT);
-			summaryDto.setInformants(informants.intValue());
-
-			regionReportCriteria.reportingUserRegion(summaryDto.getRegion());
-			regionReportCriteria.officerReport(true);
-			regionReportCriteria.zeroReport(false);
-			Long officerCaseReports = weeklyReportService.countByCriteria(regionReportCriteria, null);
-			summaryDto.setOfficerCaseReports(officerCaseReports.intValue());
-			regionReportCriteria.zeroReport(true);
-			Long officerZeroReports = weeklyReportService.countByCriteria(regionReportCriteria, null);
-			summaryDto.setOfficerZeroReports(officerZeroReports.intValue());
-
-			regionReportCriteria.officerReport(false);
-			regionReportCriteria.zeroReport(false);
-			Long informantCaseReports = weeklyReportService.countByCriteria(regionReportCriteria, null);
-			summaryDto.setInformantCaseReports(informantCaseReports.intValue());
-			regionReportCriteria.zeroReport(true);
-			Long informantZeroReports = weeklyReportService.countByCriteria(regionReportCriteria, null);
-			summaryDto.setInformantZeroReports(informantZeroReports.intValue());
+			summaryDto.setInformants(informantsPerRegion.getOrDefault(region.getId(), 0L).intValue());
+
+			long[] reports = reportsPerRegion.getOrDefault(region.getId(), new long[4]);
+			summaryDto.setOfficerCaseReports((int) reports[0]);
+			summaryDto.setOfficerZeroReports((int) reports[1]);
+			summaryDto.setInformantCaseReports((int) reports[2]);
+			summaryDto.setInformantZeroReports((int) reports[3]);
 
 			summaryDtos.add(summaryDto);
 		}
@@ -184,40 +175,34 @@ public class WeeklyReportFacadeEjb implements WeeklyReportFacade {
 
 		List<WeeklyReportOfficerSummaryDto> summaryDtos = new ArrayList<>();
 
-		WeeklyReportCriteria officerReportCriteria = new WeeklyReportCriteria().epiWeek(epiWeek);
-		WeeklyReportCriteria informantsReportCriteria = new WeeklyReportCriteria().epiWeek(epiWeek).officerReport(false);
-
 		Region region = regionService.getByReferenceDto(regionRef);
 		List<User> officers = userService.getAllByRegionAndUserRoles(region, UserRole.SURVEILLANCE_OFFICER);
 		officers.sort((a, b) -> a.getDistrict().getName().compareTo(b.getDistrict().getName()));
 
-		for (User officer : officers) {
-			officerReportCriteria.reportingUser(new UserReferenceDto(officer.getUuid()));
-			List<WeeklyReport> officerReports = weeklyReportService.queryByCriteria(officerReportCriteria, null, null,
-					true);
+		Map<Long, WeeklyReport> officerReports = new HashMap<>();
+		for (WeeklyReport officerReport : weeklyReportService.getByEpiWeekAndUsers(epiWeek, officers)) {
+			officerReports.putIfAbsent(officerReport.getReportingUser().getId(), officerReport);
+		}
+		Map<Long, Long> informantsPerOfficer = userService.countPerAssociatedOfficer(region,
+				UserRole.HOSPITAL_INFORMANT, UserRole.COMMUNITY_INFORMANT);
+		Map<Long, long[]> informantReportsPerOfficer = weeklyReportService.countPerAssignedOfficer(region, epiWeek);
 
+		for (User officer : officers) {
 			WeeklyReportOfficerSummaryDto summaryDto = new WeeklyReportOfficerSummaryDto();
 			summaryDto.setOfficer(UserFacadeEjb.toReferenceDto(officer));
 			summaryDto.setDistrict(DistrictFacadeEjb.toReferenceDto(officer.getDistrict()));
 
-			if (officerReports.size() > 0) {
-				WeeklyReport officerReport = officerReports.get(0);
+			WeeklyReport officerReport = officerReports.get(officer.getId());
+			if (officerReport != null) {
 				summaryDto.setOfficerReportDate(officerReport.getReportDateTime());
 				summaryDto.setTotalCaseCount(officerReport.getTotalNumberOfCases());
 			}
 
-			Long informants = userService.countByAssignedOfficer(officer, UserRole.HOSPITAL_INFORMANT,
-					UserRole.COMMUNITY_INFORMANT);
-			summaryDto.setInformants(informants.intValue());
-
-			informantsReportCriteria.assignedOfficer(summaryDto.getOfficer());
-			informantsReportCriteria.zeroReport(false);
-			Long informantCaseReports = weeklyReportService.countByCriteria(informantsReportCriteria, null);
-			summaryDto.setInformantCaseReports(informantCaseReports.intValue());
+			summaryDto.setInformants(informantsPerOfficer.getOrDefault(officer.getId(), 0L).intValue());
 
-			informantsReportCriteria.zeroReport(true);
-			Long informantZeroReports = weeklyReportService.countByCriteria(informantsReportCriteria, null);
-			summaryDto.setInformantZeroReports(informantZeroReports.intValue());
+			long[] informantReports = informantReportsPerOfficer.getOrDefault(officer.getId(), new long[2]);
+			summaryDto.setInformantCaseReports((int) informantReports[0]);
+			summaryDto.setInformantZeroReports((int) informantReports[1]);
 
 			summaryDtos.add(summaryDto);
 		}
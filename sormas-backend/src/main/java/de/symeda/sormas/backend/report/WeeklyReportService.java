@@ -17,8 +17,10 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.report;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
@@ -26,6 +28,7 @@ import javax.ejb.Stateless;
 import javax.persistence.NoResultException;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.From;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
@@ -33,18 +36,14 @@ import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
 import de.symeda.sormas.api.report.WeeklyReportCriteria;
-import de.symeda.sormas.api.report.WeeklyReportOfficerSummaryDto;
-import de.symeda.sormas.api.user.UserReferenceDto;
 import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.api.utils.EpiWeek;
 import de.symeda.sormas.backend.common.AbstractAdoService;
 import de.symeda.sormas.backend.facility.Facility;
-import de.symeda.sormas.backend.region.DistrictFacadeEjb;
 import de.symeda.sormas.backend.region.DistrictService;
 import de.symeda.sormas.backend.region.Region;
 import de.symeda.sormas.backend.region.RegionService;
 import de.symeda.sormas.backend.user.User;
-import de.symeda.sormas.backend.user.UserFacadeEjb;
 import de.symeda.sormas.backend.user.UserService;
 
 @Stateless
@@ -107,45 +106,89 @@ public class WeeklyReportService extends AbstractAdoService<WeeklyReport> {
 		}
 	}
 
-	public List<WeeklyReportOfficerSummaryDto> getWeeklyReportSummariesPerOfficer(Region region, EpiWeek epiWeek) {
+	public List<WeeklyReport> getByEpiWeekAndUsers(EpiWeek epiWeek, List<User> users) {
 
-		List<WeeklyReportOfficerSummaryDto> summaryDtos = new ArrayList<>();
+		if (users.isEmpty()) {
+			return Collections.emptyList();
+		}
 
-		WeeklyReportCriteria officerReportCriteria = new WeeklyReportCriteria().epiWeek(epiWeek);
-		WeeklyReportCriteria informantsReportCriteria = new WeeklyReportCriteria().epiWeek(epiWeek).officerReport(false);
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<WeeklyReport> cq = cb.createQuery(getElementClass());
+		Root<WeeklyReport> from = cq.from(getElementClass());
 
-		List<User> officers = userService.getAllByRegionAndUserRoles(region, UserRole.SURVEILLANCE_OFFICER);
+		Predicate filter = buildCriteriaFilter(new WeeklyReportCriteria().epiWeek(epiWeek), cb, from);
+		filter = cb.and(filter, from.get(WeeklyReport.REPORTING_USER).in(users));
 
-		for (User officer : officers) {
-			officerReportCriteria.reportingUser(new UserReferenceDto(officer.getUuid()));
-			List<WeeklyReport> officerReports = queryByCriteria(officerReportCriteria, null, null, true);
+		cq.where(filter);
+		return em.createQuery(cq).getResultList();
+	}
 
-			WeeklyReportOfficerSummaryDto summaryDto = new WeeklyReportOfficerSummaryDto();
-			summaryDto.setOfficer(UserFacadeEjb.toReferenceDto(officer));
-			summaryDto.setDistrict(DistrictFacadeEjb.toReferenceDto(officer.getDistrict()));
+	/**
+	 * Counts the reports of the epi week per region of the reporting user with a single query.
+	 * 
+	 * @return region id -&gt; officer case reports, officer zero reports, informant case reports, informant zero reports;
+	 *         regions without reports are missing
+	 */
+	public Map<Long, long[]> countPerRegion(EpiWeek epiWeek) {
 
-			if (officerReports.size() > 0) {
-				WeeklyReport officerReport = officerReports.get(0);
-				summaryDto.setOfficerReportDate(officerReport.getReportDateTime());
-				summaryDto.setTotalCaseCount(officerReport.getTotalNumberOfCases());
-			}
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<WeeklyReport> from = cq.from(getElementClass());
+		Join<User, Region> region = from.join(WeeklyReport.REPORTING_USER).join(User.REGION);
 
-			Long informants = userService.countByAssignedOfficer(officer);
-			summaryDto.setInformants(informants.intValue());
+		cq.where(buildCriteriaFilter(new WeeklyReportCriteria().epiWeek(epiWeek), cb, from));
+		cq.multiselect(region.get(Region.ID),
+				countReports(cb, from, true, false), countReports(cb, from, true, true),
+				countReports(cb, from, false, false), countReports(cb, from, false, true));
+		cq.groupBy(region.get(Region.ID));
 
-			informantsReportCriteria.assignedOfficer(summaryDto.getOfficer());
-			informantsReportCriteria.zeroReport(false);
-			Long informantCaseReports = countByCriteria(informantsReportCriteria, null);
-			summaryDto.setInformantCaseReports(informantCaseReports.intValue());
+		return em.createQuery(cq).getResultList().stream()
+				.collect(Collectors.toMap(row -> (Long) row[0], row -> toLongs(row)));
+	}
 
-			informantsReportCriteria.zeroReport(true);
-			Long informantZeroReports = countByCriteria(informantsReportCriteria, null);
-			summaryDto.setInformantZeroReports(informantZeroReports.intValue());
+	/**
+	 * Counts the informant reports of the epi week per assigned officer of the region with a single query.
+	 * 
+	 * @return officer id -&gt; informant case reports, informant zero reports; officers without reports are missing
+	 */
+	public Map<Long, long[]> countPerAssignedOfficer(Region officerRegion, EpiWeek epiWeek) {
 
-			summaryDtos.add(summaryDto);
-		}
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<WeeklyReport> from = cq.from(getElementClass());
+		Join<WeeklyReport, User> officer = from.join(WeeklyReport.ASSIGNED_OFFICER);
 
-		return summaryDtos;
+		Predicate filter = buildCriteriaFilter(new WeeklyReportCriteria().epiWeek(epiWeek), cb, from);
+		filter = cb.and(filter, cb.equal(officer.get(User.REGION), officerRegion));
+		cq.where(filter);
+		cq.multiselect(officer.get(User.ID), countReports(cb, from, false, false), countReports(cb, from, false, true));
+		cq.groupBy(officer.get(User.ID));
+
+		return em.createQuery(cq).getResultList().stream()
+				.collect(Collectors.toMap(row -> (Long) row[0], row -> toLongs(row)));
+	}
+
+	/**
+	 * Conditional count of the grouped reports, matching the officerReport and zeroReport criteria of
+	 * {@link #buildCriteriaFilter(WeeklyReportCriteria, CriteriaBuilder, Root)}.
+	 */
+	private Expression<Integer> countReports(CriteriaBuilder cb, Root<WeeklyReport> from, boolean officerReport,
+			boolean zeroReport) {
+
+		Predicate reportFilter = cb.and(
+				officerReport ? cb.isNull(from.get(WeeklyReport.ASSIGNED_OFFICER))
+						: cb.isNotNull(from.get(WeeklyReport.ASSIGNED_OFFICER)),
+				zeroReport ? cb.equal(from.get(WeeklyReport.TOTAL_NUMBER_OF_CASES), 0)
+						: cb.notEqual(from.get(WeeklyReport.TOTAL_NUMBER_OF_CASES), 0));
+		return cb.sum(cb.<Integer>selectCase().when(reportFilter, 1).otherwise(0));
+	}
+
+	private static long[] toLongs(Object[] row) {
+		long[] counts = new long[row.length - 1];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = row[i + 1] != null ? ((Number) row[i + 1]).longValue() : 0;
+		}
+		return counts;
 	}
 
 	/**
@@ -18,9 +18,11 @@
 package de.symeda.sormas.backend.sample;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.ejb.EJB;
@@ -28,10 +30,13 @@ import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Order;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.validation.constraints.NotNull;
@@ -54,6 +59,7 @@ import de.symeda.sormas.api.sample.SampleIndexDto;
 import de.symeda.sormas.api.sample.SampleReferenceDto;
 import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.api.utils.DataHelper;
+import de.symeda.sormas.api.utils.SortProperty;
 import de.symeda.sormas.backend.caze.Case;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb.CaseFacadeEjbLocal;
@@ -61,7 +67,8 @@ import de.symeda.sormas.backend.caze.CaseService;
 import de.symeda.sormas.backend.common.AbstractAdoService;
 import de.symeda.sormas.backend.common.MessageType;
 import de.symeda.sormas.backend.common.MessagingService;
-import de.symeda.sormas.backend.common.NotificationDeliveryFailedException;
+import de.symeda.sormas.backend.disease.DiseaseDailyCountService;
+import de.symeda.sormas.backend.disease.DiseaseDailyCountService.Cell;
 import de.symeda.sormas.backend.facility.Facility;
 import de.symeda.sormas.backend.facility.FacilityFacadeEjb;
 import de.symeda.sormas.backend.facility.FacilityFacadeEjb.FacilityFacadeEjbLocal;
@@ -75,6 +82,7 @@ import de.symeda.sormas.backend.region.RegionFacadeEjb.RegionFacadeEjbLocal;
 import de.symeda.sormas.backend.region.RegionService;
 import de.symeda.sormas.backend.sample.SampleTestFacadeEjb.SampleTestFacadeEjbLocal;
 import de.symeda.sormas.backend.user.User;
+import de.symeda.sormas.backend.user.UserAccessScopeCache;
 import de.symeda.sormas.backend.user.UserFacadeEjb;
 import de.symeda.sormas.backend.user.UserService;
 import de.symeda.sormas.backend.util.DtoHelper;
@@ -93,6 +101,8 @@ public class SampleFacadeEjb implements SampleFacade {
 	@EJB
 	private UserService userService;
 	@EJB
+	private UserAccessScopeCache userAccessScopeCache;
+	@EJB
 	private CaseService caseService;
 	@EJB
 	private RegionService regionService;
@@ -112,6 +122,8 @@ public class SampleFacadeEjb implements SampleFacade {
 	private SampleTestFacadeEjbLocal sampleTestFacade;
 	@EJB
 	private MessagingService messagingService;
+	@EJB
+	private DiseaseDailyCountService diseaseDailyCountService;
 
 	private static final Logger logger = LoggerFactory.getLogger(SampleTestFacadeEjb.class);
 
@@ -178,10 +190,18 @@ public class SampleFacadeEjb implements SampleFacade {
 
 	@Override
 	public SampleDto saveSample(SampleDto dto) {
-		SampleDto existingSample = toDto(sampleService.getByUuid(dto.getUuid()));
+		Sample existingSampleEntity = sampleService.getByUuid(dto.getUuid());
+		SampleDto existingSample = toDto(existingSampleEntity);
+		// lab users have access to the cases of the samples in their laboratory
+		if (existingSampleEntity != null) {
+			userAccessScopeCache.invalidateLaboratory(existingSampleEntity.getLab());
+		}
+
 		Sample sample = fromDto(dto);
 		sampleService.ensurePersisted(sample);
 
+		userAccessScopeCache.invalidateLaboratory(sample.getLab());
+
 		onSampleChanged(existingSample, sample);
 
 		return toDto(sample);
@@ -194,6 +214,11 @@ public class SampleFacadeEjb implements SampleFacade {
 
 	@Override
 	public List<SampleIndexDto> getIndexList(String userUuid, SampleCriteria sampleCriteria) {
+		return getIndexList(userUuid, sampleCriteria, null, null, null);
+	}
+
+	@Override
+	public List<SampleIndexDto> getIndexList(String userUuid, SampleCriteria sampleCriteria, Integer first, Integer max, List<SortProperty> sortProperties) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<SampleIndexDto> cq = cb.createQuery(SampleIndexDto.class);
@@ -218,6 +243,89 @@ public class SampleFacadeEjb implements SampleFacade {
 				caseRegion.get(Region.UUID), caseDistrict.get(District.UUID), caseDistrict.get(District.NAME), 
 				mainTest.get(SampleTest.TEST_RESULT), mainTestLabUser.get(User.FIRST_NAME), mainTestLabUser.get(User.LAST_NAME));
 
+		Predicate filter = createIndexListFilter(userUuid, sampleCriteria, cb, cq, sample);
+		if (filter != null) {
+			cq.where(filter);
+		}
+
+		List<Order> order = new ArrayList<>();
+		if (sortProperties != null) {
+			for (SortProperty sortProperty : sortProperties) {
+				List<Expression<?>> expressions = new ArrayList<>();
+				switch (sortProperty.getPropertyName()) {
+				case SampleIndexDto.UUID:
+				case SampleIndexDto.SAMPLE_CODE:
+				case SampleIndexDto.LAB_SAMPLE_ID:
+				case SampleIndexDto.SAMPLE_DATE_TIME:
+				case SampleIndexDto.SHIPPED:
+				case SampleIndexDto.SHIPMENT_DATE:
+				case SampleIndexDto.RECEIVED:
+				case SampleIndexDto.RECEIVED_DATE:
+				case SampleIndexDto.SAMPLE_MATERIAL:
+					expressions.add(sample.get(sortProperty.getPropertyName()));
+					break;
+				case SampleIndexDto.ASSOCIATED_CASE:
+					expressions.add(cazePerson.get(Person.FIRST_NAME));
+					expressions.add(cazePerson.get(Person.LAST_NAME));
+					break;
+				case SampleIndexDto.DISEASE:
+				case SampleIndexDto.DISEASE_DETAILS:
+					expressions.add(caze.get(sortProperty.getPropertyName()));
+					break;
+				case SampleIndexDto.CASE_DISTRICT:
+					expressions.add(caseDistrict.get(District.NAME));
+					break;
+				case SampleIndexDto.LAB:
+					expressions.add(lab.get(Facility.NAME));
+					break;
+				case SampleIndexDto.SAMPLE_TEST_RESULT:
+					expressions.add(mainTest.get(SampleTest.TEST_RESULT));
+					break;
+				case SampleIndexDto.SAMPLE_TEST_LAB_USER_NAME:
+					expressions.add(mainTestLabUser.get(User.FIRST_NAME));
+					expressions.add(mainTestLabUser.get(User.LAST_NAME));
+					break;
+				default:
+					throw new IllegalArgumentException(sortProperty.getPropertyName());
+				}
+				for (Expression<?> expression : expressions) {
+					order.add(sortProperty.isAscending() ? cb.asc(expression) : cb.desc(expression));
+				}
+			}
+		}
+		if (order.isEmpty()) {
+			order.add(cb.desc(sample.get(Sample.SAMPLE_DATE_TIME)));
+		}
+		// unique order, so the pages don't overlap
+		order.add(cb.desc(sample.get(Sample.ID)));
+		cq.orderBy(order);
+
+		TypedQuery<SampleIndexDto> query = em.createQuery(cq);
+		if (first != null) {
+			query.setFirstResult(first);
+		}
+		if (max != null) {
+			query.setMaxResults(max);
+		}
+		return query.getResultList();
+	}
+
+	@Override
+	public long count(String userUuid, SampleCriteria sampleCriteria) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		Root<Sample> sample = cq.from(Sample.class);
+
+		Predicate filter = createIndexListFilter(userUuid, sampleCriteria, cb, cq, sample);
+		if (filter != null) {
+			cq.where(filter);
+		}
+
+		cq.select(cb.count(sample));
+		return em.createQuery(cq).getSingleResult();
+	}
+
+	private Predicate createIndexListFilter(String userUuid, SampleCriteria sampleCriteria, CriteriaBuilder cb, CriteriaQuery<?> cq, Root<Sample> sample) {
 		Predicate filter = null;
 		if (userUuid != null) {
 			User user = userService.getByUuid(userUuid);
@@ -227,15 +335,8 @@ public class SampleFacadeEjb implements SampleFacade {
 		if (sampleCriteria != null) {
 			Predicate criteriaFilter = sampleService.buildCriteriaFilter(sampleCriteria, cb, sample);
 			filter = AbstractAdoService.and(cb, filter, criteriaFilter);
-		}		
-
-		if (filter != null) {
-			cq.where(filter);
 		}
-
-		List<SampleIndexDto> resultList = em.createQuery(cq).getResultList();
-
-		return resultList;	
+		return filter;
 	}
 
 	@Override
@@ -260,9 +361,11 @@ public class SampleFacadeEjb implements SampleFacade {
 		}
 
 		Sample sample = sampleService.getByReferenceDto(sampleRef);
+		Set<Cell> countCells = diseaseDailyCountService.getTestResultCells(sample);
 		sampleService.delete(sample);
 
 		caseFacade.onCaseChanged(CaseFacadeEjbLocal.toDto(sample.getAssociatedCase()), sample.getAssociatedCase());
+		diseaseDailyCountService.refresh(countCells);
 	}
 
 	public Sample fromDto(@NotNull SampleDto source) {
@@ -356,22 +459,17 @@ public class SampleFacadeEjb implements SampleFacade {
 			List<User> messageRecipients = userService.getLabUsersOfLab(newSample.getLab());
 
 			for (User recipient : messageRecipients) {
-				try {
-					if (!StringUtils.isEmpty(newSample.getSampleCode())) {
-						messagingService.sendMessage(recipient, I18nProperties.getString(MessagingService.SUBJECT_LAB_SAMPLE_SHIPPED), 
-								String.format(I18nProperties.getString(MessagingService.CONTENT_LAB_SAMPLE_SHIPPED), 
-										newSample.getSampleCode(), 
-										DataHelper.getShortUuid(newSample.getAssociatedCase().getUuid())), 
-								MessageType.EMAIL, MessageType.SMS);
-					} else {
-						messagingService.sendMessage(recipient, I18nProperties.getString(MessagingService.SUBJECT_LAB_SAMPLE_SHIPPED), 
-								String.format(I18nProperties.getString(MessagingService.CONTENT_LAB_SAMPLE_SHIPPED_SHORT), 
-										DataHelper.getShortUuid(newSample.getAssociatedCase().getUuid())), 
-								MessageType.EMAIL, MessageType.SMS);
-					}
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(String.format("EmailDeliveryFailedException when trying to notify supervisors about the shipment of a lab sample. "
-							+ "Failed to send " + e.getMessageType() + " to user with UUID %s.", recipient.getUuid()));
+				if (!StringUtils.isEmpty(newSample.getSampleCode())) {
+					messagingService.sendMessage(recipient, I18nProperties.getString(MessagingService.SUBJECT_LAB_SAMPLE_SHIPPED), 
+							String.format(I18nProperties.getString(MessagingService.CONTENT_LAB_SAMPLE_SHIPPED), 
+									newSample.getSampleCode(), 
+									DataHelper.getShortUuid(newSample.getAssociatedCase().getUuid())), 
+							MessageType.EMAIL, MessageType.SMS);
+				} else {
+					messagingService.sendMessage(recipient, I18nProperties.getString(MessagingService.SUBJECT_LAB_SAMPLE_SHIPPED), 
+							String.format(I18nProperties.getString(MessagingService.CONTENT_LAB_SAMPLE_SHIPPED_SHORT), 
+									DataHelper.getShortUuid(newSample.getAssociatedCase().getUuid())), 
+							MessageType.EMAIL, MessageType.SMS);
 				}
 			}
 		}
@@ -17,10 +17,14 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.sample;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
@@ -49,6 +53,7 @@ import de.symeda.sormas.backend.person.Person;
 import de.symeda.sormas.backend.region.District;
 import de.symeda.sormas.backend.region.Region;
 import de.symeda.sormas.backend.user.User;
+import de.symeda.sormas.backend.user.UserAccessScopeCache;
 
 @Stateless
 @LocalBean
@@ -58,6 +63,8 @@ public class SampleService extends AbstractAdoService<Sample> {
 	private CaseService caseService;	
 	@EJB
 	private SampleTestService sampleTestService;
+	@EJB
+	private UserAccessScopeCache userAccessScopeCache;
 
 	public SampleService() {
 		super(Sample.class);
@@ -77,6 +84,9 @@ public class SampleService extends AbstractAdoService<Sample> {
 		}
 
 		super.delete(sample);
+
+		// lab users had access to the case of the sample
+		userAccessScopeCache.invalidateLaboratory(sample.getLab());
 	}
 
 	public List<Sample> getAllActiveSamplesAfter(Date date, User user) {
@@ -250,6 +260,29 @@ public class SampleService extends AbstractAdoService<Sample> {
 		return result;
 	}
 
+	/**
+	 * Batch variant of {@link #getSampleDatesForCase(long)}
+	 * @return sample dates by case id; cases without samples are not contained
+	 */
+	public Map<Long, List<Date>> getSampleDatesForCases(Collection<Long> caseIds) {
+		if (caseIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Sample> sample = cq.from(getElementClass());
+		Path<Long> caseId = sample.get(Sample.ASSOCIATED_CASE).get(Case.ID);
+		cq.where(caseId.in(caseIds));
+		cq.multiselect(caseId, sample.get(Sample.SAMPLE_DATE_TIME));
+
+		Map<Long, List<Date>> result = new HashMap<>();
+		for (Object[] row : em.createQuery(cq).getResultList()) {
+			result.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((Date) row[1]);
+		}
+		return result;
+	}
+
 	/**
 	 * @see /sormas-backend/doc/UserDataAccess.md
 	 */
@@ -49,7 +49,8 @@ import de.symeda.sormas.backend.caze.Case;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb.CaseFacadeEjbLocal;
 import de.symeda.sormas.backend.common.MessageType;
 import de.symeda.sormas.backend.common.MessagingService;
-import de.symeda.sormas.backend.common.NotificationDeliveryFailedException;
+import de.symeda.sormas.backend.disease.DiseaseDailyCountService;
+import de.symeda.sormas.backend.disease.DiseaseDailyCountService.Cell;
 import de.symeda.sormas.backend.facility.FacilityFacadeEjb;
 import de.symeda.sormas.backend.facility.FacilityService;
 import de.symeda.sormas.backend.region.District;
@@ -84,6 +85,8 @@ public class SampleTestFacadeEjb implements SampleTestFacade {
 	private UserService userService;
 	@EJB
 	private MessagingService messagingService;
+	@EJB
+	private DiseaseDailyCountService diseaseDailyCountService;
 
 	private static final Logger logger = LoggerFactory.getLogger(SampleTestFacadeEjb.class);
 
@@ -148,7 +151,10 @@ public class SampleTestFacadeEjb implements SampleTestFacade {
 
 	@Override
 	public SampleTestDto saveSampleTest(SampleTestDto dto) {
-		SampleTestDto existingSampleTest = toDto(sampleTestService.getByUuid(dto.getUuid()));		
+		SampleTest existingEntity = sampleTestService.getByUuid(dto.getUuid());
+		SampleTestDto existingSampleTest = toDto(existingEntity);
+		// the cell of the previous test date, the current one is recounted with the case
+		Cell previousCountCell = existingEntity != null ? diseaseDailyCountService.getTestResultCell(existingEntity) : null;
 		SampleTest sampleTest = fromDto(dto);
 		sampleTestService.ensurePersisted(sampleTest);
 		
@@ -158,6 +164,7 @@ public class SampleTestFacadeEjb implements SampleTestFacade {
 		
 		// Update case classification if necessary
 		caseFacade.onCaseChanged(CaseFacadeEjbLocal.toDto(sampleTest.getSample().getAssociatedCase()), sampleTest.getSample().getAssociatedCase());
+		diseaseDailyCountService.refresh(Collections.singleton(previousCountCell));
 
 		return toDto(sampleTest);
 	}
@@ -170,9 +177,11 @@ public class SampleTestFacadeEjb implements SampleTestFacade {
 		}
 
 		SampleTest sampleTest = sampleTestService.getByReferenceDto(sampleTestRef);
+		Cell countCell = diseaseDailyCountService.getTestResultCell(sampleTest);
 		sampleTestService.delete(sampleTest);
 		
 		caseFacade.onCaseChanged(CaseFacadeEjbLocal.toDto(sampleTest.getSample().getAssociatedCase()), sampleTest.getSample().getAssociatedCase());
+		diseaseDailyCountService.refresh(Collections.singleton(countCell));
 	}
 
 	public SampleTest fromDto(@NotNull SampleTestDto source) {
@@ -233,15 +242,10 @@ public class SampleTestFacadeEjb implements SampleTestFacade {
 					UserRole.SURVEILLANCE_SUPERVISOR, UserRole.CASE_SUPERVISOR);
 
 			for (User recipient : messageRecipients) {
-				try {
-					messagingService.sendMessage(recipient, I18nProperties.getString(MessagingService.SUBJECT_LAB_RESULT_ARRIVED), 
-							String.format(I18nProperties.getString(MessagingService.CONTENT_LAB_RESULT_ARRIVED), 
-									newSampleTest.getTestResult().toString(), DataHelper.getShortUuid(newSampleTest.getUuid())), 
-							MessageType.EMAIL, MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(String.format("EmailDeliveryFailedException when trying to notify supervisors about the arrival of a lab result. "
-							+ "Failed to send " + e.getMessageType() + " to user with UUID %s.", recipient.getUuid()));
-				}
+				messagingService.sendMessage(recipient, I18nProperties.getString(MessagingService.SUBJECT_LAB_RESULT_ARRIVED), 
+						String.format(I18nProperties.getString(MessagingService.CONTENT_LAB_RESULT_ARRIVED), 
+								newSampleTest.getTestResult().toString(), DataHelper.getShortUuid(newSampleTest.getUuid())), 
+						MessageType.EMAIL, MessageType.SMS);
 			}
 		} else if (existingSampleTest != null && existingSampleTest.getTestResult() == SampleTestResultType.PENDING && 
 				newSampleTest.getTestResult() != SampleTestResultType.PENDING) {
@@ -250,15 +254,10 @@ public class SampleTestFacadeEjb implements SampleTestFacade {
 					UserRole.SURVEILLANCE_SUPERVISOR, UserRole.CASE_SUPERVISOR);
 
 			for (User recipient : messageRecipients) {
-				try {
-					messagingService.sendMessage(recipient, I18nProperties.getString(MessagingService.SUBJECT_LAB_RESULT_SPECIFIED), 
-							String.format(I18nProperties.getString(MessagingService.CONTENT_LAB_RESULT_SPECIFIED), 
-									DataHelper.getShortUuid(newSampleTest.getUuid()), newSampleTest.getTestResult().toString()), 
-							MessageType.EMAIL, MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(String.format("EmailDeliveryFailedException when trying to notify supervisors about the specification of a lab result. "
-							+ "Failed to send " + e.getMessageType() + " to user with UUID %s.", recipient.getUuid()));
-				}
+				messagingService.sendMessage(recipient, I18nProperties.getString(MessagingService.SUBJECT_LAB_RESULT_SPECIFIED), 
+						String.format(I18nProperties.getString(MessagingService.CONTENT_LAB_RESULT_SPECIFIED), 
+								DataHelper.getShortUuid(newSampleTest.getUuid()), newSampleTest.getTestResult().toString()), 
+						MessageType.EMAIL, MessageType.SMS);
 			}
 		}	
 	}
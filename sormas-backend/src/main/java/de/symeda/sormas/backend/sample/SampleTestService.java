@@ -17,9 +17,13 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.sample;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
@@ -138,6 +142,30 @@ public class SampleTestService extends AbstractAdoService<SampleTest> {
 		return resultList;
 	}
 
+	/**
+	 * Batch variant of {@link #getAllByCase(Case)}
+	 * @return sample tests by case id; cases without sample tests are not contained
+	 */
+	public Map<Long, List<SampleTest>> getAllByCaseIds(Collection<Long> caseIds) {
+		if (caseIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<SampleTest> root = cq.from(getElementClass());
+		Path<Long> caseId = root.get(SampleTest.SAMPLE).get(Sample.ASSOCIATED_CASE).get(Case.ID);
+		cq.where(caseId.in(caseIds));
+		cq.multiselect(caseId, root);
+		cq.orderBy(cb.desc(root.get(SampleTest.TEST_DATE_TIME)));
+
+		Map<Long, List<SampleTest>> result = new HashMap<>();
+		for (Object[] row : em.createQuery(cq).getResultList()) {
+			result.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((SampleTest) row[1]);
+		}
+		return result;
+	}
+
 	public List<DashboardTestResultDto> getNewTestResultsForDashboard(Region region, District district, Disease disease,
 			Date from, Date to, User user) {
 		CriteriaBuilder cb = em.getCriteriaBuilder();
@@ -205,6 +233,29 @@ public class SampleTestService extends AbstractAdoService<SampleTest> {
 		return result;
 	}
 
+	/**
+	 * Batch variant of {@link #getSampleTestResultsForCase(long)}
+	 * @return test results by case id; cases without sample tests are not contained
+	 */
+	public Map<Long, List<SampleTestResultType>> getSampleTestResultsForCases(Collection<Long> caseIds) {
+		if (caseIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<SampleTest> root = cq.from(getElementClass());
+		Path<Long> caseId = root.get(SampleTest.SAMPLE).get(Sample.ASSOCIATED_CASE).get(Case.ID);
+		cq.where(caseId.in(caseIds));
+		cq.multiselect(caseId, root.get(SampleTest.TEST_RESULT));
+
+		Map<Long, List<SampleTestResultType>> result = new HashMap<>();
+		for (Object[] row : em.createQuery(cq).getResultList()) {
+			result.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((SampleTestResultType) row[1]);
+		}
+		return result;
+	}
+
 	/**
 	 * @see /sormas-backend/doc/UserDataAccess.md
 	 */
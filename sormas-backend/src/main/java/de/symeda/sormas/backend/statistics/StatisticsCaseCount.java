@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.statistics;
+
+import java.util.Date;
+
+import javax.persistence.CascadeType;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.ManyToOne;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.api.caze.CaseOutcome;
+import de.symeda.sormas.api.person.Sex;
+import de.symeda.sormas.backend.common.AbstractDomainObject;
+import de.symeda.sormas.backend.region.District;
+import de.symeda.sormas.backend.region.Region;
+
+/**
+ * Number of cases sharing the same values in all dimensions of the case statistics, with one of the dates
+ * of the cases truncated to the day and the case age capped at {@link #MAX_CASE_AGE}. Used to answer the statistics
+ * queries instead of grouping the cases themselves; maintained by the {@link StatisticsCaseCountService}.
+ */
+@Entity(name = StatisticsCaseCount.TABLE_NAME)
+public class StatisticsCaseCount extends AbstractDomainObject {
+
+	private static final long serialVersionUID = 6470327911530178429L;
+
+	public static final String TABLE_NAME = "statisticscasecount";
+
+	/**
+	 * All age groupings of the statistics end with this age, e.g. "80+"
+	 */
+	public static final int MAX_CASE_AGE = 80;
+
+	public static final String DATE_TYPE = "dateType";
+	public static final String DAY = "day";
+	public static final String REGION = "region";
+	public static final String DISTRICT = "district";
+	public static final String SEX = "sex";
+	public static final String CASE_AGE = "caseAge";
+	public static final String DISEASE = "disease";
+	public static final String CASE_CLASSIFICATION = "caseClassification";
+	public static final String OUTCOME = "outcome";
+	public static final String CASE_COUNT = "caseCount";
+
+	private StatisticsCaseCountDateType dateType;
+	private Date day;
+	private Region region;
+	private District district;
+	private Sex sex;
+	private Integer caseAge;
+	private Disease disease;
+	private CaseClassification caseClassification;
+	private CaseOutcome outcome;
+	private long caseCount;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	public StatisticsCaseCountDateType getDateType() {
+		return dateType;
+	}
+	public void setDateType(StatisticsCaseCountDateType dateType) {
+		this.dateType = dateType;
+	}
+
+	/**
+	 * Null for the cases that don't have the date
+	 */
+	@Temporal(TemporalType.DATE)
+	public Date getDay() {
+		return day;
+	}
+	public void setDay(Date day) {
+		this.day = day;
+	}
+
+	@ManyToOne(cascade = CascadeType.REFRESH)
+	public Region getRegion() {
+		return region;
+	}
+	public void setRegion(Region region) {
+		this.region = region;
+	}
+
+	@ManyToOne(cascade = CascadeType.REFRESH)
+	public District getDistrict() {
+		return district;
+	}
+	public void setDistrict(District district) {
+		this.district = district;
+	}
+
+	@Enumerated(EnumType.STRING)
+	public Sex getSex() {
+		return sex;
+	}
+	public void setSex(Sex sex) {
+		this.sex = sex;
+	}
+
+	public Integer getCaseAge() {
+		return caseAge;
+	}
+	public void setCaseAge(Integer caseAge) {
+		this.caseAge = caseAge;
+	}
+
+	@Enumerated(EnumType.STRING)
+	public Disease getDisease() {
+		return disease;
+	}
+	public void setDisease(Disease disease) {
+		this.disease = disease;
+	}
+
+	@Enumerated(EnumType.STRING)
+	public CaseClassification getCaseClassification() {
+		return caseClassification;
+	}
+	public void setCaseClassification(CaseClassification caseClassification) {
+		this.caseClassification = caseClassification;
+	}
+
+	@Enumerated(EnumType.STRING)
+	public CaseOutcome getOutcome() {
+		return outcome;
+	}
+	public void setOutcome(CaseOutcome outcome) {
+		this.outcome = outcome;
+	}
+
+	@Column(nullable = false)
+	public long getCaseCount() {
+		return caseCount;
+	}
+	public void setCaseCount(long caseCount) {
+		this.caseCount = caseCount;
+	}
+
+}
@@ -0,0 +1,476 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.statistics;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.IntegerRange;
+import de.symeda.sormas.api.ReferenceDto;
+import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.caze.CaseOutcome;
+import de.symeda.sormas.api.person.Sex;
+import de.symeda.sormas.api.statistics.StatisticsCaseAttribute;
+import de.symeda.sormas.api.statistics.StatisticsCaseCriteria;
+import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.backend.caze.Case;
+import de.symeda.sormas.backend.common.AbstractAdoService;
+import de.symeda.sormas.backend.common.AbstractDomainObject;
+import de.symeda.sormas.backend.person.Person;
+import de.symeda.sormas.backend.region.District;
+import de.symeda.sormas.backend.region.Region;
+import de.symeda.sormas.backend.symptoms.Symptoms;
+import de.symeda.sormas.backend.user.User;
+import de.symeda.sormas.backend.util.AggregateLocks;
+
+/**
+ * Maintains the {@link StatisticsCaseCount}s.
+ *
+ * Every case is counted once per {@link StatisticsCaseCountDateType}, so the counts only contain the one date
+ * a query filters or groups by instead of all combinations of the three dates of the cases.
+ *
+ * When the values a case is counted with change, the {@link Cell}s it was and is counted in are recounted within
+ * the same transaction. A cell only contains the cases of one disease and district with the same date on one day,
+ * so recounting it is cheap. Like the disease daily counts, the cells are locked before they are recounted
+ * (see {@link AggregateLocks}) and a unique index guards against duplicates.
+ */
+@Stateless
+@LocalBean
+public class StatisticsCaseCountService extends AbstractAdoService<StatisticsCaseCount> {
+
+	private static final Logger logger = LoggerFactory.getLogger(StatisticsCaseCountService.class);
+
+	private static final int REBUILD_BATCH_SIZE = 10000;
+
+	public StatisticsCaseCountService() {
+		super(StatisticsCaseCount.class);
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	public Predicate createUserFilter(CriteriaBuilder cb, CriteriaQuery cq, From<StatisticsCaseCount, StatisticsCaseCount> from, User user) {
+		// statistics are not restricted by user
+		return null;
+	}
+
+	/**
+	 * The counts only contain one of the dates of the cases, so queries can only be answered when they use at most
+	 * one date for filters and groupings. As the counts only know the day of this date, its range has to consist of
+	 * whole days. Age intervals have to end below or start at the {@link StatisticsCaseCount#MAX_CASE_AGE}.
+	 *
+	 * @return the date type of the counts that answer the query, null when the query has to count the cases
+	 */
+	public StatisticsCaseCountDateType getAnsweringDateType(StatisticsCaseCriteria criteria,
+			StatisticsCaseAttribute groupingA, StatisticsCaseAttribute groupingB) {
+
+		Set<StatisticsCaseCountDateType> dateTypes = EnumSet.noneOf(StatisticsCaseCountDateType.class);
+		if (isOnsetDateUsed(criteria) || groupingA == StatisticsCaseAttribute.ONSET_TIME
+				|| groupingB == StatisticsCaseAttribute.ONSET_TIME) {
+			dateTypes.add(StatisticsCaseCountDateType.ONSET);
+		}
+		if (isReceptionDateUsed(criteria) || groupingA == StatisticsCaseAttribute.RECEPTION_TIME
+				|| groupingB == StatisticsCaseAttribute.RECEPTION_TIME) {
+			dateTypes.add(StatisticsCaseCountDateType.RECEPTION);
+		}
+		if (isReportDateUsed(criteria) || groupingA == StatisticsCaseAttribute.REPORT_TIME
+				|| groupingB == StatisticsCaseAttribute.REPORT_TIME) {
+			dateTypes.add(StatisticsCaseCountDateType.REPORT);
+		}
+
+		if (dateTypes.size() > 1
+				|| !isWholeDays(criteria.getOnsetDateFrom(), criteria.getOnsetDateTo())
+				|| !isWholeDays(criteria.getReceptionDateFrom(), criteria.getReceptionDateTo())
+				|| !isWholeDays(criteria.getReportDateFrom(), criteria.getReportDateTo())
+				|| !isAnswerable(criteria.getAgeIntervals())) {
+			return null;
+		}
+		return dateTypes.isEmpty() ? StatisticsCaseCountDateType.REPORT : dateTypes.iterator().next();
+	}
+
+	private static boolean isOnsetDateUsed(StatisticsCaseCriteria criteria) {
+
+		return CollectionUtils.isNotEmpty(criteria.getOnsetYears()) || CollectionUtils.isNotEmpty(criteria.getOnsetQuarters())
+				|| CollectionUtils.isNotEmpty(criteria.getOnsetMonths()) || CollectionUtils.isNotEmpty(criteria.getOnsetEpiWeeks())
+				|| CollectionUtils.isNotEmpty(criteria.getOnsetQuartersOfYear())
+				|| CollectionUtils.isNotEmpty(criteria.getOnsetMonthsOfYear())
+				|| CollectionUtils.isNotEmpty(criteria.getOnsetEpiWeeksOfYear())
+				|| criteria.getOnsetDateFrom() != null || criteria.getOnsetDateTo() != null;
+	}
+
+	private static boolean isReceptionDateUsed(StatisticsCaseCriteria criteria) {
+
+		return CollectionUtils.isNotEmpty(criteria.getReceptionYears()) || CollectionUtils.isNotEmpty(criteria.getReceptionQuarters())
+				|| CollectionUtils.isNotEmpty(criteria.getReceptionMonths()) || CollectionUtils.isNotEmpty(criteria.getReceptionEpiWeeks())
+				|| CollectionUtils.isNotEmpty(criteria.getReceptionQuartersOfYear())
+				|| CollectionUtils.isNotEmpty(criteria.getReceptionMonthsOfYear())
+				|| CollectionUtils.isNotEmpty(criteria.getReceptionEpiWeeksOfYear())
+				|| criteria.getReceptionDateFrom() != null || criteria.getReceptionDateTo() != null;
+	}
+
+	private static boolean isReportDateUsed(StatisticsCaseCriteria criteria) {
+
+		return CollectionUtils.isNotEmpty(criteria.getReportYears()) || CollectionUtils.isNotEmpty(criteria.getReportQuarters())
+				|| CollectionUtils.isNotEmpty(criteria.getReportMonths()) || CollectionUtils.isNotEmpty(criteria.getReportEpiWeeks())
+				|| CollectionUtils.isNotEmpty(criteria.getReportQuartersOfYear())
+				|| CollectionUtils.isNotEmpty(criteria.getReportMonthsOfYear())
+				|| CollectionUtils.isNotEmpty(criteria.getReportEpiWeeksOfYear())
+				|| criteria.getReportDateFrom() != null || criteria.getReportDateTo() != null;
+	}
+
+	private static boolean isWholeDays(Date from, Date to) {
+
+		return (from == null || from.equals(DateHelper.getStartOfDay(from)))
+				&& (to == null || to.equals(DateHelper.getEndOfDay(to)));
+	}
+
+	private static boolean isAnswerable(List<IntegerRange> ageIntervals) {
+
+		if (ageIntervals == null) {
+			return true;
+		}
+		for (IntegerRange ageInterval : ageIntervals) {
+			if (ageInterval.getTo() != null ? ageInterval.getTo() >= StatisticsCaseCount.MAX_CASE_AGE
+					: ageInterval.getFrom() != null && ageInterval.getFrom() > StatisticsCaseCount.MAX_CASE_AGE) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the cells the case is counted in
+	 */
+	public Set<Cell> getCells(Case caze) {
+		return getCells(caze.getDisease(), caze.getDistrict(), caze.getSymptoms().getOnsetDate(),
+				caze.getReceptionDate(), caze.getReportDate());
+	}
+
+	/**
+	 * @return the cells a case is counted in when it has the given disease, district and dates, e.g. before it was changed
+	 */
+	public Set<Cell> getCells(Disease disease, District district, Date onsetDate, Date receptionDate, Date reportDate) {
+
+		Long districtId = district != null ? district.getId() : null;
+		Set<Cell> cells = new HashSet<>();
+		cells.add(new Cell(StatisticsCaseCountDateType.ONSET, startOfDay(onsetDate), disease, districtId));
+		cells.add(new Cell(StatisticsCaseCountDateType.RECEPTION, startOfDay(receptionDate), disease, districtId));
+		cells.add(new Cell(StatisticsCaseCountDateType.REPORT, startOfDay(reportDate), disease, districtId));
+		return cells;
+	}
+
+	/**
+	 * The sex of the person is not compared, it can't be changed by changing the case.
+	 *
+	 * @param existingCaseAge the case age is not part of the dto
+	 * @return true when the case has to be counted with other values than before, so its cells have to be recounted
+	 */
+	public boolean isCountChanged(CaseDataDto existingCase, Integer existingCaseAge, Case newCase) {
+
+		return existingCase == null
+				|| existingCase.getDisease() != newCase.getDisease()
+				|| !isSame(existingCase.getRegion(), newCase.getRegion())
+				|| !isSame(existingCase.getDistrict(), newCase.getDistrict())
+				|| !Objects.equals(startOfDay(existingCase.getSymptoms().getOnsetDate()), startOfDay(newCase.getSymptoms().getOnsetDate()))
+				|| !Objects.equals(startOfDay(existingCase.getReceptionDate()), startOfDay(newCase.getReceptionDate()))
+				|| !Objects.equals(startOfDay(existingCase.getReportDate()), startOfDay(newCase.getReportDate()))
+				|| !Objects.equals(capCaseAge(existingCaseAge), capCaseAge(newCase.getCaseAge()))
+				|| existingCase.getCaseClassification() != newCase.getCaseClassification()
+				|| existingCase.getOutcome() != newCase.getOutcome();
+	}
+
+	private static boolean isSame(ReferenceDto reference, AbstractDomainObject entity) {
+		return reference == null ? entity == null : entity != null && reference.getUuid().equals(entity.getUuid());
+	}
+
+	/**
+	 * Recounts the cases of the given cells
+	 */
+	public void refresh(Collection<Cell> cells) {
+
+		AggregateLocks.lockCells(em, AggregateLocks.STATISTICS_CASE_COUNT,
+				cells.stream().map(Cell::getLockKey).collect(Collectors.toList()));
+
+		for (Cell cell : cells) {
+			deleteCell(cell);
+			Map<Key, Long> counts = new HashMap<>();
+			addCounts(queryCaseRows(cell, null, 0), EnumSet.of(cell.dateType), counts);
+			persistCounts(counts);
+		}
+	}
+
+	/**
+	 * Recounts all cases. Used to initially fill the counts when the schema is updated.
+	 */
+	public void rebuild() {
+
+		long start = System.currentTimeMillis();
+
+		AggregateLocks.lockTable(em, AggregateLocks.STATISTICS_CASE_COUNT);
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaDelete<StatisticsCaseCount> cd = cb.createCriteriaDelete(getElementClass());
+		cd.from(getElementClass());
+		em.createQuery(cd).executeUpdate();
+
+		Map<Key, Long> counts = new HashMap<>();
+		long afterId = 0;
+		List<Object[]> rows;
+		do {
+			rows = queryCaseRows(null, afterId, REBUILD_BATCH_SIZE);
+			addCounts(rows, EnumSet.allOf(StatisticsCaseCountDateType.class), counts);
+			if (!rows.isEmpty()) {
+				afterId = (Long) rows.get(rows.size() - 1)[0];
+			}
+		} while (rows.size() == REBUILD_BATCH_SIZE);
+		persistCounts(counts);
+
+		logger.info("Rebuilt " + counts.size() + " statistics case counts in " + (System.currentTimeMillis() - start) + " ms");
+	}
+
+	private void deleteCell(Cell cell) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaDelete<StatisticsCaseCount> cd = cb.createCriteriaDelete(getElementClass());
+		Root<StatisticsCaseCount> root = cd.from(getElementClass());
+		cd.where(cb.equal(root.get(StatisticsCaseCount.DATE_TYPE), cell.dateType),
+				equalOrNull(cb, root.get(StatisticsCaseCount.DAY), cell.day),
+				equalOrNull(cb, root.get(StatisticsCaseCount.DISEASE), cell.disease),
+				equalOrNull(cb, root.get(StatisticsCaseCount.DISTRICT).get(District.ID), cell.districtId));
+		em.createQuery(cd).executeUpdate();
+	}
+
+	private void persistCounts(Map<Key, Long> counts) {
+
+		for (Entry<Key, Long> entry : counts.entrySet()) {
+			Key key = entry.getKey();
+			StatisticsCaseCount count = new StatisticsCaseCount();
+			count.setDateType(key.dateType);
+			count.setDay(key.day);
+			count.setRegion(key.regionId != null ? em.getReference(Region.class, key.regionId) : null);
+			count.setDistrict(key.districtId != null ? em.getReference(District.class, key.districtId) : null);
+			count.setSex(key.sex);
+			count.setCaseAge(key.caseAge);
+			count.setDisease(key.disease);
+			count.setCaseClassification(key.caseClassification);
+			count.setOutcome(key.outcome);
+			count.setCaseCount(entry.getValue());
+			em.persist(count);
+		}
+	}
+
+	/**
+	 * @return id, onset date, reception date, report date, region id, district id, sex, case age, disease,
+	 *         case classification and outcome of the cases, ordered by id
+	 */
+	private List<Object[]> queryCaseRows(Cell cell, Long afterId, int maxResults) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Case> caze = cq.from(Case.class);
+		Join<Case, Symptoms> symptoms = caze.join(Case.SYMPTOMS, JoinType.LEFT);
+		Join<Case, Person> person = caze.join(Case.PERSON, JoinType.LEFT);
+		Join<Case, Region> region = caze.join(Case.REGION, JoinType.LEFT);
+		Join<Case, District> district = caze.join(Case.DISTRICT, JoinType.LEFT);
+
+		Predicate filter = null;
+		if (cell != null) {
+			filter = and(cb, filter, equalOrNull(cb, caze.get(Case.DISEASE), cell.disease));
+			filter = and(cb, filter, equalOrNull(cb, district.get(District.ID), cell.districtId));
+			switch (cell.dateType) {
+			case ONSET:
+				filter = and(cb, filter, onDay(cb, symptoms.<Date>get(Symptoms.ONSET_DATE), cell.day));
+				break;
+			case RECEPTION:
+				filter = and(cb, filter, onDay(cb, caze.<Date>get(Case.RECEPTION_DATE), cell.day));
+				break;
+			case REPORT:
+				filter = and(cb, filter, onDay(cb, caze.<Date>get(Case.REPORT_DATE), cell.day));
+				break;
+			default:
+				throw new IllegalArgumentException(cell.dateType.toString());
+			}
+		}
+		if (afterId != null) {
+			filter = and(cb, filter, cb.greaterThan(caze.<Long>get(Case.ID), afterId));
+		}
+		if (filter != null) {
+			cq.where(filter);
+		}
+		cq.multiselect(caze.get(Case.ID), symptoms.get(Symptoms.ONSET_DATE), caze.get(Case.RECEPTION_DATE),
+				caze.get(Case.REPORT_DATE), region.get(Region.ID), district.get(District.ID), person.get(Person.SEX),
+				caze.get(Case.CASE_AGE), caze.get(Case.DISEASE), caze.get(Case.CASE_CLASSIFICATION), caze.get(Case.OUTCOME));
+		cq.orderBy(cb.asc(caze.get(Case.ID)));
+
+		TypedQuery<Object[]> query = em.createQuery(cq);
+		if (maxResults > 0) {
+			query.setMaxResults(maxResults);
+		}
+		return query.getResultList();
+	}
+
+	private static void addCounts(List<Object[]> rows, Set<StatisticsCaseCountDateType> dateTypes, Map<Key, Long> counts) {
+
+		for (Object[] row : rows) {
+			for (StatisticsCaseCountDateType dateType : dateTypes) {
+				// the dates are selected in the order of the date types
+				Date date = (Date) row[1 + dateType.ordinal()];
+				Key key = new Key(dateType, startOfDay(date), (Long) row[4], (Long) row[5], (Sex) row[6],
+						capCaseAge((Integer) row[7]), (Disease) row[8], (CaseClassification) row[9], (CaseOutcome) row[10]);
+				counts.merge(key, 1L, Long::sum);
+			}
+		}
+	}
+
+	private static Predicate onDay(CriteriaBuilder cb, Path<Date> path, Date day) {
+		return day != null ? cb.between(path, day, DateHelper.getEndOfDay(day)) : cb.isNull(path);
+	}
+
+	private static <T> Predicate equalOrNull(CriteriaBuilder cb, Expression<T> path, T value) {
+		return value != null ? cb.equal(path, value) : cb.isNull(path);
+	}
+
+	private static Date startOfDay(Date date) {
+		return date != null ? DateHelper.getStartOfDay(date) : null;
+	}
+
+	private static Integer capCaseAge(Integer caseAge) {
+		return caseAge != null ? Math.min(caseAge, StatisticsCaseCount.MAX_CASE_AGE) : null;
+	}
+
+	/**
+	 * Cases of one disease and district with the same date of one type on the same day - the unit in which
+	 * the counts are refreshed
+	 */
+	public static final class Cell {
+
+		private final StatisticsCaseCountDateType dateType;
+		private final Date day;
+		private final Disease disease;
+		private final Long districtId;
+
+		private Cell(StatisticsCaseCountDateType dateType, Date day, Disease disease, Long districtId) {
+			this.dateType = dateType;
+			this.day = day;
+			this.disease = disease;
+			this.districtId = districtId;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Cell)) {
+				return false;
+			}
+			Cell other = (Cell) o;
+			return dateType == other.dateType && Objects.equals(day, other.day) && disease == other.disease
+					&& Objects.equals(districtId, other.districtId);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(dateType, day, disease, districtId);
+		}
+
+		/**
+		 * Like {@link #hashCode()}, but based on the names of the enums, so all servers use the same key
+		 */
+		private int getLockKey() {
+			return Objects.hash(dateType.name(), day != null ? day.getTime() : null, disease != null ? disease.name() : null, districtId);
+		}
+	}
+
+	/**
+	 * Values of all dimensions of one {@link StatisticsCaseCount}
+	 */
+	private static final class Key {
+
+		private final StatisticsCaseCountDateType dateType;
+		private final Date day;
+		private final Long regionId;
+		private final Long districtId;
+		private final Sex sex;
+		private final Integer caseAge;
+		private final Disease disease;
+		private final CaseClassification caseClassification;
+		private final CaseOutcome outcome;
+
+		private Key(StatisticsCaseCountDateType dateType, Date day, Long regionId, Long districtId, Sex sex,
+				Integer caseAge, Disease disease, CaseClassification caseClassification, CaseOutcome outcome) {
+			this.dateType = dateType;
+			this.day = day;
+			this.regionId = regionId;
+			this.districtId = districtId;
+			this.sex = sex;
+			this.caseAge = caseAge;
+			this.disease = disease;
+			this.caseClassification = caseClassification;
+			this.outcome = outcome;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return dateType == other.dateType && Objects.equals(day, other.day)
+					&& Objects.equals(regionId, other.regionId) && Objects.equals(districtId, other.districtId)
+					&& sex == other.sex && Objects.equals(caseAge, other.caseAge) && disease == other.disease
+					&& caseClassification == other.caseClassification && outcome == other.outcome;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(dateType, day, regionId, districtId, sex, caseAge, disease, caseClassification, outcome);
+		}
+	}
+}
@@ -18,6 +18,7 @@
 package de.symeda.sormas.backend.task;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
@@ -29,10 +30,13 @@ import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Order;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
@@ -49,11 +53,13 @@ import de.symeda.sormas.api.task.TaskCriteria;
 import de.symeda.sormas.api.task.TaskDto;
 import de.symeda.sormas.api.task.TaskFacade;
 import de.symeda.sormas.api.task.TaskIndexDto;
+import de.symeda.sormas.api.task.TaskPriority;
 import de.symeda.sormas.api.task.TaskStatus;
 import de.symeda.sormas.api.task.TaskType;
 import de.symeda.sormas.api.user.UserReferenceDto;
 import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.api.utils.DataHelper;
+import de.symeda.sormas.api.utils.SortProperty;
 import de.symeda.sormas.backend.caze.Case;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb.CaseFacadeEjbLocal;
@@ -63,7 +69,6 @@ import de.symeda.sormas.backend.common.AbstractDomainObject;
 import de.symeda.sormas.backend.common.CronService;
 import de.symeda.sormas.backend.common.MessageType;
 import de.symeda.sormas.backend.common.MessagingService;
-import de.symeda.sormas.backend.common.NotificationDeliveryFailedException;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactFacadeEjb;
 import de.symeda.sormas.backend.contact.ContactService;
@@ -224,14 +229,9 @@ public class TaskFacadeEjb implements TaskFacade {
 			List<User> messageRecipients = userService.getAllByRegionAndUserRoles(ado.getContact().getCaze().getRegion(), 
 					UserRole.SURVEILLANCE_SUPERVISOR, UserRole.CASE_SUPERVISOR, UserRole.CONTACT_SUPERVISOR);
 			for (User recipient : messageRecipients) {
-				try {
-					messagingService.sendMessage(recipient, I18nProperties.getString(MessagingService.SUBJECT_VISIT_COMPLETED), 
-							String.format(I18nProperties.getString(MessagingService.CONTENT_VISIT_COMPLETED), DataHelper.getShortUuid(ado.getContact().getUuid()), DataHelper.getShortUuid(ado.getAssigneeUser().getUuid())), 
-							MessageType.EMAIL, MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(String.format("NotificationDeliveryFailedException when trying to notify supervisors about the completion of a follow-up visit. "
-							+ "Failed to send " + e.getMessageType() + " to user with UUID %s.", recipient.getUuid()));
-				}
+				messagingService.sendMessage(recipient, I18nProperties.getString(MessagingService.SUBJECT_VISIT_COMPLETED), 
+						String.format(I18nProperties.getString(MessagingService.CONTENT_VISIT_COMPLETED), DataHelper.getShortUuid(ado.getContact().getUuid()), DataHelper.getShortUuid(ado.getAssigneeUser().getUuid())), 
+						MessageType.EMAIL, MessageType.SMS);
 			}
 		}
 
@@ -264,6 +264,11 @@ public class TaskFacadeEjb implements TaskFacade {
 
 	@Override
 	public List<TaskIndexDto> getIndexList(String userUuid, TaskCriteria taskCriteria) {
+		return getIndexList(userUuid, taskCriteria, null, null, null);
+	}
+
+	@Override
+	public List<TaskIndexDto> getIndexList(String userUuid, TaskCriteria taskCriteria, Integer first, Integer max, List<SortProperty> sortProperties) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<TaskIndexDto> cq = cb.createQuery(TaskIndexDto.class);
@@ -288,6 +293,85 @@ public class TaskFacadeEjb implements TaskFacade {
 				assignee.get(User.UUID), assignee.get(User.FIRST_NAME), assignee.get(User.LAST_NAME), task.get(Task.ASSIGNEE_REPLY)
 				);
 
+		Predicate filter = createIndexListFilter(userUuid, taskCriteria, cb, cq, task);
+		if (filter != null) {
+			cq.where(filter);
+		}
+
+		List<Order> order = new ArrayList<>();
+		if (sortProperties != null) {
+			for (SortProperty sortProperty : sortProperties) {
+				List<Expression<?>> expressions = new ArrayList<>();
+				switch (sortProperty.getPropertyName()) {
+				case TaskIndexDto.UUID:
+				case TaskIndexDto.ASSIGNEE_REPLY:
+				case TaskIndexDto.CREATOR_COMMENT:
+				case TaskIndexDto.PRIORITY:
+				case TaskIndexDto.DUE_DATE:
+				case TaskIndexDto.SUGGESTED_START:
+				case TaskIndexDto.TASK_CONTEXT:
+				case TaskIndexDto.TASK_STATUS:
+				case TaskIndexDto.TASK_TYPE:
+					expressions.add(task.get(sortProperty.getPropertyName()));
+					break;
+				case TaskIndexDto.ASSIGNEE_USER:
+					expressions.add(assignee.get(User.FIRST_NAME));
+					expressions.add(assignee.get(User.LAST_NAME));
+					break;
+				case TaskIndexDto.CREATOR_USER:
+					expressions.add(creator.get(User.FIRST_NAME));
+					expressions.add(creator.get(User.LAST_NAME));
+					break;
+				default:
+					throw new IllegalArgumentException(sortProperty.getPropertyName());
+				}
+				for (Expression<?> expression : expressions) {
+					order.add(sortProperty.isAscending() ? cb.asc(expression) : cb.desc(expression));
+				}
+			}
+		}
+		if (order.isEmpty()) {
+			// pending tasks first, by priority and with the next due date on top; all others with the last due date on top
+			Predicate pending = cb.equal(task.get(Task.TASK_STATUS), TaskStatus.PENDING);
+			order.add(cb.asc(cb.<Integer>selectCase().when(pending, 0).otherwise(1)));
+			order.add(cb.asc(cb.<Integer>selectCase()
+					.when(cb.not(pending), 0)
+					.when(cb.equal(task.get(Task.PRIORITY), TaskPriority.HIGH), 1)
+					.when(cb.equal(task.get(Task.PRIORITY), TaskPriority.NORMAL), 2)
+					.otherwise(3)));
+			order.add(cb.asc(cb.<Date>selectCase().when(pending, task.<Date>get(Task.DUE_DATE)).otherwise(new Date(0))));
+			order.add(cb.desc(task.get(Task.DUE_DATE)));
+		}
+		// unique order, so the pages don't overlap
+		order.add(cb.desc(task.get(Task.ID)));
+		cq.orderBy(order);
+
+		TypedQuery<TaskIndexDto> query = em.createQuery(cq);
+		if (first != null) {
+			query.setFirstResult(first);
+		}
+		if (max != null) {
+			query.setMaxResults(max);
+		}
+		return query.getResultList();
+	}
+
+	@Override
+	public long count(String userUuid, TaskCriteria taskCriteria) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		Root<Task> task = cq.from(Task.class);
+
+		Predicate filter = createIndexListFilter(userUuid, taskCriteria, cb, cq, task);
+		if (filter != null) {
+			cq.where(filter);
+		}
+
+		cq.select(cb.count(task));
+		return em.createQuery(cq).getSingleResult();
+	}
+
+	private Predicate createIndexListFilter(String userUuid, TaskCriteria taskCriteria, CriteriaBuilder cb, CriteriaQuery<?> cq, Root<Task> task) {
 		Predicate filter = null;
 		if (userUuid != null 
 				&& (taskCriteria == null || !taskCriteria.hasContextCriteria())) {
@@ -299,13 +383,7 @@ public class TaskFacadeEjb implements TaskFacade {
 			Predicate criteriaFilter = taskService.buildCriteriaFilter(taskCriteria, cb, task);
 			filter = AbstractAdoService.and(cb, filter, criteriaFilter);
 		}
-
-		if (filter != null) {
-			cq.where(filter);
-		}
-
-		List<TaskIndexDto> resultList = em.createQuery(cq).getResultList();
-		return resultList;
+		return filter;
 	}
 
 	@Override
@@ -460,18 +538,13 @@ public class TaskFacadeEjb implements TaskFacade {
 					context == TaskContext.CONTACT ? task.getContact() : 
 					context == TaskContext.EVENT ? task.getEvent() : null;
 			if (task.getAssigneeUser() != null && task.getAssigneeUser().isSupervisor() || task.getAssigneeUser().getUserRoles().contains(UserRole.NATIONAL_USER)) {
-				try {
-					String subject = I18nProperties.getString(MessagingService.SUBJECT_TASK_START);
-					String content = context == TaskContext.GENERAL ? 
-								String.format(I18nProperties.getString(MessagingService.CONTENT_TASK_START_GENERAL), task.getTaskType().toString()) :
-								String.format(I18nProperties.getString(MessagingService.CONTENT_TASK_START_SPECIFIC), task.getTaskType().toString(), 
-								context.toString() + " " + DataHelper.getShortUuid(associatedEntity.getUuid()));
-
-					messagingService.sendMessage(userService.getByUuid(task.getAssigneeUser().getUuid()), subject, content, MessageType.EMAIL, MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(String.format("EmailDeliveryFailedException when trying to notify a user about a starting task. "
-							+ "Failed to send " + e.getMessageType() + " to user with UUID %s.", task.getAssigneeUser().getUuid()));
-				}
+				String subject = I18nProperties.getString(MessagingService.SUBJECT_TASK_START);
+				String content = context == TaskContext.GENERAL ? 
+							String.format(I18nProperties.getString(MessagingService.CONTENT_TASK_START_GENERAL), task.getTaskType().toString()) :
+							String.format(I18nProperties.getString(MessagingService.CONTENT_TASK_START_SPECIFIC), task.getTaskType().toString(), 
+							context.toString() + " " + DataHelper.getShortUuid(associatedEntity.getUuid()));
+
+				messagingService.sendMessage(task.getAssigneeUser(), subject, content, MessageType.EMAIL, MessageType.SMS);
 			}
 		}
 
@@ -482,18 +555,13 @@ public class TaskFacadeEjb implements TaskFacade {
 					context == TaskContext.CONTACT ? task.getContact() : 
 					context == TaskContext.EVENT ? task.getEvent() : null;
 			if (task.getAssigneeUser() != null && task.getAssigneeUser().isSupervisor() || task.getAssigneeUser().getUserRoles().contains(UserRole.NATIONAL_USER)) {
-				try {
-					String subject = I18nProperties.getString(MessagingService.SUBJECT_TASK_DUE);
-					String content = context == TaskContext.GENERAL ? 
-								String.format(I18nProperties.getString(MessagingService.CONTENT_TASK_DUE_GENERAL), task.getTaskType().toString()) :
-								String.format(I18nProperties.getString(MessagingService.CONTENT_TASK_DUE_SPECIFIC), task.getTaskType().toString(), 
-								context.toString() + " " + DataHelper.getShortUuid(associatedEntity.getUuid()));
-
-					messagingService.sendMessage(userService.getByUuid(task.getAssigneeUser().getUuid()), subject, content, MessageType.EMAIL, MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-						logger.error(String.format("EmailDeliveryFailedException when trying to notify a user about a due task. "
-							+ "Failed to send " + e.getMessageType() + " to user with UUID %s.", task.getAssigneeUser().getUuid()));
-				}
+				String subject = I18nProperties.getString(MessagingService.SUBJECT_TASK_DUE);
+				String content = context == TaskContext.GENERAL ? 
+							String.format(I18nProperties.getString(MessagingService.CONTENT_TASK_DUE_GENERAL), task.getTaskType().toString()) :
+							String.format(I18nProperties.getString(MessagingService.CONTENT_TASK_DUE_SPECIFIC), task.getTaskType().toString(), 
+							context.toString() + " " + DataHelper.getShortUuid(associatedEntity.getUuid()));
+
+				messagingService.sendMessage(task.getAssigneeUser(), subject, content, MessageType.EMAIL, MessageType.SMS);
 			}
 		}
 	}
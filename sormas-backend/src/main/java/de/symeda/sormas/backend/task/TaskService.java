@@ -18,11 +18,17 @@
 package de.symeda.sormas.backend.task;
 
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.From;
@@ -30,11 +36,13 @@ import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
 
 import de.symeda.sormas.api.task.TaskContext;
 import de.symeda.sormas.api.task.TaskCriteria;
 import de.symeda.sormas.api.task.TaskPriority;
 import de.symeda.sormas.api.task.TaskStatus;
+import de.symeda.sormas.api.task.TaskType;
 import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.backend.caze.Case;
 import de.symeda.sormas.backend.caze.CaseService;
@@ -134,6 +142,21 @@ public class TaskService extends AbstractAdoService<Task> {
 		return filter;
 	}
 
+	/**
+	 * Counts the pending tasks of the case, contact or event selected by the outer query.
+	 * Used as a column of index lists, so the count doesn't have to be queried for each row.
+	 * 
+	 * @param taskProperty {@link Task#CAZE}, {@link Task#CONTACT} or {@link Task#EVENT}
+	 */
+	public Subquery<Long> createPendingTaskCountSubquery(CriteriaBuilder cb, CriteriaQuery<?> cq, From<?, ?> taskOwner, String taskProperty) {
+		Subquery<Long> pendingTasks = cq.subquery(Long.class);
+		Root<Task> task = pendingTasks.from(Task.class);
+		pendingTasks.select(cb.count(task));
+		pendingTasks.where(cb.equal(task.get(taskProperty), taskOwner),
+				cb.equal(task.get(Task.TASK_STATUS), TaskStatus.PENDING));
+		return pendingTasks;
+	}
+
 	public long getCount(TaskCriteria taskCriteria) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
@@ -259,6 +282,50 @@ public class TaskService extends AbstractAdoService<Task> {
 		return filter;
 	}
 
+	/**
+	 * @return ids of the users that have a pending follow-up task, by contact id. Only contacts that are
+	 *         followed up between the given dates are considered.
+	 */
+	public Map<Long, Set<Long>> getPendingContactFollowUpAssigneeIds(Date fromDate, Date toDate) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Task> from = cq.from(getElementClass());
+		Join<Task, Contact> contact = from.join(Task.CONTACT);
+		Join<Task, User> assignee = from.join(Task.ASSIGNEE_USER);
+
+		cq.multiselect(contact.get(Contact.ID), assignee.get(User.ID));
+		cq.where(
+				cb.equal(from.get(Task.TASK_TYPE), TaskType.CONTACT_FOLLOW_UP),
+				cb.equal(from.get(Task.TASK_STATUS), TaskStatus.PENDING),
+				contactService.createFollowUpBetweenFilter(cb, contact, fromDate, toDate));
+
+		Map<Long, Set<Long>> assigneeIds = new HashMap<>();
+		for (Object[] result : em.createQuery(cq).getResultList()) {
+			assigneeIds.computeIfAbsent((Long) result[0], k -> new HashSet<>()).add((Long) result[1]);
+		}
+		return assigneeIds;
+	}
+
+	/**
+	 * Creates a follow-up task for each of the contacts, assigned to the user of the given id.
+	 * Runs in a transaction of its own and is flushed once, so callers can insert large numbers of tasks in batches.
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public void createContactFollowUpTasks(Map<Long, Long> assigneeIdsByContactId, Date suggestedStart, Date dueDate) {
+
+		for (Map.Entry<Long, Long> contactAssignee : assigneeIdsByContactId.entrySet()) {
+			Task task = buildTask(null);
+			task.setTaskContext(TaskContext.CONTACT);
+			task.setContact(em.getReference(Contact.class, contactAssignee.getKey()));
+			task.setTaskType(TaskType.CONTACT_FOLLOW_UP);
+			task.setSuggestedStart(suggestedStart);
+			task.setDueDate(dueDate);
+			task.setAssigneeUser(em.getReference(User.class, contactAssignee.getValue()));
+			em.persist(task);
+		}
+		em.flush();
+	}
+
 	public Task buildTask(User creatorUser) {
 		Task task = new Task();
 		task.setCreatorUser(creatorUser);
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.user;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * The case jurisdiction of a user resolved to ids: the regions, districts, facilities and communities
+ * whose cases the user can access based on the user roles, plus the cases granted through contacts
+ * and (for lab users) samples.
+ *
+ * Only the user and its contacts and samples are resolved. The case attributes (reporting user, officers,
+ * region, district, facility, community) are still compared by the query, so case changes need no invalidation.
+ *
+ * Immutable. Built by the CaseService and kept in the {@link UserAccessScopeCache}.
+ */
+public class UserAccessScope {
+
+	private final Long userId;
+	private final Date userChangeDate;
+
+	private final Set<Long> regionIds;
+	private final Set<Long> districtIds;
+	private final Set<Long> facilityIds;
+	private final Set<Long> communityIds;
+
+	private final boolean ownCases;
+	private final boolean labUser;
+	private final Long laboratoryId;
+	private final Set<Long> contactCaseIds;
+	private final Set<Long> sampleCaseIds;
+
+	public UserAccessScope(Long userId, Date userChangeDate, Set<Long> regionIds, Set<Long> districtIds,
+			Set<Long> facilityIds, Set<Long> communityIds, boolean ownCases, boolean labUser, Long laboratoryId,
+			Set<Long> contactCaseIds, Set<Long> sampleCaseIds) {
+		this.userId = userId;
+		this.userChangeDate = userChangeDate;
+		this.regionIds = Collections.unmodifiableSet(regionIds);
+		this.districtIds = Collections.unmodifiableSet(districtIds);
+		this.facilityIds = Collections.unmodifiableSet(facilityIds);
+		this.communityIds = Collections.unmodifiableSet(communityIds);
+		this.ownCases = ownCases;
+		this.labUser = labUser;
+		this.laboratoryId = laboratoryId;
+		this.contactCaseIds = contactCaseIds != null ? Collections.unmodifiableSet(contactCaseIds) : null;
+		this.sampleCaseIds = sampleCaseIds != null ? Collections.unmodifiableSet(sampleCaseIds) : null;
+	}
+
+	/**
+	 * @return true when the user has been changed after the scope was built
+	 */
+	public boolean isOutdated(User user) {
+		return user.getChangeDate() != null
+				&& (userChangeDate == null || user.getChangeDate().getTime() != userChangeDate.getTime());
+	}
+
+	public Long getUserId() {
+		return userId;
+	}
+
+	public Set<Long> getRegionIds() {
+		return regionIds;
+	}
+
+	public Set<Long> getDistrictIds() {
+		return districtIds;
+	}
+
+	public Set<Long> getFacilityIds() {
+		return facilityIds;
+	}
+
+	public Set<Long> getCommunityIds() {
+		return communityIds;
+	}
+
+	/**
+	 * @return true when the user has access to the cases the user created or is assigned to
+	 */
+	public boolean isOwnCases() {
+		return ownCases;
+	}
+
+	public boolean isLabUser() {
+		return labUser;
+	}
+
+	/**
+	 * @return the laboratory of a lab user, null for lab users without laboratory and all other users
+	 */
+	public Long getLaboratoryId() {
+		return laboratoryId;
+	}
+
+	/**
+	 * @return ids of the cases of the contacts the user created or is assigned to;
+	 * null when there are too many to be listed
+	 */
+	public Set<Long> getContactCaseIds() {
+		return contactCaseIds;
+	}
+
+	/**
+	 * @return ids of the cases with samples in the user's laboratory, or with any sample for lab users
+	 * without laboratory (lab users only); null when there are too many to be listed
+	 */
+	public Set<Long> getSampleCaseIds() {
+		return sampleCaseIds;
+	}
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.user;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Singleton;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import de.symeda.sormas.backend.facility.Facility;
+
+/**
+ * Keeps the {@link UserAccessScope} of each user, so it doesn't have to be resolved for every query.
+ *
+ * Scopes are rebuilt when the user has been changed. Contact and sample changes that affect
+ * the granted cases have to be reported using {@link #invalidate(User)} and {@link #invalidateLaboratory(Facility)}.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class UserAccessScopeCache {
+
+	private final Map<Long, UserAccessScope> scopes = new ConcurrentHashMap<>();
+
+	@Resource
+	private TransactionSynchronizationRegistry transactionRegistry;
+
+	public UserAccessScope get(User user, Function<User, UserAccessScope> scopeBuilder) {
+
+		UserAccessScope scope = scopes.get(user.getId());
+		if (scope == null || scope.isOutdated(user)) {
+			scope = scopeBuilder.apply(user);
+			scopes.put(user.getId(), scope);
+		}
+		return scope;
+	}
+
+	public void invalidate(User user) {
+
+		if (user == null || user.getId() == null) {
+			return;
+		}
+		Long userId = user.getId();
+		removeNowAndAfterTransaction(() -> scopes.remove(userId));
+	}
+
+	/**
+	 * Invalidates the scopes of all lab users of the laboratory and of the lab users without laboratory
+	 * @param laboratory the laboratory of the changed sample, nullable
+	 */
+	public void invalidateLaboratory(Facility laboratory) {
+
+		Long laboratoryId = laboratory != null ? laboratory.getId() : null;
+		removeNowAndAfterTransaction(() -> scopes.values().removeIf(s -> s.isLabUser()
+				&& (s.getLaboratoryId() == null || s.getLaboratoryId().equals(laboratoryId))));
+	}
+
+	/**
+	 * Removing again after the transaction makes sure that a scope that was built concurrently
+	 * from the not yet committed state is not kept.
+	 */
+	private void removeNowAndAfterTransaction(Runnable remove) {
+
+		remove.run();
+
+		if (transactionRegistry != null && transactionRegistry.getTransactionKey() != null) {
+			transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+
+				@Override
+				public void beforeCompletion() {
+				}
+
+				@Override
+				public void afterCompletion(int status) {
+					remove.run();
+				}
+			});
+		}
+	}
+}
@@ -36,6 +36,7 @@ import de.symeda.sormas.api.user.UserReferenceDto;
 import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.api.user.UserRole.UserRoleValidationException;
 import de.symeda.sormas.backend.caze.CaseService;
+import de.symeda.sormas.backend.common.InfrastructureCache;
 import de.symeda.sormas.backend.contact.ContactService;
 import de.symeda.sormas.backend.event.EventService;
 import de.symeda.sormas.backend.facility.FacilityFacadeEjb;
@@ -58,6 +59,10 @@ public class UserFacadeEjb implements UserFacade {
 	@EJB
 	private UserService userService;
 	@EJB
+	private InfrastructureCache infrastructureCache;
+	@EJB
+	private UserAccessScopeCache userAccessScopeCache;
+	@EJB
 	private LocationFacadeEjbLocal locationFacade;
 	@EJB
 	private RegionService regionService;
@@ -147,7 +152,7 @@ public class UserFacadeEjb implements UserFacade {
 
 	@Override
 	public UserReferenceDto getByUserNameAsReference(String userName) {
-		return toReferenceDto(userService.getByUserName(userName));
+		return infrastructureCache.getUserReferenceByUserName(userName);
 	}
 
 	@Override
@@ -162,6 +167,9 @@ public class UserFacadeEjb implements UserFacade {
 		}
 
 		userService.ensurePersisted(user);
+		// changes of the roles alone don't update the user's change date
+		InfrastructureCache.invalidate(User.class);
+		userAccessScopeCache.invalidate(user);
 
 		return toDto(user);
 	}
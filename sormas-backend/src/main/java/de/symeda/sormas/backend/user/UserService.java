@@ -19,8 +19,11 @@ package de.symeda.sormas.backend.user;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import javax.annotation.Resource;
+import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.SessionContext;
 import javax.ejb.Stateless;
@@ -38,6 +41,8 @@ import de.symeda.sormas.api.facility.FacilityType;
 import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.backend.common.AbstractAdoService;
 import de.symeda.sormas.backend.common.AbstractDomainObject;
+import de.symeda.sormas.backend.common.InfrastructureCache;
+import de.symeda.sormas.backend.common.InfrastructureCache.Entry;
 import de.symeda.sormas.backend.facility.Facility;
 import de.symeda.sormas.backend.region.District;
 import de.symeda.sormas.backend.region.Region;
@@ -50,9 +55,18 @@ public class UserService extends AbstractAdoService<User> {
 	@Resource
 	private SessionContext sessionContext;
 	
+	@EJB
+	private InfrastructureCache infrastructureCache;
+
 	public UserService() {
 		super(User.class);
 	}
+
+	@Override
+	protected Long getCachedId(String uuid) {
+		Entry entry = infrastructureCache.getByUuid(User.class, uuid);
+		return entry != null ? entry.getId() : null;
+	}
 	
 	public User createUser() {
 		User user = new User();
@@ -256,4 +270,43 @@ public class UserService extends AbstractAdoService<User> {
 		cq.select(cb.count(from));
 		return em.createQuery(cq).getSingleResult();
 	}
+
+	/**
+	 * Same as {@link #countByRegion(Region, UserRole...)} for all regions at once.
+	 * 
+	 * @return number of users per region id, regions without users are missing
+	 */
+	public Map<Long, Long> countPerRegion(UserRole... userRoles) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<User> from = cq.from(getElementClass());
+		Join<User, Region> region = from.join(User.REGION);
+		Predicate filter = buildUserRolesFilter(from, userRoles);
+		if (filter != null) {
+			cq.where(filter);
+		}
+		cq.multiselect(region.get(AbstractDomainObject.ID), cb.count(from));
+		cq.groupBy(region.get(AbstractDomainObject.ID));
+		return em.createQuery(cq).getResultList().stream()
+				.collect(Collectors.toMap(row -> (Long) row[0], row -> (Long) row[1]));
+	}
+
+	/**
+	 * Same as {@link #countByAssignedOfficer(User, UserRole...)} for all officers of the region at once.
+	 * 
+	 * @return number of users per officer id, officers without users are missing
+	 */
+	public Map<Long, Long> countPerAssociatedOfficer(Region officerRegion, UserRole... userRoles) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<User> from = cq.from(getElementClass());
+		Join<User, User> officer = from.join(User.ASSOCIATED_OFFICER);
+		Predicate filter = cb.equal(officer.get(User.REGION), officerRegion);
+		filter = and(cb, filter, buildUserRolesFilter(from, userRoles));
+		cq.where(filter);
+		cq.multiselect(officer.get(AbstractDomainObject.ID), cb.count(from));
+		cq.groupBy(officer.get(AbstractDomainObject.ID));
+		return em.createQuery(cq).getResultList().stream()
+				.collect(Collectors.toMap(row -> (Long) row[0], row -> (Long) row[1]));
+	}
 }
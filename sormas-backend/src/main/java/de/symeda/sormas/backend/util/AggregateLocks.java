@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.util;
+
+import java.util.Collection;
+import java.util.TreeSet;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Transaction scoped PostgreSQL advisory locks for tables of pre-aggregated counts that are recounted
+ * in parts ("cells") whenever the counted entities change.
+ *
+ * A recount deletes the counts of a cell and inserts them again. Without a lock, two transactions
+ * recounting the same cell both insert their counts and the cell is counted twice. Locking the cell
+ * before it is recounted makes the second transaction wait until the first one is committed; its count
+ * query then sees the changes of the first one.
+ *
+ * The whole table is locked in shared mode by recounts of cells and exclusively by rebuilds.
+ * Lock keys of different cells may collide, which only makes the transactions wait for each other.
+ */
+public final class AggregateLocks {
+
+	public static final int DISEASE_DAILY_COUNT = 1;
+	public static final int STATISTICS_CASE_COUNT = 2;
+
+	private AggregateLocks() {
+	}
+
+	/**
+	 * Locks the cells, ordered by key to avoid deadlocks between transactions that recount the same cells.
+	 *
+	 * @param table one of the constants of this class
+	 * @param cellKeys stable hashes of the cells - must not depend on identity hash codes
+	 */
+	public static void lockCells(EntityManager em, int table, Collection<Integer> cellKeys) {
+
+		if (cellKeys.isEmpty()) {
+			return;
+		}
+		lock(em, "pg_advisory_xact_lock_shared", 0, table);
+		for (Integer cellKey : new TreeSet<>(cellKeys)) {
+			lock(em, "pg_advisory_xact_lock", table, cellKey);
+		}
+	}
+
+	/**
+	 * Waits for all running recounts of cells of the table and blocks new ones until the transaction ends
+	 */
+	public static void lockTable(EntityManager em, int table) {
+		lock(em, "pg_advisory_xact_lock", 0, table);
+	}
+
+	private static void lock(EntityManager em, String function, int key1, int key2) {
+
+		em.createNativeQuery("SELECT " + function + "(?1, ?2)")
+				.setParameter(1, key1)
+				.setParameter(2, key2)
+				.getResultList();
+	}
+}
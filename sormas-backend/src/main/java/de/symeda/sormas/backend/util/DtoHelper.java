@@ -17,7 +17,13 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.util;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+
 import de.symeda.sormas.api.EntityDto;
+import de.symeda.sormas.api.ReferenceDto;
 import de.symeda.sormas.api.utils.OutdatedEntityException;
 import de.symeda.sormas.backend.common.AbstractDomainObject;
 
@@ -40,5 +46,21 @@ public final class DtoHelper {
 		dto.setChangeDate(entity.getChangeDate());
 		dto.setUuid(entity.getUuid());
 	}
-	
+
+	/**
+	 * @return the uuids of all references returned by the getters for the given dtos, e.g. to preload the entities
+	 */
+	@SafeVarargs
+	public static <T> Set<String> collectReferenceUuids(Collection<T> dtos, Function<T, ? extends ReferenceDto>... referenceGetters) {
+		Set<String> uuids = new HashSet<>();
+		for (T dto : dtos) {
+			for (Function<T, ? extends ReferenceDto> referenceGetter : referenceGetters) {
+				ReferenceDto reference = referenceGetter.apply(dto);
+				if (reference != null) {
+					uuids.add(reference.getUuid());
+				}
+			}
+		}
+		return uuids;
+	}
 }
@@ -47,7 +47,6 @@ import de.symeda.sormas.api.visit.VisitStatus;
 import de.symeda.sormas.backend.caze.Case;
 import de.symeda.sormas.backend.common.MessageType;
 import de.symeda.sormas.backend.common.MessagingService;
-import de.symeda.sormas.backend.common.NotificationDeliveryFailedException;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactService;
 import de.symeda.sormas.backend.person.Person;
@@ -162,6 +161,8 @@ public class VisitFacadeEjb implements VisitFacade {
 
 		Visit visit = visitService.getByReferenceDto(visitRef);
 		visitService.delete(visit);
+
+		contactService.updateFollowUpUntilAndStatusByVisit(visit);
 	}
 
 	@Override
@@ -250,14 +251,9 @@ public class VisitFacadeEjb implements VisitFacade {
 				List<User> messageRecipients = userService.getAllByRegionAndUserRoles(contactCase.getRegion(), 
 						UserRole.SURVEILLANCE_SUPERVISOR, UserRole.CONTACT_SUPERVISOR);
 				for (User recipient : messageRecipients) {
-					try { 
-						messagingService.sendMessage(recipient, I18nProperties.getString(MessagingService.SUBJECT_CONTACT_SYMPTOMATIC), 
-								String.format(I18nProperties.getString(MessagingService.CONTENT_CONTACT_SYMPTOMATIC), DataHelper.getShortUuid(contact.getUuid()), DataHelper.getShortUuid(contactCase.getUuid())), 
-								MessageType.EMAIL, MessageType.SMS);
-					} catch (NotificationDeliveryFailedException e) {
-						logger.error(String.format("EmailDeliveryFailedException when trying to notify supervisors about a contact that has become symptomatic. "
-								+ "Failed to send " + e.getMessageType() + " to user with UUID %s.", recipient.getUuid()));
-					}
+					messagingService.sendMessage(recipient, I18nProperties.getString(MessagingService.SUBJECT_CONTACT_SYMPTOMATIC), 
+							String.format(I18nProperties.getString(MessagingService.CONTENT_CONTACT_SYMPTOMATIC), DataHelper.getShortUuid(contact.getUuid()), DataHelper.getShortUuid(contactCase.getUuid())), 
+							MessageType.EMAIL, MessageType.SMS);
 				}
 			}
 		}
@@ -204,6 +204,22 @@ public class VisitService extends AbstractAdoService<Visit> {
 		return result.size() > 0 ? result.get(0) : null;
 	}
 
+	/**
+	 * @return date time, status and symptomatic flag of all visits of the contact, the latest visit first
+	 */
+	public List<Object[]> getVisitSummariesByContact(Contact contact) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Visit> from = cq.from(getElementClass());
+		Join<Visit, Symptoms> symptoms = from.join(Visit.SYMPTOMS, JoinType.LEFT);
+
+		cq.where(buildVisitFilter(contact, null, cb, cq, from));
+		cq.multiselect(from.get(Visit.VISIT_DATE_TIME), from.get(Visit.VISIT_STATUS), symptoms.get(Symptoms.SYMPTOMATIC));
+		cq.orderBy(cb.desc(from.get(Visit.VISIT_DATE_TIME)));
+
+		return em.createQuery(cq).getResultList();
+	}
+
 	public Visit getLastVisitByContactId(long contactId, long contactPersonId, Date lastContactDate, Date contactReportDate, Date followUpUntil, Disease disease, VisitStatus visitStatus) {
 		try {
 			return (Visit) em.createNativeQuery("SELECT * FROM " + Visit.TABLE_NAME + " WHERE " 
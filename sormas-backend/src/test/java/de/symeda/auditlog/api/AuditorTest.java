@@ -73,14 +73,14 @@ public class AuditorTest {
 	public void shouldDetectChangedEntity() {
 		
 		Entity simpleEntity = new Entity("uuid-1", false, "someValue", 2);
+		Entity original = new Entity("uuid-1", false, "someValue", 2);
 
 		Auditor auditor = new Auditor();
-		auditor.register(simpleEntity);
 
 		simpleEntity.setString("otherValue");
 		simpleEntity.setInteger(3);
 
-		ChangeEvent changeEvent = auditor.detectChanges(simpleEntity);
+		ChangeEvent changeEvent = auditor.detectChanges(simpleEntity, original);
 		Map<String, String> changes = changeEvent.getNewValues();
 
 		assertThat(changeEvent.getChangeType(), is(ChangeType.UPDATE));
@@ -89,15 +89,30 @@ public class AuditorTest {
 		assertThat(changes.get(Entity.INTEGER), is("3"));
 	}
 
+	@Test
+	public void shouldLogAllAttributesWithoutOriginal() {
+
+		Entity simpleEntity = new Entity("uuid-1", false, "someValue", 2);
+
+		Auditor auditor = new Auditor();
+
+		ChangeEvent changeEvent = auditor.detectChanges(simpleEntity, null);
+		Map<String, String> changes = changeEvent.getNewValues();
+
+		assertThat(changeEvent.getChangeType(), is(ChangeType.UPDATE));
+		assertThat(changes.size(), is(3));
+		assertThat(changes.get(Entity.STRING), is("someValue"));
+	}
+
 	@Test
 	public void shouldBehaveNeutralWithNull() {
 
 		final Auditor auditor = new Auditor();
-		auditor.register(null);
 
 		Map<String, String> changes = auditor.detectChanges(null).getNewValues();
 
 		assertThat(changes.size(), is(0));
+		assertThat(auditor.detectChanges(null, null).getNewValues().size(), is(0));
 	}
 
 	@Test
@@ -230,6 +245,26 @@ public class AuditorTest {
 
 	}
 
+	@Test
+	public void shouldDetectCollectionChangedAfterDetection() {
+
+		Auditor auditor = new Auditor();
+
+		CollectionEntity ce = new CollectionEntity("uuid-1");
+		ce.getStrings().add("first");
+		auditor.detectChanges(ce, new CollectionEntity("uuid-1"));
+
+		// the state kept for the next detection within the transaction must not change with the collection
+		ce.getStrings().add("second");
+
+		ChangeEvent changeEvent = auditor.detectChanges(ce, new CollectionEntity("uuid-1"));
+		Map<String, String> changes = changeEvent.getNewValues();
+
+		assertThat(changeEvent.getChangeType(), is(ChangeType.UPDATE));
+		assertThat(changes.size(), is(1));
+		assertThat(changes.get(CollectionEntity.STRINGS), is("2 [first;second]"));
+	}
+
 	@Test
 	public void shouldProperlyLogEmbeddables() {
 
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.symeda.sormas.api.utils.DataHelper;
+
+/**
+ * Checks the triggers that maintain changedateaggregate (see sormas_schema.sql), which don't exist in the H2 database
+ * of the bean tests. Not run by the regular build, see {@link PostgresTestDatabase}.
+ */
+public class ChangeDateAggregateRegression {
+
+	private static Connection connection;
+
+	private Long locationId;
+	private Long personId;
+
+	@BeforeClass
+	public static void connect() throws SQLException {
+		connection = PostgresTestDatabase.connect();
+	}
+
+	@AfterClass
+	public static void disconnect() throws SQLException {
+		if (connection != null) {
+			connection.close();
+		}
+	}
+
+	@After
+	public void deleteTestData() throws SQLException {
+
+		if (personId != null) {
+			update("DELETE FROM person WHERE id = ?", personId);
+			update("DELETE FROM person_history WHERE id = ?", personId);
+		}
+		if (locationId != null) {
+			update("DELETE FROM location WHERE id = ?", locationId);
+			update("DELETE FROM location_history WHERE id = ?", locationId);
+		}
+	}
+
+	@Test
+	public void testEmbeddedChangeUpdatesAggregateWithoutHistory() throws SQLException {
+
+		// every statement is committed on its own, like the changes of separate transactions
+		locationId = nextId();
+		update("INSERT INTO location (id, uuid, creationdate, changedate) VALUES (?, ?, ?, ?)",
+				locationId, DataHelper.createUuid(), timestamp(1), timestamp(1));
+		personId = nextId();
+		update("INSERT INTO person (id, uuid, creationdate, changedate, firstname, lastname, address_id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+				personId, DataHelper.createUuid(), timestamp(1), timestamp(1), "First", "Last", locationId);
+		assertEquals(timestamp(1), queryAggregate());
+		long historyCount = queryPersonHistoryCount();
+
+		// the change of the address is propagated to the person without creating a new version of it
+		update("UPDATE location SET changedate = ?, city = ? WHERE id = ?", timestamp(2), "City", locationId);
+		assertEquals(timestamp(2), queryAggregate());
+		assertEquals(historyCount, queryPersonHistoryCount());
+
+		// changes of the person itself are still versioned
+		update("UPDATE person SET changedate = ?, firstname = ? WHERE id = ?", timestamp(3), "Changed", personId);
+		assertEquals(timestamp(3), queryAggregate());
+		assertEquals(historyCount + 1, queryPersonHistoryCount());
+	}
+
+	private static Timestamp timestamp(int day) {
+		return Timestamp.valueOf("2019-01-0" + day + " 00:00:00");
+	}
+
+	private Long nextId() throws SQLException {
+		return queryLong("SELECT nextval('entity_seq')");
+	}
+
+	private Timestamp queryAggregate() throws SQLException {
+
+		try (PreparedStatement statement = prepare("SELECT changedateaggregate FROM person WHERE id = ?", personId);
+				ResultSet resultSet = statement.executeQuery()) {
+			resultSet.next();
+			return resultSet.getTimestamp(1);
+		}
+	}
+
+	private long queryPersonHistoryCount() throws SQLException {
+		return queryLong("SELECT COUNT(*) FROM person_history WHERE id = ?", personId);
+	}
+
+	private static long queryLong(String sql, Object... parameters) throws SQLException {
+
+		try (PreparedStatement statement = prepare(sql, parameters);
+				ResultSet resultSet = statement.executeQuery()) {
+			resultSet.next();
+			return resultSet.getLong(1);
+		}
+	}
+
+	private static void update(String sql, Object... parameters) throws SQLException {
+
+		try (PreparedStatement statement = prepare(sql, parameters)) {
+			statement.executeUpdate();
+		}
+	}
+
+	private static PreparedStatement prepare(String sql, Object... parameters) throws SQLException {
+
+		PreparedStatement statement = connection.prepareStatement(sql);
+		for (int i = 0; i < parameters.length; i++) {
+			statement.setObject(i + 1, parameters[i]);
+		}
+		return statement;
+	}
+}
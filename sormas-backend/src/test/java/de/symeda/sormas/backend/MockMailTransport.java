@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.URLName;
+
+/**
+ * Mail transport used instead of SMTP in bean tests. Keeps the sent messages instead of delivering them.
+ */
+public class MockMailTransport extends Transport {
+
+	private static final List<Message> sentMessages = Collections.synchronizedList(new ArrayList<>());
+	private static final Set<String> failingRecipients = Collections.synchronizedSet(new HashSet<>());
+
+	public MockMailTransport(Session session, URLName urlname) {
+		super(session, urlname);
+	}
+
+	@Override
+	protected boolean protocolConnect(String host, int port, String user, String password) {
+		return true;
+	}
+
+	@Override
+	public void sendMessage(Message message, Address[] addresses) throws MessagingException {
+		for (Address address : addresses) {
+			if (failingRecipients.contains(address.toString())) {
+				throw new SendFailedException("Mocked delivery failure for " + address);
+			}
+		}
+		sentMessages.add(message);
+	}
+
+	public static List<Message> getSentMessages() {
+		return sentMessages;
+	}
+
+	/**
+	 * Messages to the address fail until {@link #reset()} is called
+	 */
+	public static void failFor(String address) {
+		failingRecipients.add(address);
+	}
+
+	public static void reset() {
+		sentMessages.clear();
+		failingRecipients.clear();
+	}
+}
@@ -31,7 +31,11 @@ import javax.ejb.TimerService;
 import javax.enterprise.inject.Produces;
 import javax.jms.ConnectionFactory;
 import javax.jms.Topic;
+import javax.mail.NoSuchProviderException;
+import javax.mail.Provider;
 import javax.mail.Session;
+import javax.persistence.EntityManager;
+import javax.transaction.TransactionSynchronizationRegistry;
 import javax.transaction.UserTransaction;
 
 import de.symeda.sormas.api.utils.InfoProvider;
@@ -39,7 +43,8 @@ import de.symeda.sormas.backend.common.ConfigFacadeEjb;
 
 /**
  * Creates mocks for resources needed in bean test / external services. <br />
- * Use {@link Mailbox#get (String)} to retrieve e-mails sent (receiver address passed).
+ * Use {@link MockMailTransport#getSentMessages()} to retrieve e-mails sent and {@link MockSmsService#getSentSms()}
+ * for SMS.
  * 
  * @author Stefan Kock
  */
@@ -52,8 +57,9 @@ public class MockProducer {
 	private static final TimerService timerService = mock(TimerService.class);
 	private static final Properties properties = new Properties();
 	private static final UserTransaction userTransaction = mock(UserTransaction.class);
+	private static final MockTransactionSynchronizationRegistry transactionSynchronizationRegistry = new MockTransactionSynchronizationRegistry();
 
-	// Receiving e-mail server is mocked: org. jvnet. mock_javamail. mailbox
+	// Sending e-mails is mocked: MockMailTransport
 	private static Session mailSession;
 	static {
 		properties.setProperty(ConfigFacadeEjb.COUNTRY_NAME,"nigeria");
@@ -69,6 +75,11 @@ public class MockProducer {
 
 		// Make sure that the default session does not use a local mail server (if mock-javamail is removed)
 		mailSession = Session.getInstance(properties);
+		try {
+			mailSession.setProvider(new Provider(Provider.Type.TRANSPORT, "smtp", MockMailTransport.class.getName(), "SORMAS", null));
+		} catch (NoSuchProviderException e) {
+			throw new RuntimeException(e);
+		}
 	}
 
 	static {
@@ -121,6 +132,12 @@ public class MockProducer {
 		return userTransaction;
 	}
 
+	@Produces
+	public static TransactionSynchronizationRegistry getTransactionSynchronizationRegistry(EntityManager em) {
+		transactionSynchronizationRegistry.setEntityManager(em);
+		return transactionSynchronizationRegistry;
+	}
+
 	@Produces
 	public static Principal getPrincipal() {
 		return principal;
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Priority;
+import javax.enterprise.inject.Alternative;
+import javax.interceptor.Interceptor;
+
+import de.symeda.sormas.backend.common.InvalidPhoneNumberException;
+import de.symeda.sormas.backend.common.SmsService;
+
+/**
+ * SMS service used instead of the SMS gateway in bean tests. Keeps the phone numbers of the sent SMS instead of delivering them.
+ */
+@Alternative
+@Priority(Interceptor.Priority.APPLICATION)
+public class MockSmsService extends SmsService {
+
+	private static final List<String> sentSms = Collections.synchronizedList(new ArrayList<>());
+	private static final Set<String> failingNumbers = Collections.synchronizedSet(new HashSet<>());
+	private static final Set<String> invalidNumbers = Collections.synchronizedSet(new HashSet<>());
+
+	@Override
+	public void sendSms(String phoneNumber, String subject, String content) throws IOException, InvalidPhoneNumberException {
+
+		if (invalidNumbers.contains(phoneNumber)) {
+			throw new InvalidPhoneNumberException("Mocked invalid phone number " + phoneNumber, null);
+		}
+		if (failingNumbers.contains(phoneNumber)) {
+			throw new IOException("Mocked delivery failure for " + phoneNumber);
+		}
+		sentSms.add(phoneNumber);
+	}
+
+	/**
+	 * @return the phone numbers of the sent SMS
+	 */
+	public static List<String> getSentSms() {
+		return sentSms;
+	}
+
+	/**
+	 * SMS to the number fail until {@link #reset()} is called
+	 */
+	public static void failFor(String phoneNumber) {
+		failingNumbers.add(phoneNumber);
+	}
+
+	/**
+	 * The number is rejected as invalid until {@link #reset()} is called
+	 */
+	public static void rejectAsInvalid(String phoneNumber) {
+		invalidNumbers.add(phoneNumber);
+	}
+
+	public static void reset() {
+		sentSms.clear();
+		failingNumbers.clear();
+		invalidNumbers.clear();
+	}
+}
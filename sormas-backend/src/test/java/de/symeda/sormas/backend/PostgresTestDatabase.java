@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import org.junit.Assume;
+
+/**
+ * Connects the checks that need the PostgreSQL specific parts of the schema (triggers, functions, indexes)
+ * to a database with the current sormas_schema.sql applied. The checks are skipped when no database is given.
+ *
+ * The checks end with "Regression" and are only run by the postgres-tests profile:
+ * <code>mvn test -Ppostgres-tests -Dpostgres.url=jdbc:postgresql://localhost/sormas_test -Dpostgres.user=sormas_user -Dpostgres.password=...</code>
+ */
+public final class PostgresTestDatabase {
+
+	private PostgresTestDatabase() {
+	}
+
+	public static Connection connect() throws SQLException {
+
+		String url = System.getProperty("postgres.url");
+		Assume.assumeNotNull(url);
+		return DriverManager.getConnection(url, System.getProperty("postgres.user"), System.getProperty("postgres.password"));
+	}
+}
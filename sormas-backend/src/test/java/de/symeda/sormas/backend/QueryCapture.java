@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+
+/**
+ * Records the SQL of the queries executed by EclipseLink between {@link #start()} and {@link #stop()}.
+ * Registered as session event listener of the bean test persistence unit.
+ */
+public class QueryCapture extends SessionEventAdapter {
+
+	private static volatile List<String> capturedStatements;
+
+	public static void start() {
+		capturedStatements = Collections.synchronizedList(new ArrayList<>());
+	}
+
+	/**
+	 * @return the distinct SQL statements in the order of their first execution
+	 */
+	public static Collection<String> stop() {
+
+		List<String> statements = capturedStatements;
+		capturedStatements = null;
+		if (statements == null) {
+			return Collections.emptySet();
+		}
+		synchronized (statements) {
+			return new LinkedHashSet<>(statements);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void postExecuteQuery(SessionEvent event) {
+
+		List<String> statements = capturedStatements;
+		DatabaseQuery query = event.getQuery();
+		if (statements == null || query == null || !query.isReadQuery()) {
+			return;
+		}
+
+		// queries that are prepared for each execution (e.g. with list parameters) don't keep their SQL
+		if (query.getSQLString() != null) {
+			statements.add(query.getSQLString());
+		} else if (query.getSQLStrings() != null) {
+			statements.addAll(query.getSQLStrings());
+		}
+	}
+}
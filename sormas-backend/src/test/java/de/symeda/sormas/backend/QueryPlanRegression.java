@@ -0,0 +1,312 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.statistics.StatisticsCaseAttribute;
+import de.symeda.sormas.api.statistics.StatisticsCaseCriteria;
+import de.symeda.sormas.api.user.UserDto;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.api.utils.EpiWeek;
+import de.symeda.sormas.backend.TestDataCreator.RDCF;
+
+/**
+ * Captures the SQL of the main facade queries while the facades run in the bean test container (see
+ * {@link QueryCapture}) and runs EXPLAIN for it against a PostgreSQL database with the current sormas_schema.sql
+ * applied. Fails when one of the queries needs a sequential scan of a large table.
+ *
+ * The database is seeded with {@value #SEED_CASE_COUNT} cases with their persons, contacts, visits, tasks and
+ * samples and analyzed, so the planner works with realistic statistics. The seeded data is rolled back afterwards.
+ *
+ * The captured SQL has parameters, so the generic plan is explained (needs PostgreSQL 16 or later). Without the
+ * parameter values the planner can't tell selective from broad conditions, which is why sequential scans are
+ * disabled for the session: they only show up when there is no usable index at all.
+ *
+ * Not run by the regular build, see {@link PostgresTestDatabase}.
+ */
+public class QueryPlanRegression extends AbstractBeanTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(QueryPlanRegression.class);
+
+	/**
+	 * Tables that grow with the number of cases. Sequential scans of the infrastructure and user tables are fine.
+	 */
+	private static final Set<String> LARGE_TABLES = new HashSet<>(Arrays.asList("cases", "person", "location", "symptoms",
+			"contact", "visit", "task", "samples", "sampletest", "events", "eventparticipant", "prescription",
+			"treatment", "clinicalvisit", "weeklyreport", "weeklyreportentry"));
+
+	private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+
+	private static final int SEED_CASE_COUNT = 20_000;
+	private static final int SEED_DISTRICT_COUNT = 50;
+	private static final int SEED_VISITS_PER_CONTACT = 3;
+
+	private static Connection connection;
+
+	@BeforeClass
+	public static void connect() throws SQLException {
+
+		connection = PostgresTestDatabase.connect();
+		connection.setAutoCommit(false);
+		seed();
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("ANALYZE");
+			statement.execute("SET enable_seqscan = off");
+		}
+	}
+
+	@AfterClass
+	public static void disconnect() throws SQLException {
+		if (connection != null) {
+			connection.rollback();
+			connection.close();
+		}
+	}
+
+	@Test
+	public void testNoSequentialScansOfLargeTables() throws SQLException {
+
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator.createUser(rdcf, UserRole.SURVEILLANCE_OFFICER);
+		CaseDataDto caze = creator.createCase(user.toReference(), creator.createPerson("Case", "Person").toReference(), rdcf);
+		creator.createContact(user.toReference(), user.toReference(), creator.createPerson("Contact", "Person").toReference(),
+				caze.toReference(), new Date(), new Date());
+		Date since = DateHelper.subtractDays(new Date(), 1);
+		String userUuid = user.getUuid();
+
+		Map<String, Collection<String>> queries = new LinkedHashMap<>();
+
+		// synchronization with the app
+		capture(queries, "CaseFacade.getAllActiveCasesAfter", () -> getCaseFacade().getAllActiveCasesAfter(since, userUuid));
+		capture(queries, "PersonFacade.getPersonsAfter", () -> getPersonFacade().getPersonsAfter(since, userUuid));
+		capture(queries, "EventFacade.getAllActiveEventsAfter", () -> getEventFacade().getAllActiveEventsAfter(since, userUuid));
+		capture(queries, "EventParticipantFacade.getAllActiveEventParticipantsAfter",
+				() -> getEventParticipantFacade().getAllActiveEventParticipantsAfter(since, userUuid));
+		capture(queries, "ContactFacade.getAllActiveContactsAfter", () -> getContactFacade().getAllActiveContactsAfter(since, userUuid));
+		capture(queries, "VisitFacade.getAllActiveVisitsAfter", () -> getVisitFacade().getAllActiveVisitsAfter(since, userUuid));
+		capture(queries, "TaskFacade.getAllActiveTasksAfter", () -> getTaskFacade().getAllActiveTasksAfter(since, userUuid));
+		capture(queries, "SampleFacade.getAllActiveSamplesAfter", () -> getSampleFacade().getAllActiveSamplesAfter(since, userUuid));
+		capture(queries, "SampleTestFacade.getAllActiveSampleTestsAfter",
+				() -> getSampleTestFacade().getAllActiveSampleTestsAfter(since, userUuid));
+		capture(queries, "WeeklyReportFacade.getAllWeeklyReportsAfter",
+				() -> getWeeklyReportFacade().getAllWeeklyReportsAfter(since, userUuid));
+
+		// lists and statistics
+		capture(queries, "CaseFacade.getIndexList", () -> getCaseFacade().getIndexList(userUuid, null, 0, 100, null));
+		capture(queries, "ContactFacade.getIndexList", () -> getContactFacade().getIndexList(userUuid, null, 0, 100, null));
+		capture(queries, "TaskFacade.getIndexList", () -> getTaskFacade().getIndexList(userUuid, null, 0, 100, null));
+		capture(queries, "SampleFacade.getIndexList", () -> getSampleFacade().getIndexList(userUuid, null, 0, 100, null));
+		capture(queries, "EventFacade.getIndexList", () -> getEventFacade().getIndexList(userUuid, null, 0, 100, null));
+		capture(queries, "CaseFacade.queryCaseCount epi week of onset", () -> getCaseFacade().queryCaseCount(
+				new StatisticsCaseCriteria().epiWeeks(Arrays.asList(new EpiWeek(2019, 1), new EpiWeek(2019, 2)),
+						StatisticsCaseAttribute.ONSET_TIME),
+				StatisticsCaseAttribute.DISEASE, null, null, null));
+
+		List<String> violations = new ArrayList<>();
+		for (Map.Entry<String, Collection<String>> query : queries.entrySet()) {
+			assertFalse("No SQL captured for " + query.getKey(), query.getValue().isEmpty());
+			for (String sql : query.getValue()) {
+				String plan;
+				// a failed statement would abort the transaction with the seeded data
+				Savepoint savepoint = connection.setSavepoint();
+				try {
+					plan = explain(sql);
+				} catch (SQLException e) {
+					violations.add(query.getKey() + ": could not explain " + sql + ": " + e.getMessage());
+					connection.rollback(savepoint);
+					continue;
+				}
+				Matcher matcher = SEQ_SCAN.matcher(plan);
+				while (matcher.find()) {
+					if (LARGE_TABLES.contains(matcher.group(1))) {
+						violations.add(query.getKey() + ": sequential scan of " + matcher.group(1));
+						logger.warn(query.getKey() + ":\n" + sql + "\n" + plan);
+					}
+				}
+			}
+		}
+
+		assertTrue(String.join("\n", violations), violations.isEmpty());
+	}
+
+	private static void capture(Map<String, Collection<String>> queries, String name, Runnable facadeCall) {
+
+		QueryCapture.start();
+		try {
+			facadeCall.run();
+		} finally {
+			queries.put(name, QueryCapture.stop());
+		}
+	}
+
+	private static String explain(String sql) throws SQLException {
+
+		StringBuilder plan = new StringBuilder();
+		try (Statement statement = connection.createStatement();
+				ResultSet resultSet = statement.executeQuery("EXPLAIN (GENERIC_PLAN) " + toNumberedParameters(sql))) {
+			while (resultSet.next()) {
+				plan.append(resultSet.getString(1)).append('\n');
+			}
+		}
+		return plan.toString();
+	}
+
+	/**
+	 * Replaces the JDBC parameters (? or ?1) by the numbered parameters PostgreSQL expects for a generic plan.
+	 */
+	static String toNumberedParameters(String sql) {
+
+		StringBuilder result = new StringBuilder(sql.length() + 16);
+		int parameterCount = 0;
+		boolean quoted = false;
+		for (int i = 0; i < sql.length(); i++) {
+			char c = sql.charAt(i);
+			if (c == '\'') {
+				quoted = !quoted;
+			} else if (c == '?' && !quoted) {
+				while (i + 1 < sql.length() && Character.isDigit(sql.charAt(i + 1))) {
+					i++;
+				}
+				result.append('$').append(++parameterCount);
+				continue;
+			}
+			result.append(c);
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Inserts the seed data into the transaction of the connection. The ids are taken from entity_seq.
+	 */
+	private static void seed() throws SQLException {
+
+		long regionId = nextIds(1);
+		long districtIds = nextIds(SEED_DISTRICT_COUNT);
+		long userIds = nextIds(SEED_DISTRICT_COUNT);
+		long labId = nextIds(1);
+		long locationIds = nextIds(SEED_CASE_COUNT);
+		long personIds = nextIds(SEED_CASE_COUNT);
+		long symptomsIds = nextIds(SEED_CASE_COUNT);
+		long caseIds = nextIds(SEED_CASE_COUNT);
+		long contactIds = nextIds(SEED_CASE_COUNT);
+		long visitIds = nextIds(SEED_CASE_COUNT * SEED_VISITS_PER_CONTACT);
+		long taskIds = nextIds(SEED_CASE_COUNT);
+		long sampleIds = nextIds(SEED_CASE_COUNT);
+
+		execute("INSERT INTO region (id, uuid, creationdate, changedate, name)"
+				+ " VALUES (" + regionId + ", " + uuid(regionId) + ", now(), now(), 'Seed Region')");
+		execute("INSERT INTO district (id, uuid, creationdate, changedate, name, region_id)"
+				+ " SELECT " + districtIds + " + g, " + uuid(districtIds + " + g") + ", now(), now(), 'Seed District ' || g, " + regionId
+				+ " FROM generate_series(0, " + (SEED_DISTRICT_COUNT - 1) + ") g");
+		execute("INSERT INTO users (id, uuid, creationdate, changedate, aktiv, firstname, lastname, username, password, seed, region_id, district_id)"
+				+ " SELECT " + userIds + " + g, " + uuid(userIds + " + g") + ", now(), now(), true, 'Seed', 'User', 'seeduser' || g, 'x', 'x', "
+				+ regionId + ", " + districtIds + " + g FROM generate_series(0, " + (SEED_DISTRICT_COUNT - 1) + ") g");
+		execute("INSERT INTO facility (id, uuid, creationdate, changedate, name, type)"
+				+ " VALUES (" + labId + ", " + uuid(labId) + ", now(), now(), 'Seed Laboratory', 'LABORATORY')");
+
+		// one case per person, spread over the districts, diseases and about two years
+		String seedSeries = " FROM generate_series(0, " + (SEED_CASE_COUNT - 1) + ") g";
+		String seedDate = "timestamp '2017-01-01' + g * interval '1 hour'";
+		String district = districtIds + " + g % " + SEED_DISTRICT_COUNT;
+		String user = userIds + " + g % " + SEED_DISTRICT_COUNT;
+		String disease = "(ARRAY['EVD', 'LASSA', 'CHOLERA', 'MEASLES'])[g % 4 + 1]";
+
+		execute("INSERT INTO location (id, uuid, creationdate, changedate, region_id, district_id)"
+				+ " SELECT " + locationIds + " + g, " + uuid(locationIds + " + g") + ", " + seedDate + ", " + seedDate + ", "
+				+ regionId + ", " + district + seedSeries);
+		execute("INSERT INTO person (id, uuid, creationdate, changedate, firstname, lastname, address_id)"
+				+ " SELECT " + personIds + " + g, " + uuid(personIds + " + g") + ", " + seedDate + ", " + seedDate
+				+ ", 'First' || g, 'Last' || g, " + locationIds + " + g" + seedSeries);
+		execute("INSERT INTO symptoms (id, uuid, creationdate, changedate, onsetdate)"
+				+ " SELECT " + symptomsIds + " + g, " + uuid(symptomsIds + " + g") + ", " + seedDate + ", " + seedDate + ", "
+				+ seedDate + " - interval '2 days'" + seedSeries);
+		execute("INSERT INTO cases (id, uuid, creationdate, changedate, person_id, symptoms_id, disease, reportdate, reportinguser_id, region_id, district_id)"
+				+ " SELECT " + caseIds + " + g, " + uuid(caseIds + " + g") + ", " + seedDate + ", " + seedDate + ", "
+				+ personIds + " + g, " + symptomsIds + " + g, " + disease + ", " + seedDate + ", " + user + ", " + regionId + ", " + district
+				+ seedSeries);
+		execute("INSERT INTO contact (id, uuid, creationdate, changedate, reportdatetime, caze_id, person_id, reportinguser_id, contactofficer_id, followupuntil)"
+				+ " SELECT " + contactIds + " + g, " + uuid(contactIds + " + g") + ", " + seedDate + ", " + seedDate + ", " + seedDate + ", "
+				+ caseIds + " + g, " + personIds + " + (g + 1) % " + SEED_CASE_COUNT + ", " + user + ", " + user + ", "
+				+ seedDate + " + interval '21 days'" + seedSeries);
+		execute("INSERT INTO visit (id, uuid, creationdate, changedate, person_id, visituser_id, visitdatetime, disease)"
+				+ " SELECT " + visitIds + " + g, " + uuid(visitIds + " + g") + ", " + seedDate + ", " + seedDate + ", "
+				+ personIds + " + (g / " + SEED_VISITS_PER_CONTACT + " + 1) % " + SEED_CASE_COUNT + ", " + user + ", " + seedDate + ", " + disease
+				+ " FROM generate_series(0, " + (SEED_CASE_COUNT * SEED_VISITS_PER_CONTACT - 1) + ") g");
+		execute("INSERT INTO task (id, uuid, creationdate, changedate, taskcontext, tasktype, taskstatus, duedate, assigneeuser_id, creatoruser_id, caze_id)"
+				+ " SELECT " + taskIds + " + g, " + uuid(taskIds + " + g") + ", " + seedDate + ", " + seedDate
+				+ ", 'CASE', 'CASE_INVESTIGATION', CASE WHEN g % 10 = 0 THEN 'PENDING' ELSE 'DONE' END, " + seedDate + " + interval '1 day', "
+				+ user + ", " + user + ", " + caseIds + " + g" + seedSeries);
+		execute("INSERT INTO samples (id, uuid, creationdate, changedate, associatedcase_id, sampledatetime, reportdatetime, reportinguser_id, samplematerial, lab_id)"
+				+ " SELECT " + sampleIds + " + g, " + uuid(sampleIds + " + g") + ", " + seedDate + ", " + seedDate + ", "
+				+ caseIds + " + g, " + seedDate + ", " + seedDate + ", " + user + ", 'BLOOD', " + labId + seedSeries);
+	}
+
+	/**
+	 * @return the first of the reserved ids
+	 */
+	private static long nextIds(int count) throws SQLException {
+
+		try (Statement statement = connection.createStatement();
+				ResultSet resultSet = statement.executeQuery(
+						"SELECT setval('entity_seq', nextval('entity_seq') + " + (count - 1) + ") - " + (count - 1))) {
+			resultSet.next();
+			return resultSet.getLong(1);
+		}
+	}
+
+	/**
+	 * 36 characters, unique per table
+	 */
+	private static String uuid(Object idExpression) {
+		return "'SEED' || lpad((" + idExpression + ")::text, 32, '0')";
+	}
+
+	private static void execute(String sql) throws SQLException {
+
+		try (Statement statement = connection.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.auditlog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+
+import java.util.Collections;
+
+import javax.persistence.EntityManager;
+
+import org.junit.Test;
+
+import de.symeda.auditlog.api.Auditor;
+import de.symeda.auditlog.api.ChangeEvent;
+import de.symeda.auditlog.api.ChangeType;
+import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.user.UserDto;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.TestDataCreator.RDCF;
+import de.symeda.sormas.backend.caze.Case;
+import de.symeda.sormas.backend.caze.CaseService;
+
+public class AuditContextProducerTest extends AbstractBeanTest {
+
+	@Test
+	public void testGetOriginal() {
+
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(),
+				"Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		PersonDto cazePerson = creator.createPerson("Case", "Person");
+		CaseDataDto caze = creator.createCase(user.toReference(), cazePerson.toReference(), rdcf);
+
+		EntityManager em = getBean(EntityManager.class);
+		em.flush();
+		em.clear();
+
+		Case loadedCase = getBean(CaseService.class).getByUuid(caze.getUuid());
+		loadedCase.setEpidNumber("EPID-1");
+
+		Case original = (Case) getBean(AuditContextProducer.class).getOriginal(loadedCase);
+		assertNotNull(original);
+		assertNotSame(loadedCase, original);
+
+		ChangeEvent changeEvent = new Auditor().detectChanges(loadedCase, original);
+		assertEquals(ChangeType.UPDATE, changeEvent.getChangeType());
+		assertEquals(Collections.singletonMap(Case.EPID_NUMBER, "EPID-1"), changeEvent.getNewValues());
+	}
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.auditlog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.persistence.EntityManager;
+
+import org.junit.Test;
+
+import de.symeda.auditlog.api.ChangeEvent;
+import de.symeda.auditlog.api.ChangeType;
+import de.symeda.auditlog.api.EntityId;
+import de.symeda.auditlog.api.TransactionId;
+import de.symeda.auditlog.api.UserId;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.caze.Case;
+
+public class AuditLogServiceBeanTest extends AbstractBeanTest {
+
+	@Test
+	public void testEntriesOfCommittedTransactionsAreWritten() {
+
+		AuditLogWriter auditLogWriter = getBean(AuditLogWriter.class);
+
+		getBean(AuditedTransaction.class).changeCases(false, "uuid1", "uuid2");
+		assertEquals(2, auditLogWriter.getMetrics().getQueueSize());
+		assertEquals(0, getWrittenUuids().size());
+
+		auditLogWriter.writeQueuedEntries();
+		assertEquals(0, auditLogWriter.getMetrics().getQueueSize());
+		assertEquals(Arrays.asList("uuid1", "uuid2"), getWrittenUuids());
+	}
+
+	@Test
+	public void testEntriesOfRolledBackTransactionsAreDiscarded() {
+
+		AuditLogWriter auditLogWriter = getBean(AuditLogWriter.class);
+
+		try {
+			getBean(AuditedTransaction.class).changeCases(true, "uuid1", "uuid2");
+			fail("The transaction should have been rolled back");
+		} catch (RuntimeException e) {
+			// expected
+		}
+		assertEquals(0, auditLogWriter.getMetrics().getQueueSize());
+
+		getBean(AuditedTransaction.class).changeCases(false, "uuid3");
+		auditLogWriter.writeQueuedEntries();
+		assertEquals(Collections.singletonList("uuid3"), getWrittenUuids());
+	}
+
+	@Test
+	public void testGetEntityHistory() {
+
+		AuditLogWriter auditLogWriter = getBean(AuditLogWriter.class);
+
+		getBean(AuditedTransaction.class).changeCases(false, "uuid1", "uuid2", "uuid1");
+		auditLogWriter.writeQueuedEntries();
+
+		List<AuditLogEntry> history = getBean(AuditLogServiceBean.class).getEntityHistory("uuid1");
+		assertEquals(2, history.size());
+		for (AuditLogEntry entry : history) {
+			assertEquals("uuid1", entry.getUuid());
+			assertEquals(Collections.singletonMap("uuid", "uuid1"), entry.getAttributes());
+		}
+		assertTrue(history.get(0).getId() < history.get(1).getId());
+		assertFalse(history.get(0).getDetectionTimestamp().after(history.get(1).getDetectionTimestamp()));
+	}
+
+	private List<String> getWrittenUuids() {
+		return getBean(EntityManager.class).createQuery("SELECT e.uuid FROM AuditLogEntry e ORDER BY e.id", String.class).getResultList();
+	}
+
+	/**
+	 * Receives the changes like the audit listener does while a transaction is running.
+	 */
+	@Stateless
+	@LocalBean
+	public static class AuditedTransaction {
+
+		@EJB
+		private AuditLogServiceBean auditLogService;
+
+		public void changeCases(boolean rollback, String... uuids) {
+
+			for (String uuid : uuids) {
+				auditLogService.receiveChanges(new ChangeEvent(new EntityId(Case.class, uuid), Collections.singletonMap("uuid", uuid),
+						ChangeType.UPDATE, LocalDateTime.now(), new UserId("admin"), new TransactionId()));
+			}
+			if (rollback) {
+				throw new IllegalStateException("Rolled back");
+			}
+		}
+	}
+}
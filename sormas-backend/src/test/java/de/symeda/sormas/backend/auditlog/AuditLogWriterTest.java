@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.auditlog;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class AuditLogWriterTest {
+
+	@Test
+	public void testFailedEntryDoesNotBlockQueue() {
+
+		FailingAuditLogService auditLogService = new FailingAuditLogService("poison");
+		AuditLogWriter auditLogWriter = new AuditLogWriter(auditLogService);
+
+		auditLogWriter.enqueue(Arrays.asList(createEntry("uuid1"), createEntry("poison"), createEntry("uuid2")));
+		auditLogWriter.writeQueuedEntries();
+
+		// the other entries of the batch are written one by one
+		assertEquals(Arrays.asList("uuid1", "uuid2"), auditLogService.writtenUuids);
+		assertEquals(1, auditLogWriter.getMetrics().getQueueSize());
+		assertEquals(1, auditLogWriter.getMetrics().getFailedBatchCount());
+
+		// entries queued later are not kept back by the failing one
+		auditLogWriter.enqueue(Collections.singletonList(createEntry("uuid3")));
+		auditLogWriter.writeQueuedEntries();
+		assertEquals(Arrays.asList("uuid1", "uuid2", "uuid3"), auditLogService.writtenUuids);
+
+		// dropped after the last attempt
+		for (int attempt = 3; attempt < AuditLogWriter.MAX_WRITE_ATTEMPTS; attempt++) {
+			auditLogWriter.writeQueuedEntries();
+			assertEquals(1, auditLogWriter.getMetrics().getQueueSize());
+		}
+		auditLogWriter.writeQueuedEntries();
+		assertEquals(0, auditLogWriter.getMetrics().getQueueSize());
+		assertEquals(1, auditLogWriter.getMetrics().getLostCount());
+		assertEquals(3, auditLogWriter.getMetrics().getWrittenCount());
+	}
+
+	@Test
+	public void testUnavailableDatabaseKeepsEntries() {
+
+		FailingAuditLogService auditLogService = new FailingAuditLogService("uuid1", "uuid2");
+		AuditLogWriter auditLogWriter = new AuditLogWriter(auditLogService);
+
+		auditLogWriter.enqueue(Arrays.asList(createEntry("uuid1"), createEntry("uuid2")));
+		auditLogWriter.writeQueuedEntries();
+
+		// only the first entry is tried on its own, none is dropped
+		assertEquals(2, auditLogWriter.getMetrics().getQueueSize());
+		assertEquals(0, auditLogWriter.getMetrics().getLostCount());
+
+		auditLogService.failingUuids.clear();
+		auditLogWriter.writeQueuedEntries();
+		assertEquals(Arrays.asList("uuid1", "uuid2"), auditLogService.writtenUuids);
+		assertEquals(0, auditLogWriter.getMetrics().getQueueSize());
+	}
+
+	private static AuditLogEntry createEntry(String uuid) {
+		AuditLogEntry entry = new AuditLogEntry();
+		entry.setUuid(uuid);
+		return entry;
+	}
+
+	/**
+	 * Fails to write the batches that contain one of the given uuids.
+	 */
+	private static class FailingAuditLogService extends AuditLogServiceBean {
+
+		private final List<String> failingUuids;
+		private final List<String> writtenUuids = new ArrayList<>();
+
+		private FailingAuditLogService(String... failingUuids) {
+			this.failingUuids = new ArrayList<>(Arrays.asList(failingUuids));
+		}
+
+		@Override
+		public void persist(List<AuditLogEntry> entries) {
+
+			for (AuditLogEntry entry : entries) {
+				if (failingUuids.contains(entry.getUuid())) {
+					throw new IllegalStateException("Could not write " + entry.getUuid());
+				}
+			}
+			for (AuditLogEntry entry : entries) {
+				writtenUuids.add(entry.getUuid());
+			}
+		}
+	}
+}
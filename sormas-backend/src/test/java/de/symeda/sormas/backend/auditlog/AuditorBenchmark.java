@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.auditlog;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.auditlog.api.Auditor;
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.api.caze.InvestigationStatus;
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.user.UserDto;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.TestDataCreator.RDCF;
+import de.symeda.sormas.backend.caze.Case;
+import de.symeda.sormas.backend.caze.CaseService;
+
+/**
+ * Measures the throughput of loading cases and the cost of auditing their update, i.e. of comparing each case with
+ * the backup copy of the persistence context like the audit listener does before the update. Loading itself is not
+ * audited. The entity listener is not configured in the test persistence unit, so the {@link Auditor} is called
+ * directly here.
+ *
+ * Not run by the regular build (no "Test" suffix). Run with
+ * <code>mvn test -Dtest=AuditorBenchmark -Dbenchmark.cases=10000</code>
+ */
+public class AuditorBenchmark extends AbstractBeanTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(AuditorBenchmark.class);
+
+	private static final int RUNS = 5;
+
+	@Test
+	public void benchmarkLoadAndUpdateCases() {
+
+		int caseCount = Integer.getInteger("benchmark.cases", 10000);
+
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(),
+				"Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		for (int i = 0; i < caseCount; i++) {
+			PersonDto cazePerson = creator.createPerson("Case", "Person" + i);
+			creator.createCase(user.toReference(), cazePerson.toReference(), Disease.EVD,
+					CaseClassification.PROBABLE, InvestigationStatus.PENDING, new Date(), rdcf);
+		}
+		getBean(EntityManager.class).flush();
+
+		// warm up
+		detectChanges(loadCases());
+
+		long loadNanos = 0;
+		long detectNanos = 0;
+		for (int i = 0; i < RUNS; i++) {
+			long start = System.nanoTime();
+			List<Case> cases = loadCases();
+			loadNanos += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			detectChanges(cases);
+			detectNanos += System.nanoTime() - start;
+		}
+
+		logger.info("Loading " + caseCount + " cases: " + loadNanos / RUNS / 1_000_000 + " ms ("
+				+ caseCount * RUNS * 1_000_000_000L / Math.max(loadNanos, 1) + "/s), detecting the changes of the unchanged cases: "
+				+ detectNanos / RUNS / 1_000_000 + " ms (" + caseCount * RUNS * 1_000_000_000L / Math.max(detectNanos, 1) + "/s)");
+	}
+
+	private List<Case> loadCases() {
+
+		// otherwise the cases are taken from the persistence context
+		getBean(EntityManager.class).clear();
+		return getBean(CaseService.class).getAll();
+	}
+
+	private void detectChanges(List<Case> cases) {
+
+		AuditContextProducer auditContext = getBean(AuditContextProducer.class);
+		Auditor auditor = new Auditor();
+		for (Case caze : cases) {
+			assertEquals(0, auditor.detectChanges(caze, auditContext.getOriginal(caze)).getNewValues().size());
+		}
+	}
+}
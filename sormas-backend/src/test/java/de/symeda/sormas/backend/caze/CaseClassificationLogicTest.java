@@ -23,6 +23,7 @@ import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.jboss.weld.exceptions.UnsupportedOperationException;
 import org.junit.Before;
@@ -46,6 +47,8 @@ import de.symeda.sormas.api.utils.YesNoUnknown;
 import de.symeda.sormas.backend.AbstractBeanTest;
 import de.symeda.sormas.backend.MockProducer;
 import de.symeda.sormas.backend.common.ConfigFacadeEjb;
+import de.symeda.sormas.backend.disease.DiseaseDailyCountService;
+import de.symeda.sormas.backend.disease.DiseaseDailyCountType;
 
 public class CaseClassificationLogicTest extends AbstractBeanTest {
 
@@ -987,6 +990,30 @@ public class CaseClassificationLogicTest extends AbstractBeanTest {
 	 * (i.e. there is still at least one requirement missing to classify it as such). Used to
 	 * initialize suspect test cases with less code.
 	 */
+	@Test
+	public void testReclassifyAll() {
+		// cases saved while the automatic classification was disabled
+		MockProducer.getProperties().setProperty(ConfigFacadeEjb.FEATURE_AUTOMATIC_CASE_CLASSIFICATION, "false");
+		CaseDataDto suspectCase = getCaseFacade().saveCase(buildSuspectCase(Disease.EVD));
+		CaseDataDto unclassifiedCase = getCaseFacade().saveCase(creator.createUnclassifiedCase(Disease.EVD));
+		assertEquals(CaseClassification.NOT_CLASSIFIED, suspectCase.getCaseClassification());
+		assertEquals(0, getCaseClassificationLogic().reclassifyAll(Disease.EVD));
+
+		MockProducer.getProperties().setProperty(ConfigFacadeEjb.FEATURE_AUTOMATIC_CASE_CLASSIFICATION, "true");
+		assertEquals(1, getCaseClassificationLogic().reclassifyAll(Disease.EVD));
+		assertEquals(CaseClassification.SUSPECT, getCaseFacade().getCaseDataByUuid(suspectCase.getUuid()).getCaseClassification());
+		assertEquals(CaseClassification.NOT_CLASSIFIED, getCaseFacade().getCaseDataByUuid(unclassifiedCase.getUuid()).getCaseClassification());
+
+		// the dashboard counts are recounted with the new classification
+		Map<String, Long> caseCounts = getBean(DiseaseDailyCountService.class).getCountsPerCategory(Disease.EVD, null, null,
+				DateHelper.subtractDays(new Date(), 365), DateHelper.addDays(new Date(), 1), null).get(DiseaseDailyCountType.CASE);
+		assertEquals(Long.valueOf(1), caseCounts.get(CaseClassification.SUSPECT.name()));
+		assertEquals(Long.valueOf(1), caseCounts.get(CaseClassification.NOT_CLASSIFIED.name()));
+
+		// nothing changed since
+		assertEquals(0, getCaseClassificationLogic().reclassifyAll(Disease.EVD));
+	}
+
 	private CaseDataDto buildSuspectCaseBasis(Disease disease) {
 		CaseDataDto caze = creator.createUnclassifiedCase(disease);
 		switch (disease) {
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.caze;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.persistence.EntityManager;
+
+import org.eclipse.persistence.jpa.JpaEntityManager;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.SessionEventManager;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.caze.CaseExportDto;
+import de.symeda.sormas.api.caze.InvestigationStatus;
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.sample.SampleDto;
+import de.symeda.sormas.api.sample.SampleMaterial;
+import de.symeda.sormas.api.sample.SampleReferenceDto;
+import de.symeda.sormas.api.sample.SampleTestResultType;
+import de.symeda.sormas.api.sample.SampleTestType;
+import de.symeda.sormas.api.user.UserDto;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.TestDataCreator.RDCF;
+
+/**
+ * Measures the number of queries and the latency of each page of the detailed case export.
+ *
+ * Not run by the regular build (no "Test" suffix). Run with
+ * <code>mvn test -Dtest=CaseExportBenchmark -Dbenchmark.cases=10000</code>
+ */
+public class CaseExportBenchmark extends AbstractBeanTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(CaseExportBenchmark.class);
+
+	/**
+	 * Same as the page size of the detailed export in the UI
+	 */
+	private static final int PAGE_SIZE = 200;
+
+	/**
+	 * Queries needed per page: cases, symptoms, sample dates, sample test results, addresses,
+	 * travels and previous hospitalizations. Must not depend on the number of cases.
+	 */
+	private static final int MAX_QUERIES_PER_PAGE = 10;
+
+	@Test
+	public void benchmarkGetExportList() {
+
+		int caseCount = Integer.getInteger("benchmark.cases", 10000);
+
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(),
+				"Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+
+		for (int i = 0; i < caseCount; i++) {
+			PersonDto cazePerson = creator.createPerson("Case", "Person" + i);
+			CaseDataDto caze = creator.createCase(user.toReference(), cazePerson.toReference(), Disease.EVD,
+					CaseClassification.PROBABLE, InvestigationStatus.PENDING, new Date(), rdcf);
+			if (i % 2 == 0) {
+				SampleDto sample = creator.createSample(caze.toReference(), new Date(), new Date(), user.toReference(),
+						SampleMaterial.BLOOD, rdcf.facility);
+				creator.createSampleTest(new SampleReferenceDto(sample.getUuid()), SampleTestType.ANTIGEN_DETECTION,
+						new Date(), rdcf.facility, user.toReference(), SampleTestResultType.POSITIVE, "", true);
+			}
+		}
+
+		AtomicInteger queryCount = new AtomicInteger();
+		SessionEventAdapter queryCounter = new SessionEventAdapter() {
+			@Override
+			public void postExecuteQuery(SessionEvent event) {
+				queryCount.incrementAndGet();
+			}
+		};
+		SessionEventManager eventManager = getBean(EntityManager.class).unwrap(JpaEntityManager.class)
+				.getServerSession().getEventManager();
+		eventManager.addListener(queryCounter);
+
+		try {
+			int exportedCount = 0;
+			int maxQueriesPerPage = 0;
+			long totalNanos = 0;
+			for (int first = 0; first < caseCount; first += PAGE_SIZE) {
+				queryCount.set(0);
+				long start = System.nanoTime();
+				List<CaseExportDto> page = getCaseFacade().getExportList(user.getUuid(), null, first, PAGE_SIZE);
+				long pageNanos = System.nanoTime() - start;
+
+				exportedCount += page.size();
+				totalNanos += pageNanos;
+				maxQueriesPerPage = Math.max(maxQueriesPerPage, queryCount.get());
+				logger.info("Export page " + first / PAGE_SIZE + ": " + page.size() + " cases, "
+						+ queryCount.get() + " queries, " + pageNanos / 1_000_000 + " ms");
+			}
+
+			logger.info("Exported " + exportedCount + " cases in " + totalNanos / 1_000_000 + " ms, max "
+					+ maxQueriesPerPage + " queries per page");
+
+			assertEquals(caseCount, exportedCount);
+			assertTrue("Queries per page: " + maxQueriesPerPage, maxQueriesPerPage <= MAX_QUERIES_PER_PAGE);
+		} finally {
+			eventManager.removeListener(queryCounter);
+		}
+	}
+}
@@ -18,14 +18,26 @@
 package de.symeda.sormas.backend.caze;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.persistence.EntityManager;
+
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.UnitOfWork;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -33,6 +45,8 @@ import org.junit.rules.ExpectedException;
 import com.auth0.jwt.internal.org.apache.commons.lang3.StringUtils;
 
 import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.IntegerRange;
+import de.symeda.sormas.api.PushResult;
 import de.symeda.sormas.api.caze.CaseClassification;
 import de.symeda.sormas.api.caze.CaseCriteria;
 import de.symeda.sormas.api.caze.CaseDataDto;
@@ -57,6 +71,8 @@ import de.symeda.sormas.api.sample.SampleDto;
 import de.symeda.sormas.api.sample.SampleMaterial;
 import de.symeda.sormas.api.sample.SampleTestResultType;
 import de.symeda.sormas.api.sample.SampleTestType;
+import de.symeda.sormas.api.statistics.StatisticsCaseAttribute;
+import de.symeda.sormas.api.statistics.StatisticsCaseCriteria;
 import de.symeda.sormas.api.symptoms.SymptomState;
 import de.symeda.sormas.api.task.TaskContext;
 import de.symeda.sormas.api.task.TaskDto;
@@ -67,8 +83,15 @@ import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.api.utils.DataHelper;
 import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.api.utils.OutdatedEntityException;
+import de.symeda.sormas.api.utils.SortProperty;
+import de.symeda.sormas.api.utils.SyncCursor;
 import de.symeda.sormas.backend.AbstractBeanTest;
 import de.symeda.sormas.backend.TestDataCreator.RDCF;
+import de.symeda.sormas.backend.common.PushBatchService;
+import de.symeda.sormas.backend.facility.Facility;
+import de.symeda.sormas.backend.person.PersonService;
+import de.symeda.sormas.backend.statistics.StatisticsCaseCountDateType;
+import de.symeda.sormas.backend.statistics.StatisticsCaseCountService;
 import de.symeda.sormas.backend.util.DateHelper8;
 import de.symeda.sormas.backend.util.DtoHelper;
 
@@ -203,6 +226,30 @@ public class CaseFacadeEjbTest extends AbstractBeanTest {
 		assertEquals(1, results.size());
 	}
 	
+	@Test
+	public void testGetIndexListPaged() {
+
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(),
+				"Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		for (int i = 0; i < 5; i++) {
+			PersonDto cazePerson = creator.createPerson("Case", "Person" + i);
+			creator.createCase(user.toReference(), cazePerson.toReference(), Disease.EVD, CaseClassification.PROBABLE,
+					InvestigationStatus.PENDING, new Date(), rdcf);
+		}
+
+		assertEquals(5, getCaseFacade().count(user.getUuid(), null));
+
+		List<SortProperty> sortProperties = Arrays.asList(new SortProperty(CaseIndexDto.PERSON_LAST_NAME, false));
+		List<CaseIndexDto> firstPage = getCaseFacade().getIndexList(user.getUuid(), null, 0, 2, sortProperties);
+		List<CaseIndexDto> lastPage = getCaseFacade().getIndexList(user.getUuid(), null, 4, 2, sortProperties);
+		assertEquals(2, firstPage.size());
+		assertEquals("Person4", firstPage.get(0).getPersonLastName());
+		assertEquals("Person3", firstPage.get(1).getPersonLastName());
+		assertEquals(1, lastPage.size());
+		assertEquals("Person0", lastPage.get(0).getPersonLastName());
+	}
+
 	@Test
 	public void testGetExportList() {
 
@@ -400,4 +447,306 @@ public class CaseFacadeEjbTest extends AbstractBeanTest {
 		// getArchivedUuidsSince should return length 0
 		assertEquals(0, getCaseFacade().getArchivedUuidsSince(user.getUuid(), testStartDate).size());
 	}
+
+	@Test
+	public void testGetAllActiveCasesAfterPaged() {
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(),
+				"Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		for (int i = 0; i < 5; i++) {
+			PersonDto cazePerson = creator.createPerson("Case", "Person" + i);
+			creator.createCase(user.toReference(), cazePerson.toReference(), Disease.EVD,
+					CaseClassification.PROBABLE, InvestigationStatus.PENDING, new Date(), rdcf);
+		}
+
+		List<CaseDataDto> firstPage = getCaseFacade().getAllActiveCasesAfter(null, user.getUuid(), null, 2);
+		assertEquals(2, firstPage.size());
+		List<CaseDataDto> secondPage = getCaseFacade().getAllActiveCasesAfter(null, user.getUuid(),
+				SyncCursor.of(firstPage.get(1)), 2);
+		assertEquals(2, secondPage.size());
+		List<CaseDataDto> lastPage = getCaseFacade().getAllActiveCasesAfter(null, user.getUuid(),
+				SyncCursor.of(secondPage.get(1)), 2);
+		assertEquals(1, lastPage.size());
+
+		Set<String> pagedUuids = new HashSet<>();
+		firstPage.forEach(c -> pagedUuids.add(c.getUuid()));
+		secondPage.forEach(c -> pagedUuids.add(c.getUuid()));
+		lastPage.forEach(c -> pagedUuids.add(c.getUuid()));
+		assertEquals(new HashSet<>(getCaseFacade().getAllActiveUuids(user.getUuid())), pagedUuids);
+	}
+
+	@Test
+	public void testGetAllActiveCasesAfterPagedWithinOneChangeDate() {
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(),
+				"Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		for (int i = 0; i < 5; i++) {
+			PersonDto cazePerson = creator.createPerson("Case", "Person" + i);
+			creator.createCase(user.toReference(), cazePerson.toReference(), Disease.EVD,
+					CaseClassification.PROBABLE, InvestigationStatus.PENDING, new Date(), rdcf);
+		}
+
+		// e.g. changed by one transaction: all cases share the same change date, which has microseconds
+		Timestamp changeDate = Timestamp.valueOf("2019-03-01 10:00:00.123456");
+		EntityManager em = getBean(EntityManager.class);
+		em.createNativeQuery("UPDATE " + Case.TABLE_NAME + " SET changedate = ?").setParameter(1, changeDate).executeUpdate();
+		em.clear();
+
+		// the cursor of the server keeps the microseconds
+		List<String> pagedUuids = new ArrayList<>();
+		SyncCursor cursor = null;
+		List<CaseDataDto> page;
+		do {
+			page = getCaseFacade().getAllActiveCasesAfter(null, user.getUuid(), cursor, 2);
+			page.forEach(c -> pagedUuids.add(c.getUuid()));
+			if (!page.isEmpty()) {
+				cursor = SyncCursor.of(page.get(page.size() - 1));
+				assertEquals(changeDate, cursor.getChangeDate());
+			}
+		} while (page.size() == 2);
+		assertEquals(5, pagedUuids.size());
+		assertEquals(new HashSet<>(getCaseFacade().getAllActiveUuids(user.getUuid())), new HashSet<>(pagedUuids));
+
+		// the mobile app only receives milliseconds
+		List<String> clientPagedUuids = new ArrayList<>();
+		cursor = null;
+		do {
+			page = getCaseFacade().getAllActiveCasesAfter(null, user.getUuid(), cursor, 2);
+			page.forEach(c -> clientPagedUuids.add(c.getUuid()));
+			if (!page.isEmpty()) {
+				CaseDataDto lastCase = page.get(page.size() - 1);
+				cursor = new SyncCursor(new Date(lastCase.getChangeDate().getTime()), lastCase.getUuid());
+				assertTrue(cursor.isTruncatedToMillis());
+			}
+		} while (page.size() == 2);
+		assertEquals(pagedUuids, clientPagedUuids);
+	}
+
+	@Test
+	public void testSaveCasesKeepsResultOrder() throws InterruptedException {
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(),
+				"Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		PersonDto outdatedCasePerson = creator.createPerson("Case", "Person");
+		CaseDataDto outdatedCase = creator.createCase(user.toReference(), outdatedCasePerson.toReference(), Disease.EVD,
+				CaseClassification.PROBABLE, InvestigationStatus.PENDING, new Date(), rdcf);
+		PersonDto casePerson = creator.createPerson("Case", "Person");
+		CaseDataDto caze = creator.createCase(user.toReference(), casePerson.toReference(), Disease.EVD,
+				CaseClassification.PROBABLE, InvestigationStatus.PENDING, new Date(), rdcf);
+
+		Thread.sleep(DtoHelper.CHANGE_DATE_TOLERANCE_MS + 1);
+
+		// changing the person also changes the case, so the case dto is outdated afterwards
+		outdatedCasePerson.setPresentCondition(PresentCondition.DEAD);
+		getPersonFacade().savePerson(outdatedCasePerson);
+		outdatedCase.setOutcome(CaseOutcome.DECEASED);
+		caze.setInvestigationStatus(InvestigationStatus.DONE);
+
+		List<PushResult> results = getCaseFacade().saveCases(Arrays.asList(outdatedCase, caze));
+		assertEquals(Arrays.asList(PushResult.TOO_OLD, PushResult.OK), results);
+		assertEquals(InvestigationStatus.DONE, getCaseFacade().getCaseDataByUuid(caze.getUuid()).getInvestigationStatus());
+	}
+
+	@Test
+	public void testQueryCaseCountFromStatisticsCaseCounts() {
+
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(),
+				"Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		CaseDataDto caze = creator.createCase(user.toReference(), creator.createPerson("Case", "Person1").toReference(),
+				Disease.EVD, CaseClassification.PROBABLE, InvestigationStatus.PENDING, new Date(), rdcf);
+		creator.createCase(user.toReference(), creator.createPerson("Case", "Person2").toReference(),
+				Disease.EVD, CaseClassification.PROBABLE, InvestigationStatus.PENDING, new Date(), rdcf);
+		creator.createCase(user.toReference(), creator.createPerson("Case", "Person3").toReference(),
+				Disease.LASSA, CaseClassification.PROBABLE, InvestigationStatus.PENDING, new Date(), rdcf);
+
+		StatisticsCaseCountService statisticsCaseCountService = getBean(StatisticsCaseCountService.class);
+		StatisticsCaseCriteria criteria = new StatisticsCaseCriteria().diseases(Arrays.asList(Disease.EVD));
+		assertEquals(StatisticsCaseCountDateType.REPORT, statisticsCaseCountService.getAnsweringDateType(criteria, null, null));
+		assertEquals(StatisticsCaseCountDateType.ONSET, statisticsCaseCountService.getAnsweringDateType(criteria,
+				StatisticsCaseAttribute.ONSET_TIME, StatisticsCaseAttribute.CLASSIFICATION));
+		Date now = new Date();
+		StatisticsCaseCriteria wholeDays = new StatisticsCaseCriteria()
+				.dateRange(DateHelper.getStartOfDay(now), DateHelper.getEndOfDay(now), StatisticsCaseAttribute.RECEPTION_TIME);
+		assertEquals(StatisticsCaseCountDateType.RECEPTION, statisticsCaseCountService.getAnsweringDateType(wholeDays, null, null));
+		// the counts only contain one of the dates
+		assertNull(statisticsCaseCountService.getAnsweringDateType(wholeDays, StatisticsCaseAttribute.REPORT_TIME, null));
+		assertNull(statisticsCaseCountService.getAnsweringDateType(new StatisticsCaseCriteria()
+				.dateRange(now, null, StatisticsCaseAttribute.REPORT_TIME), null, null));
+		// ages above 80 are counted as 80
+		assertNull(statisticsCaseCountService.getAnsweringDateType(new StatisticsCaseCriteria()
+				.addAgeIntervals(Arrays.asList(new IntegerRange(70, 90))), null, null));
+		assertEquals(StatisticsCaseCountDateType.REPORT, statisticsCaseCountService.getAnsweringDateType(new StatisticsCaseCriteria()
+				.addAgeIntervals(Arrays.asList(new IntegerRange(70, 79), new IntegerRange(80, null))), null, null));
+
+		List<Object[]> results = getCaseFacade().queryCaseCount(criteria, StatisticsCaseAttribute.CLASSIFICATION, null, null, null);
+		assertEquals(1, results.size());
+		assertEquals(2L, ((Number) results.get(0)[0]).longValue());
+		assertEquals(CaseClassification.PROBABLE, results.get(0)[1]);
+
+		// the counts are refreshed when a case is saved
+		caze = getCaseFacade().getCaseDataByUuid(caze.getUuid());
+		caze.setCaseClassification(CaseClassification.CONFIRMED);
+		getCaseFacade().saveCase(caze);
+
+		results = getCaseFacade().queryCaseCount(criteria, StatisticsCaseAttribute.CLASSIFICATION, null, null, null);
+		assertEquals(2, results.size());
+		assertEquals(1L, ((Number) results.get(0)[0]).longValue());
+		assertEquals(CaseClassification.CONFIRMED, results.get(0)[1]);
+		assertEquals(1L, ((Number) results.get(1)[0]).longValue());
+		assertEquals(CaseClassification.PROBABLE, results.get(1)[1]);
+
+		// and when it is deleted
+		UserDto admin = creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(),
+				"Ad", "Min", UserRole.ADMIN);
+		getCaseFacade().deleteCase(caze.toReference(), admin.getUuid());
+
+		results = getCaseFacade().queryCaseCount(criteria, null, null, null, null);
+		assertEquals(1L, ((Number) results.get(0)[0]).longValue());
+	}
+
+	@Test
+	public void testPreloadedEntitiesAreKeptForTheTransaction() {
+		PersonDto person = creator.createPerson("Case", "Person");
+		PersonService personService = getBean(PersonService.class);
+		EntityManager em = getBean(EntityManager.class);
+
+		AtomicInteger queryCount = new AtomicInteger();
+		SessionEventAdapter queryCounter = new SessionEventAdapter() {
+			@Override
+			public void postExecuteQuery(SessionEvent event) {
+				queryCount.incrementAndGet();
+			}
+		};
+
+		// the chunk is saved in one transaction: the preloaded person is used without a query
+		List<Integer> lookupQueries = new ArrayList<>();
+		getBean(PushBatchService.class).savePushedDtos(Arrays.asList(person), dtos -> {
+			em.unwrap(UnitOfWork.class).getEventManager().addListener(queryCounter);
+			personService.preloadByUuids(Arrays.asList(person.getUuid()));
+		}, dto -> {
+			queryCount.set(0);
+			assertEquals(person.getUuid(), personService.getByUuid(person.getUuid()).getUuid());
+			lookupQueries.add(queryCount.get());
+			return dto;
+		});
+
+		// the next transaction has to load the person again
+		getBean(PushBatchService.class).savePushedDtos(Arrays.asList(person), dtos -> {
+			em.unwrap(UnitOfWork.class).getEventManager().addListener(queryCounter);
+		}, dto -> {
+			queryCount.set(0);
+			assertEquals(person.getUuid(), personService.getByUuid(person.getUuid()).getUuid());
+			lookupQueries.add(queryCount.get());
+			return dto;
+		});
+
+		assertEquals(Integer.valueOf(0), lookupQueries.get(0));
+		assertTrue(lookupQueries.get(1) > 0);
+	}
+
+	@Test
+	public void testUserAccessFollowsContactChanges() {
+
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		RDCF otherRdcf = creator.createRDCF("Other Region", "Other District", "Other Community", "Other Facility");
+		UserDto supervisor = creator.createUser(rdcf, UserRole.SURVEILLANCE_SUPERVISOR);
+		UserDto officer = creator.createUser(otherRdcf, UserRole.CONTACT_OFFICER);
+		UserDto otherOfficer = creator.createUser(otherRdcf, UserRole.CONTACT_OFFICER);
+		UserDto admin = creator.createUser(rdcf, UserRole.ADMIN);
+		PersonDto cazePerson = creator.createPerson("Case", "Person");
+		CaseDataDto caze = creator.createCase(supervisor.toReference(), cazePerson.toReference(), rdcf);
+
+		assertFalse(getCaseFacade().getAllActiveUuids(officer.getUuid()).contains(caze.getUuid()));
+
+		PersonDto contactPerson = creator.createPerson("Contact", "Person");
+		ContactDto contact = creator.createContact(supervisor.toReference(), officer.toReference(),
+				contactPerson.toReference(), caze.toReference(), new Date(), new Date());
+		assertTrue(getCaseFacade().getAllActiveUuids(officer.getUuid()).contains(caze.getUuid()));
+
+		// reassigning the contact moves the access to the new contact officer
+		contact.setContactOfficer(otherOfficer.toReference());
+		contact = getContactFacade().saveContact(contact);
+		assertFalse(getCaseFacade().getAllActiveUuids(officer.getUuid()).contains(caze.getUuid()));
+		assertTrue(getCaseFacade().getAllActiveUuids(otherOfficer.getUuid()).contains(caze.getUuid()));
+
+		getContactFacade().deleteContact(contact.toReference(), admin.getUuid());
+		assertFalse(getCaseFacade().getAllActiveUuids(otherOfficer.getUuid()).contains(caze.getUuid()));
+	}
+
+	@Test
+	public void testUserAccessFollowsUserAndCaseChanges() {
+
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		RDCF otherRdcf = creator.createRDCF("Other Region", "Other District", "Other Community", "Other Facility");
+		UserDto supervisor = creator.createUser(rdcf, UserRole.SURVEILLANCE_SUPERVISOR);
+		UserDto officer = creator.createUser(otherRdcf, UserRole.SURVEILLANCE_OFFICER);
+		PersonDto cazePerson = creator.createPerson("Case", "Person");
+		CaseDataDto caze = creator.createCase(supervisor.toReference(), cazePerson.toReference(), rdcf);
+
+		assertFalse(getCaseFacade().getAllActiveUuids(officer.getUuid()).contains(caze.getUuid()));
+
+		// the case moves to the officer's district
+		caze.setRegion(new RegionReferenceDto(otherRdcf.region.getUuid()));
+		caze.setDistrict(new DistrictReferenceDto(otherRdcf.district.getUuid()));
+		caze.setCommunity(new CommunityReferenceDto(otherRdcf.community.getUuid()));
+		caze.setHealthFacility(new FacilityReferenceDto(otherRdcf.facility.getUuid()));
+		caze = getCaseFacade().saveCase(caze);
+		assertTrue(getCaseFacade().getAllActiveUuids(officer.getUuid()).contains(caze.getUuid()));
+		assertFalse(getCaseFacade().getAllActiveUuids(supervisor.getUuid()).contains(caze.getUuid()));
+
+		// the supervisor is reassigned to the new region of the case
+		supervisor.setRegion(new RegionReferenceDto(otherRdcf.region.getUuid()));
+		supervisor.setDistrict(new DistrictReferenceDto(otherRdcf.district.getUuid()));
+		supervisor = getUserFacade().saveUser(supervisor);
+		assertTrue(getCaseFacade().getAllActiveUuids(supervisor.getUuid()).contains(caze.getUuid()));
+
+		// a change of the roles alone doesn't update the user's change date
+		supervisor.setUserRoles(new HashSet<>(Arrays.asList(UserRole.HOSPITAL_INFORMANT)));
+		supervisor.setHealthFacility(new FacilityReferenceDto(rdcf.facility.getUuid()));
+		supervisor = getUserFacade().saveUser(supervisor);
+		assertFalse(getCaseFacade().getAllActiveUuids(supervisor.getUuid()).contains(caze.getUuid()));
+	}
+
+	@Test
+	public void testLabUserAccessFollowsSampleChanges() {
+
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		Facility lab = creator.createFacility("Lab", rdcf.region, rdcf.district, rdcf.community);
+		Facility otherLab = creator.createFacility("Other Lab", rdcf.region, rdcf.district, rdcf.community);
+		UserDto supervisor = creator.createUser(rdcf, UserRole.SURVEILLANCE_SUPERVISOR);
+		UserDto admin = creator.createUser(rdcf, UserRole.ADMIN);
+		UserDto labUser = creator.createUser(rdcf, UserRole.LAB_USER);
+		labUser.setLaboratory(new FacilityReferenceDto(lab.getUuid()));
+		labUser = getUserFacade().saveUser(labUser);
+		UserDto labUserWithoutLab = creator.createUser(rdcf, UserRole.LAB_USER);
+
+		PersonDto cazePerson = creator.createPerson("Case", "Person");
+		CaseDataDto caze = creator.createCase(supervisor.toReference(), cazePerson.toReference(), rdcf);
+		// lab users only see the cases of their samples, not the ones they created
+		CaseDataDto ownCase = creator.createCase(labUser.toReference(), cazePerson.toReference(), rdcf);
+
+		assertTrue(getCaseFacade().getAllActiveUuids(labUser.getUuid()).isEmpty());
+		assertTrue(getCaseFacade().getAllActiveUuids(labUserWithoutLab.getUuid()).isEmpty());
+
+		SampleDto sample = creator.createSample(caze.toReference(), new Date(), new Date(), supervisor.toReference(),
+				SampleMaterial.BLOOD, lab);
+		assertEquals(Arrays.asList(caze.getUuid()), getCaseFacade().getAllActiveUuids(labUser.getUuid()));
+		// lab users without laboratory see the cases of all samples
+		assertEquals(Arrays.asList(caze.getUuid()), getCaseFacade().getAllActiveUuids(labUserWithoutLab.getUuid()));
+		assertFalse(getCaseFacade().getAllActiveUuids(labUser.getUuid()).contains(ownCase.getUuid()));
+
+		sample.setLab(new FacilityReferenceDto(otherLab.getUuid()));
+		sample = getSampleFacade().saveSample(sample);
+		assertTrue(getCaseFacade().getAllActiveUuids(labUser.getUuid()).isEmpty());
+
+		// the user is moved to the other laboratory
+		labUser.setLaboratory(new FacilityReferenceDto(otherLab.getUuid()));
+		labUser = getUserFacade().saveUser(labUser);
+		assertEquals(Arrays.asList(caze.getUuid()), getCaseFacade().getAllActiveUuids(labUser.getUuid()));
+
+		getSampleFacade().deleteSample(sample.toReference(), admin.getUuid());
+		assertTrue(getCaseFacade().getAllActiveUuids(labUser.getUuid()).isEmpty());
+		assertTrue(getCaseFacade().getAllActiveUuids(labUserWithoutLab.getUuid()).isEmpty());
+	}
 }
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.symeda.sormas.api.facility.FacilityReferenceDto;
+import de.symeda.sormas.api.region.DistrictReferenceDto;
+import de.symeda.sormas.api.region.RegionDto;
+import de.symeda.sormas.api.region.RegionReferenceDto;
+import de.symeda.sormas.api.user.UserDto;
+import de.symeda.sormas.api.user.UserReferenceDto;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.TestDataCreator.RDCF;
+import de.symeda.sormas.backend.common.InfrastructureCache.Entry;
+import de.symeda.sormas.backend.facility.Facility;
+import de.symeda.sormas.backend.region.District;
+import de.symeda.sormas.backend.region.DistrictService;
+
+public class InfrastructureCacheTest extends AbstractBeanTest {
+
+	@Test
+	public void testGetByName() {
+
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		RDCF otherRdcf = creator.createRDCF("Other Region", "District", "Other Community", "Facility");
+
+		List<RegionReferenceDto> regions = getRegionFacade().getByName("Region");
+		assertEquals(1, regions.size());
+		assertEquals(rdcf.region.getUuid(), regions.get(0).getUuid());
+		assertEquals("Region", regions.get(0).getCaption());
+
+		assertEquals(2, getDistrictFacade().getByName("District", null).size());
+		List<DistrictReferenceDto> districts = getDistrictFacade().getByName("District",
+				new RegionReferenceDto(otherRdcf.region.getUuid()));
+		assertEquals(1, districts.size());
+		assertEquals(otherRdcf.district.getUuid(), districts.get(0).getUuid());
+
+		assertTrue(getCommunityFacade().getByName("Other Community", new DistrictReferenceDto(rdcf.district.getUuid())).isEmpty());
+
+		List<FacilityReferenceDto> facilities = getFacilityFacade().getByName("Facility",
+				new DistrictReferenceDto(rdcf.district.getUuid()), null);
+		assertEquals(1, facilities.size());
+		assertEquals(rdcf.facility.getUuid(), facilities.get(0).getUuid());
+
+		UserDto user = creator.createUser(rdcf, UserRole.SURVEILLANCE_SUPERVISOR);
+		UserReferenceDto userReference = getUserFacade().getByUserNameAsReference(user.getUserName());
+		assertEquals(user.toReference().getCaption(), userReference.getCaption());
+		assertNull(getUserFacade().getByUserNameAsReference("unknown"));
+	}
+
+	@Test
+	public void testInvalidation() {
+
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		assertEquals(1, getDistrictFacade().getByName("District", null).size());
+
+		District district = creator.createDistrict("District", rdcf.region);
+		assertEquals(2, getDistrictFacade().getByName("District", null).size());
+
+		RegionDto region = getRegionFacade().getRegionByUuid(rdcf.region.getUuid());
+		region.setName("Renamed Region");
+		getRegionFacade().saveRegion(region);
+		assertEquals("Renamed Region", getRegionFacade().getRegionReferenceByUuid(rdcf.region.getUuid()).getCaption());
+
+		InfrastructureCache infrastructureCache = getBean(InfrastructureCache.class);
+		assertEquals(rdcf.facility.getId().longValue(), infrastructureCache.getByUuid(Facility.class, rdcf.facility.getUuid()).getId());
+		assertNull(infrastructureCache.getByUuid(Facility.class, "unknown"));
+		List<Entry> entries = infrastructureCache.getByUuids(Facility.class, Arrays.asList(rdcf.facility.getUuid(), "unknown"));
+		assertEquals(1, entries.size());
+		assertEquals(rdcf.facility.getId().longValue(), entries.get(0).getId());
+		assertEquals(district.getUuid(), infrastructureCache.getById(District.class, district.getId()).getUuid());
+		assertEquals(district.getUuid(), getDistrictFacade().getDistrictReferenceById(district.getId().intValue()).getUuid());
+		assertEquals(rdcf.region.getId(), infrastructureCache.getByUuid(District.class, district.getUuid()).getRegionId());
+	}
+
+	@Test
+	public void testGetByReferenceDto() {
+
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+
+		// loaded by the cached id
+		District district = getBean(DistrictService.class).getByReferenceDto(new DistrictReferenceDto(rdcf.district.getUuid()));
+		assertEquals(rdcf.district.getId(), district.getId());
+		assertEquals("District", district.getName());
+		assertNull(getBean(DistrictService.class).getByUuid("unknown"));
+
+		// the insert invalidated the cached districts
+		District otherDistrict = creator.createDistrict("Other District", rdcf.region);
+		assertEquals(otherDistrict.getId(), getBean(DistrictService.class).getByUuid(otherDistrict.getUuid()).getId());
+	}
+}
@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import javax.ejb.TimerConfig;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import de.symeda.sormas.api.user.UserDto;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.MockMailTransport;
+import de.symeda.sormas.backend.MockProducer;
+import de.symeda.sormas.backend.MockSmsService;
+import de.symeda.sormas.backend.TestDataCreator.RDCF;
+import de.symeda.sormas.backend.user.User;
+import de.symeda.sormas.backend.user.UserService;
+
+public class MessagingServiceTest extends AbstractBeanTest {
+
+	@After
+	public void resetMailTransport() {
+		MockMailTransport.reset();
+		MockSmsService.reset();
+	}
+
+	@Test
+	public void testDispatchQueuedMessages() throws Exception {
+
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator.createUser(rdcf, UserRole.SURVEILLANCE_SUPERVISOR);
+		user.setUserEmail("supervisor@sormas.org");
+		user = getUserFacade().saveUser(user);
+
+		MessagingService messagingService = getBean(MessagingService.class);
+		QueuedMessageService queuedMessageService = getBean(QueuedMessageService.class);
+
+		// only queued, nothing sent yet; no phone number, so no SMS
+		messagingService.sendMessage(getBean(UserService.class).getByUuid(user.getUuid()), "Subject", "Content",
+				MessageType.EMAIL, MessageType.SMS);
+		List<QueuedMessage> messages = queuedMessageService.getAll();
+		assertEquals(1, messages.size());
+		assertEquals(QueuedMessageStatus.PENDING, messages.get(0).getStatus());
+		assertEquals(0, MockMailTransport.getSentMessages().size());
+
+		messagingService.dispatchQueuedMessages();
+
+		assertEquals(1, MockMailTransport.getSentMessages().size());
+		assertEquals("Subject", MockMailTransport.getSentMessages().get(0).getSubject());
+		QueuedMessage message = queuedMessageService.getByUuid(messages.get(0).getUuid());
+		assertEquals(QueuedMessageStatus.SENT, message.getStatus());
+		assertEquals(1, message.getAttempts());
+
+		// already sent
+		messagingService.dispatchQueuedMessages();
+		assertEquals(1, MockMailTransport.getSentMessages().size());
+	}
+
+	@Test
+	public void testRetryFailedMessages() throws Exception {
+
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator.createUser(rdcf, UserRole.SURVEILLANCE_SUPERVISOR);
+		user.setUserEmail("unreachable@sormas.org");
+		user = getUserFacade().saveUser(user);
+		MockMailTransport.failFor("unreachable@sormas.org");
+
+		MessagingService messagingService = getBean(MessagingService.class);
+		QueuedMessageService queuedMessageService = getBean(QueuedMessageService.class);
+
+		messagingService.sendMessage(getBean(UserService.class).getByUuid(user.getUuid()), "Subject", "Content", MessageType.EMAIL);
+		String messageUuid = queuedMessageService.getAll().get(0).getUuid();
+
+		Date beforeDispatch = new Date();
+		messagingService.dispatchQueuedMessages();
+
+		QueuedMessage message = queuedMessageService.getByUuid(messageUuid);
+		assertEquals(QueuedMessageStatus.PENDING, message.getStatus());
+		assertEquals(1, message.getAttempts());
+		assertTrue(message.getNextAttemptDate().after(beforeDispatch));
+
+		// not due yet
+		messagingService.dispatchQueuedMessages();
+		message = queuedMessageService.getByUuid(messageUuid);
+		assertEquals(1, message.getAttempts());
+
+		// give up after the last attempt
+		for (int i = message.getAttempts(); i < MessagingService.MAX_ATTEMPTS; i++) {
+			message.setNextAttemptDate(new Date());
+			queuedMessageService.ensurePersisted(message);
+			messagingService.dispatchQueuedMessages();
+			message = queuedMessageService.getByUuid(messageUuid);
+		}
+		assertEquals(QueuedMessageStatus.FAILED, message.getStatus());
+		assertEquals(MessagingService.MAX_ATTEMPTS, message.getAttempts());
+		assertNull(message.getNextAttemptDate());
+		assertEquals(0, MockMailTransport.getSentMessages().size());
+	}
+
+	@Test
+	public void testSmsAreThrottledAndRescheduled() throws Exception {
+
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		CronService cronService = getBean(CronService.class);
+		MessagingService messagingService = getBean(MessagingService.class);
+		QueuedMessageService queuedMessageService = getBean(QueuedMessageService.class);
+
+		for (String phone : Arrays.asList("+111", "+222", "+333")) {
+			messagingService.sendMessage(createUserWithPhone(rdcf, phone), "Subject", "Content", MessageType.SMS);
+		}
+		// SMS sent by other tests don't count
+		Thread.sleep(MessagingService.SMS_INTERVAL_MILLIS);
+
+		// only one SMS is sent right away, the dispatch is repeated for the others instead of waiting
+		cronService.runEveryMinute();
+		assertEquals(Arrays.asList("+111"), MockSmsService.getSentSms());
+		ArgumentCaptor<Long> delay = ArgumentCaptor.forClass(Long.class);
+		verify(MockProducer.getTimerService()).createSingleActionTimer(delay.capture(), any(TimerConfig.class));
+		assertTrue(delay.getValue() > 0 && delay.getValue() <= MessagingService.SMS_INTERVAL_MILLIS);
+
+		// the regular dispatch neither sends too early nor schedules a second repetition
+		cronService.runEveryMinute();
+		assertEquals(1, MockSmsService.getSentSms().size());
+		verify(MockProducer.getTimerService(), times(1)).createSingleActionTimer(anyLong(), any(TimerConfig.class));
+
+		Thread.sleep(delay.getValue());
+		cronService.runRescheduledDispatch(null);
+		assertEquals(Arrays.asList("+111", "+222"), MockSmsService.getSentSms());
+		verify(MockProducer.getTimerService(), times(2)).createSingleActionTimer(delay.capture(), any(TimerConfig.class));
+
+		// no more repetition after the last SMS
+		Thread.sleep(delay.getValue());
+		cronService.runRescheduledDispatch(null);
+		assertEquals(Arrays.asList("+111", "+222", "+333"), MockSmsService.getSentSms());
+		verify(MockProducer.getTimerService(), times(2)).createSingleActionTimer(anyLong(), any(TimerConfig.class));
+		for (QueuedMessage message : queuedMessageService.getAll()) {
+			assertEquals(QueuedMessageStatus.SENT, message.getStatus());
+		}
+	}
+
+	@Test
+	public void testRetryFailedSms() throws Exception {
+
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		MessagingService messagingService = getBean(MessagingService.class);
+		QueuedMessageService queuedMessageService = getBean(QueuedMessageService.class);
+
+		MockSmsService.failFor("+444");
+		MockSmsService.rejectAsInvalid("+555");
+		messagingService.sendMessage(createUserWithPhone(rdcf, "+444"), "Subject", "Content", MessageType.SMS);
+		messagingService.sendMessage(createUserWithPhone(rdcf, "+555"), "Subject", "Content", MessageType.SMS);
+
+		Date beforeDispatch = new Date();
+		Long delay;
+		while ((delay = messagingService.dispatchQueuedMessages()) != null) {
+			Thread.sleep(delay);
+		}
+		assertTrue(MockSmsService.getSentSms().isEmpty());
+
+		// the gateway failure is retried later
+		List<QueuedMessage> messages = queuedMessageService.getAll();
+		QueuedMessage failedMessage = messages.stream().filter(m -> "+444".equals(m.getRecipientAddress())).findFirst().get();
+		assertEquals(QueuedMessageStatus.PENDING, failedMessage.getStatus());
+		assertEquals(1, failedMessage.getAttempts());
+		assertTrue(failedMessage.getNextAttemptDate().after(beforeDispatch));
+
+		// an invalid phone number is not retried
+		QueuedMessage invalidMessage = messages.stream().filter(m -> "+555".equals(m.getRecipientAddress())).findFirst().get();
+		assertEquals(QueuedMessageStatus.FAILED, invalidMessage.getStatus());
+		assertEquals(1, invalidMessage.getAttempts());
+		assertNull(invalidMessage.getNextAttemptDate());
+	}
+
+	private User createUserWithPhone(RDCF rdcf, String phone) {
+
+		UserDto user = creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(),
+				"User", phone, UserRole.SURVEILLANCE_OFFICER);
+		user.setPhone(phone);
+		user = getUserFacade().saveUser(user);
+		return getBean(UserService.class).getByUuid(user.getUuid());
+	}
+}
@@ -18,6 +18,7 @@
 package de.symeda.sormas.backend.contact;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -40,7 +41,9 @@ import de.symeda.sormas.api.caze.MapCaseDto;
 import de.symeda.sormas.api.contact.ContactClassification;
 import de.symeda.sormas.api.contact.ContactDto;
 import de.symeda.sormas.api.contact.ContactExportDto;
+import de.symeda.sormas.api.contact.ContactIndexDto;
 import de.symeda.sormas.api.contact.ContactStatus;
+import de.symeda.sormas.api.contact.DashboardContactDto;
 import de.symeda.sormas.api.contact.FollowUpStatus;
 import de.symeda.sormas.api.contact.MapContactDto;
 import de.symeda.sormas.api.person.PersonDto;
@@ -146,6 +149,29 @@ public class ContactFacadeEjbTest extends AbstractBeanTest  {
 		assertEquals(1, tasks.size());
 	}
 	
+	@Test
+	public void testGenerateContactFollowUpTasksForSupervisor() {
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(), "Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		UserDto contactSupervisor = creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(), "Cont", "Sup", UserRole.CONTACT_SUPERVISOR);
+		PersonDto cazePerson = creator.createPerson("Case", "Person");
+		CaseDataDto caze = creator.createCase(user.toReference(), cazePerson.toReference(), Disease.EVD, CaseClassification.PROBABLE,
+				InvestigationStatus.PENDING, new Date(), rdcf);
+		PersonDto contactPerson = creator.createPerson("Contact", "Person");
+		ContactDto contact = creator.createContact(user.toReference(), null, contactPerson.toReference(), caze.toReference(), new Date(), new Date());
+
+		getContactFacade().generateContactFollowUpTasks();
+
+		// contact without contact officer: task for the contact supervisor of the case region
+		List<TaskDto> tasks = getTaskFacade().getAllByContact(contact.toReference());
+		assertEquals(1, tasks.size());
+		assertEquals(contactSupervisor.getUuid(), tasks.get(0).getAssigneeUser().getUuid());
+
+		getContactFacade().generateContactFollowUpTasks();
+		tasks = getTaskFacade().getAllByContact(contact.toReference());
+		assertEquals(1, tasks.size());
+	}
+
 	@Test
 	public void testMapContactListCreation() {
 		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
@@ -208,6 +234,67 @@ public class ContactFacadeEjbTest extends AbstractBeanTest  {
 		assertEquals(1, getContactFacade().getIndexList(userUuid, null).size());
 	}
 
+	@Test
+	public void testGetIndexListVisitAndTaskCounts() {
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(), "Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		PersonDto cazePerson = creator.createPerson("Case", "Person");
+		CaseDataDto caze = creator.createCase(user.toReference(), cazePerson.toReference(), Disease.EVD, CaseClassification.PROBABLE,
+				InvestigationStatus.PENDING, new Date(), rdcf);
+		PersonDto contactPerson = creator.createPerson("Contact", "Person");
+		ContactDto contact = creator.createContact(user.toReference(), user.toReference(), contactPerson.toReference(), caze.toReference(), new Date(), new Date());
+		creator.createVisit(caze.getDisease(), contactPerson.toReference(), DateUtils.addDays(new Date(), 1), VisitStatus.COOPERATIVE);
+		// before the follow-up period of the contact
+		creator.createVisit(caze.getDisease(), contactPerson.toReference(), DateUtils.addDays(new Date(), -60), VisitStatus.COOPERATIVE);
+		creator.createTask(TaskContext.CONTACT, TaskType.CONTACT_FOLLOW_UP, TaskStatus.PENDING, null, contact.toReference(), null, new Date(), user.toReference());
+		creator.createTask(TaskContext.CONTACT, TaskType.CONTACT_INVESTIGATION, TaskStatus.DONE, null, contact.toReference(), null, new Date(), user.toReference());
+
+		// only the visit in the follow-up period and the pending task are counted
+		List<ContactIndexDto> indexList = getContactFacade().getIndexList(user.getUuid(), null);
+		assertEquals(1, indexList.size());
+		assertEquals(1, indexList.get(0).getVisitCount());
+		assertEquals(1, indexList.get(0).getPendingTaskCount());
+	}
+
+	@Test
+	public void testFollowUpSummary() {
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(), "Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		UserDto admin = creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(), "Ad", "Min", UserRole.ADMIN);
+		PersonDto cazePerson = creator.createPerson("Case", "Person");
+		CaseDataDto caze = creator.createCase(user.toReference(), cazePerson.toReference(), Disease.EVD, CaseClassification.PROBABLE,
+				InvestigationStatus.PENDING, new Date(), rdcf);
+		PersonDto contactPerson = creator.createPerson("Contact", "Person");
+		creator.createContact(user.toReference(), user.toReference(), contactPerson.toReference(), caze.toReference(), new Date(), new Date());
+		VisitDto cooperativeVisit = creator.createVisit(caze.getDisease(), contactPerson.toReference(), DateUtils.addDays(new Date(), 1), VisitStatus.COOPERATIVE);
+		cooperativeVisit.getSymptoms().setFever(SymptomState.YES);
+		cooperativeVisit = getVisitFacade().saveVisit(cooperativeVisit);
+		VisitDto uncooperativeVisit = creator.createVisit(caze.getDisease(), contactPerson.toReference(), DateUtils.addDays(new Date(), 2), VisitStatus.UNCOOPERATIVE);
+
+		Date from = DateHelper.subtractDays(new Date(), 1);
+		Date to = DateHelper.addDays(new Date(), 1);
+		DashboardContactDto dashboardContact = getContactFacade().getContactsForDashboard(null, null, null, from, to, user.getUuid()).get(0);
+		assertEquals(VisitStatus.UNCOOPERATIVE, dashboardContact.getLastVisitStatus());
+		assertEquals(uncooperativeVisit.getVisitDateTime().getTime(), dashboardContact.getLastVisitDateTime().getTime());
+		assertFalse(dashboardContact.isSymptomatic());
+		assertEquals(2, getContactFacade().getIndexList(user.getUuid(), null).get(0).getVisitCount());
+
+		MapCaseDto mapCaseDto = new MapCaseDto(caze.getUuid(), caze.getReportDate(), caze.getCaseClassification(), caze.getDisease(), 
+				caze.getPerson().getUuid(), cazePerson.getFirstName(), cazePerson.getLastName(),
+				caze.getHealthFacility().getUuid(), 0d, 0d,
+				caze.getReportLat(), caze.getReportLon(), caze.getReportLat(), caze.getReportLon());
+		MapContactDto mapContact = getContactFacade().getContactsForMap(caze.getRegion(), caze.getDistrict(), caze.getDisease(), from, to, user.getUuid(), Arrays.asList(mapCaseDto)).get(0);
+		assertEquals(cooperativeVisit.getVisitDateTime().getTime(), mapContact.getLastVisitDateTime().getTime());
+
+		// deleting the last visit updates the summary
+		getVisitFacade().deleteVisit(uncooperativeVisit.toReference(), admin.getUuid());
+
+		dashboardContact = getContactFacade().getContactsForDashboard(null, null, null, from, to, user.getUuid()).get(0);
+		assertEquals(VisitStatus.COOPERATIVE, dashboardContact.getLastVisitStatus());
+		assertTrue(dashboardContact.isSymptomatic());
+		assertEquals(1, getContactFacade().getIndexList(user.getUuid(), null).get(0).getVisitCount());
+	}
+
 	@Test
 	public void testGetExportList() {
 		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
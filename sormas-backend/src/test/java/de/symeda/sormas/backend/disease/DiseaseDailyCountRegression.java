@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.disease;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.symeda.sormas.api.utils.DataHelper;
+import de.symeda.sormas.backend.PostgresTestDatabase;
+
+/**
+ * Checks the unique index on the cell and category columns of diseasedailycount, which doesn't exist in the H2
+ * database of the bean tests. Not run by the regular build, see {@link PostgresTestDatabase}.
+ */
+public class DiseaseDailyCountRegression {
+
+	private static final String INSERT = "INSERT INTO diseasedailycount (id, uuid, creationdate, changedate, counttype, day, amount) "
+			+ "VALUES (nextval('entity_seq'), ?, now(), now(), 'CASE', '1900-01-01', 1)";
+
+	private static Connection connection;
+
+	@BeforeClass
+	public static void connect() throws SQLException {
+		connection = PostgresTestDatabase.connect();
+	}
+
+	@AfterClass
+	public static void disconnect() throws SQLException {
+		if (connection != null) {
+			connection.close();
+		}
+	}
+
+	@After
+	public void deleteTestData() throws SQLException {
+
+		try (PreparedStatement statement = connection.prepareStatement("DELETE FROM diseasedailycount WHERE day = '1900-01-01'")) {
+			statement.executeUpdate();
+		}
+	}
+
+	/**
+	 * Disease, jurisdiction and category are null - the index has to treat them as equal anyway
+	 */
+	@Test(expected = SQLException.class)
+	public void testDuplicateCellIsRejected() throws SQLException {
+
+		insert();
+		insert();
+	}
+
+	private static void insert() throws SQLException {
+
+		try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+			statement.setString(1, DataHelper.createUuid());
+			statement.executeUpdate();
+		}
+	}
+}
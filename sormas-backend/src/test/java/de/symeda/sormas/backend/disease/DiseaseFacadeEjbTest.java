@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.disease;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Date;
+
+import org.junit.Test;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.caze.InvestigationStatus;
+import de.symeda.sormas.api.disease.DashboardDiseaseCountsDto;
+import de.symeda.sormas.api.event.EventStatus;
+import de.symeda.sormas.api.event.EventType;
+import de.symeda.sormas.api.event.TypeOfPlace;
+import de.symeda.sormas.api.location.LocationDto;
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.region.RegionReferenceDto;
+import de.symeda.sormas.api.sample.SampleTestResultType;
+import de.symeda.sormas.api.sample.SampleTestType;
+import de.symeda.sormas.api.user.UserDto;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.TestDataCreator.RDCF;
+
+public class DiseaseFacadeEjbTest extends AbstractBeanTest {
+
+	@Test
+	public void testGetDashboardCounts() {
+
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(),
+				"Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		RegionReferenceDto region = getRegionFacade().getRegionReferenceByUuid(rdcf.region.getUuid());
+		Date from = DateHelper.subtractDays(new Date(), 1);
+		Date to = DateHelper.addDays(new Date(), 1);
+
+		PersonDto cazePerson = creator.createPerson("Case", "Person");
+		CaseDataDto caze = creator.createCase(user.toReference(), cazePerson.toReference(), Disease.EVD,
+				CaseClassification.PROBABLE, InvestigationStatus.PENDING, new Date(), rdcf);
+		PersonDto otherCazePerson = creator.createPerson("Other", "Person");
+		CaseDataDto otherCaze = creator.createCase(user.toReference(), otherCazePerson.toReference(), Disease.EVD,
+				CaseClassification.PROBABLE, InvestigationStatus.PENDING, new Date(), rdcf);
+		creator.createSampleTest(caze, SampleTestType.ANTIGEN_DETECTION, SampleTestResultType.POSITIVE);
+
+		LocationDto eventLocation = new LocationDto();
+		eventLocation.setRegion(region);
+		eventLocation.setDistrict(getDistrictFacade().getDistrictReferenceByUuid(rdcf.district.getUuid()));
+		creator.createEvent(EventType.OUTBREAK, EventStatus.POSSIBLE, "Description", "First", "Name", "12345",
+				TypeOfPlace.PUBLIC_PLACE, new Date(), new Date(), user.toReference(), user.toReference(), Disease.EVD,
+				eventLocation);
+
+		DashboardDiseaseCountsDto counts = getDiseaseFacade().getDashboardCounts(region, null, Disease.EVD, from, to, user.getUuid());
+		assertEquals(2, counts.getCaseCount());
+		assertEquals(0, counts.getFatalCaseCount());
+		assertEquals(1, counts.getEventCount(EventStatus.POSSIBLE));
+		assertEquals(1, counts.getTestResultCount(SampleTestResultType.POSITIVE));
+
+		// moving a case out of the period is reflected by the counts
+		otherCaze = getCaseFacade().getCaseDataByUuid(otherCaze.getUuid());
+		otherCaze.setReportDate(DateHelper.subtractDays(new Date(), 10));
+		getCaseFacade().saveCase(otherCaze);
+
+		counts = getDiseaseFacade().getDashboardCounts(region, null, Disease.EVD, from, to, user.getUuid());
+		assertEquals(1, counts.getCaseCount());
+		assertEquals(1, getDiseaseFacade().getDashboardCounts(region, null, Disease.EVD,
+				DateHelper.subtractDays(new Date(), 11), DateHelper.subtractDays(new Date(), 9), user.getUuid()).getCaseCount());
+	}
+}
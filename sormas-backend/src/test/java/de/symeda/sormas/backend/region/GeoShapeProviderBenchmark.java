@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.region;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.api.region.DistrictReferenceDto;
+import de.symeda.sormas.api.region.GeoLatLon;
+import de.symeda.sormas.api.region.GeoShapeProvider;
+import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
+import info.novatec.beantest.api.BeanProviderHelper;
+
+/**
+ * Measures the throughput of district lookups by coordinate with the district shapes of the configured country.
+ *
+ * Not run by the regular build (no "Test" suffix). Run with
+ * <code>mvn test -Dtest=GeoShapeProviderBenchmark -Dbenchmark.coords=100000</code>
+ */
+public class GeoShapeProviderBenchmark {
+
+	private static final Logger logger = LoggerFactory.getLogger(GeoShapeProviderBenchmark.class);
+
+	private static BeanProviderHelper bm;
+
+	@BeforeClass
+	public static void initialize() {
+		bm = BeanProviderHelper.getInstance();
+
+		RegionService regionService = getBean(RegionService.class);
+		DistrictService districtService = getBean(DistrictService.class);
+
+		String countryName = getBean(ConfigFacadeEjbLocal.class).getCountryName();
+		List<Region> regions = regionService.getAll();
+
+		regionService.importRegions(countryName, regions);
+		districtService.importDistricts(countryName, regions);
+	}
+
+	@AfterClass
+	public static void cleanUp() {
+		bm.shutdown();
+	}
+
+	protected static <T> T getBean(Class<T> beanClass, Annotation... qualifiers) {
+		return bm.getBean(beanClass, qualifiers);
+	}
+
+	@Test
+	public void benchmarkGetDistrictsByCoords() {
+
+		int coordCount = Integer.getInteger("benchmark.coords", 100000);
+
+		GeoShapeProvider geoShapeProvider = getBean(GeoShapeProviderEjb.class);
+		GeoLatLon center = geoShapeProvider.getCenterOfAllRegions();
+
+		// random coordinates around the center of the country (+- 5 degrees), some of them outside;
+		// the centers are calculated with latitude and longitude swapped
+		Random random = new Random(42);
+		List<GeoLatLon> coords = new ArrayList<>(coordCount);
+		for (int i = 0; i < coordCount; i++) {
+			coords.add(new GeoLatLon(center.getLon() + random.nextDouble() * 10 - 5,
+					center.getLat() + random.nextDouble() * 10 - 5));
+		}
+
+		// warm up
+		geoShapeProvider.getDistrictsByCoords(coords.subList(0, Math.min(1000, coordCount)));
+
+		long start = System.nanoTime();
+		List<DistrictReferenceDto> singleResults = new ArrayList<>(coordCount);
+		for (GeoLatLon coord : coords) {
+			singleResults.add(geoShapeProvider.getDistrictByCoord(coord));
+		}
+		long singleNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		List<DistrictReferenceDto> bulkResults = geoShapeProvider.getDistrictsByCoords(coords);
+		long bulkNanos = System.nanoTime() - start;
+
+		long found = bulkResults.stream().filter(d -> d != null).count();
+		logger.info("District lookup of " + coordCount + " coordinates (" + found + " inside a district): single "
+				+ singleNanos / 1_000_000 + " ms (" + coordCount * 1_000_000_000L / Math.max(singleNanos, 1) + "/s), bulk "
+				+ bulkNanos / 1_000_000 + " ms (" + coordCount * 1_000_000_000L / Math.max(bulkNanos, 1) + "/s)");
+
+		assertEquals(singleResults, bulkResults);
+	}
+}
@@ -20,9 +20,11 @@ package de.symeda.sormas.backend.region;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 
 import java.lang.annotation.Annotation;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.AfterClass;
@@ -37,7 +39,6 @@ import de.symeda.sormas.api.region.RegionFacade;
 import de.symeda.sormas.api.region.RegionReferenceDto;
 import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
 import de.symeda.sormas.backend.region.DistrictFacadeEjb.DistrictFacadeEjbLocal;
-import de.symeda.sormas.backend.region.GeoShapeProviderEjb.GeoShapeProviderEjbLocal;
 import de.symeda.sormas.backend.region.RegionFacadeEjb.RegionFacadeEjbLocal;
 import info.novatec.beantest.api.BeanProviderHelper;
 
@@ -70,7 +71,7 @@ public class GeoShapeProviderEjbTest {
 	
 	@Test
 	public void testGetRegionShape() throws Exception {
-		GeoShapeProvider geoShapeProvider = getBean(GeoShapeProviderEjbLocal.class);
+		GeoShapeProvider geoShapeProvider = getBean(GeoShapeProviderEjb.class);
 		RegionFacade regionFacade = getBean(RegionFacadeEjbLocal.class);
 		
 		List<RegionReferenceDto> regions = regionFacade.getAllAsReference();
@@ -83,14 +84,14 @@ public class GeoShapeProviderEjbTest {
 
 	@Test
 	public void testGetRegionByCoord() throws Exception {
-		GeoShapeProvider geoShapeProvider = getBean(GeoShapeProviderEjbLocal.class);
+		GeoShapeProvider geoShapeProvider = getBean(GeoShapeProviderEjb.class);
 		RegionReferenceDto region = geoShapeProvider.getRegionByCoord(new GeoLatLon(9.076344, 7.276929));
 		assertEquals("FCT", region.getCaption());
 	}
 
 	@Test
 	public void testGetDistrictShape() throws Exception {
-		GeoShapeProvider geoShapeProvider = getBean(GeoShapeProviderEjbLocal.class);
+		GeoShapeProvider geoShapeProvider = getBean(GeoShapeProviderEjb.class);
 
 		RegionReferenceDto region = geoShapeProvider.getRegionByCoord(new GeoLatLon(9.076344, 7.276929));
 		
@@ -106,8 +107,24 @@ public class GeoShapeProviderEjbTest {
 
 	@Test
 	public void testGetDistrictByCoord() throws Exception {
-		GeoShapeProvider geoShapeProvider = getBean(GeoShapeProviderEjbLocal.class);
+		GeoShapeProvider geoShapeProvider = getBean(GeoShapeProviderEjb.class);
 		DistrictReferenceDto district = geoShapeProvider.getDistrictByCoord(new GeoLatLon(9.076344, 7.276929));
 		assertEquals("Abuja Municipal", district.getCaption());
 	}
+
+	@Test
+	public void testGetDistrictsByCoords() throws Exception {
+		GeoShapeProvider geoShapeProvider = getBean(GeoShapeProviderEjb.class);
+		List<GeoLatLon> coords = Arrays.asList(new GeoLatLon(9.076344, 7.276929), new GeoLatLon(0, 0), new GeoLatLon(9.076344, 7.276929));
+
+		List<DistrictReferenceDto> districts = geoShapeProvider.getDistrictsByCoords(coords);
+		assertEquals(3, districts.size());
+		assertEquals("Abuja Municipal", districts.get(0).getCaption());
+		assertNull(districts.get(1));
+		assertEquals(districts.get(0), districts.get(2));
+
+		List<RegionReferenceDto> regions = geoShapeProvider.getRegionsByCoords(coords);
+		assertEquals("FCT", regions.get(0).getCaption());
+		assertNull(regions.get(1));
+	}
 }
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.backend.report;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.persistence.EntityManager;
+
+import org.eclipse.persistence.jpa.JpaEntityManager;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.SessionEventManager;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.api.region.RegionReferenceDto;
+import de.symeda.sormas.api.report.WeeklyReportDto;
+import de.symeda.sormas.api.report.WeeklyReportOfficerSummaryDto;
+import de.symeda.sormas.api.report.WeeklyReportRegionSummaryDto;
+import de.symeda.sormas.api.user.UserDto;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.api.utils.DataHelper;
+import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.api.utils.EpiWeek;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.TestDataCreator.RDCF;
+
+/**
+ * Measures the number of queries and the latency of the weekly report summaries per region and per officer
+ * with a country-sized user base.
+ *
+ * Not run by the regular build (no "Test" suffix). Run with
+ * <code>mvn test -Dtest=WeeklyReportSummaryBenchmark -Dbenchmark.regions=37 -Dbenchmark.officers=10 -Dbenchmark.informants=10</code>
+ */
+public class WeeklyReportSummaryBenchmark extends AbstractBeanTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(WeeklyReportSummaryBenchmark.class);
+
+	/**
+	 * Must not depend on the number of regions, officers or informants.
+	 */
+	private static final int MAX_QUERIES = 10;
+
+	@Test
+	public void benchmarkGetSummaries() {
+
+		int regionCount = Integer.getInteger("benchmark.regions", 37);
+		int officersPerRegion = Integer.getInteger("benchmark.officers", 10);
+		int informantsPerOfficer = Integer.getInteger("benchmark.informants", 10);
+
+		EpiWeek epiWeek = DateHelper.getPreviousEpiWeek(new Date());
+
+		RDCF firstRdcf = null;
+		for (int r = 0; r < regionCount; r++) {
+			RDCF rdcf = creator.createRDCF("Region" + r, "District" + r, "Community" + r, "Facility" + r);
+			if (firstRdcf == null) {
+				firstRdcf = rdcf;
+			}
+			for (int o = 0; o < officersPerRegion; o++) {
+				UserDto officer = creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), null, "Off", "R" + r + "O" + o,
+						UserRole.SURVEILLANCE_OFFICER);
+				if (o % 2 == 0) {
+					createReport(officer, epiWeek, o % 4);
+				}
+				for (int i = 0; i < informantsPerOfficer; i++) {
+					UserDto informant = creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(),
+							"Info", "R" + r + "O" + o + "I" + i, UserRole.HOSPITAL_INFORMANT);
+					informant.setAssociatedOfficer(officer.toReference());
+					informant = getUserFacade().saveUser(informant);
+					// every third informant is missing, some report cases
+					if (i % 3 != 0) {
+						createReport(informant, epiWeek, i % 2);
+					}
+				}
+			}
+		}
+
+		AtomicInteger queryCount = new AtomicInteger();
+		SessionEventAdapter queryCounter = new SessionEventAdapter() {
+			@Override
+			public void postExecuteQuery(SessionEvent event) {
+				queryCount.incrementAndGet();
+			}
+		};
+		SessionEventManager eventManager = getBean(EntityManager.class).unwrap(JpaEntityManager.class)
+				.getServerSession().getEventManager();
+		eventManager.addListener(queryCounter);
+
+		try {
+			queryCount.set(0);
+			long start = System.nanoTime();
+			List<WeeklyReportRegionSummaryDto> regionSummaries = getWeeklyReportFacade().getSummariesPerRegion(epiWeek);
+			long regionNanos = System.nanoTime() - start;
+			int regionQueries = queryCount.get();
+			logger.info("Summaries of " + regionSummaries.size() + " regions: " + regionQueries + " queries, "
+					+ regionNanos / 1_000_000 + " ms");
+
+			queryCount.set(0);
+			start = System.nanoTime();
+			List<WeeklyReportOfficerSummaryDto> officerSummaries = getWeeklyReportFacade()
+					.getSummariesPerOfficer(new RegionReferenceDto(firstRdcf.region.getUuid()), epiWeek);
+			long officerNanos = System.nanoTime() - start;
+			int officerQueries = queryCount.get();
+			logger.info("Summaries of " + officerSummaries.size() + " officers: " + officerQueries + " queries, "
+					+ officerNanos / 1_000_000 + " ms");
+
+			assertEquals(regionCount, regionSummaries.size());
+			for (WeeklyReportRegionSummaryDto regionSummary : regionSummaries) {
+				assertEquals(officersPerRegion, regionSummary.getOfficers());
+				assertEquals(officersPerRegion * informantsPerOfficer, regionSummary.getInformants());
+			}
+			assertEquals(officersPerRegion, officerSummaries.size());
+			for (WeeklyReportOfficerSummaryDto officerSummary : officerSummaries) {
+				assertEquals(informantsPerOfficer, officerSummary.getInformants());
+			}
+
+			assertTrue("Queries for the region summaries: " + regionQueries, regionQueries <= MAX_QUERIES);
+			assertTrue("Queries for the officer summaries: " + officerQueries, officerQueries <= MAX_QUERIES);
+		} finally {
+			eventManager.removeListener(queryCounter);
+		}
+	}
+
+	private void createReport(UserDto reportingUser, EpiWeek epiWeek, int numberOfCases) {
+		WeeklyReportDto report = new WeeklyReportDto();
+		report.setUuid(DataHelper.createUuid());
+		report.setReportingUser(reportingUser.toReference());
+		report.setAssignedOfficer(reportingUser.getAssociatedOfficer());
+		report.setDistrict(reportingUser.getDistrict());
+		report.setHealthFacility(reportingUser.getHealthFacility());
+		report.setReportDateTime(new Date());
+		report.setEpiWeek(epiWeek.getWeek());
+		report.setYear(epiWeek.getYear());
+		report.setTotalNumberOfCases(numberOfCases);
+		getWeeklyReportFacade().saveWeeklyReport(report);
+	}
+}
@@ -52,4 +52,16 @@ CREATE TABLE auditlogentry_attributes (
 );
 ALTER TABLE auditlogentry_attributes OWNER TO sormas_user;
 
-INSERT INTO schema_version (version_number, comment) VALUES (2, 'Initial entity model');
\ No newline at end of file
+INSERT INTO schema_version (version_number, comment) VALUES (2, 'Initial entity model');
+
+-- 2019-02-27 Batched audit log writing
+-- ids are allocated in blocks, see AuditLogEntry
+ALTER SEQUENCE auditlog_seq INCREMENT 50;
+
+-- history of an entity
+CREATE INDEX idx_auditlogentry_uuid_detection_ts ON auditlogentry (uuid, detection_ts);
+CREATE INDEX idx_auditlogentry_attributes_auditlogentry_id ON auditlogentry_attributes (auditlogentry_id);
+-- entries are written in the order of their detection, so a small block range index is enough for time ranges
+CREATE INDEX idx_auditlogentry_detection_ts ON auditlogentry USING brin (detection_ts);
+
+INSERT INTO schema_version (version_number, comment) VALUES (3, 'Batched audit log writing');
@@ -2895,4 +2895,407 @@ ALTER TABLE symptoms_history ADD COLUMN sidepain varchar(255);
 ALTER TABLE symptoms_history ADD COLUMN fluidinlungcavity varchar(255);
 ALTER TABLE symptoms_history ADD COLUMN tremor varchar(255);
 
-INSERT INTO schema_version (version_number, comment) VALUES (131, 'Additional signs and symptoms #938');
\ No newline at end of file
+INSERT INTO schema_version (version_number, comment) VALUES (131, 'Additional signs and symptoms #938');
+
+-- 2019-02-25 Aggregated change date for the sync of cases, persons and events
+
+ALTER TABLE cases ADD COLUMN changedateaggregate timestamp;
+ALTER TABLE cases_history ADD COLUMN changedateaggregate timestamp;
+ALTER TABLE person ADD COLUMN changedateaggregate timestamp;
+ALTER TABLE person_history ADD COLUMN changedateaggregate timestamp;
+ALTER TABLE events ADD COLUMN changedateaggregate timestamp;
+ALTER TABLE events_history ADD COLUMN changedateaggregate timestamp;
+
+-- initialize without creating history entries
+ALTER TABLE cases DISABLE TRIGGER versioning_trigger;
+ALTER TABLE person DISABLE TRIGGER versioning_trigger;
+ALTER TABLE events DISABLE TRIGGER versioning_trigger;
+
+UPDATE cases SET changedateaggregate = GREATEST(cases.changedate,
+	(SELECT changedate FROM symptoms WHERE symptoms.id = cases.symptoms_id),
+	(SELECT changedate FROM hospitalization WHERE hospitalization.id = cases.hospitalization_id),
+	(SELECT max(changedate) FROM previoushospitalization WHERE previoushospitalization.hospitalization_id = cases.hospitalization_id),
+	(SELECT changedate FROM epidata WHERE epidata.id = cases.epidata_id),
+	(SELECT max(changedate) FROM epidatatravel WHERE epidatatravel.epidata_id = cases.epidata_id),
+	(SELECT max(GREATEST(epidataburial.changedate, location.changedate)) FROM epidataburial
+		LEFT JOIN location ON location.id = epidataburial.burialaddress_id WHERE epidataburial.epidata_id = cases.epidata_id),
+	(SELECT max(GREATEST(epidatagathering.changedate, location.changedate)) FROM epidatagathering
+		LEFT JOIN location ON location.id = epidatagathering.gatheringaddress_id WHERE epidatagathering.epidata_id = cases.epidata_id));
+UPDATE person SET changedateaggregate = GREATEST(person.changedate,
+	(SELECT changedate FROM location WHERE location.id = person.address_id));
+UPDATE events SET changedateaggregate = GREATEST(events.changedate,
+	(SELECT changedate FROM location WHERE location.id = events.eventlocation_id));
+
+ALTER TABLE cases ENABLE TRIGGER versioning_trigger;
+ALTER TABLE person ENABLE TRIGGER versioning_trigger;
+ALTER TABLE events ENABLE TRIGGER versioning_trigger;
+
+-- the aggregate is at least the change date of the entity itself
+CREATE OR REPLACE FUNCTION update_changedateaggregate()
+RETURNS trigger AS
+$$
+BEGIN
+	IF NEW.changedateaggregate IS NULL OR NEW.changedateaggregate < NEW.changedate THEN
+		NEW.changedateaggregate := NEW.changedate;
+	END IF;
+	RETURN NEW;
+END;
+$$
+LANGUAGE plpgsql;
+
+CREATE TRIGGER changedateaggregate_trigger
+BEFORE INSERT OR UPDATE ON cases
+FOR EACH ROW EXECUTE PROCEDURE update_changedateaggregate();
+CREATE TRIGGER changedateaggregate_trigger
+BEFORE INSERT OR UPDATE ON person
+FOR EACH ROW EXECUTE PROCEDURE update_changedateaggregate();
+CREATE TRIGGER changedateaggregate_trigger
+BEFORE INSERT OR UPDATE ON events
+FOR EACH ROW EXECUTE PROCEDURE update_changedateaggregate();
+
+-- changes of embedded entities are propagated to the aggregate of their case/person/event
+CREATE OR REPLACE FUNCTION propagate_symptoms_changedate()
+RETURNS trigger AS
+$$
+BEGIN
+	UPDATE cases SET changedateaggregate = NEW.changedate
+		WHERE symptoms_id = NEW.id AND changedateaggregate < NEW.changedate;
+	RETURN NULL;
+END;
+$$
+LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION propagate_hospitalization_changedate()
+RETURNS trigger AS
+$$
+BEGIN
+	UPDATE cases SET changedateaggregate = NEW.changedate
+		WHERE hospitalization_id = NEW.id AND changedateaggregate < NEW.changedate;
+	RETURN NULL;
+END;
+$$
+LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION propagate_previoushospitalization_changedate()
+RETURNS trigger AS
+$$
+BEGIN
+	UPDATE cases SET changedateaggregate = NEW.changedate
+		WHERE hospitalization_id = NEW.hospitalization_id AND changedateaggregate < NEW.changedate;
+	RETURN NULL;
+END;
+$$
+LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION propagate_epidata_changedate()
+RETURNS trigger AS
+$$
+BEGIN
+	UPDATE cases SET changedateaggregate = NEW.changedate
+		WHERE epidata_id = NEW.id AND changedateaggregate < NEW.changedate;
+	RETURN NULL;
+END;
+$$
+LANGUAGE plpgsql;
+
+-- used for epidatatravel, epidataburial and epidatagathering
+CREATE OR REPLACE FUNCTION propagate_epidata_child_changedate()
+RETURNS trigger AS
+$$
+BEGIN
+	UPDATE cases SET changedateaggregate = NEW.changedate
+		WHERE epidata_id = NEW.epidata_id AND changedateaggregate < NEW.changedate;
+	RETURN NULL;
+END;
+$$
+LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION propagate_location_changedate()
+RETURNS trigger AS
+$$
+BEGIN
+	UPDATE person SET changedateaggregate = NEW.changedate
+		WHERE address_id = NEW.id AND changedateaggregate < NEW.changedate;
+	UPDATE events SET changedateaggregate = NEW.changedate
+		WHERE eventlocation_id = NEW.id AND changedateaggregate < NEW.changedate;
+	UPDATE cases SET changedateaggregate = NEW.changedate
+		WHERE epidata_id IN (
+			SELECT epidata_id FROM epidataburial WHERE burialaddress_id = NEW.id
+			UNION SELECT epidata_id FROM epidatagathering WHERE gatheringaddress_id = NEW.id)
+		AND changedateaggregate < NEW.changedate;
+	RETURN NULL;
+END;
+$$
+LANGUAGE plpgsql;
+
+CREATE TRIGGER changedateaggregate_trigger
+AFTER INSERT OR UPDATE ON symptoms
+FOR EACH ROW EXECUTE PROCEDURE propagate_symptoms_changedate();
+CREATE TRIGGER changedateaggregate_trigger
+AFTER INSERT OR UPDATE ON hospitalization
+FOR EACH ROW EXECUTE PROCEDURE propagate_hospitalization_changedate();
+CREATE TRIGGER changedateaggregate_trigger
+AFTER INSERT OR UPDATE ON previoushospitalization
+FOR EACH ROW EXECUTE PROCEDURE propagate_previoushospitalization_changedate();
+CREATE TRIGGER changedateaggregate_trigger
+AFTER INSERT OR UPDATE ON epidata
+FOR EACH ROW EXECUTE PROCEDURE propagate_epidata_changedate();
+CREATE TRIGGER changedateaggregate_trigger
+AFTER INSERT OR UPDATE ON epidatatravel
+FOR EACH ROW EXECUTE PROCEDURE propagate_epidata_child_changedate();
+CREATE TRIGGER changedateaggregate_trigger
+AFTER INSERT OR UPDATE ON epidataburial
+FOR EACH ROW EXECUTE PROCEDURE propagate_epidata_child_changedate();
+CREATE TRIGGER changedateaggregate_trigger
+AFTER INSERT OR UPDATE ON epidatagathering
+FOR EACH ROW EXECUTE PROCEDURE propagate_epidata_child_changedate();
+CREATE TRIGGER changedateaggregate_trigger
+AFTER INSERT OR UPDATE ON location
+FOR EACH ROW EXECUTE PROCEDURE propagate_location_changedate();
+
+-- the sync filters by the aggregate, the triggers look up the owners of the embedded entities
+CREATE INDEX idx_cases_changedateaggregate ON cases (changedateaggregate);
+CREATE INDEX idx_person_changedateaggregate ON person (changedateaggregate);
+CREATE INDEX idx_events_changedateaggregate ON events (changedateaggregate);
+CREATE INDEX idx_contact_changedate ON contact (changedate);
+CREATE INDEX idx_cases_symptoms_id ON cases (symptoms_id);
+CREATE INDEX idx_cases_hospitalization_id ON cases (hospitalization_id);
+CREATE INDEX idx_cases_epidata_id ON cases (epidata_id);
+CREATE INDEX idx_person_address_id ON person (address_id);
+CREATE INDEX idx_events_eventlocation_id ON events (eventlocation_id);
+CREATE INDEX idx_epidataburial_burialaddress_id ON epidataburial (burialaddress_id);
+CREATE INDEX idx_epidatagathering_gatheringaddress_id ON epidatagathering (gatheringaddress_id);
+
+INSERT INTO schema_version (version_number, comment) VALUES (132, 'Aggregated change date for the sync of cases, persons and events');
+
+-- 2019-02-27 Queue for email and SMS notifications
+
+CREATE TABLE queuedmessage(
+	id bigint not null,
+	uuid varchar(36) not null unique,
+	changedate timestamp not null,
+	creationdate timestamp not null,
+	messagetype varchar(255) not null,
+	recipientaddress varchar(255) not null,
+	subject varchar(512),
+	content varchar(4096),
+	status varchar(255) not null,
+	attempts integer not null,
+	nextattemptdate timestamp,
+	sentdate timestamp,
+	lasterror varchar(512),
+	primary key(id)
+);
+ALTER TABLE queuedmessage OWNER TO sormas_user;
+
+CREATE INDEX idx_queuedmessage_status_nextattemptdate ON queuedmessage (status, nextattemptdate);
+
+INSERT INTO schema_version (version_number, comment) VALUES (133, 'Queue for email and SMS notifications');
+
+-- 2019-02-27 Indexes for foreign keys, change dates and epi week filters
+
+-- uuid columns are already indexed by their unique constraints
+
+-- the epi week functions only depend on their argument; needed for the expression indexes
+ALTER FUNCTION epi_week(timestamp) IMMUTABLE;
+ALTER FUNCTION epi_year(timestamp) IMMUTABLE;
+
+CREATE INDEX idx_cases_person_id ON cases (person_id);
+CREATE INDEX idx_cases_region_id ON cases (region_id);
+CREATE INDEX idx_cases_district_id ON cases (district_id);
+CREATE INDEX idx_cases_community_id ON cases (community_id);
+CREATE INDEX idx_cases_healthfacility_id ON cases (healthfacility_id);
+CREATE INDEX idx_cases_reportinguser_id ON cases (reportinguser_id);
+CREATE INDEX idx_cases_surveillanceofficer_id ON cases (surveillanceofficer_id);
+CREATE INDEX idx_cases_reportdate ON cases (reportdate);
+CREATE INDEX idx_cases_epiweek_reportdate ON cases ((epi_year(reportdate) * 100 + epi_week(reportdate)));
+-- most lists only show active cases and events
+CREATE INDEX idx_cases_district_id_active ON cases (district_id, reportdate) WHERE archived = false;
+CREATE INDEX idx_cases_disease_active ON cases (disease, reportdate) WHERE archived = false;
+CREATE INDEX idx_events_reportdatetime_active ON events (reportdatetime) WHERE archived = false;
+
+CREATE INDEX idx_symptoms_onsetdate ON symptoms (onsetdate);
+CREATE INDEX idx_symptoms_epiweek_onsetdate ON symptoms (epi_week(onsetdate));
+CREATE INDEX idx_symptoms_epiyearweek_onsetdate ON symptoms ((epi_year(onsetdate) * 100 + epi_week(onsetdate)));
+
+CREATE INDEX idx_contact_caze_id ON contact (caze_id);
+CREATE INDEX idx_contact_person_id ON contact (person_id);
+CREATE INDEX idx_contact_contactofficer_id ON contact (contactofficer_id);
+CREATE INDEX idx_contact_reportinguser_id ON contact (reportinguser_id);
+CREATE INDEX idx_contact_followupuntil ON contact (followupuntil);
+
+CREATE INDEX idx_visit_person_id_visitdatetime ON visit (person_id, visitdatetime);
+CREATE INDEX idx_visit_changedate ON visit (changedate);
+
+CREATE INDEX idx_task_assigneeuser_id ON task (assigneeuser_id);
+CREATE INDEX idx_task_creatoruser_id ON task (creatoruser_id);
+CREATE INDEX idx_task_caze_id ON task (caze_id);
+CREATE INDEX idx_task_contact_id ON task (contact_id);
+CREATE INDEX idx_task_event_id ON task (event_id);
+CREATE INDEX idx_task_changedate ON task (changedate);
+
+CREATE INDEX idx_samples_associatedcase_id ON samples (associatedcase_id);
+CREATE INDEX idx_samples_lab_id ON samples (lab_id);
+CREATE INDEX idx_samples_changedate ON samples (changedate);
+CREATE INDEX idx_sampletest_sample_id ON sampletest (sample_id);
+CREATE INDEX idx_sampletest_changedate ON sampletest (changedate);
+
+CREATE INDEX idx_events_reportinguser_id ON events (reportinguser_id);
+CREATE INDEX idx_events_surveillanceofficer_id ON events (surveillanceofficer_id);
+CREATE INDEX idx_eventparticipant_event_id ON eventparticipant (event_id);
+CREATE INDEX idx_eventparticipant_person_id ON eventparticipant (person_id);
+CREATE INDEX idx_eventparticipant_changedate ON eventparticipant (changedate);
+
+CREATE INDEX idx_prescription_therapy_id ON prescription (therapy_id);
+CREATE INDEX idx_prescription_changedate ON prescription (changedate);
+CREATE INDEX idx_treatment_therapy_id ON treatment (therapy_id);
+CREATE INDEX idx_treatment_changedate ON treatment (changedate);
+CREATE INDEX idx_clinicalvisit_clinicalcourse_id ON clinicalvisit (clinicalcourse_id);
+CREATE INDEX idx_clinicalvisit_changedate ON clinicalvisit (changedate);
+
+CREATE INDEX idx_weeklyreport_reportinguser_id ON weeklyreport (reportinguser_id);
+CREATE INDEX idx_weeklyreport_changedate ON weeklyreport (changedate);
+CREATE INDEX idx_weeklyreportentry_weeklyreport_id ON weeklyreportentry (weeklyreport_id);
+
+CREATE INDEX idx_district_region_id ON district (region_id);
+CREATE INDEX idx_community_district_id ON community (district_id);
+CREATE INDEX idx_facility_district_id ON facility (district_id);
+CREATE INDEX idx_facility_community_id ON facility (community_id);
+
+INSERT INTO schema_version (version_number, comment) VALUES (134, 'Indexes for foreign keys, change dates and epi week filters');
+
+-- 2019-02-27 Daily case, event and test result counts for the dashboard
+
+CREATE TABLE diseasedailycount(
+	id bigint not null,
+	uuid varchar(36) not null unique,
+	changedate timestamp not null,
+	creationdate timestamp not null,
+	counttype varchar(255) not null,
+	disease varchar(255),
+	region_id bigint,
+	district_id bigint,
+	day date not null,
+	category varchar(255),
+	amount bigint not null,
+	primary key(id)
+);
+ALTER TABLE diseasedailycount OWNER TO sormas_user;
+ALTER TABLE diseasedailycount ADD CONSTRAINT fk_diseasedailycount_region_id FOREIGN KEY (region_id) REFERENCES region(id);
+ALTER TABLE diseasedailycount ADD CONSTRAINT fk_diseasedailycount_district_id FOREIGN KEY (district_id) REFERENCES district(id);
+
+CREATE INDEX idx_diseasedailycount_disease_day ON diseasedailycount (disease, day);
+CREATE INDEX idx_diseasedailycount_counttype_day ON diseasedailycount (counttype, day);
+
+-- filled at startup, see StartupShutdownService.upgrade
+INSERT INTO schema_version (version_number, comment, upgradeNeeded) VALUES (135, 'Daily case, event and test result counts for the dashboard', true);
+
+-- 2019-02-27 Pre-aggregated case counts for the statistics
+
+CREATE TABLE statisticscasecount(
+	id bigint not null,
+	uuid varchar(36) not null unique,
+	changedate timestamp not null,
+	creationdate timestamp not null,
+	onsetdate date,
+	receptiondate date,
+	reportdate date,
+	region_id bigint,
+	district_id bigint,
+	sex varchar(255),
+	caseage integer,
+	disease varchar(255),
+	caseclassification varchar(255),
+	outcome varchar(255),
+	casecount bigint not null,
+	primary key(id)
+);
+ALTER TABLE statisticscasecount OWNER TO sormas_user;
+ALTER TABLE statisticscasecount ADD CONSTRAINT fk_statisticscasecount_region_id FOREIGN KEY (region_id) REFERENCES region(id);
+ALTER TABLE statisticscasecount ADD CONSTRAINT fk_statisticscasecount_district_id FOREIGN KEY (district_id) REFERENCES district(id);
+
+CREATE INDEX idx_statisticscasecount_disease_district_id ON statisticscasecount (disease, district_id);
+
+-- filled at startup, see StartupShutdownService.upgrade
+INSERT INTO schema_version (version_number, comment, upgradeNeeded) VALUES (136, 'Pre-aggregated case counts for the statistics', true);
+
+-- 2019-02-27 Follow-up summary of contacts
+
+ALTER TABLE contact ADD COLUMN lastvisitdatetime timestamp;
+ALTER TABLE contact ADD COLUMN lastvisitstatus varchar(255);
+ALTER TABLE contact ADD COLUMN lastvisitsymptomatic boolean;
+ALTER TABLE contact ADD COLUMN lastcooperativevisitdatetime timestamp;
+ALTER TABLE contact ADD COLUMN visitcount integer not null default 0;
+ALTER TABLE contact ADD COLUMN cooperativevisitcount integer not null default 0;
+ALTER TABLE contact ADD COLUMN uncooperativevisitcount integer not null default 0;
+
+-- filled at startup, see StartupShutdownService.upgrade
+INSERT INTO schema_version (version_number, comment, upgradeNeeded) VALUES (137, 'Follow-up summary of contacts', true);
+
+-- 2019-02-28 No history entries for changes of the aggregated change date only
+
+-- versioning is split into an insert/delete and an update trigger, because only update triggers can compare OLD and NEW
+DROP TRIGGER versioning_trigger ON cases;
+CREATE TRIGGER versioning_trigger
+BEFORE INSERT OR DELETE ON cases
+FOR EACH ROW EXECUTE PROCEDURE versioning('sys_period', 'cases_history', true);
+CREATE TRIGGER versioning_trigger_update
+BEFORE UPDATE ON cases
+FOR EACH ROW WHEN ((to_jsonb(OLD) - 'changedateaggregate') IS DISTINCT FROM (to_jsonb(NEW) - 'changedateaggregate'))
+EXECUTE PROCEDURE versioning('sys_period', 'cases_history', true);
+
+DROP TRIGGER versioning_trigger ON person;
+CREATE TRIGGER versioning_trigger
+BEFORE INSERT OR DELETE ON person
+FOR EACH ROW EXECUTE PROCEDURE versioning('sys_period', 'person_history', true);
+CREATE TRIGGER versioning_trigger_update
+BEFORE UPDATE ON person
+FOR EACH ROW WHEN ((to_jsonb(OLD) - 'changedateaggregate') IS DISTINCT FROM (to_jsonb(NEW) - 'changedateaggregate'))
+EXECUTE PROCEDURE versioning('sys_period', 'person_history', true);
+
+DROP TRIGGER versioning_trigger ON events;
+CREATE TRIGGER versioning_trigger
+BEFORE INSERT OR DELETE ON events
+FOR EACH ROW EXECUTE PROCEDURE versioning('sys_period', 'events_history', true);
+CREATE TRIGGER versioning_trigger_update
+BEFORE UPDATE ON events
+FOR EACH ROW WHEN ((to_jsonb(OLD) - 'changedateaggregate') IS DISTINCT FROM (to_jsonb(NEW) - 'changedateaggregate'))
+EXECUTE PROCEDURE versioning('sys_period', 'events_history', true);
+
+INSERT INTO schema_version (version_number, comment) VALUES (138, 'No history entries for changes of the aggregated change date only');
+
+-- 2019-02-28 One disease daily count per cell and category
+
+-- concurrent recounts may have left duplicates behind, refilled at startup, see StartupShutdownService.upgrade
+DELETE FROM diseasedailycount;
+CREATE UNIQUE INDEX idx_diseasedailycount_cell_category ON diseasedailycount
+	(counttype, COALESCE(disease, ''), COALESCE(region_id, 0), COALESCE(district_id, 0), day, COALESCE(category, ''));
+
+INSERT INTO schema_version (version_number, comment, upgradeNeeded) VALUES (139, 'Unique disease daily counts per cell and category', true);
+
+-- 2019-02-28 Statistics case counts per date type with capped case age and one count per combination of values
+
+-- refilled at startup, see StartupShutdownService.upgrade
+DELETE FROM statisticscasecount;
+ALTER TABLE statisticscasecount DROP COLUMN onsetdate;
+ALTER TABLE statisticscasecount DROP COLUMN receptiondate;
+ALTER TABLE statisticscasecount DROP COLUMN reportdate;
+ALTER TABLE statisticscasecount ADD COLUMN datetype varchar(255) not null;
+ALTER TABLE statisticscasecount ADD COLUMN day date;
+CREATE UNIQUE INDEX idx_statisticscasecount_values ON statisticscasecount
+	(datetype, COALESCE(day, '-infinity'), COALESCE(disease, ''), COALESCE(region_id, 0), COALESCE(district_id, 0),
+	COALESCE(sex, ''), COALESCE(caseage, -1), COALESCE(caseclassification, ''), COALESCE(outcome, ''));
+
+INSERT INTO schema_version (version_number, comment, upgradeNeeded) VALUES (140, 'Statistics case counts per date type', true);
+
+-- 2019-02-28 Follow-up summary of contacts in the contact history
+
+ALTER TABLE contact_history ADD COLUMN lastvisitdatetime timestamp;
+ALTER TABLE contact_history ADD COLUMN lastvisitstatus varchar(255);
+ALTER TABLE contact_history ADD COLUMN lastvisitsymptomatic boolean;
+ALTER TABLE contact_history ADD COLUMN lastcooperativevisitdatetime timestamp;
+ALTER TABLE contact_history ADD COLUMN visitcount integer not null default 0;
+ALTER TABLE contact_history ADD COLUMN cooperativevisitcount integer not null default 0;
+ALTER TABLE contact_history ADD COLUMN uncooperativevisitcount integer not null default 0;
+
+INSERT INTO schema_version (version_number, comment) VALUES (141, 'Follow-up summary of contacts in the contact history');
@@ -21,20 +21,24 @@ import java.util.Date;
 import java.util.List;
 
 import javax.annotation.security.RolesAllowed;
+import javax.ws.rs.BadRequestException;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.StreamingOutput;
 
 import de.symeda.sormas.api.FacadeProvider;
 import de.symeda.sormas.api.PushResult;
 import de.symeda.sormas.api.caze.CaseDataDto;
 import de.symeda.sormas.api.user.UserReferenceDto;
+import de.symeda.sormas.api.utils.SyncCursor;
 
 @Path("/cases")
 @Produces({ MediaType.APPLICATION_JSON + "; charset=UTF-8" })
@@ -42,15 +46,32 @@ import de.symeda.sormas.api.user.UserReferenceDto;
 @RolesAllowed("USER")
 public class CaseResource extends EntityDtoResource {
 
+	/**
+	 * Streams the cases changed since the given date, ordered by change date and uuid.
+	 * 
+	 * @param cursor {@link SyncCursor} of the last case received in a previous page. Empty for the first page.
+	 * @param limit Maximum number of cases to return. All remaining cases are streamed when not set.
+	 */
 	@GET
 	@Path("/all/{since}")
-	public List<CaseDataDto> getAllCases(@Context SecurityContext sc, @PathParam("since") long since) {
+	public StreamingOutput getAllCases(@Context SecurityContext sc, @PathParam("since") long since,
+			@QueryParam("cursor") String cursor, @QueryParam("limit") Integer limit) {
+
+		SyncCursor syncCursor;
+		try {
+			syncCursor = SyncCursor.valueOf(cursor);
+		} catch (IllegalArgumentException e) {
+			throw new BadRequestException(e.getMessage());
+		}
+		if (limit != null && (limit < 1 || limit > MAX_PULL_LIMIT)) {
+			throw new BadRequestException("limit has to be between 1 and " + MAX_PULL_LIMIT);
+		}
 
 		UserReferenceDto userDto = FacadeProvider.getUserFacade()
 				.getByUserNameAsReference(sc.getUserPrincipal().getName());
-		List<CaseDataDto> cases = FacadeProvider.getCaseFacade().getAllActiveCasesAfter(new Date(since),
-				userDto.getUuid());
-		return cases;
+		Date sinceDate = new Date(since);
+		return streamPulledDtos(syncCursor, limit, (pageCursor, pageSize) -> FacadeProvider.getCaseFacade()
+				.getAllActiveCasesAfter(sinceDate, userDto.getUuid(), pageCursor, pageSize));
 	}
 
 	@POST
@@ -65,7 +86,7 @@ public class CaseResource extends EntityDtoResource {
 	@Path("/push")
 	public List<PushResult> postCases(List<CaseDataDto> dtos) {
 
-		List<PushResult> result = savePushedDto(dtos, FacadeProvider.getCaseFacade()::saveCase);
+		List<PushResult> result = FacadeProvider.getCaseFacade().saveCases(dtos);
 		return result;
 	}
 
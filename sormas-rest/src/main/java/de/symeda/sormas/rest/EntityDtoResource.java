@@ -1,22 +1,92 @@
 package de.symeda.sormas.rest;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
 
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.Providers;
+
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import de.symeda.sormas.api.EntityDto;
 import de.symeda.sormas.api.PushResult;
 import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.api.utils.OutdatedEntityException;
+import de.symeda.sormas.api.utils.SyncCursor;
+import de.symeda.sormas.rest.metrics.RestMetrics;
 
 public abstract class EntityDtoResource {
 
+	/**
+	 * Page size used to read from the facade when streaming a pull.
+	 */
+	protected static final int STREAM_PAGE_SIZE = 500;
+	protected static final int MAX_PULL_LIMIT = 5000;
+
 	protected final Logger logger = LoggerFactory.getLogger(getClass());
 
+	@Context
+	private Providers providers;
+
+	/**
+	 * Writes the result of a keyset paged pull as JSON array. Pages of {@link #STREAM_PAGE_SIZE} are fetched
+	 * one after the other and written right away, so only one page is held in memory at a time.
+	 * 
+	 * @param firstCursor Position to start after. Null to start with the first entity.
+	 * @param limit Maximum number of entities to write. Null to write all.
+	 */
+	protected <T extends EntityDto> StreamingOutput streamPulledDtos(SyncCursor firstCursor, Integer limit, PageSupplier<T> pageSupplier) {
+
+		// the mapper configured for the REST interface, also used by the Jackson provider
+		ObjectMapper objectMapper = providers.getContextResolver(ObjectMapper.class, MediaType.APPLICATION_JSON_TYPE)
+				.getContext(ObjectMapper.class);
+
+		return new StreamingOutput() {
+			@Override
+			public void write(OutputStream output) throws IOException {
+				JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+				generator.writeStartArray();
+
+				SyncCursor cursor = firstCursor;
+				int remaining = limit != null ? limit : Integer.MAX_VALUE;
+				while (remaining > 0) {
+					int pageSize = Math.min(remaining, STREAM_PAGE_SIZE);
+					List<T> page = pageSupplier.getPage(cursor, pageSize);
+					for (T dto : page) {
+						objectMapper.writeValue(generator, dto);
+					}
+					generator.flush();
+					RestMetrics.addEntities(page.size());
+
+					if (page.size() < pageSize) {
+						break;
+					}
+					remaining -= page.size();
+					cursor = SyncCursor.of(page.get(page.size() - 1));
+				}
+
+				generator.writeEndArray();
+				generator.close();
+			}
+		};
+	}
+
+	@FunctionalInterface
+	protected interface PageSupplier<T extends EntityDto> {
+
+		List<T> getPage(SyncCursor cursor, int limit);
+	}
+
 	protected <T extends EntityDto> List<PushResult> savePushedDto(List<T> dtos, Function<T, T> saveEntityDto) {
 
 		List<PushResult> results = new ArrayList<>(dtos.size());
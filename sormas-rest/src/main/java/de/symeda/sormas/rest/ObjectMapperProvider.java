@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.rest;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.Provider;
+
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.module.jaxb.JaxbAnnotationIntrospector;
+
+/**
+ * The object mapper of the REST interface, used by the Jackson provider registered with the JacksonFeature
+ * and by resources that write JSON themselves (e.g. {@link EntityDtoResource#streamPulledDtos}).
+ * 
+ * Configured like the default mapper of the Jackson provider: Jackson and JAXB annotations.
+ */
+@Provider
+@Produces(MediaType.APPLICATION_JSON)
+public class ObjectMapperProvider implements ContextResolver<ObjectMapper> {
+
+	private final ObjectMapper objectMapper;
+
+	public ObjectMapperProvider() {
+		objectMapper = new ObjectMapper();
+		objectMapper.setAnnotationIntrospector(AnnotationIntrospector.pair(new JacksonAnnotationIntrospector(),
+				new JaxbAnnotationIntrospector(objectMapper.getTypeFactory())));
+	}
+
+	@Override
+	public ObjectMapper getContext(Class<?> type) {
+		return objectMapper;
+	}
+}
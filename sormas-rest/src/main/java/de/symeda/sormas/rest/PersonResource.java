@@ -72,7 +72,7 @@ public class PersonResource extends EntityDtoResource {
 	@Path("/push")
 	public List<PushResult> postPersons(List<PersonDto> dtos) {
 
-		List<PushResult> result = savePushedDto(dtos, FacadeProvider.getPersonFacade()::savePerson);
+		List<PushResult> result = FacadeProvider.getPersonFacade().savePersons(dtos);
 		return result;
 	}
 
@@ -20,7 +20,9 @@ package de.symeda.sormas.rest;
 import javax.ws.rs.ApplicationPath;
 
 import org.glassfish.jersey.jackson.JacksonFeature;
+import org.glassfish.jersey.message.GZipEncoder;
 import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.filter.EncodingFilter;
 import org.glassfish.jersey.server.filter.RolesAllowedDynamicFeature;
 
 /**
@@ -39,5 +41,9 @@ public class RestApplication extends ResourceConfig  {
         register(RolesAllowedDynamicFeature.class);
         
         register(JacksonFeature.class);
+        
+        // gzip compressed responses for clients sending "Accept-Encoding: gzip" (like the app)
+        // and decompression of request bodies sent with "Content-Encoding: gzip"
+        EncodingFilter.enableFor(this, GZipEncoder.class);
     }
 }
@@ -1,90 +0,0 @@
-/*******************************************************************************
- * SORMAS® - Surveillance Outbreak Response Management & Analysis System
- * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
- *
- * This program is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program.  If not, see <https://www.gnu.org/licenses/>.
- *******************************************************************************/
-package de.symeda.sormas.rest.logging;
-
-import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
-
-import javax.servlet.ServletOutputStream;
-import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpServletResponseWrapper;
-
-/**
- * 
- * see https://patrickgrimard.io/2010/07/28/tutorial-implementing-a-servlet-filter-for-jsonp-callback-with-springs-delegatingfilterproxy/
- * 
- * @author Jan Falkenstern
- *
- */
-public class HttpServletResponseCopier extends HttpServletResponseWrapper {
-
-    private ServletOutputStream outputStream;
-    private PrintWriter writer;
-    private ServletOutputStreamCopier copier;
-
-    public HttpServletResponseCopier(HttpServletResponse response) throws IOException {
-        super(response);
-    }
-
-    @Override
-    public ServletOutputStream getOutputStream() throws IOException {
-        if (writer != null) {
-            throw new IllegalStateException("getWriter() has already been called on this response.");
-        }
-
-        if (outputStream == null) {
-            outputStream = getResponse().getOutputStream();
-            copier = new ServletOutputStreamCopier(outputStream);
-        }
-
-        return copier;
-    }
-
-    @Override
-    public PrintWriter getWriter() throws IOException {
-        if (outputStream != null) {
-            throw new IllegalStateException("getOutputStream() has already been called on this response.");
-        }
-
-        if (writer == null) {
-            copier = new ServletOutputStreamCopier(getResponse().getOutputStream());
-            writer = new PrintWriter(new OutputStreamWriter(copier, getResponse().getCharacterEncoding()), true);
-        }
-
-        return writer;
-    }
-
-    @Override
-    public void flushBuffer() throws IOException {
-        if (writer != null) {
-            writer.flush();
-        } else if (outputStream != null) {
-            copier.flush();
-        }
-    }
-
-    public byte[] getCopy() {
-        if (copier != null) {
-            return copier.getCopy();
-        } else {
-            return new byte[0];
-        }
-    }
-
-}
\ No newline at end of file
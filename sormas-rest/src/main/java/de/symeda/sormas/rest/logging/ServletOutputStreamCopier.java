@@ -1,64 +0,0 @@
-/*******************************************************************************
- * SORMAS® - Surveillance Outbreak Response Management & Analysis System
- * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
- *
- * This program is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program.  If not, see <https://www.gnu.org/licenses/>.
- *******************************************************************************/
-package de.symeda.sormas.rest.logging;
-
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.OutputStream;
-
-import javax.servlet.ServletOutputStream;
-import javax.servlet.WriteListener;
-
-/**
- * see https://patrickgrimard.io/2010/07/28/tutorial-implementing-a-servlet-filter-for-jsonp-callback-with-springs-delegatingfilterproxy/
- * 
- * @author Jan Falkenstern
- *
- */
-public class ServletOutputStreamCopier extends ServletOutputStream {
-
-    private OutputStream outputStream;
-    private ByteArrayOutputStream copy;
-
-    public ServletOutputStreamCopier(OutputStream outputStream) {
-        this.outputStream = outputStream;
-        this.copy = new ByteArrayOutputStream(1024);
-    }
-
-    @Override
-    public void write(int b) throws IOException {
-        outputStream.write(b);
-        copy.write(b);
-    }
-
-    public byte[] getCopy() {
-        return copy.toByteArray();
-    }
-
-	@Override
-	public boolean isReady() {
-
-		return false;
-	}
-
-	@Override
-	public void setWriteListener(WriteListener writeListener) {
-
-	}
-
-}
\ No newline at end of file
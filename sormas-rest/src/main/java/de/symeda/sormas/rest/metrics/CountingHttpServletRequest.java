@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.rest.metrics;
+
+import java.io.IOException;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * Counts the bytes of the request body that have been read.
+ */
+public class CountingHttpServletRequest extends HttpServletRequestWrapper {
+
+	private CountingServletInputStream inputStream;
+
+	public CountingHttpServletRequest(HttpServletRequest request) {
+		super(request);
+	}
+
+	@Override
+	public ServletInputStream getInputStream() throws IOException {
+		if (inputStream == null) {
+			inputStream = new CountingServletInputStream(getRequest().getInputStream());
+		}
+		return inputStream;
+	}
+
+	/**
+	 * @return the bytes read from the body, or the content length when the body was not read as stream
+	 */
+	public long getByteCount() {
+		return inputStream != null ? inputStream.byteCount : Math.max(getContentLengthLong(), 0);
+	}
+
+	private static final class CountingServletInputStream extends ServletInputStream {
+
+		private final ServletInputStream delegate;
+		private long byteCount;
+
+		private CountingServletInputStream(ServletInputStream delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = delegate.read();
+			if (b >= 0) {
+				byteCount++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int count = delegate.read(b, off, len);
+			if (count > 0) {
+				byteCount += count;
+			}
+			return count;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return delegate.available();
+		}
+
+		@Override
+		public void close() throws IOException {
+			delegate.close();
+		}
+
+		@Override
+		public boolean isFinished() {
+			return delegate.isFinished();
+		}
+
+		@Override
+		public boolean isReady() {
+			return delegate.isReady();
+		}
+
+		@Override
+		public void setReadListener(ReadListener readListener) {
+			delegate.setReadListener(readListener);
+		}
+	}
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.rest.metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Counts the bytes of the response body. Optionally keeps a copy of the beginning of the body, for logging.
+ */
+public class CountingHttpServletResponse extends HttpServletResponseWrapper {
+
+	private final int maxCopySize;
+
+	private CountingServletOutputStream outputStream;
+	private PrintWriter writer;
+
+	/**
+	 * @param maxCopySize number of bytes of the body to copy; 0 to not copy anything
+	 */
+	public CountingHttpServletResponse(HttpServletResponse response, int maxCopySize) {
+		super(response);
+		this.maxCopySize = maxCopySize;
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() throws IOException {
+		if (writer != null) {
+			throw new IllegalStateException("getWriter() has already been called on this response.");
+		}
+		if (outputStream == null) {
+			outputStream = new CountingServletOutputStream(getResponse().getOutputStream(), maxCopySize);
+		}
+		return outputStream;
+	}
+
+	@Override
+	public PrintWriter getWriter() throws IOException {
+		if (writer == null) {
+			if (outputStream != null) {
+				throw new IllegalStateException("getOutputStream() has already been called on this response.");
+			}
+			outputStream = new CountingServletOutputStream(getResponse().getOutputStream(), maxCopySize);
+			writer = new PrintWriter(new OutputStreamWriter(outputStream, getResponse().getCharacterEncoding()), true);
+		}
+		return writer;
+	}
+
+	@Override
+	public void flushBuffer() throws IOException {
+		if (writer != null) {
+			writer.flush();
+		} else if (outputStream != null) {
+			outputStream.flush();
+		}
+		super.flushBuffer();
+	}
+
+	public long getByteCount() {
+		return outputStream != null ? outputStream.byteCount : 0;
+	}
+
+	/**
+	 * @return true when the body is longer than the copy
+	 */
+	public boolean isCopyTruncated() {
+		return outputStream != null && outputStream.byteCount > maxCopySize;
+	}
+
+	public byte[] getCopy() {
+		return outputStream != null && outputStream.copy != null ? outputStream.copy.toByteArray() : new byte[0];
+	}
+
+	private static final class CountingServletOutputStream extends ServletOutputStream {
+
+		private final ServletOutputStream delegate;
+		private final int maxCopySize;
+		private final ByteArrayOutputStream copy;
+		private long byteCount;
+
+		private CountingServletOutputStream(ServletOutputStream delegate, int maxCopySize) {
+			this.delegate = delegate;
+			this.maxCopySize = maxCopySize;
+			this.copy = maxCopySize > 0 ? new ByteArrayOutputStream(Math.min(maxCopySize, 8192)) : null;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			delegate.write(b);
+			if (copy != null && byteCount < maxCopySize) {
+				copy.write(b);
+			}
+			byteCount++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			delegate.write(b, off, len);
+			if (copy != null && byteCount < maxCopySize) {
+				copy.write(b, off, (int) Math.min(len, maxCopySize - byteCount));
+			}
+			byteCount += len;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			delegate.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			delegate.close();
+		}
+
+		@Override
+		public boolean isReady() {
+			return delegate.isReady();
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			delegate.setWriteListener(writeListener);
+		}
+	}
+}
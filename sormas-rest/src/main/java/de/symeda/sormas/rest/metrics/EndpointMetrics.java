@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.rest.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulated metrics of the requests to one endpoint. Recording is lock-free and can be done by concurrent requests.
+ */
+public class EndpointMetrics {
+
+	static final long[] LATENCY_BUCKET_BOUNDS_MILLIS = { 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000 };
+
+	private final String endpoint;
+	private final LongAdder requestCount = new LongAdder();
+	private final LongAdder errorCount = new LongAdder();
+	private final LongAdder requestBytes = new LongAdder();
+	private final LongAdder responseBytes = new LongAdder();
+	private final LongAdder entityCount = new LongAdder();
+	private final LongAdder totalLatencyMillis = new LongAdder();
+	private final LongAccumulator maxLatencyMillis = new LongAccumulator(Math::max, 0);
+	private final LongAdder[] latencyBuckets = new LongAdder[LATENCY_BUCKET_BOUNDS_MILLIS.length + 1];
+	private final Map<String, LongAdder> requestCountByUser = new ConcurrentHashMap<>();
+
+	public EndpointMetrics(String endpoint) {
+		this.endpoint = endpoint;
+		for (int i = 0; i < latencyBuckets.length; i++) {
+			latencyBuckets[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * @param entities number of entities returned, negative if unknown
+	 * @param userName null for unauthenticated requests
+	 */
+	public void record(long latencyMillis, long requestBytes, long responseBytes, int entities, boolean error, String userName) {
+
+		requestCount.increment();
+		if (error) {
+			errorCount.increment();
+		}
+		this.requestBytes.add(requestBytes);
+		this.responseBytes.add(responseBytes);
+		if (entities > 0) {
+			entityCount.add(entities);
+		}
+		totalLatencyMillis.add(latencyMillis);
+		maxLatencyMillis.accumulate(latencyMillis);
+		latencyBuckets[getBucketIndex(latencyMillis)].increment();
+		if (userName != null) {
+			requestCountByUser.computeIfAbsent(userName, u -> new LongAdder()).increment();
+		}
+	}
+
+	public EndpointMetricsSnapshot toSnapshot() {
+
+		long[] bucketCounts = new long[latencyBuckets.length];
+		for (int i = 0; i < latencyBuckets.length; i++) {
+			bucketCounts[i] = latencyBuckets[i].sum();
+		}
+		Map<String, Long> userCounts = new TreeMap<>();
+		requestCountByUser.forEach((user, count) -> userCounts.put(user, count.sum()));
+
+		return new EndpointMetricsSnapshot(endpoint, requestCount.sum(), errorCount.sum(), requestBytes.sum(), responseBytes.sum(),
+				entityCount.sum(), totalLatencyMillis.sum(), maxLatencyMillis.get(), bucketCounts, userCounts);
+	}
+
+	private static int getBucketIndex(long latencyMillis) {
+
+		for (int i = 0; i < LATENCY_BUCKET_BOUNDS_MILLIS.length; i++) {
+			if (latencyMillis <= LATENCY_BUCKET_BOUNDS_MILLIS[i]) {
+				return i;
+			}
+		}
+		return LATENCY_BUCKET_BOUNDS_MILLIS.length;
+	}
+}
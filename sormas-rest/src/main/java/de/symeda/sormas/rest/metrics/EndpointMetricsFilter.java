@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.rest.metrics;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.ext.Provider;
+
+import org.glassfish.jersey.server.ExtendedUriInfo;
+import org.glassfish.jersey.uri.UriTemplate;
+
+/**
+ * Tells the {@link RestMetrics} which resource method handled the request and how many entities it returned.
+ * Streamed results add their entities themselves while they are written.
+ */
+@Provider
+public class EndpointMetricsFilter implements ContainerResponseFilter {
+
+	@Override
+	public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
+
+		if (requestContext.getUriInfo() instanceof ExtendedUriInfo) {
+			List<UriTemplate> templates = ((ExtendedUriInfo) requestContext.getUriInfo()).getMatchedTemplates();
+			if (!templates.isEmpty()) {
+				// matched templates are ordered from the resource method to the root resource
+				StringBuilder path = new StringBuilder();
+				for (int i = templates.size() - 1; i >= 0; i--) {
+					String template = templates.get(i).getTemplate();
+					if (!template.startsWith("/")) {
+						path.append('/');
+					}
+					path.append(template);
+				}
+				RestMetrics.setEndpoint(requestContext.getMethod() + " " + path);
+			}
+		}
+
+		Object entity = responseContext.getEntity();
+		if (entity instanceof Collection) {
+			RestMetrics.addEntities(((Collection<?>) entity).size());
+		}
+	}
+}
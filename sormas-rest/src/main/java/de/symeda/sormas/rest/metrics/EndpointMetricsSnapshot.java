@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.rest.metrics;
+
+import java.util.Map;
+
+/**
+ * Values of the {@link EndpointMetrics} at one point in time
+ */
+public class EndpointMetricsSnapshot {
+
+	private final String endpoint;
+	private final long requestCount;
+	private final long errorCount;
+	private final long requestBytes;
+	private final long responseBytes;
+	private final long entityCount;
+	private final long totalLatencyMillis;
+	private final long maxLatencyMillis;
+	private final long[] latencyBucketCounts;
+	private final Map<String, Long> requestCountByUser;
+
+	public EndpointMetricsSnapshot(String endpoint, long requestCount, long errorCount, long requestBytes, long responseBytes,
+			long entityCount, long totalLatencyMillis, long maxLatencyMillis, long[] latencyBucketCounts, Map<String, Long> requestCountByUser) {
+		this.endpoint = endpoint;
+		this.requestCount = requestCount;
+		this.errorCount = errorCount;
+		this.requestBytes = requestBytes;
+		this.responseBytes = responseBytes;
+		this.entityCount = entityCount;
+		this.totalLatencyMillis = totalLatencyMillis;
+		this.maxLatencyMillis = maxLatencyMillis;
+		this.latencyBucketCounts = latencyBucketCounts;
+		this.requestCountByUser = requestCountByUser;
+	}
+
+	/**
+	 * HTTP method and resource path template, e.g. "GET /cases/all/{since}"
+	 */
+	public String getEndpoint() {
+		return endpoint;
+	}
+
+	public long getRequestCount() {
+		return requestCount;
+	}
+
+	/**
+	 * Requests answered with a status of 400 or above or failed with an exception
+	 */
+	public long getErrorCount() {
+		return errorCount;
+	}
+
+	public long getRequestBytes() {
+		return requestBytes;
+	}
+
+	public long getResponseBytes() {
+		return responseBytes;
+	}
+
+	/**
+	 * Number of entities returned, for endpoints returning lists
+	 */
+	public long getEntityCount() {
+		return entityCount;
+	}
+
+	public long getTotalLatencyMillis() {
+		return totalLatencyMillis;
+	}
+
+	public long getMaxLatencyMillis() {
+		return maxLatencyMillis;
+	}
+
+	/**
+	 * Number of requests per bucket of {@link RestMetricsMXBean#getLatencyBucketBoundsMillis()}
+	 */
+	public long[] getLatencyBucketCounts() {
+		return latencyBucketCounts;
+	}
+
+	public Map<String, Long> getRequestCountByUser() {
+		return requestCountByUser;
+	}
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.rest.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.annotation.WebInitParam;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.api.FacadeProvider;
+
+/**
+ * Records the {@link RestMetrics} of each request: latency, request and response size, returned entities and user.
+ *
+ * Request parameters are logged on DEBUG, response bodies on TRACE. The response body is only copied when TRACE is
+ * enabled, limited to the number of bytes given by the init parameter {@value #TRACE_MAX_BODY_SIZE_PARAM} (default
+ * {@value #DEFAULT_TRACE_MAX_BODY_SIZE}).
+ */
+@WebFilter(urlPatterns = "/*", initParams = @WebInitParam(name = RequestInstrumentationFilter.TRACE_MAX_BODY_SIZE_PARAM,
+		value = "" + RequestInstrumentationFilter.DEFAULT_TRACE_MAX_BODY_SIZE))
+public class RequestInstrumentationFilter implements Filter {
+
+	public static final String TRACE_MAX_BODY_SIZE_PARAM = "traceMaxBodySize";
+	public static final int DEFAULT_TRACE_MAX_BODY_SIZE = 64 * 1024;
+
+	private static final String METRICS_MODULE = "rest";
+
+	private final Logger logger;
+
+	private int traceMaxBodySize = DEFAULT_TRACE_MAX_BODY_SIZE;
+
+	public RequestInstrumentationFilter() {
+		this(LoggerFactory.getLogger(RequestInstrumentationFilter.class));
+	}
+
+	RequestInstrumentationFilter(Logger logger) {
+		this.logger = logger;
+	}
+
+	@Override
+	public void init(FilterConfig filterConfig) throws ServletException {
+
+		String maxBodySize = filterConfig.getInitParameter(TRACE_MAX_BODY_SIZE_PARAM);
+		if (maxBodySize != null) {
+			try {
+				traceMaxBodySize = Integer.parseInt(maxBodySize.trim());
+			} catch (NumberFormatException e) {
+				throw new ServletException("Invalid " + TRACE_MAX_BODY_SIZE_PARAM + ": " + maxBodySize, e);
+			}
+		}
+		RestMetrics.getInstance().registerMBean();
+		try {
+			FacadeProvider.get().getLookupMetrics().registerMBean(METRICS_MODULE);
+		} catch (RuntimeException e) {
+			logger.warn("Could not register the facade lookup MBean: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		RestMetrics.getInstance().unregisterMBean();
+		try {
+			FacadeProvider.get().getLookupMetrics().unregisterMBean(METRICS_MODULE);
+		} catch (RuntimeException e) {
+			logger.warn("Could not unregister the facade lookup MBean: " + e.getMessage(), e);
+		}
+		FacadeProvider.get().invalidateLookups();
+	}
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+
+		long startTime = System.nanoTime();
+		HttpServletRequest httpRequest = (HttpServletRequest) request;
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("requestUri = {}", httpRequest.getRequestURI());
+			for (Map.Entry<String, String[]> param : httpRequest.getParameterMap().entrySet()) {
+				logger.debug("  {} = {}", param.getKey(), String.join(",", param.getValue()));
+			}
+		}
+
+		if (response.getCharacterEncoding() == null) {
+			response.setCharacterEncoding("UTF-8");
+		}
+
+		CountingHttpServletRequest countingRequest = new CountingHttpServletRequest(httpRequest);
+		boolean trace = logger.isTraceEnabled();
+		CountingHttpServletResponse countingResponse = new CountingHttpServletResponse((HttpServletResponse) response,
+				trace ? traceMaxBodySize : 0);
+
+		RestMetrics metrics = RestMetrics.getInstance();
+		metrics.beginRequest();
+		boolean failed = true;
+		try {
+			chain.doFilter(countingRequest, countingResponse);
+			countingResponse.flushBuffer();
+			failed = false;
+		} finally {
+			long latencyMillis = (System.nanoTime() - startTime) / 1_000_000;
+			boolean error = failed || countingResponse.getStatus() >= 400;
+			metrics.endRequest(latencyMillis, countingRequest.getByteCount(), countingResponse.getByteCount(), error,
+					httpRequest.getRemoteUser());
+
+			if (trace) {
+				String body = new String(countingResponse.getCopy(), response.getCharacterEncoding());
+				logger.trace("{} {} {} ({} bytes, {} ms){}: {}", httpRequest.getMethod(), httpRequest.getRequestURI(),
+						countingResponse.getStatus(), countingResponse.getByteCount(), latencyMillis,
+						countingResponse.isCopyTruncated() ? " truncated" : "", body);
+			}
+		}
+	}
+}
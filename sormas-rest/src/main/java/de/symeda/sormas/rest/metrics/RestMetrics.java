@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.rest.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Metrics of the REST endpoints, recorded by the {@link RequestInstrumentationFilter} and exposed via JMX.
+ *
+ * While a request is processed, the endpoint and the number of returned entities are collected for the
+ * current thread by {@link #setEndpoint(String)} and {@link #addEntities(int)}.
+ */
+public final class RestMetrics implements RestMetricsMXBean {
+
+	public static final String OBJECT_NAME = "de.symeda.sormas:type=RestMetrics";
+
+	/**
+	 * Endpoint of requests that were not matched to a resource method (e.g. not found)
+	 */
+	static final String UNMATCHED_ENDPOINT = "unmatched";
+
+	private static final Logger logger = LoggerFactory.getLogger(RestMetrics.class);
+
+	private static final RestMetrics instance = new RestMetrics();
+
+	private static final ThreadLocal<RequestState> currentRequest = new ThreadLocal<>();
+
+	private final ConcurrentMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+	private RestMetrics() {
+	}
+
+	public static RestMetrics getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Sets the endpoint of the request processed by the current thread
+	 */
+	public static void setEndpoint(String endpoint) {
+		RequestState state = currentRequest.get();
+		if (state != null) {
+			state.endpoint = endpoint;
+		}
+	}
+
+	/**
+	 * Adds to the number of entities returned by the request processed by the current thread
+	 */
+	public static void addEntities(int count) {
+		RequestState state = currentRequest.get();
+		if (state != null) {
+			state.entities = Math.max(state.entities, 0) + count;
+		}
+	}
+
+	void beginRequest() {
+		currentRequest.set(new RequestState());
+	}
+
+	void endRequest(long latencyMillis, long requestBytes, long responseBytes, boolean error, String userName) {
+
+		RequestState state = currentRequest.get();
+		currentRequest.remove();
+		String endpoint = state != null && state.endpoint != null ? state.endpoint : UNMATCHED_ENDPOINT;
+		int entities = state != null ? state.entities : -1;
+
+		endpoints.computeIfAbsent(endpoint, EndpointMetrics::new)
+				.record(latencyMillis, requestBytes, responseBytes, entities, error, userName);
+	}
+
+	@Override
+	public long[] getLatencyBucketBoundsMillis() {
+		return Arrays.copyOf(EndpointMetrics.LATENCY_BUCKET_BOUNDS_MILLIS, EndpointMetrics.LATENCY_BUCKET_BOUNDS_MILLIS.length);
+	}
+
+	@Override
+	public List<EndpointMetricsSnapshot> getEndpoints() {
+
+		List<EndpointMetricsSnapshot> snapshots = new ArrayList<>(endpoints.size());
+		for (EndpointMetrics endpointMetrics : endpoints.values()) {
+			snapshots.add(endpointMetrics.toSnapshot());
+		}
+		snapshots.sort((a, b) -> a.getEndpoint().compareTo(b.getEndpoint()));
+		return snapshots;
+	}
+
+	@Override
+	public void reset() {
+		endpoints.clear();
+	}
+
+	void registerMBean() {
+		try {
+			MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = new ObjectName(OBJECT_NAME);
+			if (!mBeanServer.isRegistered(objectName)) {
+				mBeanServer.registerMBean(this, objectName);
+			}
+		} catch (JMException e) {
+			logger.warn("Could not register the REST metrics MBean: " + e.getMessage(), e);
+		}
+	}
+
+	void unregisterMBean() {
+		try {
+			MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = new ObjectName(OBJECT_NAME);
+			if (mBeanServer.isRegistered(objectName)) {
+				mBeanServer.unregisterMBean(objectName);
+			}
+		} catch (JMException e) {
+			logger.warn("Could not unregister the REST metrics MBean: " + e.getMessage(), e);
+		}
+	}
+
+	private static final class RequestState {
+
+		private String endpoint;
+		private int entities = -1;
+	}
+}
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.rest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.facility.FacilityDto;
+import de.symeda.sormas.api.facility.FacilityReferenceDto;
+import de.symeda.sormas.api.facility.FacilityType;
+import de.symeda.sormas.api.person.PersonReferenceDto;
+import de.symeda.sormas.api.region.CommunityReferenceDto;
+import de.symeda.sormas.api.region.DistrictReferenceDto;
+import de.symeda.sormas.api.region.RegionReferenceDto;
+import de.symeda.sormas.api.user.UserReferenceDto;
+import de.symeda.sormas.api.utils.DataHelper;
+
+/**
+ * Compares size and CPU time of plain and gzip compressed JSON for batches of cases and facilities,
+ * as they are pulled by the app.
+ *
+ * Not run by the regular build (no "Test" suffix). Run with
+ * <code>mvn test -Dtest=SyncPayloadBenchmark -Dbenchmark.iterations=20</code>
+ */
+public class SyncPayloadBenchmark {
+
+	private static final Logger logger = LoggerFactory.getLogger(SyncPayloadBenchmark.class);
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final Random random = new Random(42);
+
+	@Test
+	public void benchmarkCases() throws IOException {
+
+		RegionReferenceDto region = new RegionReferenceDto(DataHelper.createUuid(), "Region");
+		DistrictReferenceDto district = new DistrictReferenceDto(DataHelper.createUuid(), "District");
+		FacilityReferenceDto facility = new FacilityReferenceDto(DataHelper.createUuid(), "Facility");
+		UserReferenceDto user = new UserReferenceDto(DataHelper.createUuid(), "Surveillance OFFICER");
+
+		benchmark("cases", EntityDtoResource.STREAM_PAGE_SIZE, i -> {
+			CaseDataDto caze = CaseDataDto.build(new PersonReferenceDto(DataHelper.createUuid(), "Person " + i), Disease.EVD);
+			caze.setRegion(region);
+			caze.setDistrict(district);
+			caze.setHealthFacility(facility);
+			caze.setReportingUser(user);
+			caze.setSurveillanceOfficer(user);
+			caze.setCaseClassification(CaseClassification.values()[random.nextInt(CaseClassification.values().length)]);
+			caze.setEpidNumber("NIE-ABC-DEF-18-" + i);
+			caze.setChangeDate(new Date());
+			caze.setCreationDate(new Date());
+			return caze;
+		}, new TypeReference<List<CaseDataDto>>() { });
+	}
+
+	@Test
+	public void benchmarkFacilities() throws IOException {
+
+		RegionReferenceDto region = new RegionReferenceDto(DataHelper.createUuid(), "Region");
+		List<DistrictReferenceDto> districts = new ArrayList<>();
+		List<CommunityReferenceDto> communities = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			districts.add(new DistrictReferenceDto(DataHelper.createUuid(), "District " + i));
+			communities.add(new CommunityReferenceDto(DataHelper.createUuid(), "Community " + i));
+		}
+
+		benchmark("facilities", EntityDtoResource.MAX_PULL_LIMIT, i -> {
+			FacilityDto facility = FacilityDto.build();
+			facility.setName("Health Facility " + i);
+			facility.setRegion(region);
+			facility.setDistrict(districts.get(random.nextInt(districts.size())));
+			facility.setCommunity(communities.get(random.nextInt(communities.size())));
+			facility.setCity("City " + random.nextInt(100));
+			facility.setLatitude(4 + random.nextDouble() * 10);
+			facility.setLongitude(3 + random.nextDouble() * 10);
+			facility.setType(FacilityType.PRIMARY);
+			facility.setPublicOwnership(random.nextBoolean());
+			facility.setChangeDate(new Date());
+			facility.setCreationDate(new Date());
+			return facility;
+		}, new TypeReference<List<FacilityDto>>() { });
+	}
+
+	private <T> void benchmark(String name, int batchSize, IntFunction<T> dtoFactory, TypeReference<List<T>> listType) throws IOException {
+
+		int iterations = Integer.getInteger("benchmark.iterations", 20);
+
+		List<T> batch = new ArrayList<>(batchSize);
+		for (int i = 0; i < batchSize; i++) {
+			batch.add(dtoFactory.apply(i));
+		}
+
+		byte[] json = null;
+		byte[] gzipped = null;
+		long serializeNanos = 0;
+		long compressNanos = 0;
+		long decompressNanos = 0;
+		long deserializeNanos = 0;
+		// first iteration is warm up
+		for (int iteration = 0; iteration <= iterations; iteration++) {
+			long start = System.nanoTime();
+			json = objectMapper.writeValueAsBytes(batch);
+			long serialized = System.nanoTime();
+			gzipped = gzip(json);
+			long compressed = System.nanoTime();
+			byte[] unzipped = gunzip(gzipped);
+			long decompressed = System.nanoTime();
+			List<T> result = objectMapper.readValue(unzipped, listType);
+			long deserialized = System.nanoTime();
+
+			assertEquals(batchSize, result.size());
+			if (iteration > 0) {
+				serializeNanos += serialized - start;
+				compressNanos += compressed - serialized;
+				decompressNanos += decompressed - compressed;
+				deserializeNanos += deserialized - decompressed;
+			}
+		}
+
+		logger.info(String.format("%d %s: json %d bytes, gzip %d bytes (%.1f%%); per batch: serialize %.2f ms, gzip %.2f ms, gunzip %.2f ms, deserialize %.2f ms",
+				batchSize, name, json.length, gzipped.length, 100.0 * gzipped.length / json.length,
+				serializeNanos / 1e6 / iterations, compressNanos / 1e6 / iterations,
+				decompressNanos / 1e6 / iterations, deserializeNanos / 1e6 / iterations));
+
+		assertTrue("gzip should at least halve the payload", gzipped.length * 2 < json.length);
+	}
+
+	private static byte[] gzip(byte[] bytes) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(bytes);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] gunzip(byte[] bytes) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 4);
+		try (InputStream gunzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+			byte[] buffer = new byte[8192];
+			int count;
+			while ((count = gunzip.read(buffer)) > 0) {
+				out.write(buffer, 0, count);
+			}
+		}
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.rest.metrics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+
+public class RequestInstrumentationFilterTest {
+
+	private final RequestInstrumentationFilter filter = new RequestInstrumentationFilter();
+
+	private ByteArrayOutputStream responseBody;
+	private HttpServletRequest request;
+	private HttpServletResponse response;
+
+	@Before
+	public void init() throws IOException {
+
+		RestMetrics.getInstance().reset();
+
+		request = mock(HttpServletRequest.class);
+		when(request.getMethod()).thenReturn("GET");
+		when(request.getRequestURI()).thenReturn("/sormas-rest/cases/all/0");
+		when(request.getParameterMap()).thenReturn(Collections.singletonMap("since", new String[] { "0" }));
+		when(request.getContentLengthLong()).thenReturn(12L);
+		when(request.getRemoteUser()).thenReturn("SurvOff");
+
+		responseBody = new ByteArrayOutputStream();
+		ServletOutputStream outputStream = new ServletOutputStream() {
+
+			@Override
+			public void write(int b) {
+				responseBody.write(b);
+			}
+
+			@Override
+			public boolean isReady() {
+				return true;
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+			}
+		};
+		response = mock(HttpServletResponse.class);
+		when(response.getCharacterEncoding()).thenReturn("UTF-8");
+		when(response.getOutputStream()).thenReturn(outputStream);
+		when(response.getStatus()).thenReturn(200);
+	}
+
+	@Test
+	public void testRequestIsRecorded() throws IOException, ServletException {
+
+		byte[] body = "[{\"uuid\":\"A\"},{\"uuid\":\"B\"}]".getBytes(StandardCharsets.UTF_8);
+		filter.doFilter(request, response, (req, res) -> {
+			RestMetrics.setEndpoint("GET cases/all/{since}");
+			RestMetrics.addEntities(2);
+			res.getOutputStream().write(body);
+		});
+
+		// the body is passed on unchanged
+		assertArrayEquals(body, responseBody.toByteArray());
+
+		List<EndpointMetricsSnapshot> endpoints = RestMetrics.getInstance().getEndpoints();
+		assertEquals(1, endpoints.size());
+		EndpointMetricsSnapshot snapshot = endpoints.get(0);
+		assertEquals("GET cases/all/{since}", snapshot.getEndpoint());
+		assertEquals(1, snapshot.getRequestCount());
+		assertEquals(0, snapshot.getErrorCount());
+		assertEquals(12, snapshot.getRequestBytes());
+		assertEquals(body.length, snapshot.getResponseBytes());
+		assertEquals(2, snapshot.getEntityCount());
+		assertEquals(Long.valueOf(1), snapshot.getRequestCountByUser().get("SurvOff"));
+	}
+
+	@Test
+	public void testResponseIsNotCopiedWithoutTrace() throws IOException, ServletException {
+
+		Logger logger = mock(Logger.class);
+		RequestInstrumentationFilter filter = new RequestInstrumentationFilter(logger);
+
+		List<CountingHttpServletResponse> wrappedResponses = new ArrayList<>();
+		byte[] body = "[{\"uuid\":\"A\"}]".getBytes(StandardCharsets.UTF_8);
+		FilterChain chain = (req, res) -> {
+			wrappedResponses.add((CountingHttpServletResponse) res);
+			res.getOutputStream().write(body);
+		};
+		filter.doFilter(request, response, chain);
+
+		assertEquals(body.length, wrappedResponses.get(0).getByteCount());
+		assertEquals(0, wrappedResponses.get(0).getCopy().length);
+		// only the log levels are checked, nothing is logged
+		verify(logger).isDebugEnabled();
+		verify(logger).isTraceEnabled();
+		verifyNoMoreInteractions(logger);
+
+		// with TRACE enabled the body is copied and logged
+		when(logger.isTraceEnabled()).thenReturn(true);
+		filter.doFilter(request, response, chain);
+
+		assertArrayEquals(body, wrappedResponses.get(1).getCopy());
+		verify(logger).trace(anyString(), (Object[]) anyVararg());
+	}
+
+	@Test
+	public void testErrorsAreRecorded() throws IOException, ServletException {
+
+		when(response.getStatus()).thenReturn(500);
+		filter.doFilter(request, response, (req, res) -> res.getWriter().write("error"));
+
+		// exceptions of the chain are counted as well and passed on
+		FilterChain failingChain = mock(FilterChain.class);
+		doAnswer(invocation -> {
+			throw new ServletException("failed");
+		}).when(failingChain).doFilter(any(ServletRequest.class), any(ServletResponse.class));
+		try {
+			filter.doFilter(request, response, failingChain);
+			fail("exception expected");
+		} catch (ServletException e) {
+			assertEquals("failed", e.getMessage());
+		}
+
+		EndpointMetricsSnapshot snapshot = RestMetrics.getInstance().getEndpoints().get(0);
+		assertEquals(RestMetrics.UNMATCHED_ENDPOINT, snapshot.getEndpoint());
+		assertEquals(2, snapshot.getRequestCount());
+		assertEquals(2, snapshot.getErrorCount());
+		assertEquals("error".length(), snapshot.getResponseBytes());
+	}
+}
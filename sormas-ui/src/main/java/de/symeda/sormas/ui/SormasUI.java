@@ -19,8 +19,11 @@ package de.symeda.sormas.ui;
 
 import java.util.Properties;
 
+import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 
+import org.slf4j.LoggerFactory;
+
 import com.vaadin.annotations.Theme;
 import com.vaadin.annotations.VaadinServletConfiguration;
 import com.vaadin.annotations.Viewport;
@@ -33,6 +36,7 @@ import com.vaadin.server.VaadinSession;
 import com.vaadin.ui.UI;
 import com.vaadin.ui.themes.ValoTheme;
 
+import de.symeda.sormas.api.FacadeProvider;
 import de.symeda.sormas.ui.UserProvider.HasUserProvider;
 import de.symeda.sormas.ui.ViewModelProviders.HasViewModelProviders;
 import de.symeda.sormas.ui.login.LoginHelper;
@@ -111,8 +115,31 @@ public class SormasUI extends UI implements HasUserProvider, HasViewModelProvide
 	@VaadinServletConfiguration(ui = SormasUI.class, productionMode = false) // , resourceCacheTime = 0)
 	public static class SormasUIServlet extends VaadinServlet {
 
+		private static final String METRICS_MODULE = "ui";
+
 		// private static final String VAADIN_RESOURCES = "/sormas-widgetset";
 
+		@Override
+		protected void servletInitialized() throws ServletException {
+			super.servletInitialized();
+			try {
+				FacadeProvider.get().getLookupMetrics().registerMBean(METRICS_MODULE);
+			} catch (RuntimeException e) {
+				LoggerFactory.getLogger(SormasUIServlet.class).warn("Could not register the facade lookup MBean: " + e.getMessage(), e);
+			}
+		}
+
+		@Override
+		public void destroy() {
+			try {
+				FacadeProvider.get().getLookupMetrics().unregisterMBean(METRICS_MODULE);
+			} catch (RuntimeException e) {
+				LoggerFactory.getLogger(SormasUIServlet.class).warn("Could not unregister the facade lookup MBean: " + e.getMessage(), e);
+			}
+			FacadeProvider.get().invalidateLookups();
+			super.destroy();
+		}
+
 		@Override
 		protected DeploymentConfiguration createDeploymentConfiguration(Properties initParameters) {
 
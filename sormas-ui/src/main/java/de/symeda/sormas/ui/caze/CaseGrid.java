@@ -17,10 +17,9 @@
  *******************************************************************************/
 package de.symeda.sormas.ui.caze;
 
-import java.util.List;
+import java.util.Arrays;
 
 import com.vaadin.data.Item;
-import com.vaadin.data.util.BeanItemContainer;
 import com.vaadin.data.util.GeneratedPropertyContainer;
 import com.vaadin.data.util.PropertyValueGenerator;
 import com.vaadin.ui.Grid;
@@ -38,6 +37,7 @@ import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.ui.ControllerProvider;
 import de.symeda.sormas.ui.UserProvider;
 import de.symeda.sormas.ui.utils.AbstractGrid;
+import de.symeda.sormas.ui.utils.LazyIndexContainer;
 import de.symeda.sormas.ui.utils.UuidRenderer;
 
 @SuppressWarnings("serial")
@@ -59,17 +59,24 @@ public class CaseGrid extends Grid implements AbstractGrid<CaseCriteria> {
 			setSelectionMode(SelectionMode.NONE);
 		}
 
-		BeanItemContainer<CaseIndexDto> container = new BeanItemContainer<CaseIndexDto>(CaseIndexDto.class);
+		LazyIndexContainer<CaseIndexDto> container = new LazyIndexContainer<CaseIndexDto>(CaseIndexDto.class,
+				Arrays.asList(CaseIndexDto.UUID, CaseIndexDto.EPID_NUMBER, CaseIndexDto.DISEASE,
+						CaseIndexDto.DISEASE_DETAILS, CaseIndexDto.CASE_CLASSIFICATION,
+						CaseIndexDto.INVESTIGATION_STATUS, CaseIndexDto.REPORT_DATE, CaseIndexDto.CREATION_DATE,
+						CaseIndexDto.OUTCOME, CaseIndexDto.PERSON_FIRST_NAME, CaseIndexDto.PERSON_LAST_NAME,
+						CaseIndexDto.PRESENT_CONDITION, CaseIndexDto.DISTRICT_NAME, CaseIndexDto.HEALTH_FACILITY_NAME),
+				() -> FacadeProvider.getCaseFacade().count(UserProvider.getCurrent().getUuid(), caseCriteria),
+				(first, max, sortProperties) -> FacadeProvider.getCaseFacade().getIndexList(
+						UserProvider.getCurrent().getUuid(), caseCriteria, first, max, sortProperties));
 		GeneratedPropertyContainer generatedContainer = new GeneratedPropertyContainer(container);
 		setContainerDataSource(generatedContainer);
 
-		// TODO move to index dto
 		generatedContainer.addGeneratedProperty(NUMBER_OF_PENDING_TASKS, new PropertyValueGenerator<String>() {
 			@Override
 			public String getValue(Item item, Object itemId, Object propertyId) {
 				CaseIndexDto caseDto = (CaseIndexDto)itemId;
 				return String.format(I18nProperties.getCaption(Captions.formatSimpleNumberFormat), 
-						FacadeProvider.getTaskFacade().getPendingTaskCountByCase(caseDto.toReference()));
+						caseDto.getPendingTaskCount());
 			}
 			@Override
 			public Class<String> getType() {
@@ -127,9 +134,9 @@ public class CaseGrid extends Grid implements AbstractGrid<CaseCriteria> {
 	}
 
 	@SuppressWarnings("unchecked")
-	public BeanItemContainer<CaseIndexDto> getContainer() {
+	public LazyIndexContainer<CaseIndexDto> getContainer() {
 		GeneratedPropertyContainer container = (GeneratedPropertyContainer) super.getContainerDataSource();
-		return (BeanItemContainer<CaseIndexDto>) container.getWrappedContainer();
+		return (LazyIndexContainer<CaseIndexDto>) container.getWrappedContainer();
 	}
 
 	public void reload() {
@@ -137,19 +144,13 @@ public class CaseGrid extends Grid implements AbstractGrid<CaseCriteria> {
 			deselectAll();
 		}
 
-		List<CaseIndexDto> cases = FacadeProvider.getCaseFacade().getIndexList(
-				UserProvider.getCurrent().getUuid(), 
-				caseCriteria);
-
-		getContainer().removeAllItems();
-
 		if (caseCriteria.getOutcome() == null) {
 			this.getColumn(CaseIndexDto.OUTCOME).setHidden(false);
 		} else if (this.getColumn(CaseIndexDto.OUTCOME) != null) {
 			this.getColumn(CaseIndexDto.OUTCOME).setHidden(true);
 		}
 
-		getContainer().addAll(cases);
+		getContainer().refresh();
 	}
 
 }
\ No newline at end of file
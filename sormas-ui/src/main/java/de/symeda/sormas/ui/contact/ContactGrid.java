@@ -17,10 +17,10 @@
  *******************************************************************************/
 package de.symeda.sormas.ui.contact;
 
-import java.util.List;
+
+import java.util.Arrays;
 
 import com.vaadin.data.Item;
-import com.vaadin.data.util.BeanItemContainer;
 import com.vaadin.data.util.GeneratedPropertyContainer;
 import com.vaadin.data.util.PropertyValueGenerator;
 import com.vaadin.ui.Grid;
@@ -48,6 +48,7 @@ import de.symeda.sormas.api.utils.DataHelper;
 import de.symeda.sormas.ui.ControllerProvider;
 import de.symeda.sormas.ui.UserProvider;
 import de.symeda.sormas.ui.utils.AbstractGrid;
+import de.symeda.sormas.ui.utils.LazyIndexContainer;
 import de.symeda.sormas.ui.utils.UuidRenderer;
 
 @SuppressWarnings("serial")
@@ -72,7 +73,15 @@ public class ContactGrid extends Grid implements AbstractGrid<ContactCriteria> {
 			setSelectionMode(SelectionMode.NONE);
 		}
 
-		BeanItemContainer<ContactIndexDto> container = new BeanItemContainer<ContactIndexDto>(ContactIndexDto.class);
+		LazyIndexContainer<ContactIndexDto> container = new LazyIndexContainer<ContactIndexDto>(ContactIndexDto.class,
+				Arrays.asList(ContactIndexDto.UUID, ContactIndexDto.LAST_CONTACT_DATE,
+						ContactIndexDto.CONTACT_PROXIMITY, ContactIndexDto.CONTACT_CLASSIFICATION,
+						ContactIndexDto.CONTACT_STATUS, ContactIndexDto.FOLLOW_UP_STATUS,
+						ContactIndexDto.FOLLOW_UP_UNTIL, ContactIndexDto.PERSON, ContactIndexDto.CAZE,
+						ContactIndexDto.CASE_DISEASE),
+				() -> FacadeProvider.getContactFacade().count(UserProvider.getCurrent().getUuid(), contactCriteria),
+				(first, max, sortProperties) -> FacadeProvider.getContactFacade().getIndexList(
+						UserProvider.getCurrent().getUuid(), contactCriteria, first, max, sortProperties));
 		GeneratedPropertyContainer generatedContainer = new GeneratedPropertyContainer(container);
 		setContainerDataSource(generatedContainer);
 
@@ -81,7 +90,7 @@ public class ContactGrid extends Grid implements AbstractGrid<ContactCriteria> {
 			public String getValue(Item item, Object itemId, Object propertyId) {
 				ContactIndexDto indexDto = (ContactIndexDto) itemId;
 				if (DiseaseHelper.hasContactFollowUp(indexDto.getCaseDisease(), null)) {
-					int numberOfVisits = FacadeProvider.getVisitFacade().getNumberOfVisits(indexDto.toReference(), null);
+					int numberOfVisits = indexDto.getVisitCount();
 					int numberOfRequiredVisits = ContactLogic.getNumberOfRequiredVisitsSoFar(indexDto.getReportDate(), indexDto.getFollowUpUntil());
 					int numberOfMissedVisits = numberOfRequiredVisits - numberOfVisits;
 					// Set number of missed visits to 0 when more visits than expected have been done
@@ -106,7 +115,7 @@ public class ContactGrid extends Grid implements AbstractGrid<ContactCriteria> {
 			public String getValue(Item item, Object itemId, Object propertyId) {
 				ContactIndexDto contactIndexDto = (ContactIndexDto)itemId;
 				return String.format(I18nProperties.getCaption(Captions.formatSimpleNumberFormat), 
-						FacadeProvider.getTaskFacade().getPendingTaskCountByContact(contactIndexDto.toReference()));
+						contactIndexDto.getPendingTaskCount());
 			}
 			@Override
 			public Class<String> getType() {
@@ -208,20 +217,17 @@ public class ContactGrid extends Grid implements AbstractGrid<ContactCriteria> {
 	}
 
 	@SuppressWarnings("unchecked")
-	public BeanItemContainer<ContactIndexDto> getContainer() {
+	public LazyIndexContainer<ContactIndexDto> getContainer() {
 		GeneratedPropertyContainer container = (GeneratedPropertyContainer) super.getContainerDataSource();
-		return (BeanItemContainer<ContactIndexDto>) container.getWrappedContainer();
+		return (LazyIndexContainer<ContactIndexDto>) container.getWrappedContainer();
 	}
 
 	public void reload() {
 		if (getSelectionModel() instanceof HasUserSelectionAllowed) {
 			deselectAll();
 		}
-		
-		List<ContactIndexDto> entries = FacadeProvider.getContactFacade().getIndexList(UserProvider.getCurrent().getUserReference().getUuid(), contactCriteria);
 
-		getContainer().removeAllItems();
-		getContainer().addAll(entries);  
+		getContainer().refresh();
 	}
 
 	@Override
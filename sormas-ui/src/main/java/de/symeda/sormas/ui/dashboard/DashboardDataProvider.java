@@ -23,16 +23,13 @@ import java.util.List;
 
 import de.symeda.sormas.api.Disease;
 import de.symeda.sormas.api.FacadeProvider;
-import de.symeda.sormas.api.caze.CaseCriteria;
-import de.symeda.sormas.api.caze.DashboardCaseDto;
-import de.symeda.sormas.api.caze.NewCaseDateType;
 import de.symeda.sormas.api.contact.DashboardContactDto;
+import de.symeda.sormas.api.disease.DashboardDiseaseCountsDto;
 import de.symeda.sormas.api.disease.DiseaseBurdenDto;
 import de.symeda.sormas.api.event.DashboardEventDto;
 import de.symeda.sormas.api.outbreak.DashboardOutbreakDto;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.region.RegionReferenceDto;
-import de.symeda.sormas.api.sample.DashboardTestResultDto;
 import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.ui.UserProvider;
 
@@ -56,13 +53,10 @@ public class DashboardDataProvider {
 	private List<DashboardContactDto> previousContacts = new ArrayList<>();
 	
 	// disease specific
-	private List<DashboardCaseDto> cases = new ArrayList<>();
-	private List<DashboardCaseDto> previousCases = new ArrayList<>();
+	private DashboardDiseaseCountsDto diseaseCounts = new DashboardDiseaseCountsDto();
+	private DashboardDiseaseCountsDto previousDiseaseCounts = new DashboardDiseaseCountsDto();
 	private List<DashboardOutbreakDto> outbreaks = new ArrayList<>();
 	private List<DashboardEventDto> events = new ArrayList<>();
-	private List<DashboardEventDto> previousEvents = new ArrayList<>();
-	private List<DashboardTestResultDto> testResults = new ArrayList<>();
-	private List<DashboardTestResultDto> previousTestResults = new ArrayList<>();
 //	private List<DashboardSampleDto> samples = new ArrayList<>();
 //	private List<DashboardTaskDto> tasks = new ArrayList<>();
 //	private List<DashboardTaskDto> pendingTasks = new ArrayList<>();
@@ -109,44 +103,35 @@ public class DashboardDataProvider {
 		previousFromDate = DateHelper.getStartOfDay(DateHelper.subtractDays(fromDate, period));
 		previousToDate = DateHelper.getEndOfDay(DateHelper.subtractDays(toDate, period));
 		
-		// Cases
-		CaseCriteria caseCriteria = new CaseCriteria();
-		caseCriteria.region(region).district(district).disease(disease).newCaseDateBetween(fromDate, toDate, NewCaseDateType.MOST_RELEVANT);
-		setCases(FacadeProvider.getCaseFacade().getCasesForDashboard(caseCriteria, userUuid));
-		caseCriteria.newCaseDateBetween(previousFromDate, previousToDate, NewCaseDateType.MOST_RELEVANT);
-		setPreviousCases(FacadeProvider.getCaseFacade().getCasesForDashboard(caseCriteria, userUuid));
+		// Case, event and test result counts
+		setDiseaseCounts(FacadeProvider.getDiseaseFacade().getDashboardCounts(region, district, disease, fromDate,
+				toDate, userUuid));
+		setPreviousDiseaseCounts(FacadeProvider.getDiseaseFacade().getDashboardCounts(region, district, disease,
+				previousFromDate, previousToDate, userUuid));
 		
-		// Events
+		// Events (map markers)
 		setEvents(FacadeProvider.getEventFacade().getNewEventsForDashboard(region, district, disease, fromDate, toDate,
 				userUuid));
-		setPreviousEvents(FacadeProvider.getEventFacade().getNewEventsForDashboard(region, district, disease,
-				previousFromDate, previousToDate, userUuid));
-		
-		// Test results
-		setTestResults(FacadeProvider.getSampleTestFacade().getNewTestResultsForDashboard(region, district, disease,
-				fromDate, toDate, userUuid));
-		setPreviousTestResults(FacadeProvider.getSampleTestFacade().getNewTestResultsForDashboard(region, district,
-				disease, previousFromDate, previousToDate, userUuid));
 		
 		// Outbreaks
 		setOutbreaks(FacadeProvider.getOutbreakFacade().getOutbreaksForDashboard(region, district, disease, fromDate, toDate,
 				userUuid));
 	}
 	
-	public List<DashboardCaseDto> getCases() {
-		return cases;
+	public DashboardDiseaseCountsDto getDiseaseCounts() {
+		return diseaseCounts;
 	}
 
-	public void setCases(List<DashboardCaseDto> cases) {
-		this.cases = cases;
+	public void setDiseaseCounts(DashboardDiseaseCountsDto diseaseCounts) {
+		this.diseaseCounts = diseaseCounts;
 	}
 
-	public List<DashboardCaseDto> getPreviousCases() {
-		return previousCases;
+	public DashboardDiseaseCountsDto getPreviousDiseaseCounts() {
+		return previousDiseaseCounts;
 	}
 
-	public void setPreviousCases(List<DashboardCaseDto> previousCases) {
-		this.previousCases = previousCases;
+	public void setPreviousDiseaseCounts(DashboardDiseaseCountsDto previousDiseaseCounts) {
+		this.previousDiseaseCounts = previousDiseaseCounts;
 	}
 
 	public List<DashboardEventDto> getEvents() {
@@ -157,30 +142,6 @@ public class DashboardDataProvider {
 		this.events = events;
 	}
 
-	public List<DashboardEventDto> getPreviousEvents() {
-		return previousEvents;
-	}
-
-	public void setPreviousEvents(List<DashboardEventDto> previousEvents) {
-		this.previousEvents = previousEvents;
-	}
-
-	public List<DashboardTestResultDto> getTestResults() {
-		return testResults;
-	}
-
-	public void setTestResults(List<DashboardTestResultDto> testResults) {
-		this.testResults = testResults;
-	}
-
-	public List<DashboardTestResultDto> getPreviousTestResults() {
-		return previousTestResults;
-	}
-
-	public void setPreviousTestResults(List<DashboardTestResultDto> previousTestResults) {
-		this.previousTestResults = previousTestResults;
-	}
-
 //	public List<DashboardSampleDto> getSamples() {
 //		return samples;
 //	}
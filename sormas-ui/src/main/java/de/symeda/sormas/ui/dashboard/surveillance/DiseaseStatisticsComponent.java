@@ -30,13 +30,11 @@ import com.vaadin.ui.VerticalLayout;
 
 import de.symeda.sormas.api.Disease;
 import de.symeda.sormas.api.caze.CaseClassification;
-import de.symeda.sormas.api.caze.DashboardCaseDto;
-import de.symeda.sormas.api.event.DashboardEventDto;
+import de.symeda.sormas.api.disease.DashboardDiseaseCountsDto;
 import de.symeda.sormas.api.event.EventStatus;
 import de.symeda.sormas.api.i18n.Captions;
 import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.outbreak.DashboardOutbreakDto;
-import de.symeda.sormas.api.sample.DashboardTestResultDto;
 import de.symeda.sormas.api.sample.SampleTestResultType;
 //import de.symeda.sormas.ui.CurrentUser;
 import de.symeda.sormas.ui.dashboard.DashboardDataProvider;
@@ -300,26 +298,16 @@ public class DiseaseStatisticsComponent extends CustomLayout {
 	}
 
 	private void updateCaseComponent(Disease disease) {
-		List<DashboardCaseDto> cases = dashboardDataProvider.getCases();
+		DashboardDiseaseCountsDto counts = dashboardDataProvider.getDiseaseCounts();
 
 		//caseDiseaseLabel.setValue("(" + disease.toString() + ")");
-		caseCountLabel.setValue(Integer.toString(cases.size()).toString());
-
-		int confirmedCasesCount = (int) cases.stream()
-				.filter(c -> c.getCaseClassification() == CaseClassification.CONFIRMED).count();
-		caseClassificationConfirmed.updateCountLabel(confirmedCasesCount);
-		int probableCasesCount = (int) cases.stream()
-				.filter(c -> c.getCaseClassification() == CaseClassification.PROBABLE).count();
-		caseClassificationProbable.updateCountLabel(probableCasesCount);
-		int suspectCasesCount = (int) cases.stream()
-				.filter(c -> c.getCaseClassification() == CaseClassification.SUSPECT).count();
-		caseClassificationSuspect.updateCountLabel(suspectCasesCount);
-		int notACaseCasesCount = (int) cases.stream()
-				.filter(c -> c.getCaseClassification() == CaseClassification.NO_CASE).count();
-		caseClassificationNotACase.updateCountLabel(notACaseCasesCount);
-		int notYetClassifiedCasesCount = (int) cases.stream()
-				.filter(c -> c.getCaseClassification() == CaseClassification.NOT_CLASSIFIED).count();
-		caseClassificationNotYetClassified.updateCountLabel(notYetClassifiedCasesCount);
+		caseCountLabel.setValue(Long.toString(counts.getCaseCount()));
+
+		caseClassificationConfirmed.updateCountLabel((int) counts.getCaseCount(CaseClassification.CONFIRMED));
+		caseClassificationProbable.updateCountLabel((int) counts.getCaseCount(CaseClassification.PROBABLE));
+		caseClassificationSuspect.updateCountLabel((int) counts.getCaseCount(CaseClassification.SUSPECT));
+		caseClassificationNotACase.updateCountLabel((int) counts.getCaseCount(CaseClassification.NO_CASE));
+		caseClassificationNotYetClassified.updateCountLabel((int) counts.getCaseCount(CaseClassification.NOT_CLASSIFIED));
 	}
 
 	private void updateOutbreakDistrictComponent(Disease disease) {
@@ -334,12 +322,12 @@ public class DiseaseStatisticsComponent extends CustomLayout {
 	}
 
 	private void updateCaseFatalityComponent(Disease disease) {
-		List<DashboardCaseDto> newCases = dashboardDataProvider.getCases();
-		List<DashboardCaseDto> previousCases = dashboardDataProvider.getPreviousCases();
+		DashboardDiseaseCountsDto counts = dashboardDataProvider.getDiseaseCounts();
+		DashboardDiseaseCountsDto previousCounts = dashboardDataProvider.getPreviousDiseaseCounts();
 
-		int casesCount = newCases.size();
-		Long fatalCasesCount = newCases.stream().filter((c) -> c.wasFatal()).count();
-		long previousFatalCasesCount = previousCases.stream().filter((c) -> c.wasFatal()).count();
+		long casesCount = counts.getCaseCount();
+		Long fatalCasesCount = counts.getFatalCaseCount();
+		long previousFatalCasesCount = previousCounts.getFatalCaseCount();
 		long fatalCasesGrowth = fatalCasesCount - previousFatalCasesCount;
 		float fatalityRate = 100 * ((float) fatalCasesCount / (float) (casesCount == 0 ? 1 : casesCount));
 		fatalityRate = Math.round(fatalityRate * 100) / 100f;
@@ -373,36 +361,23 @@ public class DiseaseStatisticsComponent extends CustomLayout {
 	}
 	
 	private void updateEventComponent(Disease disease) {
-		List<DashboardEventDto> events = dashboardDataProvider.getEvents();
-
-		eventCountLabel.setValue(Integer.toString(events.size()).toString());
-
-		int confirmedEventsCount = (int) events.stream().filter(e -> e.getEventStatus() == EventStatus.CONFIRMED)
-				.count();
-		eventStatusConfirmed.updateCountLabel(confirmedEventsCount);
-		int possibleEventsCount = (int) events.stream().filter(e -> e.getEventStatus() == EventStatus.POSSIBLE).count();
-		eventStatusPossible.updateCountLabel(possibleEventsCount);
-		int notAnEventEventsCount = (int) events.stream().filter(e -> e.getEventStatus() == EventStatus.NO_EVENT)
-				.count();
-		eventStatusNotAnEvent.updateCountLabel(notAnEventEventsCount);
+		DashboardDiseaseCountsDto counts = dashboardDataProvider.getDiseaseCounts();
+
+		eventCountLabel.setValue(Long.toString(counts.getEventCount()));
+
+		eventStatusConfirmed.updateCountLabel((int) counts.getEventCount(EventStatus.CONFIRMED));
+		eventStatusPossible.updateCountLabel((int) counts.getEventCount(EventStatus.POSSIBLE));
+		eventStatusNotAnEvent.updateCountLabel((int) counts.getEventCount(EventStatus.NO_EVENT));
 	}
 
 	private void updateTestResultComponent(Disease disease) {
-		List<DashboardTestResultDto> testResults = dashboardDataProvider.getTestResults();
-
-		testResultCountLabel.setValue(Integer.toString(testResults.size()).toString());
-
-		int positiveTestResultsCount = (int) testResults.stream()
-				.filter(r -> r.getTestResult() == SampleTestResultType.POSITIVE).count();
-		testResultPositive.updateCountLabel(positiveTestResultsCount);
-		int negativeTestResultsCount = (int) testResults.stream()
-				.filter(r -> r.getTestResult() == SampleTestResultType.NEGATIVE).count();
-		testResultNegative.updateCountLabel(negativeTestResultsCount);
-		int pendingTestResultsCount = (int) testResults.stream()
-				.filter(r -> r.getTestResult() == SampleTestResultType.PENDING).count();
-		testResultPending.updateCountLabel(pendingTestResultsCount);
-		int indeterminateTestResultsCount = (int) testResults.stream()
-				.filter(r -> r.getTestResult() == SampleTestResultType.INDETERMINATE).count();
-		testResultIndeterminate.updateCountLabel(indeterminateTestResultsCount);
+		DashboardDiseaseCountsDto counts = dashboardDataProvider.getDiseaseCounts();
+
+		testResultCountLabel.setValue(Long.toString(counts.getTestResultCount()));
+
+		testResultPositive.updateCountLabel((int) counts.getTestResultCount(SampleTestResultType.POSITIVE));
+		testResultNegative.updateCountLabel((int) counts.getTestResultCount(SampleTestResultType.NEGATIVE));
+		testResultPending.updateCountLabel((int) counts.getTestResultCount(SampleTestResultType.PENDING));
+		testResultIndeterminate.updateCountLabel((int) counts.getTestResultCount(SampleTestResultType.INDETERMINATE));
 	}
 }
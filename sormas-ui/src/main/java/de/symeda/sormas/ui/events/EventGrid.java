@@ -17,10 +17,10 @@
  *******************************************************************************/
 package de.symeda.sormas.ui.events;
 
-import java.util.List;
+
+import java.util.Arrays;
 
 import com.vaadin.data.Item;
-import com.vaadin.data.util.BeanItemContainer;
 import com.vaadin.data.util.GeneratedPropertyContainer;
 import com.vaadin.data.util.PropertyValueGenerator;
 import com.vaadin.ui.Grid;
@@ -42,6 +42,7 @@ import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.ui.ControllerProvider;
 import de.symeda.sormas.ui.UserProvider;
 import de.symeda.sormas.ui.utils.AbstractGrid;
+import de.symeda.sormas.ui.utils.LazyIndexContainer;
 import de.symeda.sormas.ui.utils.UuidRenderer;
 
 @SuppressWarnings("serial")
@@ -64,7 +65,14 @@ public class EventGrid extends Grid implements AbstractGrid<EventCriteria> {
         	setSelectionMode(SelectionMode.NONE);
         }
 		
-		BeanItemContainer<EventIndexDto> container = new BeanItemContainer<EventIndexDto>(EventIndexDto.class);
+		LazyIndexContainer<EventIndexDto> container = new LazyIndexContainer<EventIndexDto>(EventIndexDto.class,
+				Arrays.asList(EventIndexDto.UUID, EventIndexDto.EVENT_TYPE, EventIndexDto.EVENT_STATUS,
+						EventIndexDto.DISEASE, EventIndexDto.DISEASE_DETAILS, EventIndexDto.EVENT_DATE,
+						EventIndexDto.EVENT_DESC, EventIndexDto.SRC_FIRST_NAME, EventIndexDto.SRC_LAST_NAME,
+						EventIndexDto.SRC_TEL_NO, EventIndexDto.REPORT_DATE_TIME, EventIndexDto.EVENT_LOCATION),
+				() -> FacadeProvider.getEventFacade().count(UserProvider.getCurrent().getUuid(), eventCriteria),
+				(first, max, sortProperties) -> FacadeProvider.getEventFacade().getIndexList(
+						UserProvider.getCurrent().getUuid(), eventCriteria, first, max, sortProperties));
 		GeneratedPropertyContainer generatedContainer = new GeneratedPropertyContainer(container);
 		setContainerDataSource(generatedContainer);
 		
@@ -88,7 +96,7 @@ public class EventGrid extends Grid implements AbstractGrid<EventCriteria> {
 			public String getValue(Item item, Object itemId, Object propertyId) {
 				EventIndexDto event = (EventIndexDto)itemId;
 				return String.format(I18nProperties.getCaption(Captions.formatSimpleNumberFormat),
-						FacadeProvider.getTaskFacade().getPendingTaskCountByEvent(event.toReference()));
+						event.getPendingTaskCount());
 			}
 			@Override
 			public Class<String> getType() {
@@ -150,19 +158,17 @@ public class EventGrid extends Grid implements AbstractGrid<EventCriteria> {
     }
     
 	@SuppressWarnings("unchecked")
-	public BeanItemContainer<EventIndexDto> getContainer() {
+	public LazyIndexContainer<EventIndexDto> getContainer() {
 		GeneratedPropertyContainer container = (GeneratedPropertyContainer) super.getContainerDataSource();
-		return (BeanItemContainer<EventIndexDto>) container.getWrappedContainer();
+		return (LazyIndexContainer<EventIndexDto>) container.getWrappedContainer();
 	}
 	
 	public void reload() {
 		if (getSelectionModel() instanceof HasUserSelectionAllowed) {
 			deselectAll();
 		}
-		
-		List<EventIndexDto> events = FacadeProvider.getEventFacade().getIndexList(UserProvider.getCurrent().getUserReference().getUuid(), eventCriteria);
-		getContainer().removeAllItems();
-		getContainer().addAll(events);
+
+		getContainer().refresh();
 	}
 
 	@Override
@@ -27,10 +27,20 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +49,7 @@ import com.opencsv.CSVReader;
 import com.opencsv.CSVWriter;
 
 import de.symeda.sormas.api.FacadeProvider;
+import de.symeda.sormas.api.PushResult;
 import de.symeda.sormas.api.caze.CaseDataDto;
 import de.symeda.sormas.api.facility.FacilityReferenceDto;
 import de.symeda.sormas.api.i18n.Captions;
@@ -46,13 +57,11 @@ import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.i18n.Validations;
 import de.symeda.sormas.api.importexport.InvalidColumnException;
 import de.symeda.sormas.api.person.PersonDto;
-import de.symeda.sormas.api.person.PersonHelper;
 import de.symeda.sormas.api.person.PersonNameDto;
 import de.symeda.sormas.api.person.PersonReferenceDto;
 import de.symeda.sormas.api.region.CommunityReferenceDto;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.region.RegionReferenceDto;
-import de.symeda.sormas.api.user.UserDto;
 import de.symeda.sormas.api.user.UserReferenceDto;
 import de.symeda.sormas.api.utils.CSVUtils;
 import de.symeda.sormas.api.utils.DateHelper;
@@ -61,29 +70,40 @@ import de.symeda.sormas.api.utils.ValidationRuntimeException;
 /**
  * These are the steps performed by the case importer:
  * 
- * 1) Read the CSV file from the passed file path and open an error report file
+ * 1) Open a CSV reader on the passed reader and an error report file
  * 2) Read the header row from the CSV and build a list of properties based on its columns
- * 3) Read the next line from the CSV and fill a case with its contents by using reflection;
+ * 3) Read the next row and fill a case with its contents by using reflection;
  *    Validate the case afterwards
  * 	  - If an error is thrown doing this, the import of this case is canceled and the case gets
  *   	added to the error report file
- * 4) Check the database for similar persons and, if at least one is found, execute the 
- *    similarityCallback received by the calling class.
+ *    - Regions, districts, communities, facilities and users are only looked up once per name
+ * 4) Check the known persons for similar names (using the {@link PersonNameIndex}) and, if at least
+ *    one is found, execute the similarityCallback received by the calling class.
+ *    - Before, all pending cases are saved, so a similar person of the same file can be selected;
+ *      if the similar person could not be saved, the case is handled like one without similar persons
  *    - The import will wait for the similarityCallback to be resolved before it is continued
  * 5) Based on the results of the similarityCallback, an existing person and/or case might
- *    be overridden by the data in the CSV file
- * 6) Save the person and case to the database (unless the case was skipped or the import
- *    was canceled)
- * 7) Repeat from step 3 until all cases have been handled
+ *    be overridden by the data in the CSV file and is saved right away
+ * 6) Cases without similar persons are collected and saved in batches of {@link #BATCH_SIZE} by
+ *    the managed executor service of the server (at most {@link #SAVE_THREADS} batches at a time),
+ *    while the next rows are processed. The caseImportedCallback is called by the importing thread
+ *    as soon as the batch of a case has been saved. Cases of a batch that could not be saved are
+ *    saved once more on their own, to write the validation message to the error report file.
+ * 7) Repeat from step 3 until all cases have been handled (unless the import was canceled)
  */
 public class CaseImporter {
 
 	private static final String ERROR_COLUMN_NAME = I18nProperties.getCaption(Captions.caseImportErrorDescription);
 	private static final Logger logger = LoggerFactory.getLogger(CaseImporter.class);
 
+	private static final int BATCH_SIZE = 100;
+	private static final int SAVE_THREADS = 2;
+	private static final String SAVE_EXECUTOR_JNDI_NAME = "java:comp/DefaultManagedExecutorService";
+
+	private ExecutorService saveExecutor;
+
 	private Consumer<CaseImportResult> caseImportedCallback;
 	private BiConsumer<ImportSimilarityInput, Consumer<ImportSimilarityResult>> similarityCallback;
-	private Integer numberOfCases;
 
 	private CSVReader csvReader;
 	private CSVWriter errorReportCsvWriter;
@@ -94,32 +114,59 @@ public class CaseImporter {
 	private UserReferenceDto currentUser;
 
 	private List<PersonNameDto> personNames;
+	private PersonNameIndex personNameIndex;
+
+	private final Map<String, List<RegionReferenceDto>> regionsByName = new HashMap<>();
+	private final Map<List<Object>, List<DistrictReferenceDto>> districtsByName = new HashMap<>();
+	private final Map<List<Object>, List<CommunityReferenceDto>> communitiesByName = new HashMap<>();
+	private final Map<List<Object>, List<FacilityReferenceDto>> facilitiesByName = new HashMap<>();
+	private final Map<String, UserReferenceDto> usersByName = new HashMap<>();
+
+	private CompletionService<List<PushResult>> saveCompletionService;
+	private final Map<Future<List<PushResult>>, ImportBatch> savingBatches = new HashMap<>();
+	private ImportBatch pendingBatch = new ImportBatch();
 
 	public CaseImporter(InputStreamReader csvInputReader, OutputStreamWriter errorReportWriter, UserReferenceDto currentUser) throws IOException {
 		this.currentUser = currentUser;
 		personNames = FacadeProvider.getPersonFacade().getNameDtos(currentUser);
+		personNameIndex = new PersonNameIndex(personNames);
 
 		csvReader = CSVUtils.createCSVReader(csvInputReader, FacadeProvider.getConfigFacade().getCsvSeparator());
 		errorReportCsvWriter = CSVUtils.createCSVWriter(errorReportWriter, FacadeProvider.getConfigFacade().getCsvSeparator());
+
+		// looked up here, because the import itself is not run by a thread of the server
+		saveExecutor = lookupSaveExecutor();
 	}
 
-	public int getNumberOfCases(InputStreamReader csvInputReader) throws IOException {
-		if (numberOfCases != null) {
-			return numberOfCases;
+	private static ExecutorService lookupSaveExecutor() {
+		try {
+			return (ExecutorService) new InitialContext().lookup(SAVE_EXECUTOR_JNDI_NAME);
+		} catch (NamingException e) {
+			logger.warn("No managed executor service available, imported cases are saved by the importing thread: " + e.getMessage());
+			return null;
 		}
+	}
 
-		CSVReader caseCountReader = CSVUtils.createCSVReader(csvInputReader, FacadeProvider.getConfigFacade().getCsvSeparator());
+	/**
+	 * @param saveExecutor
+	 *            executes the saving of the batches; null to save them in the importing thread
+	 */
+	void setSaveExecutor(ExecutorService saveExecutor) {
+		this.saveExecutor = saveExecutor;
+	}
 
-		// Initialize with -1 because first line is not a case
-		numberOfCases = -1;
-		while (caseCountReader.readNext() != null) {
-			numberOfCases++;
+	/**
+	 * Counts the rows with a reader of its own, so the rows don't have to be kept until they are imported.
+	 */
+	public int getNumberOfCases(InputStreamReader csvInputReader) throws IOException {
+		try (CSVReader caseCountReader = CSVUtils.createCSVReader(csvInputReader, FacadeProvider.getConfigFacade().getCsvSeparator())) {
+			// Initialize with -1 because first line is not a case
+			int numberOfCases = -1;
+			while (caseCountReader.readNext() != null) {
+				numberOfCases++;
+			}
+			return Math.max(numberOfCases, 0);
 		}
-
-		// Re-create the CSV reader
-		caseCountReader.close();
-
-		return numberOfCases;
 	}
 
 	/**
@@ -130,8 +177,14 @@ public class CaseImporter {
 		this.similarityCallback = similarityCallback;
 		this.caseImportedCallback = caseImportedCallback;
 
-		// Build dictionary of column paths
 		String[] headersLine = csvReader.readNext();
+		if (headersLine == null) {
+			csvReader.close();
+			errorReportCsvWriter.close();
+			return ImportResultStatus.COMPLETED;
+		}
+
+		// Build dictionary of column paths
 		List<String[]> headers = new ArrayList<>();
 		for (String header : headersLine) {
 			String[] headerPath = header.split("\\.");
@@ -146,8 +199,23 @@ public class CaseImporter {
 		}
 		errorReportCsvWriter.writeNext(columnNames.toArray(new String[columnNames.size()]));
 
-		// Create a new case for each line in the .csv file
-		readNextLineFromCsv(headersLine, headers);
+		saveCompletionService = new ExecutorCompletionService<>(saveExecutor != null ? saveExecutor : Runnable::run);
+		try {
+			// Create a new case for each line in the .csv file
+			String[] nextLine;
+			while (!cancelAfterCurrentImport && (nextLine = csvReader.readNext()) != null) {
+				importCaseFromCsvLine(nextLine, headersLine, headers);
+				reportSavedBatches(false);
+			}
+
+			// Cases that have already been collected are saved, even when the import was canceled
+			saveAllPendingCases();
+		} finally {
+			// the managed executor service can't be shut down, only the batches of this import are canceled
+			for (Future<List<PushResult>> future : savingBatches.keySet()) {
+				future.cancel(true);
+			}
+		}
 
 		csvReader.close();
 		errorReportCsvWriter.flush();
@@ -170,23 +238,13 @@ public class CaseImporter {
 		cancelAfterCurrentImport = true;
 	}
 
-	private void readNextLineFromCsv(String[] headersLine, List<String[]> headers) throws IOException, InvalidColumnException, InterruptedException {
-		if (cancelAfterCurrentImport) {
-			return;
-		}
-
-		String[] nextLine = csvReader.readNext();
-		if (nextLine != null) {
-			importCaseFromCsvLine(nextLine, headersLine, headers);
-		}
-	}
-
 	private void importCaseFromCsvLine(String[] nextLine, String[] headersLine, List<String[]> headers) throws IOException, InvalidColumnException, InterruptedException {
 		// Check whether the new line has the same length as the header line
 		if (nextLine.length > headersLine.length) {
 			hasImportError = true;
 			writeImportError(errorReportCsvWriter, nextLine, I18nProperties.getValidationError(Validations.importLineTooLong));
-			readNextLineFromCsv(headersLine, headers);
+			caseImportedCallback.accept(CaseImportResult.ERROR);
+			return;
 		}
 
 		PersonDto newPerson = PersonDto.build();
@@ -206,82 +264,209 @@ public class CaseImporter {
 			}
 		}
 
-		if (!caseHasImportError) {
-			try {
-				ImportConsumer consumer = new ImportConsumer();
-				ImportLock LOCK = new ImportLock();
-				synchronized(LOCK) {
-					for (PersonNameDto personName : personNames) {
-						if (PersonHelper.areNamesSimilar(personName, newPerson.getFirstName(), newPerson.getLastName())) {
-							if (similarityCallback != null) {
-								similarityCallback.accept(
-										new ImportSimilarityInput(personNames, newCase, newPerson),
-										new Consumer<ImportSimilarityResult>() {
-											@Override
-											public void accept(ImportSimilarityResult result) {
-												consumer.onImportResult(result, LOCK);
-											}
-										});
-
-								try {
-									if (!LOCK.wasNotified) {
-										LOCK.wait();
-									}
-								} catch (InterruptedException e) {
-									logger.error("InterruptedException when trying to perform LOCK.wait() in case import: " + e.getMessage());
-									throw e;
-								}
-
-								if (consumer.result != null && !(consumer.result.isSkip() || consumer.result.isCancelImport())) {
-									if (consumer.result.isUseCase() && consumer.result.getMatchingCase() != null) {
-										newCase = consumer.result.getMatchingCase();
-										newPerson = FacadeProvider.getPersonFacade().getPersonByUuid(newCase.getPerson().getUuid());
-										caseHasImportError = insertRowIntoCase(newCase, newPerson, nextLine, headers, true);
-									} else if (consumer.result.isUsePerson()) {
-										newPerson = FacadeProvider.getPersonFacade().getPersonByUuid(consumer.result.getMatchingPerson().getUuid());
-										caseHasImportError = insertRowIntoCase(newCase, newPerson, nextLine, headers, true);
-									}
-								}
+		if (caseHasImportError) {
+			caseImportedCallback.accept(CaseImportResult.ERROR);
+			return;
+		}
+
+		boolean hasSimilarPerson = similarityCallback != null && personNameIndex.getFirstSimilar(newPerson.getFirstName(), newPerson.getLastName()) != null;
+		if (hasSimilarPerson && (pendingBatch.size() > 0 || !savingBatches.isEmpty())) {
+			// The similar person might not have been saved yet - or could not be saved at all
+			saveAllPendingCases();
+			hasSimilarPerson = personNameIndex.getFirstSimilar(newPerson.getFirstName(), newPerson.getLastName()) != null;
+		}
+
+		if (!hasSimilarPerson) {
+			// Saved with the next batch; the uuid of the person is already known, so it can be matched by the next rows.
+			// The name is removed again when the person can't be saved.
+			pendingBatch.add(newPerson, newCase, addPersonName(newPerson), nextLine);
+			if (pendingBatch.size() >= BATCH_SIZE) {
+				submitPendingBatch();
+			}
+			return;
+		}
+
+		try {
+			ImportConsumer consumer = new ImportConsumer();
+			ImportLock LOCK = new ImportLock();
+			synchronized(LOCK) {
+				similarityCallback.accept(
+						new ImportSimilarityInput(personNames, newCase, newPerson),
+						new Consumer<ImportSimilarityResult>() {
+							@Override
+							public void accept(ImportSimilarityResult result) {
+								consumer.onImportResult(result, LOCK);
 							}
+						});
 
-							break;
-						}
+				try {
+					if (!LOCK.wasNotified) {
+						LOCK.wait();
 					}
+				} catch (InterruptedException e) {
+					logger.error("InterruptedException when trying to perform LOCK.wait() in case import: " + e.getMessage());
+					throw e;
+				}
 
-					if (caseHasImportError) {
-						// In case insertRowIntoCase when matching person/case has thrown an unexpected error
-						caseImportedCallback.accept(CaseImportResult.ERROR);
-						readNextLineFromCsv(headersLine, headers);
-					} else if (consumer.result != null && consumer.result.isSkip()) {
-						// Reset the import result
-						consumer.result = null;
-						caseImportedCallback.accept(CaseImportResult.SKIPPED);
-						readNextLineFromCsv(headersLine, headers);
-					} else if (consumer.result != null && consumer.result.isCancelImport()) {
-						cancelAfterCurrentImport = true;
-						return;
-					} else {
-						PersonDto savedPerson = FacadeProvider.getPersonFacade().savePerson(newPerson);
-						newCase.setPerson(savedPerson.toReference());
-						FacadeProvider.getCaseFacade().saveCase(newCase);
-						if (consumer.result == null || !consumer.result.isUseCase() || !consumer.result.isUsePerson()) {
-							personNames.add(new PersonNameDto(newPerson.getFirstName(), newPerson.getLastName(), savedPerson.getUuid()));
-						}
-						// Reset the import result
-						consumer.result = null;
-						caseImportedCallback.accept(CaseImportResult.SUCCESS);
-						readNextLineFromCsv(headersLine, headers);
+				if (consumer.result != null && !(consumer.result.isSkip() || consumer.result.isCancelImport())) {
+					if (consumer.result.isUseCase() && consumer.result.getMatchingCase() != null) {
+						newCase = consumer.result.getMatchingCase();
+						newPerson = FacadeProvider.getPersonFacade().getPersonByUuid(newCase.getPerson().getUuid());
+						caseHasImportError = insertRowIntoCase(newCase, newPerson, nextLine, headers, true);
+					} else if (consumer.result.isUsePerson()) {
+						newPerson = FacadeProvider.getPersonFacade().getPersonByUuid(consumer.result.getMatchingPerson().getUuid());
+						caseHasImportError = insertRowIntoCase(newCase, newPerson, nextLine, headers, true);
 					}
 				}
-			} catch (ValidationRuntimeException e) {
+
+				if (caseHasImportError) {
+					// In case insertRowIntoCase when matching person/case has thrown an unexpected error
+					caseImportedCallback.accept(CaseImportResult.ERROR);
+				} else if (consumer.result != null && consumer.result.isSkip()) {
+					caseImportedCallback.accept(CaseImportResult.SKIPPED);
+				} else if (consumer.result != null && consumer.result.isCancelImport()) {
+					cancelAfterCurrentImport = true;
+				} else {
+					PersonDto savedPerson = FacadeProvider.getPersonFacade().savePerson(newPerson);
+					newCase.setPerson(savedPerson.toReference());
+					FacadeProvider.getCaseFacade().saveCase(newCase);
+					if (consumer.result == null || !consumer.result.isUseCase() || !consumer.result.isUsePerson()) {
+						addPersonName(savedPerson);
+					}
+					caseImportedCallback.accept(CaseImportResult.SUCCESS);
+				}
+			}
+		} catch (ValidationRuntimeException e) {
+			hasImportError = true;
+			writeImportError(errorReportCsvWriter, nextLine, e.getMessage());
+			caseImportedCallback.accept(CaseImportResult.ERROR);
+		}
+	}
+
+	private PersonNameDto addPersonName(PersonDto person) {
+		PersonNameDto personName = new PersonNameDto(person.getFirstName(), person.getLastName(), person.getUuid());
+		personNames.add(personName);
+		personNameIndex.add(personName);
+		return personName;
+	}
+
+	private void removePersonName(PersonNameDto personName) {
+		personNames.remove(personName);
+		personNameIndex.remove(personName);
+	}
+
+	private void submitPendingBatch() throws IOException, InterruptedException {
+		if (pendingBatch.size() == 0) {
+			return;
+		}
+
+		// The executor is shared with the rest of the server, so only a few batches are saved at the same time
+		while (savingBatches.size() >= SAVE_THREADS) {
+			reportSavedBatch(saveCompletionService.take());
+		}
+
+		ImportBatch batch = pendingBatch;
+		pendingBatch = new ImportBatch();
+		savingBatches.put(saveCompletionService.submit(() -> saveBatch(batch)), batch);
+	}
+
+	/**
+	 * Runs in a thread of the save executor. The cases of persons that could not be saved are not saved either.
+	 * 
+	 * @return the result for each case of the batch
+	 */
+	List<PushResult> saveBatch(ImportBatch batch) {
+		List<PushResult> personResults = FacadeProvider.getPersonFacade().savePersons(batch.persons);
+		batch.personResults = personResults;
+
+		List<CaseDataDto> cases = new ArrayList<>();
+		for (int i = 0; i < batch.cases.size(); i++) {
+			if (personResults.get(i) == PushResult.OK) {
+				cases.add(batch.cases.get(i));
+			}
+		}
+		List<PushResult> caseResults = FacadeProvider.getCaseFacade().saveCases(cases);
+
+		List<PushResult> results = new ArrayList<>(batch.cases.size());
+		int caseIndex = 0;
+		for (PushResult personResult : personResults) {
+			results.add(personResult == PushResult.OK ? caseResults.get(caseIndex++) : personResult);
+		}
+		return results;
+	}
+
+	private void saveAllPendingCases() throws IOException, InterruptedException {
+		submitPendingBatch();
+		reportSavedBatches(true);
+	}
+
+	/**
+	 * Calls the caseImportedCallback for the cases of saved batches and writes the errors of the batches.
+	 * 
+	 * @param waitForAll
+	 *            true: waits until all submitted batches have been saved; false: only reports the batches that are
+	 *            already done
+	 */
+	private void reportSavedBatches(boolean waitForAll) throws IOException, InterruptedException {
+		while (!savingBatches.isEmpty()) {
+			Future<List<PushResult>> future = waitForAll ? saveCompletionService.take() : saveCompletionService.poll();
+			if (future == null) {
+				return;
+			}
+			reportSavedBatch(future);
+		}
+	}
+
+	private void reportSavedBatch(Future<List<PushResult>> future) throws IOException, InterruptedException {
+		ImportBatch batch = savingBatches.remove(future);
+		List<PushResult> results;
+		try {
+			results = future.get();
+		} catch (ExecutionException e) {
+			logger.error("Unexpected error when trying to save imported cases: " + e.getCause().getMessage(), e.getCause());
+			results = null;
+		}
+
+		for (int i = 0; i < batch.size(); i++) {
+			String errorMessage;
+			if (results == null) {
+				errorMessage = I18nProperties.getValidationError(Validations.importCasesUnexpectedError);
+			} else if (results.get(i) == PushResult.OK) {
+				errorMessage = null;
+			} else {
+				// the batch results don't contain the messages
+				errorMessage = saveSingle(batch, i);
+			}
+
+			if (errorMessage == null) {
+				caseImportedCallback.accept(CaseImportResult.SUCCESS);
+			} else {
 				hasImportError = true;
-				writeImportError(errorReportCsvWriter, nextLine, e.getMessage());
+				removePersonName(batch.personNames.get(i));
+				writeImportError(errorReportCsvWriter, batch.lines.get(i), errorMessage);
 				caseImportedCallback.accept(CaseImportResult.ERROR);
-				readNextLineFromCsv(headersLine, headers);
 			}
-		} else {
-			caseImportedCallback.accept(CaseImportResult.ERROR);
-			readNextLineFromCsv(headersLine, headers);
+		}
+	}
+
+	/**
+	 * Saves a case of a batch that could not be saved together with the others, in the importing thread.
+	 * 
+	 * @return the message why the case could not be saved, null if it has been saved now
+	 */
+	private String saveSingle(ImportBatch batch, int index) {
+		try {
+			// a person that has already been saved would be outdated when it is saved again
+			if (batch.personResults == null || batch.personResults.get(index) != PushResult.OK) {
+				FacadeProvider.getPersonFacade().savePerson(batch.persons.get(index));
+			}
+			FacadeProvider.getCaseFacade().saveCase(batch.cases.get(index));
+			return null;
+		} catch (ValidationRuntimeException e) {
+			return e.getMessage();
+		} catch (RuntimeException e) {
+			logger.error("Unexpected error when trying to save an imported case: " + e.getMessage(), e);
+			return I18nProperties.getValidationError(Validations.importCasesUnexpectedError);
 		}
 	}
 
@@ -357,7 +542,7 @@ public class CaseImporter {
 					} else if (propertyType.isAssignableFrom(Boolean.class)) {
 						pd.getWriteMethod().invoke(currentElement, Boolean.parseBoolean(entry));
 					} else if (propertyType.isAssignableFrom(RegionReferenceDto.class)) {
-						List<RegionReferenceDto> region = FacadeProvider.getRegionFacade().getByName(entry);
+						List<RegionReferenceDto> region = getRegionsByName(entry);
 						if (region.isEmpty()) {
 							throw new ImportErrorException(I18nProperties.getValidationError(Validations.importEntryDoesNotExist, entry, buildHeaderPathString(entryHeaderPath)));
 						} else if (region.size() > 1) {
@@ -366,7 +551,7 @@ public class CaseImporter {
 							pd.getWriteMethod().invoke(currentElement, region.get(0));
 						}
 					} else if (propertyType.isAssignableFrom(DistrictReferenceDto.class)) {
-						List<DistrictReferenceDto> district = FacadeProvider.getDistrictFacade().getByName(entry, caze.getRegion());
+						List<DistrictReferenceDto> district = getDistrictsByName(entry, caze.getRegion());
 						if (district.isEmpty()) {
 							throw new ImportErrorException(I18nProperties.getValidationError(Validations.importEntryDoesNotExistDbOrRegion, entry, buildHeaderPathString(entryHeaderPath)));
 						} else if (district.size() > 1) {
@@ -375,7 +560,7 @@ public class CaseImporter {
 							pd.getWriteMethod().invoke(currentElement, district.get(0));
 						}
 					} else if (propertyType.isAssignableFrom(CommunityReferenceDto.class)) {
-						List<CommunityReferenceDto> community = FacadeProvider.getCommunityFacade().getByName(entry, caze.getDistrict());
+						List<CommunityReferenceDto> community = getCommunitiesByName(entry, caze.getDistrict());
 						if (community.isEmpty()) {
 							throw new ImportErrorException(I18nProperties.getValidationError(Validations.importEntryDoesNotExistDbOrDistrict, entry, buildHeaderPathString(entryHeaderPath)));
 						} else if (community.size() > 1) {
@@ -384,7 +569,7 @@ public class CaseImporter {
 							pd.getWriteMethod().invoke(currentElement, community.get(0));
 						}
 					} else if (propertyType.isAssignableFrom(FacilityReferenceDto.class)) {
-						List<FacilityReferenceDto> facility = FacadeProvider.getFacilityFacade().getByName(entry, caze.getDistrict(), caze.getCommunity());
+						List<FacilityReferenceDto> facility = getFacilitiesByName(entry, caze.getDistrict(), caze.getCommunity());
 						if (facility.isEmpty()) {
 							if (caze.getCommunity() != null) {
 								throw new ImportErrorException(I18nProperties.getValidationError(Validations.importEntryDoesNotExistDbOrCommunity, entry, buildHeaderPathString(entryHeaderPath)));
@@ -399,9 +584,9 @@ public class CaseImporter {
 							pd.getWriteMethod().invoke(currentElement, facility.get(0));
 						}
 					} else if (propertyType.isAssignableFrom(UserReferenceDto.class)) {
-						UserDto user = FacadeProvider.getUserFacade().getByUserName(entry);
+						UserReferenceDto user = getUserByName(entry);
 						if (user != null) {
-							pd.getWriteMethod().invoke(currentElement, user.toReference());
+							pd.getWriteMethod().invoke(currentElement, user);
 						} else {
 							throw new ImportErrorException(I18nProperties.getValidationError(Validations.importEntryDoesNotExist, entry, buildHeaderPathString(entryHeaderPath)));
 						}
@@ -428,6 +613,33 @@ public class CaseImporter {
 		}
 	}
 
+	private List<RegionReferenceDto> getRegionsByName(String name) {
+		return regionsByName.computeIfAbsent(name, n -> FacadeProvider.getRegionFacade().getByName(n));
+	}
+
+	private List<DistrictReferenceDto> getDistrictsByName(String name, RegionReferenceDto region) {
+		return districtsByName.computeIfAbsent(Arrays.asList(name, region),
+				k -> FacadeProvider.getDistrictFacade().getByName(name, region));
+	}
+
+	private List<CommunityReferenceDto> getCommunitiesByName(String name, DistrictReferenceDto district) {
+		return communitiesByName.computeIfAbsent(Arrays.asList(name, district),
+				k -> FacadeProvider.getCommunityFacade().getByName(name, district));
+	}
+
+	private List<FacilityReferenceDto> getFacilitiesByName(String name, DistrictReferenceDto district, CommunityReferenceDto community) {
+		return facilitiesByName.computeIfAbsent(Arrays.asList(name, district, community),
+				k -> FacadeProvider.getFacilityFacade().getByName(name, district, community));
+	}
+
+	private UserReferenceDto getUserByName(String userName) {
+		// containsKey, because unknown user names are cached as null
+		if (!usersByName.containsKey(userName)) {
+			usersByName.put(userName, FacadeProvider.getUserFacade().getByUserNameAsReference(userName));
+		}
+		return usersByName.get(userName);
+	}
+
 	private String buildHeaderPathString(String[] entryHeaderPath) {
 		StringBuilder sb = new StringBuilder();
 		boolean first = true;
@@ -443,6 +655,32 @@ public class CaseImporter {
 		return sb.toString();
 	}
 
+	/**
+	 * Validated cases (and their persons) that are saved together.
+	 */
+	static class ImportBatch {
+
+		private final List<PersonDto> persons = new ArrayList<>();
+		private final List<CaseDataDto> cases = new ArrayList<>();
+		private final List<PersonNameDto> personNames = new ArrayList<>();
+		private final List<String[]> lines = new ArrayList<>();
+		/**
+		 * Set by {@link CaseImporter#saveBatch(ImportBatch)}; null when the persons have not been saved
+		 */
+		private volatile List<PushResult> personResults;
+
+		private void add(PersonDto person, CaseDataDto caze, PersonNameDto personName, String[] line) {
+			persons.add(person);
+			cases.add(caze);
+			personNames.add(personName);
+			lines.add(line);
+		}
+
+		int size() {
+			return cases.size();
+		}
+	}
+
 	private class ImportConsumer {
 		protected ImportSimilarityResult result;
 
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.ui.importer;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import de.symeda.sormas.api.person.PersonHelper;
+import de.symeda.sormas.api.person.PersonNameDto;
+
+/**
+ * Finds person names that are similar according to {@link PersonHelper#areNamesSimilar(PersonNameDto, String, String)}
+ * without comparing the name with every known name.
+ *
+ * Names are only similar when at least one pair of their parts has a similarity of 0.65 or more, i.e. an edit
+ * distance of at most 35% of the longer part. Parts with four or more characters then always share a bigram,
+ * shorter parts at least one character. So only the names sharing a bigram of one of their parts (or a character
+ * of a short part) are candidates, and only these are compared with the regular similarity check.
+ */
+public class PersonNameIndex {
+
+	private static final int SHORT_PART_LENGTH = 3;
+
+	private final List<PersonNameDto> personNames = new ArrayList<>();
+	private final Map<String, List<Integer>> namesByBigram = new HashMap<>();
+	private final Map<Character, List<Integer>> namesByShortPartCharacter = new HashMap<>();
+
+	public PersonNameIndex(Collection<PersonNameDto> personNames) {
+		for (PersonNameDto personName : personNames) {
+			add(personName);
+		}
+	}
+
+	public void add(PersonNameDto personName) {
+
+		int index = personNames.size();
+		personNames.add(personName);
+
+		for (String part : splitName(personName.getFirstName(), personName.getLastName())) {
+			for (int i = 0; i < part.length() - 1; i++) {
+				addToBucket(namesByBigram, part.substring(i, i + 2), index);
+			}
+			if (part.length() <= SHORT_PART_LENGTH) {
+				for (int i = 0; i < part.length(); i++) {
+					addToBucket(namesByShortPartCharacter, part.charAt(i), index);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The name is no longer found by {@link #getFirstSimilar(String, String)}; its buckets are left as they are.
+	 */
+	public void remove(PersonNameDto personName) {
+
+		int index = personNames.indexOf(personName);
+		if (index >= 0) {
+			personNames.set(index, null);
+		}
+	}
+
+	/**
+	 * @return the first of the added names that is similar to the given one, null if there is none
+	 */
+	public PersonNameDto getFirstSimilar(String firstName, String lastName) {
+
+		BitSet candidates = new BitSet(personNames.size());
+		for (String part : splitName(firstName, lastName)) {
+			for (int i = 0; i < part.length() - 1; i++) {
+				addCandidates(candidates, namesByBigram.get(part.substring(i, i + 2)));
+			}
+			if (part.length() <= SHORT_PART_LENGTH) {
+				for (int i = 0; i < part.length(); i++) {
+					addCandidates(candidates, namesByShortPartCharacter.get(part.charAt(i)));
+				}
+			}
+		}
+
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			PersonNameDto personName = personNames.get(i);
+			if (personName != null && PersonHelper.areNamesSimilar(personName, firstName, lastName)) {
+				return personName;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Same normalization as in {@link PersonHelper#areNamesSimilar(String, String)}
+	 */
+	private static String[] splitName(String firstName, String lastName) {
+		String name = (firstName + " " + lastName).toLowerCase();
+		return StringUtils.split(name.trim(), " _-", 0);
+	}
+
+	private static <K> void addToBucket(Map<K, List<Integer>> buckets, K key, int index) {
+
+		List<Integer> bucket = buckets.get(key);
+		if (bucket == null) {
+			bucket = new ArrayList<>();
+			buckets.put(key, bucket);
+		}
+		// names are added in order, so duplicates can only be at the end
+		if (bucket.isEmpty() || bucket.get(bucket.size() - 1) != index) {
+			bucket.add(index);
+		}
+	}
+
+	private static void addCandidates(BitSet candidates, List<Integer> bucket) {
+		if (bucket != null) {
+			for (Integer index : bucket) {
+				candidates.set(index);
+			}
+		}
+	}
+}
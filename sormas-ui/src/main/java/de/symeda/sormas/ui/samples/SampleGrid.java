@@ -17,10 +17,10 @@
  *******************************************************************************/
 package de.symeda.sormas.ui.samples;
 
-import java.util.List;
+
+import java.util.Arrays;
 
 import com.vaadin.data.Item;
-import com.vaadin.data.util.BeanItemContainer;
 import com.vaadin.data.util.GeneratedPropertyContainer;
 import com.vaadin.data.util.PropertyValueGenerator;
 import com.vaadin.server.FontAwesome;
@@ -49,6 +49,7 @@ import de.symeda.sormas.ui.ControllerProvider;
 import de.symeda.sormas.ui.UserProvider;
 import de.symeda.sormas.ui.utils.AbstractGrid;
 import de.symeda.sormas.ui.utils.BooleanRenderer;
+import de.symeda.sormas.ui.utils.LazyIndexContainer;
 import de.symeda.sormas.ui.utils.VaadinUiUtil;
 
 @SuppressWarnings("serial")
@@ -72,7 +73,16 @@ public class SampleGrid extends Grid implements AbstractGrid<SampleCriteria> {
         	setSelectionMode(SelectionMode.NONE);
         }
 		
-		BeanItemContainer<SampleIndexDto> container = new BeanItemContainer<SampleIndexDto>(SampleIndexDto.class);
+		LazyIndexContainer<SampleIndexDto> container = new LazyIndexContainer<SampleIndexDto>(SampleIndexDto.class,
+				Arrays.asList(SampleIndexDto.UUID, SampleIndexDto.SAMPLE_CODE, SampleIndexDto.LAB_SAMPLE_ID,
+						SampleIndexDto.SAMPLE_DATE_TIME, SampleIndexDto.SHIPPED, SampleIndexDto.SHIPMENT_DATE,
+						SampleIndexDto.RECEIVED, SampleIndexDto.RECEIVED_DATE, SampleIndexDto.SAMPLE_MATERIAL,
+						SampleIndexDto.ASSOCIATED_CASE, SampleIndexDto.DISEASE, SampleIndexDto.DISEASE_DETAILS,
+						SampleIndexDto.CASE_DISTRICT, SampleIndexDto.LAB, SampleIndexDto.SAMPLE_TEST_RESULT,
+						SampleIndexDto.SAMPLE_TEST_LAB_USER_NAME),
+				() -> FacadeProvider.getSampleFacade().count(UserProvider.getCurrent().getUuid(), sampleCriteria),
+				(first, max, sortProperties) -> FacadeProvider.getSampleFacade().getIndexList(
+						UserProvider.getCurrent().getUuid(), sampleCriteria, first, max, sortProperties));
 		GeneratedPropertyContainer generatedContainer = new GeneratedPropertyContainer(container);
         VaadinUiUtil.addIconColumn(generatedContainer, EDIT_BTN_ID, FontAwesome.PENCIL_SQUARE);
 		setContainerDataSource(generatedContainer);
@@ -185,26 +195,17 @@ public class SampleGrid extends Grid implements AbstractGrid<SampleCriteria> {
 	}
 	
 	@SuppressWarnings("unchecked")
-	public BeanItemContainer<SampleIndexDto> getContainer() {
+	public LazyIndexContainer<SampleIndexDto> getContainer() {
 		GeneratedPropertyContainer container = (GeneratedPropertyContainer) super.getContainerDataSource();
-		return (BeanItemContainer<SampleIndexDto>) container.getWrappedContainer();
+		return (LazyIndexContainer<SampleIndexDto>) container.getWrappedContainer();
 	}
 	
 	public void reload() {
 		if (getSelectionModel() instanceof HasUserSelectionAllowed) {
 			deselectAll();
 		}
-		
-    	List<SampleIndexDto> samples = FacadeProvider.getSampleFacade().getIndexList(
-    			UserProvider.getCurrent().getUuid(), 
-    			sampleCriteria);
-    	
-		getContainer().removeAllItems();
-		getContainer().addAll(samples);
-	}
 
-	public void remove(SampleIndexDto sample) {
-		getContainer().removeItem(sample);
+		getContainer().refresh();
 	}
 
 	@Override
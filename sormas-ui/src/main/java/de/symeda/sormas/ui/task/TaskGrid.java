@@ -17,12 +17,10 @@
  *******************************************************************************/
 package de.symeda.sormas.ui.task;
 
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.Date;
-import java.util.List;
 import java.util.Locale;
 
-import com.vaadin.data.util.BeanItemContainer;
 import com.vaadin.data.util.GeneratedPropertyContainer;
 import com.vaadin.event.ItemClickEvent;
 import com.vaadin.event.ItemClickEvent.ItemClickListener;
@@ -47,6 +45,7 @@ import de.symeda.sormas.ui.UserProvider;
 import de.symeda.sormas.ui.utils.AbstractGrid;
 import de.symeda.sormas.ui.utils.CssStyles;
 import de.symeda.sormas.ui.utils.HtmlReferenceDtoConverter;
+import de.symeda.sormas.ui.utils.LazyIndexContainer;
 import de.symeda.sormas.ui.utils.ShortStringRenderer;
 import de.symeda.sormas.ui.utils.VaadinUiUtil;
 
@@ -115,7 +114,14 @@ public class TaskGrid extends Grid implements ItemClickListener, AbstractGrid<Ta
         setCellStyleGenerator(new TaskGridCellStyleGenerator());
 		setRowStyleGenerator(new TaskGridRowStyleGenerator());
 
-        BeanItemContainer<TaskIndexDto> container = new BeanItemContainer<TaskIndexDto>(TaskIndexDto.class);
+        LazyIndexContainer<TaskIndexDto> container = new LazyIndexContainer<TaskIndexDto>(TaskIndexDto.class,
+        		Arrays.asList(TaskIndexDto.UUID, TaskIndexDto.ASSIGNEE_REPLY, TaskIndexDto.CREATOR_COMMENT,
+        				TaskIndexDto.PRIORITY, TaskIndexDto.DUE_DATE, TaskIndexDto.SUGGESTED_START,
+        				TaskIndexDto.TASK_CONTEXT, TaskIndexDto.TASK_STATUS, TaskIndexDto.TASK_TYPE,
+        				TaskIndexDto.ASSIGNEE_USER, TaskIndexDto.CREATOR_USER),
+        		() -> FacadeProvider.getTaskFacade().count(UserProvider.getCurrent().getUuid(), taskCriteria),
+        		(first, max, sortProperties) -> FacadeProvider.getTaskFacade().getIndexList(
+        				UserProvider.getCurrent().getUuid(), taskCriteria, first, max, sortProperties));
 		GeneratedPropertyContainer editContainer = new GeneratedPropertyContainer(container);
         VaadinUiUtil.addIconColumn(editContainer, EDIT_BTN_ID, FontAwesome.PENCIL_SQUARE);
         setContainerDataSource(editContainer);
@@ -134,6 +140,7 @@ public class TaskGrid extends Grid implements ItemClickListener, AbstractGrid<Ta
         getColumn(TaskIndexDto.CREATOR_COMMENT).setRenderer(new ShortStringRenderer(50));
         
         getColumn(TaskIndexDto.CONTEXT_REFERENCE).setRenderer(new HtmlRenderer(), new HtmlReferenceDtoConverter());
+        getColumn(TaskIndexDto.CONTEXT_REFERENCE).setSortable(false);
         
         getColumn(TaskIndexDto.ASSIGNEE_USER).setConverter(new HtmlReferenceDtoConverter() {
         	@Override
@@ -184,9 +191,9 @@ public class TaskGrid extends Grid implements ItemClickListener, AbstractGrid<Ta
     }
 
     @SuppressWarnings("unchecked")
-	public BeanItemContainer<TaskIndexDto> getContainer() {
+	public LazyIndexContainer<TaskIndexDto> getContainer() {
     	GeneratedPropertyContainer container = (GeneratedPropertyContainer) super.getContainerDataSource();
-        return (BeanItemContainer<TaskIndexDto>) container.getWrappedContainer();
+        return (LazyIndexContainer<TaskIndexDto>) container.getWrappedContainer();
     }
     
     public void reload() {
@@ -194,32 +201,7 @@ public class TaskGrid extends Grid implements ItemClickListener, AbstractGrid<Ta
 			deselectAll();
 		}
 		
-    	List<TaskIndexDto> tasks = FacadeProvider.getTaskFacade().getIndexList(UserProvider.getCurrent().getUserReference().getUuid(),
-    			taskCriteria);
-    	
-    	tasks.sort(new Comparator<TaskIndexDto>() {
-			@Override
-			public int compare(TaskIndexDto o1, TaskIndexDto o2) {
-				if (o1.getTaskStatus() != o2.getTaskStatus()) {
-					if (o1.getTaskStatus() == TaskStatus.PENDING)
-						return -1;
-					if (o2.getTaskStatus() == TaskStatus.PENDING)
-						return 1;
-				}
-				
-				if (o1.getTaskStatus() == TaskStatus.PENDING) {
-					if (o1.getPriority() != o2.getPriority()) {
-						return o1.getPriority().compareTo(o2.getPriority());
-					}
-					return o1.getDueDate().compareTo(o2.getDueDate());
-				}
-				else {
-					return -o1.getDueDate().compareTo(o2.getDueDate());
-				}
-			}
-		});
-        getContainer().removeAllItems();
-        getContainer().addAll(tasks); 
+        getContainer().refresh();
     }
 
 	@Override
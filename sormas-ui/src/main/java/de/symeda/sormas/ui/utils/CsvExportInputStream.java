@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.ui.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.opencsv.CSVWriter;
+
+import de.symeda.sormas.api.utils.CSVUtils;
+import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.api.utils.Order;
+
+/**
+ * CSV export of the {@link Order} annotated properties of the export rows, produced while it is read.
+ *
+ * Only one page of rows is fetched and kept as CSV at a time: the next page is requested from the
+ * export rows supplier when the previous one has been consumed by the response. The memory needed
+ * therefore doesn't depend on the number of exported rows. Reading happens in the request thread,
+ * so the facades are called with the user's security context.
+ *
+ * When fetching a page fails, the rows written so far are completed by a row containing the export failed message,
+ * because the response has already been started. The failure is also reported to the export failed handler.
+ */
+public class CsvExportInputStream<T> extends InputStream {
+
+	private static final Logger logger = LoggerFactory.getLogger(CsvExportInputStream.class);
+
+	private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private final BiFunction<Integer, Integer, List<T>> exportRowsSupplier;
+	private final int pageSize;
+	private final MethodHandle[] accessors;
+	private final String exportRowClassName;
+	private final String exportFailedMessage;
+	private final Runnable exportFailedHandler;
+
+	private final ByteArrayOutputStream pageBuffer;
+	private final CSVWriter csvWriter;
+	private final String[] fieldValues;
+
+	private int nextRowIndex;
+	private boolean lastPageFetched;
+	private byte[] pageBytes;
+	private int pagePosition;
+
+	public CsvExportInputStream(Class<T> exportRowClass, BiFunction<Integer, Integer, List<T>> exportRowsSupplier,
+			Function<String, String> propertyIdCaptionFunction, char separator, int pageSize,
+			String exportFailedMessage, Runnable exportFailedHandler) {
+
+		this.exportRowsSupplier = exportRowsSupplier;
+		this.pageSize = pageSize;
+		this.exportRowClassName = exportRowClass.getSimpleName();
+		this.exportFailedMessage = exportFailedMessage;
+		this.exportFailedHandler = exportFailedHandler;
+
+		// fields in order of declaration - not using Introspector here, because it gives properties in alphabetical order
+		Method[] readMethods = Arrays.stream(exportRowClass.getDeclaredMethods())
+				.filter(m -> (m.getName().startsWith("get") || m.getName().startsWith("is")) && m.isAnnotationPresent(Order.class))
+				.sorted((a, b) -> Integer.compare(a.getAnnotationsByType(Order.class)[0].value(),
+						b.getAnnotationsByType(Order.class)[0].value()))
+				.toArray(Method[]::new);
+
+		accessors = new MethodHandle[readMethods.length];
+		fieldValues = new String[readMethods.length];
+		MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+		for (int i = 0; i < readMethods.length; i++) {
+			Method method = readMethods[i];
+			try {
+				accessors[i] = lookup.unreflect(method).asType(ACCESSOR_TYPE);
+			} catch (IllegalAccessException e) {
+				throw new IllegalArgumentException("Export property not accessible: " + method, e);
+			}
+
+			String propertyId = method.getName().startsWith("get")
+					? method.getName().substring(3)
+					: method.getName().substring(2);
+			propertyId = Character.toLowerCase(propertyId.charAt(0)) + propertyId.substring(1);
+			// field caption - export, case, person, symptoms, hospitalization
+			fieldValues[i] = propertyIdCaptionFunction.apply(propertyId);
+		}
+
+		pageBuffer = new ByteArrayOutputStream();
+		csvWriter = CSVUtils.createCSVWriter(new OutputStreamWriter(pageBuffer, StandardCharsets.UTF_8), separator);
+
+		csvWriter.writeNext(fieldValues);
+		pageBytes = flushPage();
+	}
+
+	@Override
+	public int read() throws IOException {
+
+		if (!ensurePageAvailable()) {
+			return -1;
+		}
+		return pageBytes[pagePosition++] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+
+		if (len == 0) {
+			return 0;
+		}
+		if (!ensurePageAvailable()) {
+			return -1;
+		}
+		int count = Math.min(len, pageBytes.length - pagePosition);
+		System.arraycopy(pageBytes, pagePosition, b, off, count);
+		pagePosition += count;
+		return count;
+	}
+
+	@Override
+	public int available() {
+		return pageBytes.length - pagePosition;
+	}
+
+	/**
+	 * @return false when all rows have been read
+	 */
+	private boolean ensurePageAvailable() throws IOException {
+
+		while (pagePosition >= pageBytes.length) {
+			if (lastPageFetched) {
+				return false;
+			}
+			try {
+				writeNextPage();
+			} catch (RuntimeException | IOException e) {
+				logger.error("Export of " + exportRowClassName + " failed after " + nextRowIndex + " rows: " + e.getMessage(), e);
+				lastPageFetched = true;
+				// the rows of the page written before the failure are kept
+				csvWriter.writeNext(new String[] { exportFailedMessage });
+				pageBytes = flushPage();
+				exportFailedHandler.run();
+			}
+		}
+		return true;
+	}
+
+	private void writeNextPage() throws IOException {
+
+		List<T> exportRows = exportRowsSupplier.apply(nextRowIndex, pageSize);
+		if (exportRows.size() < pageSize) {
+			lastPageFetched = true;
+		}
+
+		for (T exportRow : exportRows) {
+			for (int i = 0; i < accessors.length; i++) {
+				Object value;
+				try {
+					value = (Object) accessors[i].invokeExact((Object) exportRow);
+				} catch (RuntimeException | Error e) {
+					throw e;
+				} catch (Throwable e) {
+					throw new IOException(e);
+				}
+
+				if (value == null) {
+					fieldValues[i] = "";
+				} else if (value instanceof Date) {
+					fieldValues[i] = DateHelper.formatLocalShortDate((Date) value);
+				} else {
+					fieldValues[i] = value.toString();
+				}
+			}
+			csvWriter.writeNext(fieldValues);
+			nextRowIndex++;
+		}
+
+		pageBytes = flushPage();
+	}
+
+	private byte[] flushPage() {
+
+		try {
+			csvWriter.flush();
+		} catch (IOException e) {
+			// can't happen when writing to memory
+			throw new RuntimeException(e);
+		}
+		byte[] bytes = pageBuffer.toByteArray();
+		pageBuffer.reset();
+		pagePosition = 0;
+		return bytes;
+	}
+}
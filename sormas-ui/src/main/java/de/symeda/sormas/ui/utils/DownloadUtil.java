@@ -19,24 +19,17 @@ package de.symeda.sormas.ui.utils;
 
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStreamWriter;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
-import com.opencsv.CSVWriter;
 import com.vaadin.data.Container.Indexed;
 import com.vaadin.server.Page;
 import com.vaadin.server.StreamResource;
@@ -45,15 +38,13 @@ import com.vaadin.ui.CheckBox;
 import com.vaadin.ui.Grid.Column;
 import com.vaadin.ui.Notification;
 import com.vaadin.ui.Notification.Type;
+import com.vaadin.ui.UI;
 
 import de.symeda.sormas.api.FacadeProvider;
 import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.i18n.Strings;
 import de.symeda.sormas.api.importexport.DatabaseTable;
-import de.symeda.sormas.api.utils.CSVUtils;
-import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.api.utils.ExportErrorException;
-import de.symeda.sormas.api.utils.Order;
 import de.symeda.sormas.ui.statistics.DatabaseExportView;
 
 public class DownloadUtil {
@@ -129,71 +120,24 @@ public class DownloadUtil {
 		return streamResource;
 	}
 
+	/**
+	 * The export is streamed: pages of {@link #DETAILED_EXPORT_STEP_SIZE} rows are fetched while the response is written.
+	 * A failure ends the file with an error row and shows a notification, see {@link CsvExportInputStream}.
+	 */
 	@SuppressWarnings("serial")
 	public static <T> StreamResource createCsvExportStreamResource(Class<T> exportRowClass, BiFunction<Integer, Integer, List<T>> exportRowsSupplier, Function<String,String> propertyIdCaptionFunction, String exportFileName) {
 		StreamResource extendedStreamResource = new StreamResource(new StreamSource() {
 			@Override
 			public InputStream getStream() {
-				try {
-					ByteArrayOutputStream baos = new ByteArrayOutputStream();
-					OutputStreamWriter osw = new OutputStreamWriter(baos, StandardCharsets.UTF_8.name());
-					CSVWriter writer = CSVUtils.createCSVWriter(osw, FacadeProvider.getConfigFacade().getCsvSeparator());
-
-					// fields in order of declaration - not using Introspector here, because it gives properties in alphabetical order
-					Method[] readMethods = Arrays.stream(exportRowClass.getDeclaredMethods())
-							.filter(m -> (m.getName().startsWith("get") || m.getName().startsWith("is")) && m.isAnnotationPresent(Order.class))
-							.sorted((a,b) -> Integer.compare(a.getAnnotationsByType(Order.class)[0].value(), 
-									b.getAnnotationsByType(Order.class)[0].value()))
-							.toArray(Method[]::new);
-
-					String[] fieldValues = new String[readMethods.length];
-					for (int i = 0; i < readMethods.length; i++) {
-						Method method = readMethods[i];
-						String propertyId = method.getName().startsWith("get") 
-								? method.getName().substring(3)
-										: method.getName().substring(2); 
-								propertyId = Character.toLowerCase(propertyId.charAt(0)) + propertyId.substring(1);
-								// field caption - export, case, person, symptoms, hospitalization
-								fieldValues[i] = propertyIdCaptionFunction.apply(propertyId);
-					}
-					writer.writeNext(fieldValues);
-
-					int startIndex = 0;
-					List<T> exportRows = exportRowsSupplier.apply(startIndex, DETAILED_EXPORT_STEP_SIZE);
-					while (!exportRows.isEmpty()) {						
-						try {
-							for (T exportRow : exportRows) {
-								for (int i=0; i<readMethods.length; i++) {
-									Method method = readMethods[i];
-									Object value = method.invoke(exportRow);
-									if (value == null) {
-										fieldValues[i] = "";
-									} else if (value instanceof Date) {
-										fieldValues[i] = DateHelper.formatLocalShortDate((Date)value);
-									} else {
-										fieldValues[i] = value.toString();
-									}
-								}
-								writer.writeNext(fieldValues);
-							};
-						} catch (InvocationTargetException | IllegalAccessException | IllegalArgumentException e) {
-							throw new RuntimeException(e);
-						}
-
-						osw.flush();
-						baos.flush();
-						startIndex += DETAILED_EXPORT_STEP_SIZE;
-						exportRows = exportRowsSupplier.apply(startIndex, DETAILED_EXPORT_STEP_SIZE);
-					}
-
-					return new BufferedInputStream(new ByteArrayInputStream(baos.toByteArray()));
-				} catch (IOException e) {
-					// TODO This currently requires the user to click the "Export" button again or reload the page as the UI
-					// is not automatically updated; this should be changed once Vaadin push is enabled (see #516)
-					new Notification(I18nProperties.getString(Strings.headingExportFailed), I18nProperties.getString(Strings.messageExportFailed), 
-							Type.ERROR_MESSAGE, false).show(Page.getCurrent());
-					return null;
-				}
+				UI ui = UI.getCurrent();
+				return new CsvExportInputStream<>(exportRowClass, exportRowsSupplier, propertyIdCaptionFunction,
+						FacadeProvider.getConfigFacade().getCsvSeparator(), DETAILED_EXPORT_STEP_SIZE,
+						I18nProperties.getString(Strings.messageExportFailed), () -> {
+							// TODO This currently requires the user to click the "Export" button again or reload the page as the UI
+							// is not automatically updated; this should be changed once Vaadin push is enabled (see #516)
+							ui.access(() -> new Notification(I18nProperties.getString(Strings.headingExportFailed), I18nProperties.getString(Strings.messageExportFailed),
+									Type.ERROR_MESSAGE, false).show(ui.getPage()));
+						});
 			}
 		}, exportFileName);
 		extendedStreamResource.setMIMEType("text/csv");
@@ -0,0 +1,360 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.ui.utils;
+
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.vaadin.data.Container;
+import com.vaadin.data.Item;
+import com.vaadin.data.Property;
+import com.vaadin.data.util.AbstractContainer;
+import com.vaadin.data.util.BeanItem;
+import com.vaadin.data.util.BeanUtil;
+
+import de.symeda.sormas.api.utils.SortProperty;
+
+/**
+ * Read-only container of index dtos that are fetched from a facade page by page, when they are displayed.
+ *
+ * Only the most recently used pages are kept, so the memory needed in the session depends on the size of the
+ * viewport and not on the number of matching entities. Sorting is done by the facade, so only the properties the
+ * facade can sort by are sortable. The index dtos are used
+ * as item ids, which requires them to be equal when they represent the same entity (e.g. by uuid) - a row can
+ * be fetched again after its page has been dropped.
+ */
+@SuppressWarnings("serial")
+public class LazyIndexContainer<T> extends AbstractContainer implements Container.Indexed, Container.Sortable, Container.ItemSetChangeNotifier {
+
+	public static final int DEFAULT_PAGE_SIZE = 100;
+	private static final int MAX_CACHED_PAGES = 5;
+
+	@FunctionalInterface
+	public interface CountCallback extends Serializable {
+		long count();
+	}
+
+	@FunctionalInterface
+	public interface FetchCallback<T> extends Serializable {
+		List<T> fetch(int first, int max, List<SortProperty> sortProperties);
+	}
+
+	private final Class<T> type;
+	private final Map<String, Class<?>> propertyTypes;
+	private final Collection<String> sortablePropertyIds;
+	private final CountCallback countCallback;
+	private final FetchCallback<T> fetchCallback;
+	private final int pageSize;
+
+	private List<SortProperty> sortProperties = Collections.emptyList();
+	private Integer size;
+	private final Map<Integer, List<T>> pages = new LinkedHashMap<Integer, List<T>>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+			if (size() > MAX_CACHED_PAGES) {
+				for (T bean : eldest.getValue()) {
+					items.remove(bean);
+				}
+				return true;
+			}
+			return false;
+		}
+	};
+	private final Map<Object, BeanItem<T>> items = new HashMap<>();
+
+	/**
+	 * @param sortablePropertyIds the properties the facade supports as sort properties of the fetch
+	 */
+	public LazyIndexContainer(Class<T> type, Collection<String> sortablePropertyIds, CountCallback countCallback,
+			FetchCallback<T> fetchCallback) {
+		this(type, sortablePropertyIds, countCallback, fetchCallback, DEFAULT_PAGE_SIZE);
+	}
+
+	public LazyIndexContainer(Class<T> type, Collection<String> sortablePropertyIds, CountCallback countCallback,
+			FetchCallback<T> fetchCallback, int pageSize) {
+		this.type = type;
+		this.countCallback = countCallback;
+		this.fetchCallback = fetchCallback;
+		this.pageSize = pageSize;
+
+		propertyTypes = new LinkedHashMap<>();
+		try {
+			for (PropertyDescriptor descriptor : BeanUtil.getBeanPropertyDescriptor(type)) {
+				if (descriptor.getReadMethod() != null && !"class".equals(descriptor.getName())) {
+					propertyTypes.put(descriptor.getName(), descriptor.getPropertyType());
+				}
+			}
+		} catch (IntrospectionException e) {
+			throw new IllegalArgumentException("Can't determine the properties of " + type, e);
+		}
+
+		for (String propertyId : sortablePropertyIds) {
+			if (!propertyTypes.containsKey(propertyId)) {
+				throw new IllegalArgumentException("Unknown sortable property of " + type + ": " + propertyId);
+			}
+		}
+		this.sortablePropertyIds = Collections.unmodifiableCollection(new ArrayList<>(sortablePropertyIds));
+	}
+
+	/**
+	 * Drops all fetched rows and the count, e.g. after the criteria have been changed.
+	 * The rows are fetched again when the listening grid asks for them.
+	 */
+	public void refresh() {
+		size = null;
+		pages.clear();
+		items.clear();
+		fireItemSetChange();
+	}
+
+	@Override
+	public int size() {
+		if (size == null) {
+			size = (int) countCallback.count();
+		}
+		return size;
+	}
+
+	private List<T> getPage(int pageIndex) {
+		List<T> page = pages.get(pageIndex);
+		if (page == null) {
+			page = fetchCallback.fetch(pageIndex * pageSize, pageSize, sortProperties);
+			pages.put(pageIndex, page);
+			for (T bean : page) {
+				items.put(bean, new BeanItem<>(bean));
+			}
+		}
+		return page;
+	}
+
+	@Override
+	public T getIdByIndex(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException(String.valueOf(index));
+		}
+		List<T> page = getPage(index / pageSize);
+		int pageOffset = index % pageSize;
+		// the page is shorter when entities have been removed since the count
+		return pageOffset < page.size() ? page.get(pageOffset) : null;
+	}
+
+	@Override
+	public List<T> getItemIds(int startIndex, int numberOfItems) {
+		int endIndex = Math.min(startIndex + numberOfItems, size());
+		List<T> itemIds = new ArrayList<>(Math.max(endIndex - startIndex, 0));
+		for (int index = startIndex; index < endIndex; index++) {
+			T itemId = getIdByIndex(index);
+			if (itemId == null) {
+				break;
+			}
+			itemIds.add(itemId);
+		}
+		return itemIds;
+	}
+
+	/**
+	 * @return all item ids, fetched page by page while iterating
+	 */
+	@Override
+	public List<T> getItemIds() {
+		return new AbstractList<T>() {
+			@Override
+			public T get(int index) {
+				return getIdByIndex(index);
+			}
+
+			@Override
+			public int size() {
+				return LazyIndexContainer.this.size();
+			}
+		};
+	}
+
+	@Override
+	public int indexOfId(Object itemId) {
+		for (Map.Entry<Integer, List<T>> page : pages.entrySet()) {
+			int pageOffset = page.getValue().indexOf(itemId);
+			if (pageOffset >= 0) {
+				return page.getKey() * pageSize + pageOffset;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Dtos of rows that are not fetched at the moment are assumed to be part of the container,
+	 * so they can still be selected.
+	 */
+	@Override
+	public boolean containsId(Object itemId) {
+		return type.isInstance(itemId);
+	}
+
+	@Override
+	public Item getItem(Object itemId) {
+		BeanItem<T> item = items.get(itemId);
+		if (item == null && type.isInstance(itemId)) {
+			item = new BeanItem<>(type.cast(itemId));
+		}
+		return item;
+	}
+
+	@Override
+	public Collection<?> getContainerPropertyIds() {
+		return Collections.unmodifiableSet(propertyTypes.keySet());
+	}
+
+	@Override
+	public Property<?> getContainerProperty(Object itemId, Object propertyId) {
+		Item item = getItem(itemId);
+		return item != null ? item.getItemProperty(propertyId) : null;
+	}
+
+	@Override
+	public Class<?> getType(Object propertyId) {
+		return propertyTypes.get(propertyId);
+	}
+
+	@Override
+	public void sort(Object[] propertyId, boolean[] ascending) {
+		List<SortProperty> sortProperties = new ArrayList<>(propertyId.length);
+		for (int i = 0; i < propertyId.length; i++) {
+			sortProperties.add(new SortProperty((String) propertyId[i], ascending[i]));
+		}
+		this.sortProperties = sortProperties;
+		refresh();
+	}
+
+	@Override
+	public Collection<?> getSortableContainerPropertyIds() {
+		return sortablePropertyIds;
+	}
+
+	@Override
+	public Object nextItemId(Object itemId) {
+		int index = indexOfId(itemId);
+		return index >= 0 && index + 1 < size() ? getIdByIndex(index + 1) : null;
+	}
+
+	@Override
+	public Object prevItemId(Object itemId) {
+		int index = indexOfId(itemId);
+		return index > 0 ? getIdByIndex(index - 1) : null;
+	}
+
+	@Override
+	public Object firstItemId() {
+		return size() > 0 ? getIdByIndex(0) : null;
+	}
+
+	@Override
+	public Object lastItemId() {
+		return size() > 0 ? getIdByIndex(size() - 1) : null;
+	}
+
+	@Override
+	public boolean isFirstId(Object itemId) {
+		return itemId != null && itemId.equals(firstItemId());
+	}
+
+	@Override
+	public boolean isLastId(Object itemId) {
+		return itemId != null && itemId.equals(lastItemId());
+	}
+
+	@Override
+	public void addItemSetChangeListener(ItemSetChangeListener listener) {
+		super.addItemSetChangeListener(listener);
+	}
+
+	@Override
+	@Deprecated
+	public void addListener(ItemSetChangeListener listener) {
+		super.addListener(listener);
+	}
+
+	@Override
+	public void removeItemSetChangeListener(ItemSetChangeListener listener) {
+		super.removeItemSetChangeListener(listener);
+	}
+
+	@Override
+	@Deprecated
+	public void removeListener(ItemSetChangeListener listener) {
+		super.removeListener(listener);
+	}
+
+	@Override
+	public Object addItemAt(int index) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Item addItemAt(int index, Object newItemId) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Object addItemAfter(Object previousItemId) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Item addItemAfter(Object previousItemId, Object newItemId) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Item addItem(Object itemId) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Object addItem() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean removeItem(Object itemId) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean addContainerProperty(Object propertyId, Class<?> type, Object defaultValue) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean removeContainerProperty(Object propertyId) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean removeAllItems() {
+		throw new UnsupportedOperationException();
+	}
+}
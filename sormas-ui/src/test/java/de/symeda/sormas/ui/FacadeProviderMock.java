@@ -40,7 +40,7 @@ import de.symeda.sormas.backend.outbreak.OutbreakFacadeEjb.OutbreakFacadeEjbLoca
 import de.symeda.sormas.backend.person.PersonFacadeEjb.PersonFacadeEjbLocal;
 import de.symeda.sormas.backend.region.CommunityFacadeEjb.CommunityFacadeEjbLocal;
 import de.symeda.sormas.backend.region.DistrictFacadeEjb.DistrictFacadeEjbLocal;
-import de.symeda.sormas.backend.region.GeoShapeProviderEjb.GeoShapeProviderEjbLocal;
+import de.symeda.sormas.backend.region.GeoShapeProviderEjb;
 import de.symeda.sormas.backend.region.RegionFacadeEjb.RegionFacadeEjbLocal;
 import de.symeda.sormas.backend.report.WeeklyReportFacadeEjb.WeeklyReportFacadeEjbLocal;
 import de.symeda.sormas.backend.sample.SampleFacadeEjb.SampleFacadeEjbLocal;
@@ -52,6 +52,15 @@ import de.symeda.sormas.backend.visit.VisitFacadeEjb.VisitFacadeEjbLocal;
 import info.novatec.beantest.api.BeanProviderHelper;
 
 public final class FacadeProviderMock extends FacadeProvider {
+
+	/**
+	 * No cached proxies - the beans are managed by bean-test
+	 */
+	@Override
+	public <P> P getFacade(Class<P> facadeClass) {
+		return lookupEjbRemote(facadeClass);
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public <P> P lookupEjbRemote(Class<P> clazz) {
@@ -93,7 +102,7 @@ public final class FacadeProviderMock extends FacadeProvider {
 		} else if (WeeklyReportFacade.class == clazz) {
 			return (P) bm.getBean(WeeklyReportFacadeEjbLocal.class);
 		} else if (GeoShapeProvider.class == clazz) {
-			return (P) bm.getBean(GeoShapeProviderEjbLocal.class);
+			return (P) bm.getBean(GeoShapeProviderEjb.class);
 		} else if (OutbreakFacade.class == clazz) {
 			return (P) bm.getBean(OutbreakFacadeEjbLocal.class);
 		} else if (ConfigFacade.class == clazz) {
@@ -33,6 +33,8 @@ import javax.enterprise.inject.Produces;
 import javax.jms.ConnectionFactory;
 import javax.jms.Topic;
 import javax.mail.Session;
+import javax.persistence.EntityManager;
+import javax.transaction.TransactionSynchronizationRegistry;
 import javax.transaction.UserTransaction;
 
 import de.symeda.sormas.api.FacadeProvider;
@@ -54,6 +56,7 @@ public class MockProducer {
 	private static TimerService timerService = mock(TimerService.class);
 	private static Properties properties = new Properties();
 	private static UserTransaction userTransaction = mock(UserTransaction.class);
+	private static MockTransactionSynchronizationRegistry transactionSynchronizationRegistry = new MockTransactionSynchronizationRegistry();
 	
 	private static FacadeProvider facadeProvider = new FacadeProviderMock();
 
@@ -132,4 +135,10 @@ public class MockProducer {
 	public static UserTransaction getUserTransaction() {
 		return userTransaction;
 	}
+
+	@Produces
+	public static TransactionSynchronizationRegistry getTransactionSynchronizationRegistry(EntityManager em) {
+		transactionSynchronizationRegistry.setEntityManager(em);
+		return transactionSynchronizationRegistry;
+	}
 }
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.ui;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.UnitOfWork;
+
+/**
+ * Transaction synchronization registry for bean tests, where the transactions are the resource local
+ * transactions of the test entity manager.
+ * 
+ * A transaction gets a key of its own when it is first seen. Resources and synchronizations are bound to it
+ * until the unit of work of the transaction is committed or released (rolled back).
+ */
+public class MockTransactionSynchronizationRegistry implements TransactionSynchronizationRegistry {
+
+	private EntityManager em;
+
+	private Object transactionKey;
+	private boolean rollbackOnly;
+	private boolean completing;
+	private final Map<Object, Object> resources = new HashMap<>();
+	private final List<Synchronization> synchronizations = new ArrayList<>();
+
+	private UnitOfWork observedUnitOfWork;
+	private final SessionEventAdapter transactionListener = new SessionEventAdapter() {
+
+		@Override
+		public void preCommitUnitOfWork(SessionEvent event) {
+			for (Synchronization synchronization : new ArrayList<>(synchronizations)) {
+				synchronization.beforeCompletion();
+			}
+		}
+
+		@Override
+		public void postCommitUnitOfWork(SessionEvent event) {
+			complete(Status.STATUS_COMMITTED);
+		}
+
+		@Override
+		public void postReleaseUnitOfWork(SessionEvent event) {
+			// also sent after a commit, when the transaction has already been completed
+			complete(Status.STATUS_ROLLEDBACK);
+		}
+	};
+
+	public void setEntityManager(EntityManager em) {
+		this.em = em;
+	}
+
+	@Override
+	public Object getTransactionKey() {
+
+		// the entity manager transaction is still active while it is being completed
+		if (em == null || completing || !em.getTransaction().isActive()) {
+			return null;
+		}
+		if (transactionKey == null) {
+			transactionKey = new Object();
+			UnitOfWork unitOfWork = em.unwrap(UnitOfWork.class);
+			if (unitOfWork != observedUnitOfWork) {
+				unitOfWork.getEventManager().addListener(transactionListener);
+				observedUnitOfWork = unitOfWork;
+			}
+		}
+		return transactionKey;
+	}
+
+	@Override
+	public void putResource(Object key, Object value) {
+		requireTransaction();
+		resources.put(key, value);
+	}
+
+	@Override
+	public Object getResource(Object key) {
+		requireTransaction();
+		return resources.get(key);
+	}
+
+	@Override
+	public void registerInterposedSynchronization(Synchronization sync) {
+		requireTransaction();
+		synchronizations.add(sync);
+	}
+
+	@Override
+	public int getTransactionStatus() {
+		if (getTransactionKey() == null) {
+			return Status.STATUS_NO_TRANSACTION;
+		}
+		return rollbackOnly ? Status.STATUS_MARKED_ROLLBACK : Status.STATUS_ACTIVE;
+	}
+
+	@Override
+	public void setRollbackOnly() {
+		requireTransaction();
+		rollbackOnly = true;
+		em.getTransaction().setRollbackOnly();
+	}
+
+	@Override
+	public boolean getRollbackOnly() {
+		requireTransaction();
+		return rollbackOnly;
+	}
+
+	private void requireTransaction() {
+		if (getTransactionKey() == null) {
+			throw new IllegalStateException("No active transaction");
+		}
+	}
+
+	private void complete(int status) {
+
+		if (transactionKey == null) {
+			return;
+		}
+		List<Synchronization> completedSynchronizations = new ArrayList<>(synchronizations);
+		transactionKey = null;
+		rollbackOnly = false;
+		resources.clear();
+		synchronizations.clear();
+
+		completing = true;
+		try {
+			for (Synchronization synchronization : completedSynchronizations) {
+				synchronization.afterCompletion(status);
+			}
+		} finally {
+			completing = false;
+		}
+	}
+}
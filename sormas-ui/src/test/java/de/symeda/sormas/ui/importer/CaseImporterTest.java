@@ -1,6 +1,7 @@
 package de.symeda.sormas.ui.importer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
@@ -9,6 +10,12 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -22,6 +29,7 @@ import com.vaadin.ui.UI;
 import com.vaadin.util.CurrentInstance;
 
 import de.symeda.sormas.api.FacadeProvider;
+import de.symeda.sormas.api.PushResult;
 import de.symeda.sormas.api.caze.CaseDataDto;
 import de.symeda.sormas.api.importexport.InvalidColumnException;
 import de.symeda.sormas.api.person.PersonIndexDto;
@@ -65,6 +73,8 @@ public class CaseImporterTest extends AbstractBeanTest {
 		// Successful import of 5 cases
 		File csvFile = new File(getClass().getClassLoader().getResource("sormas_import_test_success.csv").getFile());
 		CaseImporter caseImporter = new CaseImporter(new FileReader(csvFile.getPath()), createPseudoOutputStream(), user);
+		// the beans of the test can only be used by the test thread
+		caseImporter.setSaveExecutor(null);
 		ImportResultStatus importResult = caseImporter.importAllCases((input, resultCallback) -> {
 			
 		}, (result) -> {
@@ -77,6 +87,7 @@ public class CaseImporterTest extends AbstractBeanTest {
 		// Failed import of 5 cases because of errors
 		csvFile = new File(getClass().getClassLoader().getResource("sormas_import_test_errors.csv").getFile());
 		caseImporter = new CaseImporter(new FileReader(csvFile.getPath()), createPseudoOutputStream(), user);
+		caseImporter.setSaveExecutor(null);
 		importResult = caseImporter.importAllCases((input, resultCallback) -> {
 			
 		}, (result) -> {
@@ -91,6 +102,7 @@ public class CaseImporterTest extends AbstractBeanTest {
 
 		csvFile = new File(getClass().getClassLoader().getResource("sormas_import_test_failure.csv").getFile());
 		caseImporter = new CaseImporter(new FileReader(csvFile.getPath()), createPseudoOutputStream(), user);
+		caseImporter.setSaveExecutor(null);
 		try {
 			importResult = caseImporter.importAllCases((input, resultCallback) -> {
 				
@@ -107,6 +119,7 @@ public class CaseImporterTest extends AbstractBeanTest {
 		// Similarity: Merge person
 		csvFile = new File(getClass().getClassLoader().getResource("sormas_import_test_similarities.csv").getFile());
 		caseImporter = new CaseImporter(new FileReader(csvFile.getPath()), createPseudoOutputStream(), user);
+		caseImporter.setSaveExecutor(null);
 		importResult = caseImporter.importAllCases((input, resultCallback) -> {
 			PersonIndexDto matchingPerson = FacadeProvider.getPersonFacade().getIndexDto(
 					FacadeProvider.getPersonFacade().getPersonsAfter(null, user.getUuid()).get(0).getUuid());
@@ -121,6 +134,7 @@ public class CaseImporterTest extends AbstractBeanTest {
 		csvFile = new File(getClass().getClassLoader().getResource("sormas_import_test_similarities.csv").getFile());
 		// TODO PROBLEM!
 		caseImporter = new CaseImporter(new FileReader(csvFile.getPath()), createPseudoOutputStream(), user);
+		caseImporter.setSaveExecutor(null);
 		importResult = caseImporter.importAllCases((input, resultCallback) -> {
 			PersonIndexDto matchingPerson = FacadeProvider.getPersonFacade().getIndexDto(
 					FacadeProvider.getPersonFacade().getPersonsAfter(null, user.getUuid()).get(0).getUuid());
@@ -135,6 +149,7 @@ public class CaseImporterTest extends AbstractBeanTest {
 		// Similarity: Skip
 		csvFile = new File(getClass().getClassLoader().getResource("sormas_import_test_similarities.csv").getFile());
 		caseImporter = new CaseImporter(new FileReader(csvFile.getPath()), createPseudoOutputStream(), user);
+		caseImporter.setSaveExecutor(null);
 		importResult = caseImporter.importAllCases((input, resultCallback) -> {
 			resultCallback.accept(new ImportSimilarityResult(null, null, false, false, true, false));			
 		}, (result) -> {
@@ -146,6 +161,7 @@ public class CaseImporterTest extends AbstractBeanTest {
 		// Similarity: Cancel import
 		csvFile = new File(getClass().getClassLoader().getResource("sormas_import_test_similarities.csv").getFile());
 		caseImporter = new CaseImporter(new FileReader(csvFile.getPath()), createPseudoOutputStream(), user);
+		caseImporter.setSaveExecutor(null);
 		importResult = caseImporter.importAllCases((input, resultCallback) -> {
 			resultCallback.accept(new ImportSimilarityResult(null, null, false, false, false, true));			
 		}, (result) -> {
@@ -154,6 +170,61 @@ public class CaseImporterTest extends AbstractBeanTest {
 		});
 	}
 	
+	@Test
+	public void testImportAllCasesWithSaveExecutor() throws IOException, InvalidColumnException, InterruptedException {
+		UserReferenceDto user = UserProvider.getCurrent().getUserReference();
+
+		new TestDataCreator().createRDCF("Abia", "Umuahia North", "Urban Ward 2", "Anelechi Hospital");
+
+		File csvFile = new File(getClass().getClassLoader().getResource("sormas_import_test_success.csv").getFile());
+		ExecutorService saveExecutor = Executors.newFixedThreadPool(2);
+		try {
+			// Batch fails in the save executor: the cases are reported as errors and not saved
+			List<Thread> saveThreads = new CopyOnWriteArrayList<>();
+			CaseImporter caseImporter = new CaseImporter(new FileReader(csvFile.getPath()), createPseudoOutputStream(), user) {
+				@Override
+				List<PushResult> saveBatch(ImportBatch batch) {
+					saveThreads.add(Thread.currentThread());
+					throw new IllegalStateException("Saving failed");
+				}
+			};
+			caseImporter.setSaveExecutor(saveExecutor);
+			List<CaseImportResult> results = new ArrayList<>();
+			ImportResultStatus importResult = caseImporter.importAllCases((input, resultCallback) -> {
+
+			}, results::add);
+			assertEquals(ImportResultStatus.COMPLETED_WITH_ERRORS, importResult);
+			assertEquals(Collections.nCopies(5, CaseImportResult.ERROR), results);
+			assertEquals(1, saveThreads.size());
+			assertNotEquals(Thread.currentThread(), saveThreads.get(0));
+			assertEquals(0, FacadeProvider.getCaseFacade().getAllActiveCasesAfter(null, user.getUuid()).size());
+
+			// Cases of the batch that could not be saved are saved on their own by the importing thread;
+			// the beans of the test can only be used by the test thread, so the batch itself is not saved
+			saveThreads.clear();
+			caseImporter = new CaseImporter(new FileReader(csvFile.getPath()), createPseudoOutputStream(), user) {
+				@Override
+				List<PushResult> saveBatch(ImportBatch batch) {
+					saveThreads.add(Thread.currentThread());
+					return Collections.nCopies(batch.size(), PushResult.ERROR);
+				}
+			};
+			caseImporter.setSaveExecutor(saveExecutor);
+			results.clear();
+			importResult = caseImporter.importAllCases((input, resultCallback) -> {
+
+			}, results::add);
+			assertEquals(ImportResultStatus.COMPLETED, importResult);
+			assertEquals(Collections.nCopies(5, CaseImportResult.SUCCESS), results);
+			assertEquals(1, saveThreads.size());
+			assertNotEquals(Thread.currentThread(), saveThreads.get(0));
+			assertEquals(5, FacadeProvider.getCaseFacade().getAllActiveCasesAfter(null, user.getUuid()).size());
+			assertEquals(5, FacadeProvider.getPersonFacade().getPersonsAfter(null, user.getUuid()).size());
+		} finally {
+			saveExecutor.shutdownNow();
+		}
+	}
+
 	private OutputStreamWriter createPseudoOutputStream() {
 		return new OutputStreamWriter(new OutputStream() {
 			@Override
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.ui.importer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.symeda.sormas.api.person.PersonHelper;
+import de.symeda.sormas.api.person.PersonNameDto;
+
+public class PersonNameIndexTest {
+
+	@Test
+	public void testGetFirstSimilarMatchesFullComparison() {
+
+		Random random = new Random(42);
+		List<PersonNameDto> personNames = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			personNames.add(new PersonNameDto(randomName(random), randomName(random), "uuid" + i));
+		}
+		personNames.add(new PersonNameDto("Ed", null, "uuidEd"));
+		PersonNameIndex index = new PersonNameIndex(personNames);
+
+		for (int i = 0; i < 2000; i++) {
+			String firstName = randomName(random);
+			String lastName = i % 10 == 0 ? null : randomName(random) + (i % 7 == 0 ? "-" + randomName(random) : "");
+
+			PersonNameDto expected = null;
+			for (PersonNameDto personName : personNames) {
+				if (PersonHelper.areNamesSimilar(personName, firstName, lastName)) {
+					expected = personName;
+					break;
+				}
+			}
+			assertEquals(firstName + " " + lastName, expected, index.getFirstSimilar(firstName, lastName));
+		}
+	}
+
+	@Test
+	public void testRemove() {
+
+		PersonNameDto first = new PersonNameDto("Anna", "Schmidt", "uuid1");
+		PersonNameDto second = new PersonNameDto("Ana", "Schmitt", "uuid2");
+		List<PersonNameDto> personNames = new ArrayList<>();
+		personNames.add(first);
+		personNames.add(second);
+		PersonNameIndex index = new PersonNameIndex(personNames);
+		assertEquals(first, index.getFirstSimilar("Anna", "Schmidt"));
+
+		index.remove(first);
+		assertEquals(second, index.getFirstSimilar("Anna", "Schmidt"));
+
+		index.remove(second);
+		assertNull(index.getFirstSimilar("Anna", "Schmidt"));
+	}
+
+	/**
+	 * Short names from a small alphabet, so there are many similar ones
+	 */
+	private static String randomName(Random random) {
+		int length = 1 + random.nextInt(7);
+		StringBuilder name = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			name.append("abdeilmnorAEO".charAt(random.nextInt(13)));
+		}
+		return name.toString();
+	}
+}
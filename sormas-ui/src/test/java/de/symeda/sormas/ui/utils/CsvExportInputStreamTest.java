@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *******************************************************************************/
+package de.symeda.sormas.ui.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import de.symeda.sormas.api.utils.Order;
+
+public class CsvExportInputStreamTest {
+
+	@Test
+	public void testExportIsReadPageByPage() throws IOException {
+
+		AtomicInteger pageRequests = new AtomicInteger();
+		CsvExportInputStream<ExportRow> exportStream = new CsvExportInputStream<>(ExportRow.class, (first, max) -> {
+			pageRequests.incrementAndGet();
+			return createRows(first, Math.min(max, 5 - first));
+		}, propertyId -> propertyId, ';', 2, "Export failed", () -> {
+			throw new AssertionError("Export failed");
+		});
+
+		assertEquals("\"name\";\"number\"\n"
+				+ "\"Row 0\";\"0\"\n\"Row 1\";\"1\"\n\"Row 2\";\"2\"\n\"Row 3\";\"3\"\n\"Row 4\";\"4\"\n", readAll(exportStream));
+		assertEquals(3, pageRequests.get());
+	}
+
+	@Test
+	public void testFailureEndsExportWithErrorRow() throws IOException {
+
+		AtomicInteger failures = new AtomicInteger();
+		CsvExportInputStream<ExportRow> exportStream = new CsvExportInputStream<>(ExportRow.class, (first, max) -> {
+			if (first >= 2) {
+				throw new IllegalStateException("Database not available");
+			}
+			return createRows(first, max);
+		}, propertyId -> propertyId, ';', 2, "Export failed", failures::incrementAndGet);
+
+		assertEquals("\"name\";\"number\"\n"
+				+ "\"Row 0\";\"0\"\n\"Row 1\";\"1\"\n\"Export failed\"\n", readAll(exportStream));
+		assertEquals(1, failures.get());
+	}
+
+	private static List<ExportRow> createRows(int first, int count) {
+
+		List<ExportRow> rows = new ArrayList<>();
+		for (int i = first; i < first + count; i++) {
+			rows.add(new ExportRow("Row " + i, i));
+		}
+		return rows;
+	}
+
+	private static String readAll(InputStream inputStream) throws IOException {
+
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		byte[] buffer = new byte[7];
+		int count;
+		while ((count = inputStream.read(buffer)) >= 0) {
+			result.write(buffer, 0, count);
+		}
+		return new String(result.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	public static class ExportRow {
+
+		private final String name;
+		private final int number;
+
+		public ExportRow(String name, int number) {
+			this.name = name;
+			this.number = number;
+		}
+
+		@Order(0)
+		public String getName() {
+			return name;
+		}
+
+		@Order(1)
+		public int getNumber() {
+			return number;
+		}
+	}
+}